@@ -7,6 +7,7 @@ import com.insuretech.pms.ai.entity.R2dbcBriefingCache;
 import com.insuretech.pms.ai.repository.BriefingCacheRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
@@ -14,10 +15,17 @@ import reactor.core.publisher.Mono;
 import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
 import java.util.UUID;
 
 /**
  * Two-tier cache for AI briefings: Redis (hot) + PostgreSQL (cold-start fallback).
+ *
+ * Entries are aged by the briefing's {@code asOf}, not by when they were written,
+ * so an LLM-enriched copy stored later does not look fresher than its data. An
+ * entry is fresh for {@code fresh-ttl-seconds} and is still returned for
+ * {@code max-stale-seconds} after that, flagged stale, so the caller can serve it
+ * while it regenerates. Redis keeps entries for the whole stale window.
  */
 @Service
 @RequiredArgsConstructor
@@ -28,25 +36,45 @@ public class AiBriefingCacheService {
     private final BriefingCacheRepository dbCacheRepository;
     private final ObjectMapper objectMapper;
 
-    private static final Duration CACHE_TTL = Duration.ofMinutes(5);
     private static final String KEY_PREFIX = "ai:briefing:";
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+
+    @Value("${pms.ai.briefing.fresh-ttl-seconds:300}")
+    private long freshTtlSeconds;
+
+    @Value("${pms.ai.briefing.max-stale-seconds:1800}")
+    private long maxStaleSeconds;
+
+    @Value("${pms.ai.briefing.refresh-ahead-seconds:60}")
+    private long refreshAheadSeconds;
 
     private String cacheKey(String projectId, String role, String scope) {
         return KEY_PREFIX + projectId + ":" + role + ":" + scope;
     }
 
     /**
-     * Get from Redis first, then fall back to DB.
+     * Get a fresh briefing from Redis first, then fall back to DB.
      */
     public Mono<AiBriefingResponseDto> get(String projectId, String role, String scope) {
+        return lookup(projectId, role, scope)
+                .filter(CachedBriefing::fresh)
+                .map(CachedBriefing::briefing);
+    }
+
+    /**
+     * Get a fresh or stale briefing from Redis first, then fall back to DB.
+     * Empty when neither tier has one younger than the stale window.
+     */
+    public Mono<CachedBriefing> lookup(String projectId, String role, String scope) {
         String key = cacheKey(projectId, role, scope);
         return redisTemplate.opsForValue().get(key)
                 .cast(String.class)
-                .flatMap(json -> deserialize(json))
-                .doOnSuccess(dto -> {
-                    if (dto != null) log.debug("Redis cache hit: {}", key);
+                .flatMap(this::deserialize)
+                .flatMap(dto -> Mono.justOrEmpty(toEntry(dto, null)))
+                .doOnSuccess(entry -> {
+                    if (entry != null) log.debug("Redis cache hit: {} (fresh={})", key, entry.fresh());
                 })
-                .switchIfEmpty(getFromDb(projectId, role, scope))
+                .switchIfEmpty(Mono.defer(() -> getFromDb(projectId, role, scope)))
                 .onErrorResume(e -> {
                     log.warn("Cache read error: {}", e.getMessage());
                     return getFromDb(projectId, role, scope);
@@ -67,7 +95,7 @@ public class AiBriefingCacheService {
         }
 
         Mono<Void> redisStore = redisTemplate.opsForValue()
-                .set(key, json, CACHE_TTL)
+                .set(key, json, Duration.ofSeconds(freshTtlSeconds + maxStaleSeconds))
                 .doOnSuccess(ok -> log.debug("Stored in Redis: {}", key))
                 .onErrorResume(e -> {
                     log.warn("Redis store failed: {}", e.getMessage());
@@ -94,34 +122,50 @@ public class AiBriefingCacheService {
                 });
     }
 
-    private Mono<AiBriefingResponseDto> getFromDb(String projectId, String role, String scope) {
+    private Mono<CachedBriefing> getFromDb(String projectId, String role, String scope) {
         return dbCacheRepository.findByProjectIdAndRoleAndScope(projectId, role, scope)
-                .filter(cache -> {
-                    // Only use DB cache if < 5 minutes old
-                    OffsetDateTime fiveMinAgo = OffsetDateTime.now(ZoneId.of("Asia/Seoul")).minusMinutes(5);
-                    return cache.getCreatedAt() != null && cache.getCreatedAt().isAfter(fiveMinAgo);
-                })
-                .flatMap(cache -> deserialize(cache.getResponseJson()))
-                .doOnSuccess(dto -> {
-                    if (dto != null) log.debug("DB cache hit for {}/{}/{}", projectId, role, scope);
+                .flatMap(cache -> deserialize(cache.getResponseJson())
+                        .flatMap(dto -> Mono.justOrEmpty(toEntry(dto, cache.getAsOf()))))
+                .doOnSuccess(entry -> {
+                    if (entry != null) log.debug("DB cache hit for {}/{}/{} (fresh={})", projectId, role, scope, entry.fresh());
                 });
     }
 
+    /**
+     * Wraps a cached briefing with its age, or null when it is past the stale window.
+     */
+    private CachedBriefing toEntry(AiBriefingResponseDto dto, OffsetDateTime fallbackAsOf) {
+        OffsetDateTime asOf = parseAsOf(dto);
+        if (asOf == null) {
+            asOf = fallbackAsOf;
+        }
+        if (asOf == null) {
+            return null;
+        }
+        long ageSeconds = Duration.between(asOf, OffsetDateTime.now(KST)).getSeconds();
+        if (ageSeconds >= freshTtlSeconds + maxStaleSeconds) {
+            return null;
+        }
+        return new CachedBriefing(dto, ageSeconds < freshTtlSeconds,
+                ageSeconds >= freshTtlSeconds - refreshAheadSeconds);
+    }
+
     private Mono<Void> storeToDb(String projectId, String role, String scope,
                                   String json, AiBriefingResponseDto dto) {
         return dbCacheRepository.deleteByProjectIdAndRoleAndScope(projectId, role, scope)
                 .then(Mono.defer(() -> {
+                    OffsetDateTime asOf = parseAsOf(dto);
                     R2dbcBriefingCache entity = R2dbcBriefingCache.builder()
                             .id(UUID.randomUUID().toString())
                             .projectId(projectId)
                             .role(role)
                             .scope(scope)
-                            .asOf(OffsetDateTime.now(ZoneId.of("Asia/Seoul")))
+                            .asOf(asOf != null ? asOf : OffsetDateTime.now(KST))
                             .completeness(dto.context() != null ? dto.context().completeness() : "UNKNOWN")
                             .generationMethod(dto.explainability() != null
                                     ? dto.explainability().generationMethod() : "RULE_BASED")
                             .responseJson(json)
-                            .createdAt(OffsetDateTime.now(ZoneId.of("Asia/Seoul")))
+                            .createdAt(OffsetDateTime.now(KST))
                             .isNew(true)
                             .build();
                     return dbCacheRepository.save(entity);
@@ -133,6 +177,18 @@ public class AiBriefingCacheService {
                 });
     }
 
+    private OffsetDateTime parseAsOf(AiBriefingResponseDto dto) {
+        if (dto.context() == null || dto.context().asOf() == null) {
+            return null;
+        }
+        try {
+            return OffsetDateTime.parse(dto.context().asOf());
+        } catch (DateTimeParseException e) {
+            log.debug("Unparseable briefing asOf: {}", dto.context().asOf());
+            return null;
+        }
+    }
+
     private Mono<AiBriefingResponseDto> deserialize(String json) {
         if (json == null || json.isBlank()) return Mono.empty();
         try {
@@ -142,4 +198,11 @@ public class AiBriefingCacheService {
             return Mono.empty();
         }
     }
+
+    /**
+     * A cached briefing; {@code refreshDue} is set once it is within the
+     * refresh-ahead window of going stale (and stays set while stale).
+     */
+    public record CachedBriefing(AiBriefingResponseDto briefing, boolean fresh, boolean refreshDue) {
+    }
 }
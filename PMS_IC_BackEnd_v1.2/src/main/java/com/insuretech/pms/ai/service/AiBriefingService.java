@@ -1,23 +1,42 @@
 package com.insuretech.pms.ai.service;
 
 import com.insuretech.pms.ai.dto.*;
+import com.insuretech.pms.ai.service.AiBriefingCacheService.CachedBriefing;
+import com.insuretech.pms.common.exception.CustomException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
-import java.time.OffsetDateTime;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 /**
  * Main orchestration service for AI briefings.
- * Flow: cache check → aggregate → rules → assemble → cache → (background) LLM enrichment.
+ * Flow: cache check → metrics snapshot → role filter → assemble → cache → (background) LLM enrichment.
+ *
+ * Aggregation and rule evaluation happen once per (project, scope) in
+ * {@link AiMetricsSnapshotStore}; each role's briefing only filters and
+ * assembles the shared insights.
+ *
+ * Generation is single-flight per (project, role, scope): concurrent misses share
+ * one aggregation. A stale cache entry is served as-is while it is regenerated in
+ * the background, and a fresh one close to expiry is refreshed ahead of time, so
+ * viewers only wait on a cold key. LLM enrichment runs at most once per key at a
+ * time; a briefing generated meanwhile is enriched next, and an enrichment whose
+ * briefing was superseded is dropped instead of overwriting the newer one.
+ *
+ * Coalescing is per instance; replicas each generate at most once per key.
  */
 @Service
 @RequiredArgsConstructor
@@ -25,37 +44,180 @@ import java.util.stream.Collectors;
 public class AiBriefingService {
 
     private final AiBriefingCacheService cacheService;
-    private final AiDataAggregationService aggregationService;
+    private final AiMetricsSnapshotStore snapshotStore;
     private final AiRuleEngine ruleEngine;
     private final AiActionMapper actionMapper;
     private final AiLlmClient llmClient;
+    private final MeterRegistry meterRegistry;
 
-    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+    private final Map<String, Generation> inFlight = new ConcurrentHashMap<>();
+    private final Set<String> enriching = ConcurrentHashMap.newKeySet();
+    private final Map<String, AiBriefingResponseDto> pendingEnrichment = new ConcurrentHashMap<>();
 
     /**
-     * Get briefing: cache → DB fallback → generate fresh.
+     * Get briefing: cache (fresh or stale) → DB fallback → generate fresh.
      */
     public Mono<AiBriefingResponseDto> getBriefing(String projectId, String role, String scope) {
-        return cacheService.get(projectId, role, scope)
-                .switchIfEmpty(generateFreshBriefing(projectId, role, scope));
+        if (!AiDataAggregationService.isSupportedScope(scope)) {
+            return Mono.error(unsupportedScope(scope));
+        }
+        return cacheService.lookup(projectId, role, scope)
+                .map(entry -> serveCached(projectId, role, scope, entry))
+                .switchIfEmpty(Mono.defer(() -> {
+                    record("miss");
+                    return generateShared(projectId, role, scope);
+                }));
     }
 
     /**
-     * Force refresh: invalidate cache and regenerate.
+     * Force refresh: invalidate cache and regenerate from current data. A generation
+     * that has already started reading may predate the refresh, so a new one is
+     * chained after it; one that is queued but not yet reading is joined.
      */
     public Mono<AiBriefingResponseDto> refreshBriefing(String projectId, String role, String scope) {
+        if (!AiDataAggregationService.isSupportedScope(scope)) {
+            return Mono.error(unsupportedScope(scope));
+        }
         return cacheService.invalidate(projectId, role, scope)
-                .then(generateFreshBriefing(projectId, role, scope));
+                .then(Mono.defer(() -> {
+                    snapshotStore.invalidate(projectId, scope);
+                    return generate(projectId, role, scope, true);
+                }));
+    }
+
+    /**
+     * Regenerate the briefings of several roles from one fresh metrics snapshot.
+     * Emits the number of briefings generated.
+     */
+    public Mono<Long> warmBriefings(String projectId, List<String> roles, String scope) {
+        return Mono.defer(() -> {
+            snapshotStore.invalidate(projectId, scope);
+            return Flux.fromIterable(roles)
+                    .flatMap(role -> generateShared(projectId, role, scope))
+                    .count();
+        });
+    }
+
+    private AiBriefingResponseDto serveCached(String projectId, String role, String scope, CachedBriefing entry) {
+        record(entry.fresh() ? "hit" : "stale");
+        if (entry.refreshDue() && !inFlight.containsKey(key(projectId, role, scope))) {
+            generateShared(projectId, role, scope)
+                    .subscribe(
+                            v -> log.debug("Background briefing refresh done for project={} role={}", projectId, role),
+                            e -> log.warn("Background briefing refresh failed: {}", e.getMessage())
+                    );
+        }
+        return entry.briefing();
+    }
+
+    private Mono<AiBriefingResponseDto> generateShared(String projectId, String role, String scope) {
+        return generate(projectId, role, scope, false);
+    }
+
+    /**
+     * Join the generation in flight for the key, or start one. With {@code afterRunning},
+     * a generation that has started reading is not joined: a new one runs after it.
+     */
+    private Mono<AiBriefingResponseDto> generate(String projectId, String role, String scope, boolean afterRunning) {
+        String key = key(projectId, role, scope);
+        boolean[] created = {false};
+        Generation generation = inFlight.compute(key, (k, running) -> {
+            if (running != null && !(afterRunning && running.started().get())) {
+                return running;
+            }
+            created[0] = true;
+            return newGeneration(key, projectId, role, scope, running);
+        });
+        if (!created[0]) {
+            record("coalesced");
+        }
+        return generation.result();
+    }
+
+    /**
+     * cache() replays the result to every joiner. The entry is dropped on termination,
+     * but only if a chained generation has not replaced it.
+     */
+    private Generation newGeneration(String key, String projectId, String role, String scope, Generation previous) {
+        AtomicBoolean started = new AtomicBoolean();
+        AtomicReference<Generation> self = new AtomicReference<>();
+        Mono<Void> after = previous == null ? Mono.empty() : previous.result().onErrorResume(e -> Mono.empty()).then();
+        Mono<AiBriefingResponseDto> result = after
+                .then(Mono.defer(() -> {
+                    started.set(true);
+                    return generateFreshBriefing(projectId, role, scope);
+                }))
+                .doFinally(signal -> inFlight.remove(key, self.get()))
+                .cache();
+        Generation generation = new Generation(result, started);
+        self.set(generation);
+        return generation;
+    }
+
+    private void enrichInBackground(String projectId, String role, String scope, AiBriefingResponseDto briefing) {
+        String key = key(projectId, role, scope);
+        pendingEnrichment.put(key, briefing);
+        if (enriching.add(key)) {
+            drainEnrichment(key, projectId, role, scope);
+        } else {
+            meterRegistry.counter("pms.ai.briefing.enrichment", "result", "deferred").increment();
+        }
+    }
+
+    private void drainEnrichment(String key, String projectId, String role, String scope) {
+        AiBriefingResponseDto next = pendingEnrichment.remove(key);
+        if (next == null) {
+            enriching.remove(key);
+            // A briefing queued between the remove above and releasing the key
+            if (pendingEnrichment.containsKey(key) && enriching.add(key)) {
+                drainEnrichment(key, projectId, role, scope);
+            }
+            return;
+        }
+        llmClient.enrichBriefing(projectId, role, scope, next)
+                .flatMap(enriched -> {
+                    if (pendingEnrichment.containsKey(key)) {
+                        meterRegistry.counter("pms.ai.briefing.enrichment", "result", "superseded").increment();
+                        return Mono.empty();
+                    }
+                    meterRegistry.counter("pms.ai.briefing.enrichment", "result", "stored").increment();
+                    return cacheService.store(projectId, role, scope, enriched);
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .doFinally(signal -> drainEnrichment(key, projectId, role, scope))
+                .subscribe(
+                        v -> { },
+                        e -> log.warn("Background LLM enrichment failed: {}", e.getMessage()),
+                        () -> log.info("LLM enrichment finished for project={}", projectId)
+                );
+    }
+
+    private static CustomException unsupportedScope(String scope) {
+        return CustomException.badRequest("Unsupported briefing scope: " + scope);
+    }
+
+    private record Generation(Mono<AiBriefingResponseDto> result, AtomicBoolean started) {
+    }
+
+    private static String key(String projectId, String role, String scope) {
+        return projectId + ":" + role + ":" + scope;
+    }
+
+    private void record(String result) {
+        Counter.builder("pms.ai.briefing.cache")
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
     }
 
     private Mono<AiBriefingResponseDto> generateFreshBriefing(String projectId, String role, String scope) {
-        String asOf = OffsetDateTime.now(KST).format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
-        String briefingId = UUID.randomUUID().toString();
+        return snapshotStore.get(projectId, scope)
+                .map(snapshot -> {
+                    RawProjectMetrics metrics = snapshot.metrics();
+                    String asOf = snapshot.asOf();
 
-        return aggregationService.aggregateMetrics(projectId, scope)
-                .map(metrics -> {
-                    // Rule engine: detect insights
-                    List<AiInsightDto> insights = ruleEngine.detectInsights(metrics, role, asOf);
+                    // Rule engine: insights visible to this role
+                    List<AiInsightDto> insights = ruleEngine.filterByRole(snapshot.insights(), role);
 
                     // Map insights to actions
                     List<AiRecommendedActionDto> actions = actionMapper.mapActions(insights);
@@ -64,7 +226,7 @@ public class AiBriefingService {
                     String healthStatus = ruleEngine.computeHealthStatus(insights);
 
                     // Check completeness
-                    List<String> missingSignals = aggregationService.checkCompleteness(metrics);
+                    List<String> missingSignals = snapshot.missingSignals();
                     String completeness = missingSignals.isEmpty() ? "FULL" : "PARTIAL";
 
                     // Build context
@@ -96,14 +258,10 @@ public class AiBriefingService {
                                 .thenReturn(briefing)
                 )
                 .doOnSuccess(briefing -> {
-                    // Fire-and-forget: LLM enrichment in background
-                    llmClient.enrichBriefing(projectId, role, scope, briefing)
-                            .flatMap(enriched -> cacheService.store(projectId, role, scope, enriched))
-                            .subscribeOn(Schedulers.boundedElastic())
-                            .subscribe(
-                                    v -> log.info("LLM enrichment stored for project={}", projectId),
-                                    e -> log.warn("Background LLM enrichment failed: {}", e.getMessage())
-                            );
+                    // Fire-and-forget: LLM enrichment in background, one per key at a time
+                    if (briefing != null) {
+                        enrichInBackground(projectId, role, scope, briefing);
+                    }
                 });
     }
 
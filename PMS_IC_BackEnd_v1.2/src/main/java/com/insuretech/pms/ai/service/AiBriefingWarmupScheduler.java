@@ -0,0 +1,94 @@
+package com.insuretech.pms.ai.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Precomputes AI briefings for active projects before office hours, so the first
+ * dashboard views of the day are served from cache.
+ *
+ * Each project is aggregated once and the briefing of every configured role is
+ * derived from that snapshot. Projects are warmed a few at a time to bound the
+ * load on the connection pool.
+ *
+ * A run holds an advisory lock inside a transaction, so only one replica warms.
+ * The warm-up itself is subscribed outside that transaction: its queries use
+ * their own connections, and a failing project does not abort the others.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AiBriefingWarmupScheduler {
+
+    private static final String LOCK_KEY = "ai_briefing_warmup";
+
+    private final AiBriefingService briefingService;
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+
+    @Value("${pms.ai.briefing.warmup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${pms.ai.briefing.warmup.roles:PM,PMO_HEAD,DEVELOPER,QA}")
+    private List<String> roles;
+
+    @Value("${pms.ai.briefing.warmup.scope:current_sprint}")
+    private String scope;
+
+    @Value("${pms.ai.briefing.warmup.concurrency:4}")
+    private int concurrency;
+
+    @Scheduled(cron = "${pms.ai.briefing.warmup.cron:0 40 8 * * MON-FRI}", zone = "Asia/Seoul")
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+        log.info("[Scheduler] AI briefing warm-up started");
+        long start = System.currentTimeMillis();
+
+        warmUpIfLeader().subscribe(
+                count -> log.info("[Scheduler] AI briefing warm-up completed: {} briefings in {}ms",
+                        count, System.currentTimeMillis() - start),
+                e -> log.error("[Scheduler] AI briefing warm-up failed", e)
+        );
+    }
+
+    /**
+     * Warm every active project. Empty when another instance holds the lock.
+     */
+    public Mono<Long> warmUpIfLeader() {
+        return databaseClient.sql("SELECT pg_try_advisory_xact_lock(hashtext(:key)) AS locked")
+                .bind("key", LOCK_KEY)
+                .map((row, meta) -> Boolean.TRUE.equals(row.get("locked", Boolean.class)))
+                .one()
+                .flatMap(locked -> {
+                    if (!locked) {
+                        log.info("[Scheduler] AI briefing warm-up skipped: lock held elsewhere");
+                        return Mono.empty();
+                    }
+                    // toFuture() subscribes without the transaction context
+                    return Mono.fromFuture(() -> warmActiveProjects().toFuture());
+                })
+                .as(transactionalOperator::transactional);
+    }
+
+    private Mono<Long> warmActiveProjects() {
+        return databaseClient.sql("SELECT id FROM project.projects WHERE status = 'IN_PROGRESS'")
+                .map(row -> row.get("id", String.class))
+                .all()
+                .flatMap(projectId -> briefingService.warmBriefings(projectId, roles, scope)
+                        .onErrorResume(e -> {
+                            log.warn("AI briefing warm-up failed for project={}: {}", projectId, e.getMessage());
+                            return Mono.just(0L);
+                        }), Math.max(1, concurrency))
+                .reduce(0L, Long::sum);
+    }
+}
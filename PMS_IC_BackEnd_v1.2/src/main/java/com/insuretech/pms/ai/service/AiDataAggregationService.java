@@ -14,6 +14,7 @@ import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Aggregates raw project metrics from PostgreSQL using parallel queries.
@@ -28,6 +29,17 @@ public class AiDataAggregationService {
 
     private static final ZoneId KST = ZoneId.of("Asia/Seoul");
 
+    // Supported briefing scopes and the recent-activity window of each
+    private static final Map<String, Integer> SCOPE_DAYS = Map.of(
+            "current_sprint", 7,
+            "last_7_days", 7,
+            "last_14_days", 14,
+            "current_phase", 30);
+
+    public static boolean isSupportedScope(String scope) {
+        return scope != null && SCOPE_DAYS.containsKey(scope);
+    }
+
     public Mono<RawProjectMetrics> aggregateMetrics(String projectId, String scope) {
         return Mono.zip(
                 queryOverdueTasks(projectId),
@@ -196,12 +208,7 @@ public class AiDataAggregationService {
     }
 
     private Mono<RecentActivity> queryRecentActivity(String projectId, String scope) {
-        int days = switch (scope) {
-            case "last_7_days" -> 7;
-            case "last_14_days" -> 14;
-            case "current_phase" -> 30;
-            default -> 7; // current_sprint default
-        };
+        int days = SCOPE_DAYS.getOrDefault(scope, 7);
         return databaseClient
                 .sql("""
                     SELECT COUNT(*) AS total,
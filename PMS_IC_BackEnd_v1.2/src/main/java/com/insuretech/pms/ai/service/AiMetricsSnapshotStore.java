@@ -0,0 +1,135 @@
+package com.insuretech.pms.ai.service;
+
+import com.insuretech.pms.ai.dto.AiInsightDto;
+import com.insuretech.pms.ai.dto.RawProjectMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Per (project, scope) snapshot of aggregated metrics and detected insights.
+ *
+ * Aggregation and rule evaluation do not depend on the viewer's role, so every
+ * role's briefing is derived from one snapshot and only the role filter differs.
+ * A snapshot is reused for {@code snapshot-ttl-seconds}; concurrent readers of a
+ * missing or expired snapshot share one aggregation. Expired snapshots are
+ * swept once per TTL so projects nobody reads any more do not stay in memory.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AiMetricsSnapshotStore {
+
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+
+    private final AiDataAggregationService aggregationService;
+    private final AiRuleEngine ruleEngine;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${pms.ai.briefing.snapshot-ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private final Map<String, Entry> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * The current snapshot for a project and scope, aggregating it when it is
+     * missing or older than the TTL.
+     */
+    public Mono<MetricsSnapshot> get(String projectId, String scope) {
+        return Mono.defer(() -> {
+            String key = projectId + ":" + scope;
+            boolean[] created = {false};
+            Entry entry = snapshots.compute(key, (k, existing) -> {
+                if (existing != null && !existing.isExpired(ttlSeconds)) {
+                    return existing;
+                }
+                created[0] = true;
+                return newEntry(k, projectId, scope);
+            });
+            record(created[0] ? "computed" : "hit");
+            return entry.value();
+        });
+    }
+
+    /**
+     * Drop a snapshot so the next read aggregates again.
+     */
+    public void invalidate(String projectId, String scope) {
+        snapshots.remove(projectId + ":" + scope);
+    }
+
+    /**
+     * Drop expired snapshots; a read after the sweep aggregates again as it would anyway.
+     */
+    @Scheduled(fixedDelayString = "${pms.ai.briefing.snapshot-ttl-seconds:60}", timeUnit = TimeUnit.SECONDS)
+    public void sweepExpired() {
+        int before = snapshots.size();
+        snapshots.values().removeIf(entry -> entry.isExpired(ttlSeconds));
+        int swept = before - snapshots.size();
+        if (swept > 0) {
+            log.debug("Swept {} expired AI metrics snapshot(s)", swept);
+        }
+    }
+
+    private Mono<MetricsSnapshot> compute(String projectId, String scope) {
+        return Mono.defer(() -> {
+            String asOf = OffsetDateTime.now(KST).format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+            return aggregationService.aggregateMetrics(projectId, scope)
+                    .map(metrics -> new MetricsSnapshot(
+                            metrics,
+                            asOf,
+                            List.copyOf(ruleEngine.detectAllInsights(metrics, asOf)),
+                            List.copyOf(aggregationService.checkCompleteness(metrics))))
+                    .doOnSuccess(s -> log.debug("AI metrics snapshot computed for project={} scope={}", projectId, scope));
+        });
+    }
+
+    /**
+     * A failed aggregation removes only its own entry, never a newer one that
+     * replaced it in the meantime.
+     */
+    private Entry newEntry(String key, String projectId, String scope) {
+        AtomicReference<Entry> self = new AtomicReference<>();
+        Mono<MetricsSnapshot> value = compute(projectId, scope)
+                .doOnError(e -> snapshots.remove(key, self.get()))
+                .cache(v -> Duration.ofSeconds(ttlSeconds), e -> Duration.ZERO, () -> Duration.ZERO);
+        Entry entry = new Entry(System.currentTimeMillis(), value);
+        self.set(entry);
+        return entry;
+    }
+
+    private void record(String result) {
+        Counter.builder("pms.ai.briefing.snapshot")
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Role-independent inputs of a briefing; {@code insights} is unfiltered.
+     */
+    public record MetricsSnapshot(RawProjectMetrics metrics, String asOf,
+                                  List<AiInsightDto> insights, List<String> missingSignals) {
+    }
+
+    private record Entry(long createdAt, Mono<MetricsSnapshot> value) {
+        boolean isExpired(long ttlSeconds) {
+            return System.currentTimeMillis() - createdAt > ttlSeconds * 1000;
+        }
+    }
+}
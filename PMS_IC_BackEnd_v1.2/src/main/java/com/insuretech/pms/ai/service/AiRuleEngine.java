@@ -20,9 +20,10 @@ import java.util.stream.Collectors;
 public class AiRuleEngine {
 
     /**
-     * Detects insights from raw metrics filtered by user role.
+     * Detects every insight in the metrics, before role filtering. The result is
+     * role-independent, so one evaluation can serve every role's briefing.
      */
-    public List<AiInsightDto> detectInsights(RawProjectMetrics metrics, String role, String asOf) {
+    public List<AiInsightDto> detectAllInsights(RawProjectMetrics metrics, String asOf) {
         List<AiInsightDto> insights = new ArrayList<>();
 
         // R-DELAY-01: Overdue tasks
@@ -49,7 +50,7 @@ public class AiRuleEngine {
         // R-POSITIVE-01: Ahead of schedule
         detectPositiveProgress(metrics, asOf, insights);
 
-        return filterByRole(insights, role);
+        return insights;
     }
 
     /**
@@ -317,7 +318,10 @@ public class AiRuleEngine {
 
     // ----- Role Filtering -----
 
-    private List<AiInsightDto> filterByRole(List<AiInsightDto> insights, String role) {
+    /**
+     * Insights visible to a role, in detection order.
+     */
+    public List<AiInsightDto> filterByRole(List<AiInsightDto> insights, String role) {
         if (role == null) return insights;
         return switch (role.toUpperCase()) {
             case "PM" -> insights; // PM sees everything
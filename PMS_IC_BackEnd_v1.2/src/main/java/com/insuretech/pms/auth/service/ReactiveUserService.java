@@ -4,6 +4,7 @@ import com.insuretech.pms.auth.dto.UserDto;
 import com.insuretech.pms.auth.reactive.entity.R2dbcUser;
 import com.insuretech.pms.auth.reactive.repository.ReactiveUserRepository;
 import com.insuretech.pms.common.exception.CustomException;
+import com.insuretech.pms.common.security.JwtPrincipalCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -22,6 +23,7 @@ public class ReactiveUserService {
     private final ReactiveUserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final TransactionalOperator transactionalOperator;
+    private final JwtPrincipalCache principalCache;
 
     public Flux<UserDto> getAllUsers() {
         return userRepository.findByActiveTrue()
@@ -75,7 +77,10 @@ public class ReactiveUserService {
                 })
                 .map(this::toDto)
                 .as(transactionalOperator::transactional)
-                .doOnSuccess(u -> log.info("Updated user: {}", u.getEmail()));
+                .doOnSuccess(u -> {
+                    principalCache.invalidate(u.getEmail());
+                    log.info("Updated user: {}", u.getEmail());
+                });
     }
 
     public Mono<Void> deleteUser(String id) {
@@ -85,6 +90,7 @@ public class ReactiveUserService {
                     user.setActive(false);
                     return userRepository.save(user);
                 })
+                .doOnNext(user -> principalCache.invalidate(user.getEmail()))
                 .then()
                 .doOnSuccess(v -> log.info("Deleted (deactivated) user: {}", id));
     }
@@ -93,6 +99,7 @@ public class ReactiveUserService {
         return userRepository.updateActiveStatus(id, active)
                 .then(userRepository.findById(id))
                 .switchIfEmpty(Mono.error(CustomException.notFound("User not found: " + id)))
+                .doOnNext(user -> principalCache.invalidate(user.getEmail()))
                 .map(this::toDto);
     }
 
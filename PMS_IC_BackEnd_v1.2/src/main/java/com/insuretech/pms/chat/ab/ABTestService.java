@@ -8,6 +8,7 @@ import com.insuretech.pms.chat.gateway.OpenAiSseTransformer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.http.MediaType;
 import org.springframework.http.codec.ServerSentEvent;
@@ -109,8 +110,8 @@ public class ABTestService {
                 .accept(MediaType.TEXT_EVENT_STREAM)
                 .bodyValue(workerRequest)
                 .retrieve()
-                .bodyToFlux(String.class)
-                .transform(transformer::transformOpenAiSse)
+                .bodyToFlux(DataBuffer.class)
+                .transform(transformer::transformOpenAiSseBuffers)
                 .doOnNext(event -> {
                     if (firstTokenTime.get() == null) {
                         firstTokenTime.set(Instant.now());
@@ -30,6 +30,16 @@ public class DoneEvent {
                 .build();
     }
 
+    /**
+     * Done event carrying the finish_reason reported by the worker; null if the
+     * stream ended without one.
+     */
+    public static DoneEvent of(String finishReason) {
+        return DoneEvent.builder()
+                .finishReason(finishReason)
+                .build();
+    }
+
     public static DoneEvent toolCalls() {
         return DoneEvent.builder()
                 .finishReason("tool_calls")
@@ -0,0 +1,128 @@
+package com.insuretech.pms.chat.gateway;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Exponentially weighted moving averages of what each engine actually delivers.
+ *
+ * <p>The gateway reports time to first token and, on stream completion, the output
+ * size and the time spent after the first token. {@link EngineRouter} reads the
+ * averages back to predict how long a new request would take on each engine.</p>
+ *
+ * <p>Output size is measured in SSE payload characters, because the transformer
+ * coalesces deltas and event counts no longer track tokens. Rates and expected
+ * output are both kept in these units, so the estimate of decode time is not
+ * skewed by the JSON envelope.</p>
+ */
+@Component
+public class EngineLoadTracker {
+
+    /** Rough payload characters per generated token, only for display. */
+    private static final double CHARS_PER_TOKEN = 4.0;
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, EngineLoad> loads = new ConcurrentHashMap<>();
+
+    @Value("${llm.routing.adaptive.ewma-alpha:0.2}")
+    private double alpha;
+
+    public EngineLoadTracker(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void recordTtft(String engine, long ttftMs) {
+        load(engine).recordTtft(ttftMs);
+    }
+
+    /**
+     * Record a completed stream.
+     *
+     * @param outputChars SSE payload characters sent to the client
+     * @param decodeMs    time between the first token and completion
+     */
+    public void recordCompletion(String engine, long outputChars, long decodeMs) {
+        load(engine).recordCompletion(outputChars, decodeMs);
+    }
+
+    public Snapshot snapshot(String engine) {
+        return load(engine).snapshot();
+    }
+
+    public Map<String, Object> getStatus(String engine) {
+        Snapshot s = snapshot(engine);
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("ttftSamples", s.ttftSamples());
+        status.put("completionSamples", s.completionSamples());
+        status.put("ewmaTtftMs", Math.round(s.ttftMs()));
+        status.put("ewmaTokensPerSecond", Math.round(s.charsPerSecond() / CHARS_PER_TOKEN * 10) / 10.0);
+        status.put("ewmaOutputTokens", Math.round(s.outputChars() / CHARS_PER_TOKEN));
+        return status;
+    }
+
+    private EngineLoad load(String engine) {
+        return loads.computeIfAbsent(engine, this::register);
+    }
+
+    private EngineLoad register(String engine) {
+        EngineLoad load = new EngineLoad();
+        Gauge.builder("llm.engine.ewma.ttft_ms", load, l -> l.snapshot().ttftMs())
+                .tag("engine", engine)
+                .register(meterRegistry);
+        Gauge.builder("llm.engine.ewma.tokens_per_second", load,
+                        l -> l.snapshot().charsPerSecond() / CHARS_PER_TOKEN)
+                .tag("engine", engine)
+                .register(meterRegistry);
+        return load;
+    }
+
+    /**
+     * Averages for one engine; {@code charsPerSecond} and {@code outputChars} are 0
+     * until the first completion.
+     */
+    public record Snapshot(long ttftSamples, long completionSamples,
+                           double ttftMs, double charsPerSecond, double outputChars) {
+    }
+
+    private final class EngineLoad {
+        private long ttftSamples;
+        private long completionSamples;
+        private double ttftMs;
+        private double charsPerSecond;
+        private double outputChars;
+
+        synchronized void recordTtft(long sampleMs) {
+            ttftMs = ttftSamples == 0 ? sampleMs : ewma(ttftMs, sampleMs);
+            ttftSamples++;
+        }
+
+        synchronized void recordCompletion(long chars, long decodeMs) {
+            if (chars <= 0) {
+                return;
+            }
+            double rate = chars * 1000.0 / Math.max(1, decodeMs);
+            if (completionSamples == 0) {
+                charsPerSecond = rate;
+                outputChars = chars;
+            } else {
+                charsPerSecond = ewma(charsPerSecond, rate);
+                outputChars = ewma(outputChars, chars);
+            }
+            completionSamples++;
+        }
+
+        synchronized Snapshot snapshot() {
+            return new Snapshot(ttftSamples, completionSamples, ttftMs, charsPerSecond, outputChars);
+        }
+
+        private double ewma(double current, double sample) {
+            return alpha * sample + (1 - alpha) * current;
+        }
+    }
+}
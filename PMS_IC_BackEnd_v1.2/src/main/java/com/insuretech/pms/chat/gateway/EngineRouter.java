@@ -3,14 +3,20 @@ package com.insuretech.pms.chat.gateway;
 import com.insuretech.pms.chat.gateway.dto.GatewayRequest;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Routes requests to appropriate LLM engine based on request characteristics.
@@ -19,6 +25,9 @@ import java.util.concurrent.ConcurrentHashMap;
  * <ul>
  *   <li>Explicit engine requests are honored if the engine is available</li>
  *   <li>Auto mode selects based on request complexity, tools, and context length</li>
+ *   <li>With {@code llm.routing.policy=adaptive}, auto mode picks the engine with the
+ *       lowest predicted completion time from live load; the rules remain the
+ *       fallback while there are no measurements yet</li>
  *   <li>Fallback routing when primary engine is unavailable</li>
  *   <li>Circuit breaker state is considered for availability</li>
  * </ul>
@@ -31,6 +40,9 @@ public class EngineRouter {
     private final VllmConfigService vllmConfigService;
     private final GgufConfigService ggufConfigService;
     private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final RateLimiter rateLimiter;
+    private final EngineLoadTracker loadTracker;
+    private final MeterRegistry meterRegistry;
 
     // Engine priority order for auto selection
     private static final List<String> ENGINE_PRIORITY = List.of("vllm", "gguf");
@@ -39,6 +51,9 @@ public class EngineRouter {
     private final Map<String, Long> recentFallbacks = new ConcurrentHashMap<>();
     private static final long FALLBACK_COOLDOWN_MS = 30_000; // 30 seconds
 
+    // Engine the adaptive policy picked last, for hysteresis
+    private final AtomicReference<String> lastAdaptiveEngine = new AtomicReference<>();
+
     @Value("${llm.workers.vllm.tool-calling:true}")
     private boolean vllmToolCalling;
 
@@ -57,15 +72,33 @@ public class EngineRouter {
     @Value("${llm.routing.fallback.enabled:true}")
     private boolean fallbackEnabled;
 
+    @Value("${llm.routing.policy:rules}")
+    private String routingPolicy;
+
+    // Switch away from the last adaptive choice only when another engine is predicted
+    // to be at least this much faster
+    @Value("${llm.routing.adaptive.switch-margin:0.15}")
+    private double switchMargin;
+
+    // Decode time assumed for an engine with no completed streams yet
+    @Value("${llm.routing.adaptive.prior-decode-ms:3000}")
+    private long priorDecodeMs;
+
     public EngineRouter(
             HealthChecker healthChecker,
             VllmConfigService vllmConfigService,
             GgufConfigService ggufConfigService,
-            CircuitBreakerRegistry circuitBreakerRegistry) {
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            RateLimiter rateLimiter,
+            EngineLoadTracker loadTracker,
+            MeterRegistry meterRegistry) {
         this.healthChecker = healthChecker;
         this.vllmConfigService = vllmConfigService;
         this.ggufConfigService = ggufConfigService;
         this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.rateLimiter = rateLimiter;
+        this.loadTracker = loadTracker;
+        this.meterRegistry = meterRegistry;
     }
 
     /**
@@ -100,9 +133,123 @@ public class EngineRouter {
     }
 
     /**
-     * Auto-select engine based on request characteristics and system state.
+     * Auto-select engine with the configured policy.
      */
     private String selectAutoEngine(GatewayRequest request) {
+        if ("adaptive".equals(routingPolicy)) {
+            String engine = selectAdaptiveEngine(request);
+            if (engine != null) {
+                return engine;
+            }
+        }
+        String engine = selectRuleBasedEngine(request);
+        recordDecision("rules", engine, "rules");
+        return engine;
+    }
+
+    /**
+     * Pick the eligible engine with the lowest predicted completion time.
+     *
+     * <p>Capability rules (tools/schema, long context) still narrow the candidates;
+     * load decides among what is left. Returns null while no candidate has been
+     * measured, so the caller falls back to the rules.</p>
+     */
+    private String selectAdaptiveEngine(GatewayRequest request) {
+        List<String> candidates = adaptiveCandidates(request);
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        if (candidates.size() == 1) {
+            String only = candidates.get(0);
+            lastAdaptiveEngine.set(only);
+            recordDecision("adaptive", only, "only_candidate");
+            return only;
+        }
+
+        Map<String, Double> predictions = new LinkedHashMap<>();
+        boolean measured = false;
+        for (String engine : candidates) {
+            predictions.put(engine, predictCompletionMs(engine));
+            measured |= loadTracker.snapshot(engine).completionSamples() > 0;
+        }
+        if (!measured) {
+            recordDecision("adaptive", "none", "cold_start");
+            return null;
+        }
+
+        String best = candidates.get(0);
+        for (String engine : candidates) {
+            if (predictions.get(engine) < predictions.get(best)) {
+                best = engine;
+            }
+        }
+
+        String reason = "lowest_predicted";
+        String previous = lastAdaptiveEngine.get();
+        if (previous != null && !previous.equals(best) && predictions.containsKey(previous)
+                && predictions.get(best) > predictions.get(previous) * (1 - switchMargin)) {
+            best = previous;
+            reason = "hysteresis";
+        }
+        lastAdaptiveEngine.set(best);
+
+        log.debug("Auto(adaptive): {} selected ({}), predicted={}", best, reason, predictions);
+        recordDecision("adaptive", best, reason);
+        DistributionSummary.builder("llm.routing.predicted_ms")
+                .tag("engine", best)
+                .register(meterRegistry)
+                .record(predictions.get(best));
+        return best;
+    }
+
+    private List<String> adaptiveCandidates(GatewayRequest request) {
+        List<String> candidates = new ArrayList<>();
+        for (String engine : ENGINE_PRIORITY) {
+            if (!isEngineFullyAvailable(engine)) {
+                continue;
+            }
+            if (request.hasTools() && !supportsToolCalling(engine)) {
+                continue;
+            }
+            if (request.hasResponseFormat() && !supportsJsonSchema(engine)) {
+                continue;
+            }
+            candidates.add(engine);
+        }
+
+        boolean vllmPreferred = (toolsPreferVllm && (request.hasTools() || request.hasResponseFormat()))
+                || request.estimateContextLength() > contextThreshold;
+        if (vllmPreferred && candidates.contains("vllm")) {
+            return List.of("vllm");
+        }
+        return candidates;
+    }
+
+    /**
+     * Predicted time until the response is complete: waiting for a slot, time to
+     * first token, and decode time, all from the engine's moving averages.
+     */
+    double predictCompletionMs(String engine) {
+        EngineLoadTracker.Snapshot load = loadTracker.snapshot(engine);
+
+        double ttftMs = load.ttftSamples() > 0 ? load.ttftMs() : healthChecker.getAverageLatencyMs(engine);
+        double decodeMs = load.completionSamples() > 0 && load.charsPerSecond() > 0
+                ? load.outputChars() / load.charsPerSecond() * 1000
+                : priorDecodeMs;
+        double serviceMs = ttftMs + decodeMs;
+
+        int inFlight = rateLimiter.getActiveRequests(engine);
+        int slots = Math.max(1, inFlight + rateLimiter.getAvailablePermits(engine));
+        int ahead = inFlight + rateLimiter.getQueuedRequests(engine) + 1 - slots;
+        double waitMs = ahead > 0 ? (double) ahead / slots * serviceMs : 0;
+
+        return waitMs + serviceMs;
+    }
+
+    /**
+     * Static rules based on request characteristics and time of day.
+     */
+    private String selectRuleBasedEngine(GatewayRequest request) {
         // Rule 1: Tools or JSON schema -> vLLM (better support)
         if (toolsPreferVllm && (request.hasTools() || request.hasResponseFormat())) {
             if (isEngineFullyAvailable("vllm")) {
@@ -268,6 +415,15 @@ public class EngineRouter {
         return "vllm";
     }
 
+    private void recordDecision(String policy, String engine, String reason) {
+        Counter.builder("llm.routing.decision")
+                .tag("policy", policy)
+                .tag("engine", engine)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
     private void recordFallback(String from, String to) {
         recentFallbacks.put(from, System.currentTimeMillis());
         log.info("Recorded fallback from {} to {} at {}", from, to, System.currentTimeMillis());
@@ -335,7 +491,8 @@ public class EngineRouter {
                 "supportsTools", supportsToolCalling(engine),
                 "supportsJsonSchema", supportsJsonSchema(engine),
                 "url", getWorkerUrl(engine),
-                "model", getModelName(engine)
+                "model", getModelName(engine),
+                "load", loadTracker.getStatus(engine)
         );
     }
 }
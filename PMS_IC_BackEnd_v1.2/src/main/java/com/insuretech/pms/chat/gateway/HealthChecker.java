@@ -317,6 +317,14 @@ public class HealthChecker {
         return health != null && health.getStatus() == HealthStatus.DEGRADED;
     }
 
+    /**
+     * Average health-probe latency for an engine, or 0 before the first successful probe.
+     */
+    public double getAverageLatencyMs(String engine) {
+        EngineHealth health = healthCache.get(engine);
+        return health != null ? health.getAverageLatencyMs() : 0;
+    }
+
     public Map<String, HealthStatus> getAllHealth() {
         Map<String, HealthStatus> result = new HashMap<>();
         healthCache.forEach((engine, health) -> result.put(engine, health.getStatus()));
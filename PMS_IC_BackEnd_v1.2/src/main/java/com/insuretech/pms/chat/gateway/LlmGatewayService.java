@@ -20,6 +20,7 @@ import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.MediaType;
 import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
@@ -38,12 +39,14 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * LLM Gateway Service - Routes requests to LLM workers with resilience patterns.
  *
  * <p>Features:</p>
  * <ul>
+ *   <li>Response cache for repeated questions over unchanged context</li>
  *   <li>Circuit breaker pattern for fast failure during outages</li>
  *   <li>Retry with exponential backoff for transient failures</li>
  *   <li>Automatic fallback to alternate engine when primary fails</li>
@@ -66,6 +69,8 @@ public class LlmGatewayService {
     private final CircuitBreakerRegistry circuitBreakerRegistry;
     private final RetryRegistry retryRegistry;
     private final ObjectMapper objectMapper;
+    private final LlmResponseCache responseCache;
+    private final EngineLoadTracker loadTracker;
 
     @Value("${llm.gateway.timeout.total:120}")
     private int totalTimeoutSeconds;
@@ -99,7 +104,9 @@ public class LlmGatewayService {
             RateLimiter rateLimiter,
             CircuitBreakerRegistry circuitBreakerRegistry,
             RetryRegistry retryRegistry,
-            ObjectMapper objectMapper) {
+            ObjectMapper objectMapper,
+            LlmResponseCache responseCache,
+            EngineLoadTracker loadTracker) {
         this.engineRouter = engineRouter;
         this.transformer = transformer;
         this.sseBuilder = sseBuilder;
@@ -111,6 +118,8 @@ public class LlmGatewayService {
         this.circuitBreakerRegistry = circuitBreakerRegistry;
         this.retryRegistry = retryRegistry;
         this.objectMapper = objectMapper;
+        this.responseCache = responseCache;
+        this.loadTracker = loadTracker;
     }
 
     public Flux<ServerSentEvent<String>> streamChat(GatewayRequest request) {
@@ -135,6 +144,14 @@ public class LlmGatewayService {
 
         try {
             String primaryEngine = engineRouter.selectEngine(request);
+
+            // Repeated questions over unchanged context are answered from the response cache
+            String cacheKey = responseCache.keyFor(request, primaryEngine, engineRouter.getModelName(primaryEngine));
+            if (cacheKey != null) {
+                return responseCache.lookup(cacheKey, request, primaryEngine, startTime)
+                        .orElseGet(() -> responseCache.recordInto(cacheKey, request, primaryEngine,
+                                executeWithResilience(request, userId, traceId, startTime, primaryEngine, true)));
+            }
             return executeWithResilience(request, userId, traceId, startTime, primaryEngine, true);
 
         } catch (EngineUnavailableException e) {
@@ -182,8 +199,8 @@ public class LlmGatewayService {
                     "Service temporarily unavailable, circuit breaker is open for " + engine, traceId));
         }
 
-        // Acquire rate limit permit before streaming
-        return rateLimiter.acquire(engine, userId)
+        // Acquire rate limit permit before streaming (queued without blocking when saturated)
+        return rateLimiter.acquire(engine, userId, request.getPriority())
                 .flatMapMany(permit -> {
                     try {
                         WorkerRequest workerRequest = buildWorkerRequest(request, modelName, engine);
@@ -243,6 +260,9 @@ public class LlmGatewayService {
 
         AtomicBoolean firstToken = new AtomicBoolean(false);
         AtomicInteger tokenCount = new AtomicInteger(0);
+        AtomicLong outputChars = new AtomicLong(0);
+        AtomicLong subscribeNanos = new AtomicLong(0);
+        AtomicLong firstTokenNanos = new AtomicLong(0);
 
         Flux<ServerSentEvent<String>> baseStream = webClient.post()
                 .uri(workerUrl + "/v1/chat/completions")
@@ -250,14 +270,23 @@ public class LlmGatewayService {
                 .accept(MediaType.TEXT_EVENT_STREAM)
                 .bodyValue(request)
                 .retrieve()
-                .bodyToFlux(String.class)
-                .doOnSubscribe(s -> log.debug("[{}] Connecting to worker: {}", traceId, workerUrl))
-                .transform(transformer::transformOpenAiSse)
+                .bodyToFlux(DataBuffer.class)
+                .doOnSubscribe(s -> {
+                    subscribeNanos.set(System.nanoTime());
+                    log.debug("[{}] Connecting to worker: {}", traceId, workerUrl);
+                })
+                .transform(transformer::transformOpenAiSseBuffers)
                 .doOnNext(event -> {
                     int count = tokenCount.incrementAndGet();
+                    if (event.data() != null) {
+                        outputChars.addAndGet(event.data().length());
+                    }
                     if (!firstToken.getAndSet(true)) {
+                        firstTokenNanos.set(System.nanoTime());
                         long ttft = Duration.between(startTime, Instant.now()).toMillis();
                         recordTTFT(engine, ttft);
+                        // Worker-side TTFT, without the rate limiter wait the router predicts separately
+                        loadTracker.recordTtft(engine, (firstTokenNanos.get() - subscribeNanos.get()) / 1_000_000);
                         healthChecker.markHealthy(engine);
                         log.debug("[{}] TTFT: engine={}, ttft={}ms", traceId, engine, ttft);
                     }
@@ -269,6 +298,10 @@ public class LlmGatewayService {
                     long totalTime = Duration.between(startTime, Instant.now()).toMillis();
                     recordTotalTime(engine, totalTime);
                     recordSuccess(engine);
+                    if (firstToken.get()) {
+                        loadTracker.recordCompletion(engine, outputChars.get(),
+                                (System.nanoTime() - firstTokenNanos.get()) / 1_000_000);
+                    }
                     log.info("[{}] Stream complete: engine={}, totalTime={}ms, tokens={}",
                             traceId, engine, totalTime, tokenCount.get());
                 })
@@ -0,0 +1,328 @@
+package com.insuretech.pms.chat.gateway;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insuretech.pms.chat.dto.ChatMessageDto;
+import com.insuretech.pms.chat.dto.sse.MetaEvent;
+import com.insuretech.pms.chat.dto.sse.SseEventBuilder;
+import com.insuretech.pms.chat.gateway.dto.GatewayRequest;
+import com.insuretech.pms.common.cache.ProjectCacheInvalidator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+/**
+ * Response cache in front of the LLM workers for repeated questions.
+ *
+ * The key combines engine, model, project, the normalized last user prompt and
+ * a hash of everything the model sees before it (system prompt, retrieved
+ * context, earlier turns) plus the generation parameters. Context built from
+ * changed project data therefore hashes differently and misses on its own;
+ * {@link #invalidateProject} additionally retires every answer of a project
+ * when its tasks change, and entries expire after a TTL.
+ *
+ * Only plain text answers that completed with finish_reason "stop" on the
+ * engine that was asked are stored; requests with tools or a response format
+ * are not cached. Hits are replayed as a paced delta stream so clients render
+ * them like a live answer.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LlmResponseCache implements ProjectCacheInvalidator {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern TRAILING_PUNCTUATION = Pattern.compile("[\\s?？!！.。~]+$");
+
+    private final SseEventBuilder sseBuilder;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${llm.gateway.response-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${llm.gateway.response-cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    @Value("${llm.gateway.response-cache.max-entries:2000}")
+    private int maxEntries;
+
+    @Value("${llm.gateway.response-cache.max-prompt-chars:2000}")
+    private int maxPromptChars;
+
+    @Value("${llm.gateway.response-cache.replay-chunk-chars:16}")
+    private int replayChunkChars;
+
+    @Value("${llm.gateway.response-cache.replay-interval-ms:15}")
+    private long replayIntervalMs;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> projectGenerations = new ConcurrentHashMap<>();
+
+    /**
+     * Cache key for a request, or null if the request must not be cached.
+     */
+    public String keyFor(GatewayRequest request, String engine, String model) {
+        if (!enabled || request.hasTools() || request.hasResponseFormat()
+                || request.getMessages() == null || request.getMessages().isEmpty()) {
+            return null;
+        }
+        List<ChatMessageDto> messages = request.getMessages();
+        ChatMessageDto last = messages.get(messages.size() - 1);
+        if (!"user".equals(last.getRole()) || last.getContent() == null
+                || last.getContent().length() > maxPromptChars) {
+            return null;
+        }
+        String prompt = normalize(last.getContent());
+        if (prompt.isEmpty()) {
+            return null;
+        }
+
+        MessageDigest digest = sha256();
+        update(digest, engine);
+        update(digest, model);
+        update(digest, projectIdOf(request));
+        update(digest, prompt);
+        update(digest, String.valueOf(request.getGeneration()));
+        for (int i = 0; i < contextEnd(messages); i++) {
+            ChatMessageDto message = messages.get(i);
+            update(digest, message.getRole());
+            update(digest, message.getContent());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Serve a cached answer as a paced stream, or empty on a miss.
+     */
+    public Optional<Flux<ServerSentEvent<String>>> lookup(String key, GatewayRequest request,
+                                                          String engine, Instant startTime) {
+        Entry entry = entries.get(key);
+        if (entry != null && !isValid(entry)) {
+            entries.remove(key, entry);
+            entry = null;
+        }
+        if (entry == null) {
+            record(engine, "miss");
+            return Optional.empty();
+        }
+        entry.lastAccess = System.currentTimeMillis();
+        record(engine, "hit");
+        log.info("[{}] Response cache hit: engine={}, chars={}", request.getTraceId(), engine, entry.text().length());
+        return Optional.of(replay(entry, request.getTraceId(), startTime));
+    }
+
+    /**
+     * Pass a worker stream through and store its answer once it completed cleanly.
+     */
+    public Flux<ServerSentEvent<String>> recordInto(String key, GatewayRequest request, String engine,
+                                                    Flux<ServerSentEvent<String>> stream) {
+        String projectId = projectIdOf(request);
+        return Flux.defer(() -> {
+            long generation = generationOf(projectId);
+            StringBuilder text = new StringBuilder();
+            AtomicInteger metaEvents = new AtomicInteger();
+            AtomicBoolean cacheable = new AtomicBoolean(true);
+            AtomicBoolean stopped = new AtomicBoolean(false);
+            AtomicReference<String> model = new AtomicReference<>();
+
+            return stream
+                    .doOnNext(event -> {
+                        if (!cacheable.get()) return;
+                        switch (String.valueOf(event.event())) {
+                            case "meta" -> {
+                                // A second meta event means the answer came from a fallback engine
+                                if (metaEvents.incrementAndGet() > 1) cacheable.set(false);
+                                model.set(field(event.data(), "model"));
+                            }
+                            case "delta" -> {
+                                JsonNode delta = parse(event.data());
+                                if (delta != null && "text".equalsIgnoreCase(delta.path("kind").asText())) {
+                                    text.append(delta.path("text").asText(""));
+                                } else {
+                                    cacheable.set(false);
+                                }
+                            }
+                            case "done" -> stopped.set("stop".equals(field(event.data(), "finish_reason")));
+                            default -> cacheable.set(false);
+                        }
+                    })
+                    .doOnComplete(() -> {
+                        if (cacheable.get() && stopped.get() && !text.isEmpty()) {
+                            store(key, new Entry(text.toString(), engine, model.get(), projectId, generation,
+                                    System.currentTimeMillis()));
+                        }
+                    });
+        });
+    }
+
+    /**
+     * Retire every cached answer of a project (e.g. its tasks changed).
+     */
+    @Override
+    public void invalidateProject(String projectId) {
+        if (projectId != null) {
+            projectGenerations.computeIfAbsent(projectId, id -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    private Flux<ServerSentEvent<String>> replay(Entry entry, String traceId, Instant startTime) {
+        ServerSentEvent<String> meta = sseBuilder.meta(MetaEvent.builder()
+                .traceId(traceId)
+                .engine(entry.engine())
+                .model(entry.model())
+                .mode("cache")
+                .timestamp(startTime)
+                .build());
+
+        List<String> chunks = new ArrayList<>();
+        String text = entry.text();
+        int step = Math.max(1, replayChunkChars);
+        for (int i = 0; i < text.length(); ) {
+            int end = Math.min(text.length(), i + step);
+            // Do not split surrogate pairs
+            if (end < text.length() && Character.isHighSurrogate(text.charAt(end - 1))) end++;
+            chunks.add(text.substring(i, end));
+            i = end;
+        }
+
+        Flux<ServerSentEvent<String>> deltas = Flux.fromIterable(chunks).map(sseBuilder::deltaText);
+        if (replayIntervalMs > 0) {
+            deltas = deltas.delayElements(Duration.ofMillis(replayIntervalMs));
+        }
+        return Flux.concat(Flux.just(meta), deltas, Flux.defer(() -> Flux.just(sseBuilder.doneStop())));
+    }
+
+    private void store(String key, Entry entry) {
+        if (!entries.containsKey(key) && entries.size() >= maxEntries) {
+            evictOldest();
+        }
+        entries.put(key, entry);
+    }
+
+    private boolean isValid(Entry entry) {
+        return System.currentTimeMillis() - entry.storedAt() <= ttlSeconds * 1000
+                && entry.generation() == generationOf(entry.projectId());
+    }
+
+    private long generationOf(String projectId) {
+        if (projectId == null) return 0L;
+        AtomicLong generation = projectGenerations.get(projectId);
+        return generation != null ? generation.get() : 0L;
+    }
+
+    private void evictOldest() {
+        entries.entrySet().removeIf(e -> !isValid(e.getValue()));
+        if (entries.size() < maxEntries) return;
+        entries.entrySet().stream()
+                .min(Comparator.comparingLong(e -> e.getValue().lastAccess))
+                .ifPresent(oldest -> entries.remove(oldest.getKey()));
+    }
+
+    /**
+     * Messages that form the context: everything before the trailing run of
+     * copies of the current prompt (history may already contain it).
+     */
+    private static int contextEnd(List<ChatMessageDto> messages) {
+        ChatMessageDto last = messages.get(messages.size() - 1);
+        int end = messages.size() - 1;
+        while (end > 0 && "user".equals(messages.get(end - 1).getRole())
+                && Objects.equals(messages.get(end - 1).getContent(), last.getContent())) {
+            end--;
+        }
+        return end;
+    }
+
+    static String normalize(String prompt) {
+        String normalized = Normalizer.normalize(prompt, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        normalized = WHITESPACE.matcher(normalized.trim()).replaceAll(" ");
+        return TRAILING_PUNCTUATION.matcher(normalized).replaceAll("");
+    }
+
+    private static String projectIdOf(GatewayRequest request) {
+        return request.getSafety() != null ? request.getSafety().getProjectId() : null;
+    }
+
+    private JsonNode parse(String json) {
+        if (json == null) return null;
+        try {
+            return objectMapper.readTree(json);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private String field(String json, String name) {
+        JsonNode node = parse(json);
+        return node != null && node.hasNonNull(name) ? node.get(name).asText() : null;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        if (value != null) {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte) 0);
+    }
+
+    private void record(String engine, String result) {
+        Counter.builder("llm.response_cache")
+                .tag("engine", engine)
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private static final class Entry {
+        private final String text;
+        private final String engine;
+        private final String model;
+        private final String projectId;
+        private final long generation;
+        private final long storedAt;
+        private volatile long lastAccess;
+
+        Entry(String text, String engine, String model, String projectId, long generation, long storedAt) {
+            this.text = text;
+            this.engine = engine;
+            this.model = model;
+            this.projectId = projectId;
+            this.generation = generation;
+            this.storedAt = storedAt;
+            this.lastAccess = storedAt;
+        }
+
+        String text() { return text; }
+        String engine() { return engine; }
+        String model() { return model; }
+        String projectId() { return projectId; }
+        long generation() { return generation; }
+        long storedAt() { return storedAt; }
+    }
+}
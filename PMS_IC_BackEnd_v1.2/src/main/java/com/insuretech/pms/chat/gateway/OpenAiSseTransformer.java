@@ -1,14 +1,20 @@
 package com.insuretech.pms.chat.gateway;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.insuretech.pms.chat.dto.sse.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -22,6 +28,17 @@ import java.util.concurrent.ConcurrentHashMap;
  * - Accumulates streamed tool call arguments
  * - Emits complete TOOL_CALL event when finish_reason is "tool_calls"
  * - Supports multiple concurrent tool calls
+ * - Ends with a done event carrying the worker's finish_reason ("stop",
+ *   "length", ...); it is null if the worker never reported one, e.g. when
+ *   the upstream was cut off
+ *
+ * Chunks are read with a streaming JsonParser that only visits
+ * choices[0].delta and finish_reason; no JSON tree is built. On the
+ * DataBuffer path ({@link #transformOpenAiSseBuffers}) SSE lines are framed
+ * in a reusable per-stream byte array, and the text of all chunks that arrive
+ * in one network read is coalesced into a single delta event (up to
+ * pms.chat.sse.max-coalesced-chars). Tokens are never held back waiting for
+ * the next read, so coalescing adds no latency.
  */
 @Slf4j
 @Component
@@ -31,6 +48,9 @@ public class OpenAiSseTransformer {
     private final ObjectMapper objectMapper;
     private final SseEventBuilder sseBuilder;
 
+    @Value("${pms.chat.sse.max-coalesced-chars:256}")
+    private int maxCoalescedChars = 256;
+
     /**
      * Transform result containing both events and state
      */
@@ -44,20 +64,14 @@ public class OpenAiSseTransformer {
      */
     public TransformResult transformWithToolSupport(Flux<String> upstream) {
         ToolCallAccumulator accumulator = new ToolCallAccumulator();
+        StreamState state = new StreamState(accumulator);
 
         Flux<ServerSentEvent<String>> events = upstream
                 .filter(line -> line.startsWith("data: "))
                 .map(line -> line.substring(6).trim())
                 .filter(data -> !data.equals("[DONE]"))
-                .flatMapIterable(data -> parseAndTransformWithAccumulator(data, accumulator))
-                .filter(Objects::nonNull)
-                .concatWith(Flux.defer(() -> {
-                    // At the end, check if we need to emit done or tool_calls
-                    if (accumulator.hasCompletedToolCalls()) {
-                        return Flux.just(sseBuilder.doneToolCalls(accumulator.getCompletedToolCalls()));
-                    }
-                    return Flux.just(sseBuilder.doneStop());
-                }));
+                .flatMapIterable(data -> state.onLine(data))
+                .concatWith(Flux.defer(() -> Flux.just(doneEvent(state))));
 
         return new TransformResult(events, accumulator);
     }
@@ -69,99 +83,306 @@ public class OpenAiSseTransformer {
         return transformWithToolSupport(upstream).events();
     }
 
-    private List<ServerSentEvent<String>> parseAndTransformWithAccumulator(
-            String jsonData,
-            ToolCallAccumulator accumulator) {
-        try {
-            JsonNode root = objectMapper.readTree(jsonData);
-            JsonNode choices = root.path("choices");
+    /**
+     * Transform the raw response body of a worker. Each subscription gets its own
+     * framing and tool call state, so retries start clean.
+     */
+    public Flux<ServerSentEvent<String>> transformOpenAiSseBuffers(Flux<DataBuffer> upstream) {
+        return Flux.defer(() -> {
+            ToolCallAccumulator accumulator = new ToolCallAccumulator();
+            StreamState state = new StreamState(accumulator);
+            return upstream
+                    .flatMapIterable(state::onBuffer)
+                    .concatWith(Flux.defer(() -> {
+                        List<ServerSentEvent<String>> tail = new ArrayList<>(state.finish());
+                        tail.add(doneEvent(state));
+                        return Flux.fromIterable(tail);
+                    }))
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+        });
+    }
+
+    private ServerSentEvent<String> doneEvent(StreamState state) {
+        // At the end, check if we need to emit done or tool_calls
+        if (state.accumulator.hasCompletedToolCalls()) {
+            return sseBuilder.doneToolCalls(state.accumulator.getCompletedToolCalls());
+        }
+        return sseBuilder.done(DoneEvent.of(state.finishReason));
+    }
+
+    /**
+     * Per-stream state: partial SSE line, the chunk being parsed and pending text.
+     */
+    private final class StreamState {
+        private static final byte[] DATA_PREFIX = "data:".getBytes(StandardCharsets.US_ASCII);
+        private static final byte[] DONE = "[DONE]".getBytes(StandardCharsets.US_ASCII);
+
+        private final ToolCallAccumulator accumulator;
+        private final Chunk chunk = new Chunk();
+        private final StringBuilder pendingText = new StringBuilder();
+        private String finishReason;
+        private byte[] line = new byte[1024];
+        private int lineLength;
+
+        StreamState(ToolCallAccumulator accumulator) {
+            this.accumulator = accumulator;
+        }
+
+        /**
+         * One already framed data payload (String path, no coalescing).
+         */
+        List<ServerSentEvent<String>> onLine(String jsonData) {
+            List<ServerSentEvent<String>> out = new ArrayList<>(2);
+            try (JsonParser parser = objectMapper.getFactory().createParser(jsonData)) {
+                if (parseChunk(parser, chunk)) {
+                    apply(out);
+                }
+            } catch (IOException | RuntimeException e) {
+                log.warn("Failed to parse OpenAI SSE: {}", jsonData, e);
+            }
+            flushText(out);
+            return out;
+        }
+
+        List<ServerSentEvent<String>> onBuffer(DataBuffer buffer) {
+            List<ServerSentEvent<String>> out = new ArrayList<>(2);
+            try {
+                while (buffer.readableByteCount() > 0) {
+                    int start = buffer.readPosition();
+                    int newline = buffer.indexOf(b -> b == '\n', start);
+                    int end = newline < 0 ? buffer.writePosition() : newline;
+                    appendToLine(buffer, end - start);
+                    if (newline < 0) {
+                        break;
+                    }
+                    buffer.readPosition(newline + 1);
+                    processLine(out);
+                }
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+            flushText(out);
+            return out;
+        }
 
-            if (choices.isEmpty() || choices.isNull()) {
-                return Collections.emptyList();
+        /**
+         * Handle a last line that was not newline-terminated.
+         */
+        List<ServerSentEvent<String>> finish() {
+            List<ServerSentEvent<String>> out = new ArrayList<>(1);
+            if (lineLength > 0) {
+                processLine(out);
             }
+            flushText(out);
+            return out;
+        }
 
-            JsonNode firstChoice = choices.get(0);
-            JsonNode delta = firstChoice.path("delta");
-            String finishReason = firstChoice.path("finish_reason").asText(null);
+        private void appendToLine(DataBuffer buffer, int count) {
+            if (lineLength + count > line.length) {
+                line = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + count));
+            }
+            buffer.read(line, lineLength, count);
+            lineLength += count;
+        }
 
-            List<ServerSentEvent<String>> results = new ArrayList<>();
+        private void processLine(List<ServerSentEvent<String>> out) {
+            int end = lineLength;
+            lineLength = 0;
+            if (end > 0 && line[end - 1] == '\r') {
+                end--;
+            }
+            if (!startsWith(line, 0, end, DATA_PREFIX)) {
+                return;
+            }
+            int start = DATA_PREFIX.length;
+            while (start < end && line[start] == ' ') start++;
+            while (end > start && Character.isWhitespace(line[end - 1])) end--;
+            if (start == end || (end - start == DONE.length && startsWith(line, start, end, DONE))) {
+                return;
+            }
+            try (JsonParser parser = objectMapper.getFactory().createParser(line, start, end - start)) {
+                if (parseChunk(parser, chunk)) {
+                    apply(out);
+                }
+            } catch (IOException | RuntimeException e) {
+                log.warn("Failed to parse OpenAI SSE: {}", new String(line, start, end - start, StandardCharsets.UTF_8), e);
+            }
+        }
 
+        private void apply(List<ServerSentEvent<String>> out) {
             // Check for content (text)
-            if (delta.has("content") && !delta.get("content").isNull()) {
-                String content = delta.get("content").asText();
-                if (!content.isEmpty()) {
-                    results.add(sseBuilder.deltaText(content));
+            if (chunk.content != null && !chunk.content.isEmpty()) {
+                if (pendingText.length() > 0 && pendingText.length() + chunk.content.length() > maxCoalescedChars) {
+                    flushText(out);
                 }
+                pendingText.append(chunk.content);
             }
 
-            // Check for tool calls and accumulate
-            if (delta.has("tool_calls") && !delta.get("tool_calls").isNull()) {
-                JsonNode toolCalls = delta.get("tool_calls");
-                accumulateToolCalls(toolCalls, accumulator);
-
-                // Emit delta for streaming progress
-                ServerSentEvent<String> deltaEvent = buildToolCallDelta(toolCalls);
-                if (deltaEvent != null) {
-                    results.add(deltaEvent);
+            // Check for tool calls and accumulate; tool deltas keep their position relative to text
+            if (!chunk.toolCalls.isEmpty()) {
+                flushText(out);
+                for (ToolCallFragment fragment : chunk.toolCalls) {
+                    accumulator.accumulate(fragment.index(), fragment.id(), fragment.name(), fragment.arguments());
                 }
+                out.add(buildToolCallDelta(chunk.toolCalls.get(0)));
+            }
+
+            if (chunk.finishReason != null) {
+                finishReason = chunk.finishReason;
             }
 
             // Check for tool_calls finish reason
-            if ("tool_calls".equals(finishReason)) {
+            if ("tool_calls".equals(chunk.finishReason)) {
                 accumulator.markComplete();
                 log.debug("Tool calls completed: {}", accumulator.getCompletedToolCalls().size());
             }
+        }
 
-            return results;
-        } catch (Exception e) {
-            log.warn("Failed to parse OpenAI SSE: {}", jsonData, e);
-            return Collections.emptyList();
+        private void flushText(List<ServerSentEvent<String>> out) {
+            if (pendingText.length() > 0) {
+                out.add(sseBuilder.deltaText(pendingText.toString()));
+                pendingText.setLength(0);
+            }
         }
     }
 
-    private void accumulateToolCalls(JsonNode toolCalls, ToolCallAccumulator accumulator) {
-        if (!toolCalls.isArray()) return;
+    private static boolean startsWith(byte[] bytes, int from, int to, byte[] prefix) {
+        if (to - from < prefix.length) return false;
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes[from + i] != prefix[i]) return false;
+        }
+        return true;
+    }
 
-        for (JsonNode tc : toolCalls) {
-            int index = tc.path("index").asInt(0);
-            String id = tc.path("id").asText(null);
-            JsonNode function = tc.path("function");
-            String name = function.path("name").asText(null);
-            String arguments = function.path("arguments").asText("");
+    /**
+     * Read the fields of interest of one chunk into {@code chunk}.
+     *
+     * @return false if the chunk has no usable first choice
+     */
+    private static boolean parseChunk(JsonParser p, Chunk chunk) throws IOException {
+        chunk.clear();
+        if (p.nextToken() != JsonToken.START_OBJECT) {
+            return false;
+        }
+        boolean hasChoice = false;
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            if ("choices".equals(field) && value == JsonToken.START_ARRAY) {
+                boolean first = true;
+                while (p.nextToken() != JsonToken.END_ARRAY) {
+                    if (first && p.currentToken() == JsonToken.START_OBJECT) {
+                        parseChoice(p, chunk);
+                        hasChoice = true;
+                    } else {
+                        p.skipChildren();
+                    }
+                    first = false;
+                }
+            } else {
+                p.skipChildren();
+            }
+        }
+        return hasChoice;
+    }
 
-            accumulator.accumulate(index, id, name, arguments);
+    private static void parseChoice(JsonParser p, Chunk chunk) throws IOException {
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            if ("delta".equals(field) && value == JsonToken.START_OBJECT) {
+                parseDelta(p, chunk);
+            } else if ("finish_reason".equals(field) && value == JsonToken.VALUE_STRING) {
+                chunk.finishReason = p.getText();
+            } else {
+                p.skipChildren();
+            }
         }
     }
 
-    private ServerSentEvent<String> buildToolCallDelta(JsonNode toolCalls) {
-        try {
-            if (toolCalls.isArray() && !toolCalls.isEmpty()) {
-                JsonNode firstToolCall = toolCalls.get(0);
+    private static void parseDelta(JsonParser p, Chunk chunk) throws IOException {
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            if ("content".equals(field) && value == JsonToken.VALUE_STRING) {
+                chunk.content = p.getText();
+            } else if ("tool_calls".equals(field) && value == JsonToken.START_ARRAY) {
+                while (p.nextToken() != JsonToken.END_ARRAY) {
+                    if (p.currentToken() == JsonToken.START_OBJECT) {
+                        chunk.toolCalls.add(parseToolCall(p));
+                    } else {
+                        p.skipChildren();
+                    }
+                }
+            } else {
+                p.skipChildren();
+            }
+        }
+    }
 
-                String id = firstToolCall.path("id").asText(null);
-                JsonNode function = firstToolCall.path("function");
-                String name = function.path("name").asText(null);
-                String arguments = function.path("arguments").asText("");
+    private static ToolCallFragment parseToolCall(JsonParser p) throws IOException {
+        int index = 0;
+        String id = null;
+        String name = null;
+        String arguments = "";
+        while (p.nextToken() == JsonToken.FIELD_NAME) {
+            String field = p.currentName();
+            JsonToken value = p.nextToken();
+            if ("index".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                index = p.getIntValue();
+            } else if ("id".equals(field) && value == JsonToken.VALUE_STRING) {
+                id = p.getText();
+            } else if ("function".equals(field) && value == JsonToken.START_OBJECT) {
+                while (p.nextToken() == JsonToken.FIELD_NAME) {
+                    String fnField = p.currentName();
+                    JsonToken fnValue = p.nextToken();
+                    if ("name".equals(fnField) && fnValue == JsonToken.VALUE_STRING) {
+                        name = p.getText();
+                    } else if ("arguments".equals(fnField) && fnValue == JsonToken.VALUE_STRING) {
+                        arguments = p.getText();
+                    } else {
+                        p.skipChildren();
+                    }
+                }
+            } else {
+                p.skipChildren();
+            }
+        }
+        return new ToolCallFragment(index, id, name, arguments);
+    }
 
-                ToolCallEvent toolCall = ToolCallEvent.builder()
-                        .id(id)
-                        .name(name)
-                        .arguments(arguments)
-                        .build();
+    private ServerSentEvent<String> buildToolCallDelta(ToolCallFragment firstToolCall) {
+        ToolCallEvent toolCall = ToolCallEvent.builder()
+                .id(firstToolCall.id())
+                .name(firstToolCall.name())
+                .arguments(firstToolCall.arguments())
+                .build();
 
-                DeltaEvent deltaEvent = DeltaEvent.builder()
-                        .kind(DeltaKind.TOOL_CALL_DELTA)
-                        .toolCall(toolCall)
-                        .build();
+        DeltaEvent deltaEvent = DeltaEvent.builder()
+                .kind(DeltaKind.TOOL_CALL_DELTA)
+                .toolCall(toolCall)
+                .build();
 
-                return sseBuilder.delta(deltaEvent);
-            }
-        } catch (Exception e) {
-            log.warn("Failed to parse tool call: {}", toolCalls, e);
+        return sseBuilder.delta(deltaEvent);
+    }
+
+    /**
+     * Fields of one streamed chunk; reused across the chunks of a stream.
+     */
+    private static final class Chunk {
+        private String content;
+        private String finishReason;
+        private final List<ToolCallFragment> toolCalls = new ArrayList<>(1);
+
+        void clear() {
+            content = null;
+            finishReason = null;
+            toolCalls.clear();
         }
-        return null;
     }
 
+    private record ToolCallFragment(int index, String id, String name, String arguments) {}
+
     /**
      * Accumulates streaming tool call fragments
      */
@@ -1,27 +1,39 @@
 package com.insuretech.pms.chat.gateway;
 
+import com.insuretech.pms.chat.gateway.dto.RequestPriority;
+import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
 
 import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Rate limiter for LLM engine requests.
+ * Rate limiter (admission controller) for LLM engine requests.
  *
- * Uses semaphores to limit concurrent requests per engine:
+ * Limits concurrent requests per engine without parking threads:
  * - GGUF: Limited concurrent requests (CPU-bound, single model instance)
  * - vLLM: Higher concurrency (GPU batching, continuous batching)
  *
- * Also tracks per-user limits to prevent abuse.
+ * When an engine is saturated, callers wait in a per-engine FIFO queue with
+ * separate priority lanes (INTERACTIVE is always served before BATCH). The
+ * queue is bounded and the wait is enforced with a reactive timeout, so a
+ * waiting request holds no thread. Per-user limits are non-blocking.
  */
 @Slf4j
 @Component
@@ -41,12 +53,13 @@ public class RateLimiter {
     @Value("${llm.rate-limit.acquire-timeout:30}")
     private int acquireTimeoutSeconds;
 
-    private Semaphore ggufSemaphore;
-    private Semaphore vllmSemaphore;
+    @Value("${llm.rate-limit.max-queue-depth:50}")
+    private int maxQueueDepth;
+
+    private EngineLane ggufLane;
+    private EngineLane vllmLane;
     private final Map<String, Semaphore> userSemaphores = new ConcurrentHashMap<>();
 
-    private final AtomicInteger ggufActiveRequests = new AtomicInteger(0);
-    private final AtomicInteger vllmActiveRequests = new AtomicInteger(0);
     private final AtomicInteger totalActiveRequests = new AtomicInteger(0);
 
     public RateLimiter(MeterRegistry meterRegistry) {
@@ -55,115 +68,100 @@ public class RateLimiter {
 
     @PostConstruct
     public void init() {
-        ggufSemaphore = new Semaphore(ggufMaxConcurrent);
-        vllmSemaphore = new Semaphore(vllmMaxConcurrent);
+        ggufLane = new EngineLane("gguf", ggufMaxConcurrent, maxQueueDepth);
+        vllmLane = new EngineLane("vllm", vllmMaxConcurrent, maxQueueDepth);
 
-        log.info("Rate limiter initialized: GGUF={}, vLLM={}, perUser={}",
-                ggufMaxConcurrent, vllmMaxConcurrent, perUserMaxConcurrent);
+        log.info("Rate limiter initialized: GGUF={}, vLLM={}, perUser={}, queueDepth={}, timeout={}s",
+                ggufMaxConcurrent, vllmMaxConcurrent, perUserMaxConcurrent, maxQueueDepth, acquireTimeoutSeconds);
 
         // Register metrics
-        Gauge.builder("llm.rate_limit.active_requests", ggufActiveRequests, AtomicInteger::get)
-                .tag("engine", "gguf")
-                .register(meterRegistry);
-
-        Gauge.builder("llm.rate_limit.active_requests", vllmActiveRequests, AtomicInteger::get)
-                .tag("engine", "vllm")
-                .register(meterRegistry);
-
         Gauge.builder("llm.rate_limit.total_active", totalActiveRequests, AtomicInteger::get)
                 .register(meterRegistry);
 
-        Gauge.builder("llm.rate_limit.available_permits", ggufSemaphore, Semaphore::availablePermits)
-                .tag("engine", "gguf")
-                .register(meterRegistry);
+        for (EngineLane lane : new EngineLane[]{ggufLane, vllmLane}) {
+            Gauge.builder("llm.rate_limit.active_requests", lane, EngineLane::getInFlight)
+                    .tag("engine", lane.engine)
+                    .register(meterRegistry);
 
-        Gauge.builder("llm.rate_limit.available_permits", vllmSemaphore, Semaphore::availablePermits)
-                .tag("engine", "vllm")
-                .register(meterRegistry);
+            Gauge.builder("llm.rate_limit.available_permits", lane, EngineLane::getAvailablePermits)
+                    .tag("engine", lane.engine)
+                    .register(meterRegistry);
+
+            for (RequestPriority priority : RequestPriority.values()) {
+                Gauge.builder("llm.rate_limit.queue_depth", lane, l -> l.getQueued(priority))
+                        .tag("engine", lane.engine)
+                        .tag("priority", priority.name().toLowerCase())
+                        .register(meterRegistry);
+            }
+        }
     }
 
     /**
-     * Acquire a permit for the specified engine and user.
+     * Acquire a permit for the specified engine and user in the interactive lane.
      *
      * @param engine The engine to acquire permit for (gguf/vllm)
      * @param userId The user ID for per-user limiting (can be null)
      * @return Mono that completes when permit is acquired, or errors if rate limited
      */
     public Mono<RateLimitPermit> acquire(String engine, String userId) {
-        return Mono.fromCallable(() -> {
-            Semaphore engineSemaphore = getEngineSemaphore(engine);
-            Semaphore userSemaphore = userId != null ? getUserSemaphore(userId) : null;
-
-            boolean engineAcquired = false;
-            boolean userAcquired = false;
-
-            try {
-                // Try to acquire engine permit
-                engineAcquired = engineSemaphore.tryAcquire(acquireTimeoutSeconds, TimeUnit.SECONDS);
-                if (!engineAcquired) {
-                    throw new RateLimitExceededException(
-                            String.format("Engine %s rate limit exceeded (max concurrent: %d)",
-                                    engine, getMaxConcurrent(engine)));
-                }
-
-                // Try to acquire user permit if user is specified
-                if (userSemaphore != null) {
-                    userAcquired = userSemaphore.tryAcquire(0, TimeUnit.SECONDS);
-                    if (!userAcquired) {
-                        engineSemaphore.release();
-                        engineAcquired = false;
-                        throw new RateLimitExceededException(
-                                String.format("User %s rate limit exceeded (max concurrent: %d)",
-                                        userId, perUserMaxConcurrent));
-                    }
-                }
-
-                // Track active requests
-                incrementActiveRequests(engine);
+        return acquire(engine, userId, RequestPriority.INTERACTIVE);
+    }
 
-                log.debug("Permit acquired: engine={}, user={}, activeGguf={}, activeVllm={}",
-                        engine, userId, ggufActiveRequests.get(), vllmActiveRequests.get());
+    /**
+     * Acquire a permit for the specified engine, user and priority lane.
+     *
+     * Completes immediately when the engine has spare capacity; otherwise the
+     * request is queued and completes when a permit is handed over by
+     * {@link #release(RateLimitPermit)}. Errors with
+     * {@link RateLimitExceededException} when the user limit is hit, the queue
+     * is full, or the wait exceeds the acquire timeout.
+     */
+    public Mono<RateLimitPermit> acquire(String engine, String userId, RequestPriority priority) {
+        RequestPriority lanePriority = priority != null ? priority : RequestPriority.INTERACTIVE;
 
-                return new RateLimitPermit(engine, userId, engineSemaphore, userSemaphore);
+        return Mono.defer(() -> {
+            EngineLane lane = getLane(engine);
+            Semaphore userSemaphore = userId != null ? getUserSemaphore(userId) : null;
 
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                if (engineAcquired) engineSemaphore.release();
-                throw new RateLimitExceededException("Interrupted while acquiring rate limit permit");
+            if (userSemaphore != null && !userSemaphore.tryAcquire()) {
+                recordRejected(lane.engine, "user_limit");
+                return Mono.error(new RateLimitExceededException(
+                        String.format("User %s rate limit exceeded (max concurrent: %d)",
+                                userId, perUserMaxConcurrent)));
             }
+
+            return Mono.<RateLimitPermit>create(sink -> lane.admit(
+                            new Waiter(sink, userId, userSemaphore, lanePriority)))
+                    .timeout(Duration.ofSeconds(acquireTimeoutSeconds), Mono.error(() ->
+                            new RateLimitExceededException(String.format(
+                                    "Engine %s rate limit exceeded (waited %ds, max concurrent: %d)",
+                                    lane.engine, acquireTimeoutSeconds, lane.maxConcurrent))));
         });
     }
 
     /**
-     * Release permits after request completion.
+     * Release permits after request completion and hand the engine slot over to
+     * the next queued request, if any. Releasing the same permit twice is a no-op.
      */
     public void release(RateLimitPermit permit) {
-        if (permit == null) return;
+        if (permit == null || !permit.markReleased()) return;
 
-        permit.getEngineSemaphore().release();
         if (permit.getUserSemaphore() != null) {
             permit.getUserSemaphore().release();
         }
-
-        decrementActiveRequests(permit.getEngine());
+        totalActiveRequests.decrementAndGet();
+        getLane(permit.getEngine()).release();
 
         log.debug("Permit released: engine={}, user={}, activeGguf={}, activeVllm={}",
                 permit.getEngine(), permit.getUserId(),
-                ggufActiveRequests.get(), vllmActiveRequests.get());
+                ggufLane.getInFlight(), vllmLane.getInFlight());
     }
 
-    private Semaphore getEngineSemaphore(String engine) {
+    private EngineLane getLane(String engine) {
         if ("vllm".equalsIgnoreCase(engine)) {
-            return vllmSemaphore;
+            return vllmLane;
         }
-        return ggufSemaphore; // Default to GGUF
-    }
-
-    private int getMaxConcurrent(String engine) {
-        if ("vllm".equalsIgnoreCase(engine)) {
-            return vllmMaxConcurrent;
-        }
-        return ggufMaxConcurrent;
+        return ggufLane; // Default to GGUF
     }
 
     private Semaphore getUserSemaphore(String userId) {
@@ -171,39 +169,215 @@ public class RateLimiter {
                 k -> new Semaphore(perUserMaxConcurrent));
     }
 
-    private void incrementActiveRequests(String engine) {
-        totalActiveRequests.incrementAndGet();
-        if ("vllm".equalsIgnoreCase(engine)) {
-            vllmActiveRequests.incrementAndGet();
-        } else {
-            ggufActiveRequests.incrementAndGet();
-        }
+    /**
+     * Get current active request count for an engine.
+     */
+    public int getActiveRequests(String engine) {
+        return getLane(engine).getInFlight();
     }
 
-    private void decrementActiveRequests(String engine) {
-        totalActiveRequests.decrementAndGet();
-        if ("vllm".equalsIgnoreCase(engine)) {
-            vllmActiveRequests.decrementAndGet();
-        } else {
-            ggufActiveRequests.decrementAndGet();
+    /**
+     * Get available permits for an engine.
+     */
+    public int getAvailablePermits(String engine) {
+        return getLane(engine).getAvailablePermits();
+    }
+
+    /**
+     * Get the number of requests waiting for an engine across all priority lanes.
+     */
+    public int getQueuedRequests(String engine) {
+        EngineLane lane = getLane(engine);
+        int queued = 0;
+        for (RequestPriority priority : RequestPriority.values()) {
+            queued += lane.getQueued(priority);
         }
+        return queued;
+    }
+
+    private void recordRejected(String engine, String reason) {
+        Counter.builder("llm.rate_limit.rejected")
+                .tag("engine", engine)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private void recordQueueWait(String engine, RequestPriority priority, long waitNanos) {
+        Timer.builder("llm.rate_limit.queue_wait")
+                .tag("engine", engine)
+                .tag("priority", priority.name().toLowerCase())
+                .register(meterRegistry)
+                .record(waitNanos, TimeUnit.NANOSECONDS);
     }
 
     /**
-     * Get current active request count for an engine.
+     * Per-engine concurrency slots plus one FIFO queue per priority lane.
+     * All state transitions happen under the lane monitor; sink callbacks are
+     * invoked outside of it.
      */
-    public int getActiveRequests(String engine) {
-        if ("vllm".equalsIgnoreCase(engine)) {
-            return vllmActiveRequests.get();
+    private final class EngineLane {
+        private final String engine;
+        private final int maxConcurrent;
+        private final int maxQueueDepth;
+        private final Map<RequestPriority, Deque<Waiter>> queues = new EnumMap<>(RequestPriority.class);
+        private int inFlight;
+        private int queued;
+
+        private EngineLane(String engine, int maxConcurrent, int maxQueueDepth) {
+            this.engine = engine;
+            this.maxConcurrent = maxConcurrent;
+            this.maxQueueDepth = maxQueueDepth;
+            for (RequestPriority priority : RequestPriority.values()) {
+                queues.put(priority, new ArrayDeque<>());
+            }
+        }
+
+        void admit(Waiter waiter) {
+            waiter.sink.onCancel(() -> cancel(waiter));
+
+            boolean granted = false;
+            boolean rejected = false;
+
+            synchronized (this) {
+                if (inFlight < maxConcurrent && queued == 0) {
+                    inFlight++;
+                    waiter.state.set(Waiter.GRANTED);
+                    granted = true;
+                } else if (queued >= maxQueueDepth) {
+                    rejected = true;
+                } else {
+                    queues.get(waiter.priority).addLast(waiter);
+                    queued++;
+                }
+            }
+
+            if (granted) {
+                grant(waiter);
+            } else if (rejected) {
+                recordRejected(engine, "queue_full");
+                waiter.state.set(Waiter.CANCELLED);
+                releaseUser(waiter);
+                waiter.sink.error(new RateLimitExceededException(
+                        String.format("Engine %s queue is full (max queued: %d)", engine, maxQueueDepth)));
+            } else {
+                log.debug("Request queued: engine={}, user={}, priority={}, queued={}",
+                        engine, waiter.userId, waiter.priority, queued);
+            }
+        }
+
+        void release() {
+            Waiter next = null;
+
+            synchronized (this) {
+                while (next == null && queued > 0) {
+                    Waiter candidate = pollNext();
+                    if (candidate != null && candidate.state.compareAndSet(Waiter.WAITING, Waiter.GRANTED)) {
+                        next = candidate;
+                    }
+                }
+                if (next == null) {
+                    inFlight--;
+                }
+                // Otherwise the slot is handed over directly and inFlight stays unchanged
+            }
+
+            if (next != null) {
+                grant(next);
+            }
+        }
+
+        /**
+         * Invoked when the subscriber cancels (client disconnect or acquire timeout)
+         * before the permit was delivered.
+         */
+        private void cancel(Waiter waiter) {
+            if (waiter.state.compareAndSet(Waiter.WAITING, Waiter.CANCELLED)) {
+                synchronized (this) {
+                    if (queues.get(waiter.priority).remove(waiter)) {
+                        queued--;
+                    }
+                }
+                releaseUser(waiter);
+            } else if (!waiter.state.compareAndSet(Waiter.GRANTED, Waiter.CANCELLED)
+                    && waiter.state.get() == Waiter.DELIVERING) {
+                // Granted concurrently with cancellation; the permit never reached the caller
+                RateLimiter.this.release(waiter.permit);
+            }
+            // GRANTED -> CANCELLED: grant() observes the cancellation and releases the slot itself
+        }
+
+        private void releaseUser(Waiter waiter) {
+            if (waiter.userSemaphore != null) {
+                waiter.userSemaphore.release();
+            }
+        }
+
+        private Waiter pollNext() {
+            for (RequestPriority priority : RequestPriority.values()) {
+                Waiter waiter = queues.get(priority).pollFirst();
+                if (waiter != null) {
+                    queued--;
+                    return waiter;
+                }
+            }
+            queued = 0;
+            return null;
+        }
+
+        private void grant(Waiter waiter) {
+            totalActiveRequests.incrementAndGet();
+            recordQueueWait(engine, waiter.priority, System.nanoTime() - waiter.enqueuedAt);
+
+            RateLimitPermit permit = new RateLimitPermit(engine, waiter.userId, waiter.userSemaphore);
+            waiter.permit = permit;
+            if (!waiter.state.compareAndSet(Waiter.GRANTED, Waiter.DELIVERING)) {
+                RateLimiter.this.release(permit);
+                return;
+            }
+
+            log.debug("Permit acquired: engine={}, user={}, priority={}, activeGguf={}, activeVllm={}",
+                    engine, waiter.userId, waiter.priority, ggufLane.getInFlight(), vllmLane.getInFlight());
+
+            waiter.sink.success(permit);
+        }
+
+        synchronized int getInFlight() {
+            return inFlight;
+        }
+
+        synchronized int getAvailablePermits() {
+            return Math.max(0, maxConcurrent - inFlight);
+        }
+
+        synchronized int getQueued(RequestPriority priority) {
+            return queues.get(priority).size();
         }
-        return ggufActiveRequests.get();
     }
 
     /**
-     * Get available permits for an engine.
+     * A pending admission request.
      */
-    public int getAvailablePermits(String engine) {
-        return getEngineSemaphore(engine).availablePermits();
+    private static final class Waiter {
+        static final int WAITING = 0;
+        static final int GRANTED = 1;
+        static final int DELIVERING = 2;
+        static final int CANCELLED = 3;
+
+        final MonoSink<RateLimitPermit> sink;
+        final String userId;
+        final Semaphore userSemaphore;
+        final RequestPriority priority;
+        final long enqueuedAt = System.nanoTime();
+        final AtomicInteger state = new AtomicInteger(WAITING);
+        volatile RateLimitPermit permit;
+
+        Waiter(MonoSink<RateLimitPermit> sink, String userId, Semaphore userSemaphore, RequestPriority priority) {
+            this.sink = sink;
+            this.userId = userId;
+            this.userSemaphore = userSemaphore;
+            this.priority = priority;
+        }
     }
 
     /**
@@ -212,21 +386,22 @@ public class RateLimiter {
     public static class RateLimitPermit {
         private final String engine;
         private final String userId;
-        private final Semaphore engineSemaphore;
         private final Semaphore userSemaphore;
+        private final AtomicBoolean released = new AtomicBoolean(false);
 
-        public RateLimitPermit(String engine, String userId,
-                               Semaphore engineSemaphore, Semaphore userSemaphore) {
+        public RateLimitPermit(String engine, String userId, Semaphore userSemaphore) {
             this.engine = engine;
             this.userId = userId;
-            this.engineSemaphore = engineSemaphore;
             this.userSemaphore = userSemaphore;
         }
 
         public String getEngine() { return engine; }
         public String getUserId() { return userId; }
-        public Semaphore getEngineSemaphore() { return engineSemaphore; }
         public Semaphore getUserSemaphore() { return userSemaphore; }
+
+        boolean markReleased() {
+            return released.compareAndSet(false, true);
+        }
     }
 
     /**
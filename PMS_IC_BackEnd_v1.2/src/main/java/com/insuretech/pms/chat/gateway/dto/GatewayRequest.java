@@ -26,6 +26,8 @@ public class GatewayRequest {
     private GenerationParams generation;
     private SafetyContext safety;
     private ABConfig ab;
+    @Builder.Default
+    private RequestPriority priority = RequestPriority.INTERACTIVE;
 
     public boolean hasTools() {
         return tools != null && !tools.isEmpty();
@@ -0,0 +1,15 @@
+package com.insuretech.pms.chat.gateway.dto;
+
+/**
+ * Admission priority lane for LLM requests.
+ *
+ * INTERACTIVE requests (chat) are always admitted ahead of queued BATCH
+ * requests. Every caller of the gateway is interactive today: briefing
+ * enrichment ({@code AiLlmClient}) and RAG indexing call the LLM service
+ * directly, and report generation does not call an LLM. Non-interactive work
+ * that moves onto the gateway must set BATCH on its {@link GatewayRequest}.
+ */
+public enum RequestPriority {
+    INTERACTIVE,
+    BATCH
+}
@@ -0,0 +1,117 @@
+package com.insuretech.pms.chat.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Keeps chat.chat_daily_user_stats and chat.chat_daily_engine_stats current.
+ *
+ * Each run recomputes the days from the latest rolled-up day (minus the
+ * configured lookback) through today, so late writes near midnight are picked
+ * up. A day is replaced inside one transaction guarded by an advisory lock, so
+ * replicas running the job concurrently do not interleave.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChatAnalyticsRollupScheduler {
+
+    private static final String LOCK_KEY = "chat_analytics_rollup";
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+
+    @Value("${pms.chat.analytics.rollup-lookback-days:1}")
+    private int lookbackDays;
+
+    @Scheduled(fixedDelayString = "${pms.chat.analytics.rollup-interval-ms:300000}",
+            initialDelayString = "${pms.chat.analytics.rollup-initial-delay-ms:60000}")
+    public void refreshRollups() {
+        refreshRecentDays()
+                .doOnSuccess(days -> log.debug("Chat analytics rollup refreshed {} day(s)", days))
+                .doOnError(e -> log.error("Chat analytics rollup failed", e))
+                .subscribe();
+    }
+
+    /**
+     * Recompute every day from the last rolled-up day (minus lookback) to today.
+     */
+    public Mono<Long> refreshRecentDays() {
+        LocalDate today = LocalDate.now();
+        return databaseClient.sql("SELECT MAX(stat_date) AS last_day FROM chat.chat_daily_engine_stats")
+                .map((row, meta) -> Optional.ofNullable(row.get("last_day", LocalDate.class)))
+                .one()
+                .map(last -> last.map(d -> d.minusDays(lookbackDays)).orElse(today.minusDays(lookbackDays)))
+                .map(from -> from.isAfter(today) ? today : from)
+                .flatMapMany(from -> Flux.fromStream(from.datesUntil(today.plusDays(1))))
+                .concatMap(this::refreshDay)
+                .count();
+    }
+
+    /**
+     * Replace the rollup rows of one day. Skipped when another instance holds the lock.
+     */
+    public Mono<Boolean> refreshDay(LocalDate day) {
+        LocalDateTime from = day.atStartOfDay();
+        LocalDateTime to = day.plusDays(1).atStartOfDay();
+
+        String deleteUserSql = "DELETE FROM chat.chat_daily_user_stats WHERE stat_date = :day";
+        String deleteEngineSql = "DELETE FROM chat.chat_daily_engine_stats WHERE stat_date = :day";
+
+        String insertUserSql = """
+                INSERT INTO chat.chat_daily_user_stats (stat_date, user_id, session_count, message_count)
+                SELECT CAST(:day AS DATE), user_id, SUM(session_count), SUM(message_count)
+                FROM (
+                    SELECT s.user_id, COUNT(*) AS session_count, 0 AS message_count
+                    FROM chat.chat_sessions s
+                    WHERE s.created_at >= :from AND s.created_at < :to
+                    GROUP BY s.user_id
+                    UNION ALL
+                    SELECT s.user_id, 0, COUNT(*)
+                    FROM chat.chat_messages m
+                    JOIN chat.chat_sessions s ON s.id = m.session_id
+                    WHERE m.created_at >= :from AND m.created_at < :to
+                    GROUP BY s.user_id
+                ) t
+                GROUP BY user_id
+                """;
+
+        String insertEngineSql = """
+                INSERT INTO chat.chat_daily_engine_stats (stat_date, role, engine, message_count, last_message_at)
+                SELECT CAST(:day AS DATE), m.role, COALESCE(m.engine, 'unknown'), COUNT(*), MAX(m.created_at)
+                FROM chat.chat_messages m
+                WHERE m.created_at >= :from AND m.created_at < :to
+                GROUP BY m.role, COALESCE(m.engine, 'unknown')
+                """;
+
+        return databaseClient.sql("SELECT pg_try_advisory_xact_lock(hashtext(:key)) AS locked")
+                .bind("key", LOCK_KEY)
+                .map((row, meta) -> Boolean.TRUE.equals(row.get("locked", Boolean.class)))
+                .one()
+                .flatMap(locked -> {
+                    if (!locked) {
+                        log.debug("Chat analytics rollup for {} skipped: lock held elsewhere", day);
+                        return Mono.just(false);
+                    }
+                    return databaseClient.sql(deleteUserSql).bind("day", day).then()
+                            .then(databaseClient.sql(deleteEngineSql).bind("day", day).then())
+                            .then(databaseClient.sql(insertUserSql)
+                                    .bind("day", day).bind("from", from).bind("to", to).then())
+                            .then(databaseClient.sql(insertEngineSql)
+                                    .bind("day", day).bind("from", from).bind("to", to).then())
+                            .thenReturn(true);
+                })
+                .as(transactionalOperator::transactional);
+    }
+}
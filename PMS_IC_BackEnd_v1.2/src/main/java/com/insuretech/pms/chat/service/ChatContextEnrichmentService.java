@@ -1,21 +1,15 @@
 package com.insuretech.pms.chat.service;
 
-import com.insuretech.pms.auth.reactive.repository.ReactiveUserRepository;
-import com.insuretech.pms.project.reactive.entity.R2dbcWbsTask;
-import com.insuretech.pms.project.reactive.repository.ReactivePhaseRepository;
-import com.insuretech.pms.project.reactive.repository.ReactiveWbsGroupRepository;
-import com.insuretech.pms.project.reactive.repository.ReactiveWbsItemRepository;
-import com.insuretech.pms.project.reactive.repository.ReactiveWbsTaskRepository;
-import com.insuretech.pms.task.reactive.entity.R2dbcTask;
-import com.insuretech.pms.task.reactive.repository.ReactiveTaskRepository;
+import com.insuretech.pms.common.search.ProjectTextSearchRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.*;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 
 /**
@@ -28,12 +22,10 @@ import java.util.regex.Pattern;
 @RequiredArgsConstructor
 public class ChatContextEnrichmentService {
 
-    private final ReactiveWbsTaskRepository wbsTaskRepository;
-    private final ReactiveTaskRepository sprintTaskRepository;
-    private final ReactivePhaseRepository phaseRepository;
-    private final ReactiveWbsGroupRepository groupRepository;
-    private final ReactiveWbsItemRepository itemRepository;
-    private final ReactiveUserRepository userRepository;
+    private final ProjectTextSearchRepository textSearchRepository;
+    private final DatabaseClient databaseClient;
+
+    private static final int MAX_TASKS_PER_SOURCE = 5;
 
     // Keywords that indicate a task-related question
     private static final Set<String> TASK_KEYWORDS = Set.of(
@@ -146,17 +138,36 @@ public class ChatContextEnrichmentService {
                 });
     }
 
+    // One round trip per source: task row joined with its hierarchy names and assignee
+    private static final String WBS_TASK_DETAILS_SQL = """
+            SELECT wt.id, wt.code, wt.name, wt.description, wt.status, wt.progress,
+                   wt.planned_start_date, wt.planned_end_date, wt.assignee_id,
+                   p.name AS phase_name, g.name AS group_name, i.name AS item_name,
+                   u.name AS assignee_name, u.email AS assignee_email, u.role AS assignee_role
+            FROM project.wbs_tasks wt
+            LEFT JOIN project.phases p ON p.id = wt.phase_id
+            LEFT JOIN project.wbs_groups g ON g.id = wt.group_id
+            LEFT JOIN project.wbs_items i ON i.id = wt.item_id
+            LEFT JOIN auth.users u ON u.id = wt.assignee_id
+            WHERE wt.id IN (:ids)
+            """;
+
+    private static final String SPRINT_TASK_DETAILS_SQL = """
+            SELECT t.id, t.title, t.description, t.status, t.priority, t.due_date, t.assignee_id,
+                   u.name AS assignee_name, u.email AS assignee_email, u.role AS assignee_role
+            FROM task.tasks t
+            LEFT JOIN auth.users u ON u.id = t.assignee_id
+            WHERE t.id IN (:ids)
+            """;
+
     /**
-     * Search WBS tasks by keywords.
+     * Search WBS tasks by keywords (single ranked query over all keywords).
      */
     private Mono<List<Map<String, Object>>> searchWbsTasks(String projectId, List<String> keywords) {
-        return Flux.fromIterable(keywords)
-                .take(3)
-                .flatMap(keyword -> wbsTaskRepository.searchByKeyword(projectId, keyword))
-                .distinct(R2dbcWbsTask::getId)
-                .take(5)
-                .flatMap(this::enrichWbsTaskWithDetails)
+        return textSearchRepository.searchWbsTasks(projectId, keywords, MAX_TASKS_PER_SOURCE)
+                .map(ProjectTextSearchRepository.SearchHit::id)
                 .collectList()
+                .flatMap(ids -> loadInRankOrder(WBS_TASK_DETAILS_SQL, ids, this::toWbsTaskInfo))
                 .onErrorResume(e -> {
                     log.warn("Error searching WBS tasks: {}", e.getMessage());
                     return Mono.just(List.of());
@@ -164,16 +175,13 @@ public class ChatContextEnrichmentService {
     }
 
     /**
-     * Search Sprint/Kanban tasks by keywords.
+     * Search Sprint/Kanban tasks by keywords (single ranked query over all keywords).
      */
     private Mono<List<Map<String, Object>>> searchSprintTasks(String projectId, List<String> keywords) {
-        return Flux.fromIterable(keywords)
-                .take(3)
-                .flatMap(keyword -> sprintTaskRepository.searchByKeyword(projectId, keyword))
-                .distinct(R2dbcTask::getId)
-                .take(5)
-                .flatMap(this::enrichSprintTaskWithDetails)
+        return textSearchRepository.searchTasks(projectId, keywords, MAX_TASKS_PER_SOURCE)
+                .map(ProjectTextSearchRepository.SearchHit::id)
                 .collectList()
+                .flatMap(ids -> loadInRankOrder(SPRINT_TASK_DETAILS_SQL, ids, this::toSprintTaskInfo))
                 .onErrorResume(e -> {
                     log.warn("Error searching Sprint tasks: {}", e.getMessage());
                     return Mono.just(List.of());
@@ -181,87 +189,83 @@ public class ChatContextEnrichmentService {
     }
 
     /**
-     * Enrich WBS task with phase, group, item, and assignee details.
+     * Loads the detail rows for the ranked ids in one query and returns them in rank order.
      */
-    private Mono<Map<String, Object>> enrichWbsTaskWithDetails(R2dbcWbsTask task) {
-        return Mono.zip(
-                phaseRepository.findById(task.getPhaseId())
-                        .map(phase -> (Object) phase.getName())
-                        .defaultIfEmpty("Unknown Phase"),
-                groupRepository.findById(task.getGroupId())
-                        .map(group -> (Object) group.getName())
-                        .defaultIfEmpty("Unknown Group"),
-                itemRepository.findById(task.getItemId())
-                        .map(item -> (Object) item.getName())
-                        .defaultIfEmpty("Unknown Item"),
-                task.getAssigneeId() != null
-                        ? userRepository.findById(task.getAssigneeId())
-                                .map(user -> (Object) Map.of(
-                                        "name", user.getName(),
-                                        "email", user.getEmail(),
-                                        "role", user.getRole() != null ? user.getRole() : ""))
-                                .defaultIfEmpty(Map.of("name", "Unknown", "email", "", "role", ""))
-                        : Mono.just((Object) Map.of("name", "Not assigned", "email", "", "role", ""))
-        ).map(tuple -> {
-            Map<String, Object> taskInfo = new LinkedHashMap<>();
-            taskInfo.put("source", "WBS");
-            taskInfo.put("taskName", task.getName());
-            taskInfo.put("taskCode", task.getCode());
-            taskInfo.put("description", task.getDescription() != null ? task.getDescription() : "");
-            taskInfo.put("status", task.getStatus());
-            taskInfo.put("progress", task.getProgress() + "%");
-            taskInfo.put("phaseName", tuple.getT1());
-            taskInfo.put("groupName", tuple.getT2());
-            taskInfo.put("itemName", tuple.getT3());
-
-            @SuppressWarnings("unchecked")
-            Map<String, String> assignee = (Map<String, String>) tuple.getT4();
-            taskInfo.put("assigneeName", assignee.get("name"));
-            taskInfo.put("assigneeEmail", assignee.get("email"));
-            taskInfo.put("assigneeRole", assignee.get("role"));
-
-            if (task.getPlannedStartDate() != null) {
-                taskInfo.put("plannedStartDate", task.getPlannedStartDate().toString());
-            }
-            if (task.getPlannedEndDate() != null) {
-                taskInfo.put("plannedEndDate", task.getPlannedEndDate().toString());
-            }
+    private Mono<List<Map<String, Object>>> loadInRankOrder(String sql, List<String> rankedIds,
+                                                            Function<Map<String, Object>, Map<String, Object>> mapper) {
+        if (rankedIds.isEmpty()) {
+            return Mono.just(List.of());
+        }
+        return databaseClient.sql(sql)
+                .bind("ids", rankedIds)
+                .fetch().all()
+                .collectMap(row -> (String) row.get("id"), mapper)
+                .map(byId -> rankedIds.stream()
+                        .map(byId::get)
+                        .filter(Objects::nonNull)
+                        .toList());
+    }
 
-            return taskInfo;
-        });
+    /**
+     * WBS task row with phase, group, item, and assignee details.
+     */
+    private Map<String, Object> toWbsTaskInfo(Map<String, Object> row) {
+        Map<String, Object> taskInfo = new LinkedHashMap<>();
+        taskInfo.put("source", "WBS");
+        taskInfo.put("taskName", row.get("name"));
+        taskInfo.put("taskCode", row.get("code"));
+        taskInfo.put("description", valueOr(row.get("description"), ""));
+        taskInfo.put("status", row.get("status"));
+        taskInfo.put("progress", row.get("progress") + "%");
+        taskInfo.put("phaseName", valueOr(row.get("phase_name"), "Unknown Phase"));
+        taskInfo.put("groupName", valueOr(row.get("group_name"), "Unknown Group"));
+        taskInfo.put("itemName", valueOr(row.get("item_name"), "Unknown Item"));
+        putAssignee(taskInfo, row);
+
+        if (row.get("planned_start_date") != null) {
+            taskInfo.put("plannedStartDate", row.get("planned_start_date").toString());
+        }
+        if (row.get("planned_end_date") != null) {
+            taskInfo.put("plannedEndDate", row.get("planned_end_date").toString());
+        }
+
+        return taskInfo;
     }
 
     /**
-     * Enrich Sprint/Kanban task with assignee details.
+     * Sprint/Kanban task row with assignee details.
      */
-    private Mono<Map<String, Object>> enrichSprintTaskWithDetails(R2dbcTask task) {
-        Mono<Map<String, String>> assigneeMono = task.getAssigneeId() != null
-                ? userRepository.findById(task.getAssigneeId())
-                        .map(user -> Map.of(
-                                "name", user.getName() != null ? user.getName() : "Unknown",
-                                "email", user.getEmail() != null ? user.getEmail() : "",
-                                "role", user.getRole() != null ? user.getRole() : ""))
-                        .defaultIfEmpty(Map.of("name", "Unknown", "email", "", "role", ""))
-                : Mono.just(Map.of("name", "Not assigned", "email", "", "role", ""));
-
-        return assigneeMono.map(assignee -> {
-            Map<String, Object> taskInfo = new LinkedHashMap<>();
-            taskInfo.put("source", "Kanban/Sprint");
-            taskInfo.put("taskName", task.getTitle());
-            taskInfo.put("taskCode", task.getId());
-            taskInfo.put("description", task.getDescription() != null ? task.getDescription() : "");
-            taskInfo.put("status", task.getStatus());
-            taskInfo.put("priority", task.getPriority());
-            taskInfo.put("assigneeName", assignee.get("name"));
-            taskInfo.put("assigneeEmail", assignee.get("email"));
-            taskInfo.put("assigneeRole", assignee.get("role"));
-
-            if (task.getDueDate() != null) {
-                taskInfo.put("dueDate", task.getDueDate().toString());
-            }
+    private Map<String, Object> toSprintTaskInfo(Map<String, Object> row) {
+        Map<String, Object> taskInfo = new LinkedHashMap<>();
+        taskInfo.put("source", "Kanban/Sprint");
+        taskInfo.put("taskName", row.get("title"));
+        taskInfo.put("taskCode", row.get("id"));
+        taskInfo.put("description", valueOr(row.get("description"), ""));
+        taskInfo.put("status", row.get("status"));
+        taskInfo.put("priority", row.get("priority"));
+        putAssignee(taskInfo, row);
+
+        if (row.get("due_date") != null) {
+            taskInfo.put("dueDate", row.get("due_date").toString());
+        }
+
+        return taskInfo;
+    }
+
+    private void putAssignee(Map<String, Object> taskInfo, Map<String, Object> row) {
+        if (row.get("assignee_id") == null) {
+            taskInfo.put("assigneeName", "Not assigned");
+            taskInfo.put("assigneeEmail", "");
+            taskInfo.put("assigneeRole", "");
+        } else {
+            taskInfo.put("assigneeName", valueOr(row.get("assignee_name"), "Unknown"));
+            taskInfo.put("assigneeEmail", valueOr(row.get("assignee_email"), ""));
+            taskInfo.put("assigneeRole", valueOr(row.get("assignee_role"), ""));
+        }
+    }
 
-            return taskInfo;
-        });
+    private static Object valueOr(Object value, Object fallback) {
+        return value != null ? value : fallback;
     }
 
     /**
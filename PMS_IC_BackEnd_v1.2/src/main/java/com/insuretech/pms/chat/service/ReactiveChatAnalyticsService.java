@@ -1,17 +1,13 @@
 package com.insuretech.pms.chat.service;
 
 import com.insuretech.pms.chat.dto.ChatAnalyticsDto.*;
-import com.insuretech.pms.chat.reactive.entity.R2dbcChatMessage;
-import com.insuretech.pms.chat.reactive.entity.R2dbcChatSession;
-import com.insuretech.pms.chat.reactive.repository.ReactiveChatMessageRepository;
-import com.insuretech.pms.chat.reactive.repository.ReactiveChatSessionRepository;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Service;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
@@ -22,14 +18,21 @@ import java.util.stream.Collectors;
 /**
  * Service for computing chat analytics metrics.
  * Provides session statistics, user engagement metrics, and LLM engine usage data.
+ *
+ * Session-level figures are aggregated in SQL over the requested window.
+ * Message and per-day figures are read from the daily rollup tables maintained by
+ * {@link ChatAnalyticsRollupScheduler}, so their window is applied at day granularity.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ReactiveChatAnalyticsService {
 
-    private final ReactiveChatSessionRepository sessionRepository;
-    private final ReactiveChatMessageRepository messageRepository;
+    private static final LocalDateTime MIN_TIMESTAMP = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_TIMESTAMP = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final int DEFAULT_LIMIT = 10;
+
+    private final DatabaseClient databaseClient;
     private final MeterRegistry meterRegistry;
 
     /**
@@ -57,45 +60,53 @@ public class ReactiveChatAnalyticsService {
      * Get session-level summary statistics.
      */
     public Mono<SessionSummary> getSessionSummary(AnalyticsFilter filter) {
-        return sessionRepository.findAll()
-                .filter(session -> isWithinDateRange(session.getCreatedAt(), filter))
-                .collectList()
-                .flatMap(sessions -> {
-                    long totalSessions = sessions.size();
-                    long activeSessions = sessions.stream()
-                            .filter(s -> Boolean.TRUE.equals(s.getActive()))
-                            .count();
-                    long inactiveSessions = totalSessions - activeSessions;
-
-                    return messageRepository.findAll()
-                            .filter(msg -> isMessageWithinFilter(msg, filter, sessions))
-                            .collectList()
-                            .map(messages -> {
-                                long totalMessages = messages.size();
-                                long userMessages = messages.stream()
-                                        .filter(m -> "USER".equals(m.getRole()))
-                                        .count();
-                                long assistantMessages = messages.stream()
-                                        .filter(m -> "ASSISTANT".equals(m.getRole()))
-                                        .count();
-
-                                double avgMessagesPerSession = totalSessions > 0
-                                        ? (double) totalMessages / totalSessions : 0.0;
-
-                                // Compute average response time from metrics if available
-                                double avgResponseTime = getAverageResponseTime();
-
-                                return SessionSummary.builder()
-                                        .totalSessions(totalSessions)
-                                        .activeSessions(activeSessions)
-                                        .inactiveSessions(inactiveSessions)
-                                        .avgMessagesPerSession(round(avgMessagesPerSession, 2))
-                                        .avgResponseTimeMs(round(avgResponseTime, 2))
-                                        .totalMessages(totalMessages)
-                                        .userMessages(userMessages)
-                                        .assistantMessages(assistantMessages)
-                                        .build();
-                            });
+        String sessionSql = """
+                SELECT COUNT(*) AS total_sessions,
+                       COUNT(*) FILTER (WHERE active) AS active_sessions
+                FROM chat.chat_sessions
+                WHERE created_at BETWEEN :start AND :end
+                """;
+
+        String messageSql = """
+                SELECT role, SUM(message_count) AS message_count
+                FROM chat.chat_daily_engine_stats
+                WHERE stat_date BETWEEN :startDay AND :endDay
+                GROUP BY role
+                """;
+
+        Mono<Map<String, Object>> sessionCounts = bindWindow(databaseClient.sql(sessionSql), filter)
+                .fetch().one();
+
+        Mono<Map<String, Long>> messagesByRole = bindDays(databaseClient.sql(messageSql), filter)
+                .fetch().all()
+                .collectMap(row -> (String) row.get("role"), row -> toLong(row.get("message_count")));
+
+        return Mono.zip(sessionCounts, messagesByRole)
+                .map(tuple -> {
+                    long totalSessions = toLong(tuple.getT1().get("total_sessions"));
+                    long activeSessions = toLong(tuple.getT1().get("active_sessions"));
+                    Map<String, Long> byRole = tuple.getT2();
+
+                    long totalMessages = byRole.values().stream().mapToLong(Long::longValue).sum();
+                    long userMessages = byRole.getOrDefault("USER", 0L);
+                    long assistantMessages = byRole.getOrDefault("ASSISTANT", 0L);
+
+                    double avgMessagesPerSession = totalSessions > 0
+                            ? (double) totalMessages / totalSessions : 0.0;
+
+                    // Compute average response time from metrics if available
+                    double avgResponseTime = getAverageResponseTime();
+
+                    return SessionSummary.builder()
+                            .totalSessions(totalSessions)
+                            .activeSessions(activeSessions)
+                            .inactiveSessions(totalSessions - activeSessions)
+                            .avgMessagesPerSession(round(avgMessagesPerSession, 2))
+                            .avgResponseTimeMs(round(avgResponseTime, 2))
+                            .totalMessages(totalMessages)
+                            .userMessages(userMessages)
+                            .assistantMessages(assistantMessages)
+                            .build();
                 });
     }
 
@@ -120,59 +131,66 @@ public class ReactiveChatAnalyticsService {
      * Get top sessions by message count.
      */
     private Mono<List<SessionDetail>> getTopSessionsByMessages(AnalyticsFilter filter) {
-        return sessionRepository.findAll()
-                .filter(session -> isWithinDateRange(session.getCreatedAt(), filter))
-                .flatMap(session -> messageRepository.countBySessionId(session.getId())
-                        .map(count -> SessionDetail.builder()
-                                .sessionId(session.getId())
-                                .userId(session.getUserId())
-                                .title(session.getTitle())
-                                .messageCount(count)
-                                .createdAt(session.getCreatedAt())
-                                .active(Boolean.TRUE.equals(session.getActive()))
-                                .build()))
-                .collectSortedList(Comparator.comparingLong(SessionDetail::getMessageCount).reversed())
-                .map(list -> list.stream()
-                        .limit(filter.getLimit() != null ? filter.getLimit() : 10)
-                        .collect(Collectors.toList()));
+        String query = """
+                SELECT s.id, s.user_id, s.title, s.created_at, s.active,
+                       COUNT(m.id) AS message_count, MAX(m.created_at) AS last_message_at
+                FROM chat.chat_sessions s
+                LEFT JOIN chat.chat_messages m ON m.session_id = s.id
+                WHERE s.created_at BETWEEN :start AND :end
+                GROUP BY s.id, s.user_id, s.title, s.created_at, s.active
+                ORDER BY message_count DESC
+                LIMIT :limit
+                """;
+
+        return bindWindow(databaseClient.sql(query), filter)
+                .bind("limit", limitOf(filter))
+                .fetch().all()
+                .map(this::toSessionDetail)
+                .collectList();
     }
 
     /**
      * Get recently active sessions.
      */
     private Mono<List<SessionDetail>> getRecentSessions(AnalyticsFilter filter) {
-        return sessionRepository.findAll()
-                .filter(session -> isWithinDateRange(session.getCreatedAt(), filter))
-                .collectSortedList(Comparator.comparing(
-                        R2dbcChatSession::getCreatedAt,
-                        Comparator.nullsLast(Comparator.reverseOrder())))
-                .flatMap(sessions -> Flux.fromIterable(sessions)
-                        .take(filter.getLimit() != null ? filter.getLimit() : 10)
-                        .flatMap(session -> messageRepository.countBySessionId(session.getId())
-                                .map(count -> SessionDetail.builder()
-                                        .sessionId(session.getId())
-                                        .userId(session.getUserId())
-                                        .title(session.getTitle())
-                                        .messageCount(count)
-                                        .createdAt(session.getCreatedAt())
-                                        .active(Boolean.TRUE.equals(session.getActive()))
-                                        .build()))
-                        .collectList());
+        String query = """
+                SELECT s.id, s.user_id, s.title, s.created_at, s.active,
+                       m.message_count, m.last_message_at
+                FROM chat.chat_sessions s
+                LEFT JOIN LATERAL (
+                    SELECT COUNT(*) AS message_count, MAX(created_at) AS last_message_at
+                    FROM chat.chat_messages
+                    WHERE session_id = s.id
+                ) m ON TRUE
+                WHERE s.created_at BETWEEN :start AND :end
+                ORDER BY s.created_at DESC NULLS LAST
+                LIMIT :limit
+                """;
+
+        return bindWindow(databaseClient.sql(query), filter)
+                .bind("limit", limitOf(filter))
+                .fetch().all()
+                .map(this::toSessionDetail)
+                .collectList();
     }
 
     /**
      * Get session counts grouped by day.
      */
     private Mono<Map<String, Long>> getSessionsByDay(AnalyticsFilter filter) {
-        return sessionRepository.findAll()
-                .filter(session -> isWithinDateRange(session.getCreatedAt(), filter))
-                .collectList()
-                .map(sessions -> sessions.stream()
-                        .filter(s -> s.getCreatedAt() != null)
-                        .collect(Collectors.groupingBy(
-                                s -> s.getCreatedAt().toLocalDate().toString(),
-                                TreeMap::new,
-                                Collectors.counting())));
+        String query = """
+                SELECT stat_date, SUM(session_count) AS session_count
+                FROM chat.chat_daily_user_stats
+                WHERE stat_date BETWEEN :startDay AND :endDay
+                  AND session_count > 0
+                GROUP BY stat_date
+                """;
+
+        return bindDays(databaseClient.sql(query), filter)
+                .fetch().all()
+                .collectMap(row -> row.get("stat_date").toString(),
+                        row -> toLong(row.get("session_count")),
+                        TreeMap::new);
     }
 
     /**
@@ -181,56 +199,51 @@ public class ReactiveChatAnalyticsService {
     public Mono<UserEngagementSummary> getUserEngagementSummary(AnalyticsFilter filter) {
         LocalDateTime now = LocalDateTime.now();
 
-        return sessionRepository.findAll()
-                .filter(session -> isWithinDateRange(session.getCreatedAt(), filter))
-                .collectList()
-                .flatMap(sessions -> {
-                    Set<String> allUserIds = sessions.stream()
-                            .map(R2dbcChatSession::getUserId)
-                            .filter(Objects::nonNull)
-                            .collect(Collectors.toSet());
-
-                    Set<String> activeUsers24h = sessions.stream()
-                            .filter(s -> s.getCreatedAt() != null &&
-                                    s.getCreatedAt().isAfter(now.minusDays(1)))
-                            .map(R2dbcChatSession::getUserId)
-                            .filter(Objects::nonNull)
-                            .collect(Collectors.toSet());
-
-                    Set<String> activeUsers7d = sessions.stream()
-                            .filter(s -> s.getCreatedAt() != null &&
-                                    s.getCreatedAt().isAfter(now.minusDays(7)))
-                            .map(R2dbcChatSession::getUserId)
-                            .filter(Objects::nonNull)
-                            .collect(Collectors.toSet());
-
-                    Set<String> activeUsers30d = sessions.stream()
-                            .filter(s -> s.getCreatedAt() != null &&
-                                    s.getCreatedAt().isAfter(now.minusDays(30)))
-                            .map(R2dbcChatSession::getUserId)
-                            .filter(Objects::nonNull)
-                            .collect(Collectors.toSet());
-
-                    long totalUsers = allUserIds.size();
+        String sessionSql = """
+                SELECT COUNT(DISTINCT user_id) AS total_users,
+                       COUNT(*) FILTER (WHERE user_id IS NOT NULL) AS total_sessions,
+                       COUNT(DISTINCT user_id) FILTER (WHERE created_at > :since24h) AS active_24h,
+                       COUNT(DISTINCT user_id) FILTER (WHERE created_at > :since7d) AS active_7d,
+                       COUNT(DISTINCT user_id) FILTER (WHERE created_at > :since30d) AS active_30d
+                FROM chat.chat_sessions
+                WHERE created_at BETWEEN :start AND :end
+                """;
+
+        String messageSql = """
+                SELECT COALESCE(SUM(message_count), 0) AS total_messages
+                FROM chat.chat_daily_user_stats
+                WHERE stat_date BETWEEN :startDay AND :endDay
+                """;
+
+        Mono<Map<String, Object>> sessionCounts = bindWindow(databaseClient.sql(sessionSql), filter)
+                .bind("since24h", now.minusDays(1))
+                .bind("since7d", now.minusDays(7))
+                .bind("since30d", now.minusDays(30))
+                .fetch().one();
+
+        Mono<Long> totalMessages = bindDays(databaseClient.sql(messageSql), filter)
+                .fetch().one()
+                .map(row -> toLong(row.get("total_messages")));
+
+        return Mono.zip(sessionCounts, totalMessages)
+                .map(tuple -> {
+                    Map<String, Object> row = tuple.getT1();
+                    long totalUsers = toLong(row.get("total_users"));
+                    long totalSessions = toLong(row.get("total_sessions"));
+
                     double avgSessionsPerUser = totalUsers > 0
-                            ? (double) sessions.size() / totalUsers : 0.0;
-
-                    return messageRepository.findAll()
-                            .filter(msg -> isMessageWithinFilter(msg, filter, sessions))
-                            .count()
-                            .map(totalMessages -> {
-                                double avgMessagesPerUser = totalUsers > 0
-                                        ? (double) totalMessages / totalUsers : 0.0;
-
-                                return UserEngagementSummary.builder()
-                                        .totalUsers(totalUsers)
-                                        .activeUsersLast24h(activeUsers24h.size())
-                                        .activeUsersLast7d(activeUsers7d.size())
-                                        .activeUsersLast30d(activeUsers30d.size())
-                                        .avgMessagesPerUser(round(avgMessagesPerUser, 2))
-                                        .avgSessionsPerUser(round(avgSessionsPerUser, 2))
-                                        .build();
-                            });
+                            ? (double) totalSessions / totalUsers : 0.0;
+                    double avgMessagesPerUser = totalUsers > 0
+                            ? (double) tuple.getT2() / totalUsers : 0.0;
+
+                    return UserEngagementSummary.builder()
+                            .totalUsers(totalUsers)
+                            .activeUsersLast24h(toLong(row.get("active_24h")))
+                            .activeUsersLast7d(toLong(row.get("active_7d")))
+                            .activeUsersLast30d(toLong(row.get("active_30d")))
+                            .avgMessagesPerUser(round(avgMessagesPerUser, 2))
+                            .avgSessionsPerUser(round(avgSessionsPerUser, 2))
+                            .build();
                 });
     }
 
@@ -255,108 +268,85 @@ public class ReactiveChatAnalyticsService {
      * Get top users by message count.
      */
     private Mono<List<UserEngagementDetail>> getTopUsersByMessages(AnalyticsFilter filter) {
-        return sessionRepository.findAll()
-                .filter(session -> isWithinDateRange(session.getCreatedAt(), filter))
-                .collectMultimap(R2dbcChatSession::getUserId)
-                .flatMapMany(sessionsByUser -> Flux.fromIterable(sessionsByUser.entrySet()))
-                .filter(entry -> entry.getKey() != null)
-                .flatMap(entry -> {
-                    String userId = entry.getKey();
-                    List<R2dbcChatSession> userSessions = new ArrayList<>(entry.getValue());
-
-                    return Flux.fromIterable(userSessions)
-                            .flatMap(session -> messageRepository.countBySessionId(session.getId()))
-                            .reduce(0L, Long::sum)
-                            .map(totalMessages -> UserEngagementDetail.builder()
-                                    .userId(userId)
-                                    .totalMessages(totalMessages)
-                                    .totalSessions(userSessions.size())
-                                    .lastActiveAt(userSessions.stream()
-                                            .map(R2dbcChatSession::getCreatedAt)
-                                            .filter(Objects::nonNull)
-                                            .max(Comparator.naturalOrder())
-                                            .orElse(null))
-                                    .firstMessageAt(userSessions.stream()
-                                            .map(R2dbcChatSession::getCreatedAt)
-                                            .filter(Objects::nonNull)
-                                            .min(Comparator.naturalOrder())
-                                            .orElse(null))
-                                    .build());
-                })
-                .collectSortedList(Comparator.comparingLong(UserEngagementDetail::getTotalMessages).reversed())
-                .map(list -> list.stream()
-                        .limit(filter.getLimit() != null ? filter.getLimit() : 10)
-                        .collect(Collectors.toList()));
+        return getUserEngagementDetails(filter, "total_messages DESC");
     }
 
     /**
      * Get recently active users.
      */
     private Mono<List<UserEngagementDetail>> getRecentActiveUsers(AnalyticsFilter filter) {
-        return sessionRepository.findAll()
-                .filter(session -> isWithinDateRange(session.getCreatedAt(), filter))
-                .collectMultimap(R2dbcChatSession::getUserId)
-                .flatMapMany(sessionsByUser -> Flux.fromIterable(sessionsByUser.entrySet()))
-                .filter(entry -> entry.getKey() != null)
-                .flatMap(entry -> {
-                    String userId = entry.getKey();
-                    List<R2dbcChatSession> userSessions = new ArrayList<>(entry.getValue());
-
-                    LocalDateTime lastActive = userSessions.stream()
-                            .map(R2dbcChatSession::getCreatedAt)
-                            .filter(Objects::nonNull)
-                            .max(Comparator.naturalOrder())
-                            .orElse(null);
-
-                    return Flux.fromIterable(userSessions)
-                            .flatMap(session -> messageRepository.countBySessionId(session.getId()))
-                            .reduce(0L, Long::sum)
-                            .map(totalMessages -> UserEngagementDetail.builder()
-                                    .userId(userId)
-                                    .totalMessages(totalMessages)
-                                    .totalSessions(userSessions.size())
-                                    .lastActiveAt(lastActive)
-                                    .build());
-                })
-                .collectSortedList(Comparator.comparing(
-                        UserEngagementDetail::getLastActiveAt,
-                        Comparator.nullsLast(Comparator.reverseOrder())))
-                .map(list -> list.stream()
-                        .limit(filter.getLimit() != null ? filter.getLimit() : 10)
-                        .collect(Collectors.toList()));
+        return getUserEngagementDetails(filter, "us.last_active_at DESC NULLS LAST");
+    }
+
+    /**
+     * Per-user session and message totals for the window, ordered and limited in SQL.
+     */
+    private Mono<List<UserEngagementDetail>> getUserEngagementDetails(AnalyticsFilter filter, String orderBy) {
+        String query = """
+                WITH user_sessions AS (
+                    SELECT user_id, COUNT(*) AS total_sessions,
+                           MIN(created_at) AS first_active_at, MAX(created_at) AS last_active_at
+                    FROM chat.chat_sessions
+                    WHERE created_at BETWEEN :start AND :end
+                      AND user_id IS NOT NULL
+                    GROUP BY user_id
+                ), user_messages AS (
+                    SELECT user_id, SUM(message_count) AS total_messages
+                    FROM chat.chat_daily_user_stats
+                    WHERE stat_date BETWEEN :startDay AND :endDay
+                    GROUP BY user_id
+                )
+                SELECT us.user_id, us.total_sessions, us.first_active_at, us.last_active_at,
+                       COALESCE(um.total_messages, 0) AS total_messages
+                FROM user_sessions us
+                LEFT JOIN user_messages um ON um.user_id = us.user_id
+                ORDER BY %s
+                LIMIT :limit
+                """.formatted(orderBy);
+
+        return bindDays(bindWindow(databaseClient.sql(query), filter), filter)
+                .bind("limit", limitOf(filter))
+                .fetch().all()
+                .map(row -> UserEngagementDetail.builder()
+                        .userId((String) row.get("user_id"))
+                        .totalMessages(toLong(row.get("total_messages")))
+                        .totalSessions(toLong(row.get("total_sessions")))
+                        .lastActiveAt((LocalDateTime) row.get("last_active_at"))
+                        .firstMessageAt((LocalDateTime) row.get("first_active_at"))
+                        .build())
+                .collectList();
     }
 
     /**
      * Get user activity counts by day.
      */
     private Mono<Map<String, Long>> getUserActivityByDay(AnalyticsFilter filter) {
-        return sessionRepository.findAll()
-                .filter(session -> isWithinDateRange(session.getCreatedAt(), filter))
-                .collectList()
-                .map(sessions -> sessions.stream()
-                        .filter(s -> s.getCreatedAt() != null)
-                        .collect(Collectors.groupingBy(
-                                s -> s.getCreatedAt().toLocalDate().toString(),
-                                TreeMap::new,
-                                Collectors.mapping(R2dbcChatSession::getUserId,
-                                        Collectors.collectingAndThen(Collectors.toSet(), set -> (long) set.size())))));
+        String query = """
+                SELECT stat_date, COUNT(*) AS user_count
+                FROM chat.chat_daily_user_stats
+                WHERE stat_date BETWEEN :startDay AND :endDay
+                  AND session_count > 0
+                GROUP BY stat_date
+                """;
+
+        return bindDays(databaseClient.sql(query), filter)
+                .fetch().all()
+                .collectMap(row -> row.get("stat_date").toString(),
+                        row -> toLong(row.get("user_count")),
+                        TreeMap::new);
     }
 
     /**
      * Get LLM engine usage summary.
      */
     public Mono<EngineSummary> getEngineSummary(AnalyticsFilter filter) {
-        return messageRepository.findAll()
-                .filter(msg -> "ASSISTANT".equals(msg.getRole()) &&
-                        isWithinDateRange(msg.getCreatedAt(), filter))
-                .collectList()
-                .map(messages -> {
-                    long totalRequests = messages.size();
-
-                    Map<String, Long> requestsByEngine = messages.stream()
-                            .collect(Collectors.groupingBy(
-                                    m -> m.getEngine() != null ? m.getEngine() : "unknown",
-                                    Collectors.counting()));
+        return getAssistantMessagesByEngine(filter)
+                .map(rows -> {
+                    Map<String, Long> requestsByEngine = rows.stream()
+                            .collect(Collectors.toMap(
+                                    row -> (String) row.get("engine"),
+                                    row -> toLong(row.get("request_count"))));
+                    long totalRequests = requestsByEngine.values().stream().mapToLong(Long::longValue).sum();
 
                     // Compute success rates from Micrometer metrics
                     Map<String, Double> successRateByEngine = computeSuccessRates(requestsByEngine.keySet());
@@ -394,27 +384,17 @@ public class ReactiveChatAnalyticsService {
      * Get detailed stats for each engine.
      */
     private Mono<List<EngineDetail>> getEngineDetails(AnalyticsFilter filter) {
-        return messageRepository.findAll()
-                .filter(msg -> "ASSISTANT".equals(msg.getRole()) &&
-                        isWithinDateRange(msg.getCreatedAt(), filter))
-                .collectMultimap(m -> m.getEngine() != null ? m.getEngine() : "unknown")
-                .map(messagesByEngine -> messagesByEngine.entrySet().stream()
-                        .map(entry -> {
-                            String engine = entry.getKey();
-                            Collection<R2dbcChatMessage> messages = entry.getValue();
-                            long totalRequests = messages.size();
+        return getAssistantMessagesByEngine(filter)
+                .map(rows -> rows.stream()
+                        .map(row -> {
+                            String engine = (String) row.get("engine");
+                            long totalRequests = toLong(row.get("request_count"));
 
                             // Get metrics from Micrometer
                             double successRate = getEngineSuccessRate(engine);
                             double avgResponseTime = getEngineAvgResponseTime(engine);
                             double avgTokens = getEngineAvgTokens(engine);
 
-                            LocalDateTime lastUsed = messages.stream()
-                                    .map(R2dbcChatMessage::getCreatedAt)
-                                    .filter(Objects::nonNull)
-                                    .max(Comparator.naturalOrder())
-                                    .orElse(null);
-
                             long successfulRequests = (long) (totalRequests * successRate / 100);
                             long failedRequests = totalRequests - successfulRequests;
 
@@ -426,28 +406,47 @@ public class ReactiveChatAnalyticsService {
                                     .successRate(round(successRate, 2))
                                     .avgResponseTimeMs(round(avgResponseTime, 2))
                                     .avgTokensPerRequest(round(avgTokens, 2))
-                                    .lastUsedAt(lastUsed)
+                                    .lastUsedAt((LocalDateTime) row.get("last_used_at"))
                                     .build();
                         })
                         .sorted(Comparator.comparingLong(EngineDetail::getTotalRequests).reversed())
                         .collect(Collectors.toList()));
     }
 
+    /**
+     * Assistant message counts and last use per engine within the window.
+     */
+    private Mono<List<Map<String, Object>>> getAssistantMessagesByEngine(AnalyticsFilter filter) {
+        String query = """
+                SELECT engine, SUM(message_count) AS request_count, MAX(last_message_at) AS last_used_at
+                FROM chat.chat_daily_engine_stats
+                WHERE role = 'ASSISTANT'
+                  AND stat_date BETWEEN :startDay AND :endDay
+                GROUP BY engine
+                """;
+
+        return bindDays(databaseClient.sql(query), filter)
+                .fetch().all()
+                .collectList();
+    }
+
     /**
      * Get request counts by engine per day.
      */
     private Mono<Map<String, Long>> getRequestsByEnginePerDay(AnalyticsFilter filter) {
-        return messageRepository.findAll()
-                .filter(msg -> "ASSISTANT".equals(msg.getRole()) &&
-                        isWithinDateRange(msg.getCreatedAt(), filter))
-                .collectList()
-                .map(messages -> messages.stream()
-                        .filter(m -> m.getCreatedAt() != null)
-                        .collect(Collectors.groupingBy(
-                                m -> m.getCreatedAt().toLocalDate().toString() + "_" +
-                                        (m.getEngine() != null ? m.getEngine() : "unknown"),
-                                TreeMap::new,
-                                Collectors.counting())));
+        String query = """
+                SELECT stat_date, engine, SUM(message_count) AS request_count
+                FROM chat.chat_daily_engine_stats
+                WHERE role = 'ASSISTANT'
+                  AND stat_date BETWEEN :startDay AND :endDay
+                GROUP BY stat_date, engine
+                """;
+
+        return bindDays(databaseClient.sql(query), filter)
+                .fetch().all()
+                .collectMap(row -> row.get("stat_date").toString() + "_" + row.get("engine"),
+                        row -> toLong(row.get("request_count")),
+                        TreeMap::new);
     }
 
     /**
@@ -569,26 +568,38 @@ public class ReactiveChatAnalyticsService {
 
     // Utility methods
 
-    private boolean isWithinDateRange(LocalDateTime dateTime, AnalyticsFilter filter) {
-        if (dateTime == null) return true;
-        boolean afterStart = filter.getStartDate() == null || !dateTime.isBefore(filter.getStartDate());
-        boolean beforeEnd = filter.getEndDate() == null || !dateTime.isAfter(filter.getEndDate());
-        return afterStart && beforeEnd;
+    private DatabaseClient.GenericExecuteSpec bindWindow(DatabaseClient.GenericExecuteSpec spec, AnalyticsFilter filter) {
+        return spec
+                .bind("start", filter.getStartDate() != null ? filter.getStartDate() : MIN_TIMESTAMP)
+                .bind("end", filter.getEndDate() != null ? filter.getEndDate() : MAX_TIMESTAMP);
     }
 
-    private boolean isMessageWithinFilter(R2dbcChatMessage msg, AnalyticsFilter filter,
-                                          List<R2dbcChatSession> sessions) {
-        // Check date range
-        if (!isWithinDateRange(msg.getCreatedAt(), filter)) {
-            return false;
-        }
+    private DatabaseClient.GenericExecuteSpec bindDays(DatabaseClient.GenericExecuteSpec spec, AnalyticsFilter filter) {
+        return spec
+                .bind("startDay", filter.getStartDate() != null
+                        ? filter.getStartDate().toLocalDate() : MIN_TIMESTAMP.toLocalDate())
+                .bind("endDay", filter.getEndDate() != null
+                        ? filter.getEndDate().toLocalDate() : MAX_TIMESTAMP.toLocalDate());
+    }
 
-        // Check if message belongs to a session in the filtered sessions
-        Set<String> sessionIds = sessions.stream()
-                .map(R2dbcChatSession::getId)
-                .collect(Collectors.toSet());
+    private SessionDetail toSessionDetail(Map<String, Object> row) {
+        return SessionDetail.builder()
+                .sessionId((String) row.get("id"))
+                .userId((String) row.get("user_id"))
+                .title((String) row.get("title"))
+                .messageCount(toLong(row.get("message_count")))
+                .createdAt((LocalDateTime) row.get("created_at"))
+                .lastMessageAt((LocalDateTime) row.get("last_message_at"))
+                .active(Boolean.TRUE.equals(row.get("active")))
+                .build();
+    }
+
+    private int limitOf(AnalyticsFilter filter) {
+        return filter.getLimit() != null ? filter.getLimit() : DEFAULT_LIMIT;
+    }
 
-        return sessionIds.contains(msg.getSessionId());
+    private long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
     }
 
     private double round(double value, int places) {
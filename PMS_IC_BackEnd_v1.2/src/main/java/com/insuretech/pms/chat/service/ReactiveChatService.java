@@ -11,6 +11,7 @@ import com.insuretech.pms.chat.exception.ChatException;
 import com.insuretech.pms.chat.reactive.entity.R2dbcChatMessage;
 import com.insuretech.pms.chat.gateway.LlmGatewayService;
 import com.insuretech.pms.chat.gateway.dto.GatewayRequest;
+import com.insuretech.pms.chat.gateway.dto.SafetyContext;
 import com.insuretech.pms.chat.tool.StreamingToolOrchestrator;
 import com.insuretech.pms.chat.tool.ToolContext;
 import com.insuretech.pms.chat.tool.ToolRegistry;
@@ -464,6 +465,11 @@ public class ReactiveChatService {
                 .messages(messages)
                 .tools(tools)
                 .generation(request.getGeneration())
+                .safety(SafetyContext.builder()
+                        .projectId(request.getProjectId())
+                        .userRole(request.getUserRole())
+                        .userAccessLevel(request.getUserAccessLevel())
+                        .build())
                 .build();
     }
 
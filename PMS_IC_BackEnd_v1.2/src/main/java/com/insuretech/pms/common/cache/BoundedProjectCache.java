@@ -0,0 +1,90 @@
+package com.insuretech.pms.common.cache;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Per-project state holders with a size bound.
+ *
+ * {@link #acquire} returns the project's holder, creating it on first use, and
+ * records the access. When the map grows past the bound the least recently
+ * acquired project is dropped. Eviction runs after the insert, outside the
+ * map's compute, so the map is never modified from inside its own mapping
+ * function. The bound is read on every insert, so it may come from a field
+ * injected after construction.
+ *
+ * @param <H> holder type; holders synchronize their own state
+ */
+public final class BoundedProjectCache<H> {
+
+    private final Supplier<H> factory;
+    private final IntSupplier maxProjects;
+    private final Map<String, Slot<H>> slots = new ConcurrentHashMap<>();
+
+    public BoundedProjectCache(Supplier<H> factory, IntSupplier maxProjects) {
+        this.factory = factory;
+        this.maxProjects = maxProjects;
+    }
+
+    /**
+     * The project's holder, created if missing.
+     */
+    public H acquire(String projectId) {
+        boolean[] created = {false};
+        Slot<H> slot = slots.computeIfAbsent(projectId, id -> {
+            created[0] = true;
+            return new Slot<>(factory.get());
+        });
+        slot.lastAccess = System.nanoTime();
+        if (created[0]) {
+            evictBeyondBound(projectId);
+        }
+        return slot.holder;
+    }
+
+    /**
+     * The project's holder if present; does not count as an access.
+     */
+    public Optional<H> peek(String projectId) {
+        Slot<H> slot = slots.get(projectId);
+        return slot != null ? Optional.of(slot.holder) : Optional.empty();
+    }
+
+    public Iterable<H> holders() {
+        return slots.values().stream().map(slot -> slot.holder).toList();
+    }
+
+    public void remove(String projectId) {
+        slots.remove(projectId);
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    private void evictBeyondBound(String keep) {
+        int bound = Math.max(1, maxProjects.getAsInt());
+        while (slots.size() > bound) {
+            Optional<Map.Entry<String, Slot<H>>> oldest = slots.entrySet().stream()
+                    .filter(e -> !e.getKey().equals(keep))
+                    .min(Comparator.comparingLong(e -> e.getValue().lastAccess));
+            if (oldest.isEmpty()) {
+                return;
+            }
+            slots.remove(oldest.get().getKey(), oldest.get().getValue());
+        }
+    }
+
+    private static final class Slot<H> {
+        private final H holder;
+        private volatile long lastAccess = System.nanoTime();
+
+        private Slot(H holder) {
+            this.holder = holder;
+        }
+    }
+}
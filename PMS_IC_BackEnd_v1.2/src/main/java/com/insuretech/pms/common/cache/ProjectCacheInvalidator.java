@@ -0,0 +1,15 @@
+package com.insuretech.pms.common.cache;
+
+/**
+ * A cache whose entries are derived from a project's data.
+ *
+ * Write paths call {@link #invalidateProject} after changing a project, so they
+ * do not depend on the module that owns the cache.
+ */
+public interface ProjectCacheInvalidator {
+
+    /**
+     * Retire every entry derived from the project's data.
+     */
+    void invalidateProject(String projectId);
+}
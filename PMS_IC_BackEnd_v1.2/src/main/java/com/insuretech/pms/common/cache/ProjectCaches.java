@@ -0,0 +1,26 @@
+package com.insuretech.pms.common.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Every {@link ProjectCacheInvalidator} in the application.
+ *
+ * Write paths call {@link #invalidateProject} once after changing a project
+ * instead of knowing which caches are derived from its data.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProjectCaches {
+
+    private final List<ProjectCacheInvalidator> caches;
+
+    public void invalidateProject(String projectId) {
+        if (projectId == null) {
+            return;
+        }
+        caches.forEach(cache -> cache.invalidateProject(projectId));
+    }
+}
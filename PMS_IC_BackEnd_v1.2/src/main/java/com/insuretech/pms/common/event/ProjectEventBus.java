@@ -0,0 +1,240 @@
+package com.insuretech.pms.common.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Cluster-wide, per-project event fan-out for SSE streams.
+ *
+ * Events are published to the Redis channel {@code pms:events:<name>:<projectId>} and
+ * every replica with local subscribers for that project relays them. A replica holds a
+ * Redis subscription only while it has subscribers: the channel is reference-counted and
+ * evicted when the last subscriber leaves. Each subscriber gets its own bounded buffer;
+ * when a slow client overflows it the oldest events are dropped and counted.
+ *
+ * Optionally, events sharing a coalesce key (e.g. repeated moves of one task) are held
+ * for a short window and only the latest is published. A non-coalescible event for the
+ * same key flushes the pending one first so ordering per key is preserved.
+ *
+ * If Redis is disabled or a publish fails, the event is delivered to local subscribers
+ * only, which matches the single-node behaviour.
+ */
+@Slf4j
+public class ProjectEventBus<T> {
+
+    private final String name;
+    private final Class<T> type;
+    private final ReactiveRedisMessageListenerContainer listenerContainer;
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final boolean redisEnabled;
+    private final int subscriberBufferSize;
+    private final Duration coalesceWindow;
+    private final Function<T, String> coalesceKey;
+    private final Predicate<T> coalescible;
+
+    private final Map<String, Channel> channels = new ConcurrentHashMap<>();
+    private final Map<String, T> pendingCoalesced = new ConcurrentHashMap<>();
+
+    private final Counter publishedCounter;
+    private final Counter droppedCounter;
+    private final Counter coalescedCounter;
+    private final Counter fallbackCounter;
+
+    ProjectEventBus(String name, Class<T> type,
+                    ReactiveRedisMessageListenerContainer listenerContainer,
+                    ReactiveStringRedisTemplate redisTemplate,
+                    ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                    boolean redisEnabled, int subscriberBufferSize, Duration coalesceWindow,
+                    Function<T, String> coalesceKey, Predicate<T> coalescible) {
+        this.name = name;
+        this.type = type;
+        this.listenerContainer = listenerContainer;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.redisEnabled = redisEnabled;
+        this.subscriberBufferSize = subscriberBufferSize;
+        this.coalesceWindow = coalesceWindow;
+        this.coalesceKey = coalesceKey;
+        this.coalescible = coalescible;
+
+        this.publishedCounter = counter(meterRegistry, "pms.events.published");
+        this.droppedCounter = counter(meterRegistry, "pms.events.dropped");
+        this.coalescedCounter = counter(meterRegistry, "pms.events.coalesced");
+        this.fallbackCounter = counter(meterRegistry, "pms.events.local_fallback");
+        Gauge.builder("pms.events.channels", channels, Map::size)
+                .tag("bus", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Publish an event to every subscriber of the project, on any replica.
+     * Fire-and-forget: failures are logged and fall back to local delivery.
+     */
+    public void publish(String projectId, T event) {
+        if (projectId == null || event == null) {
+            return;
+        }
+
+        String key = coalesceKey != null ? coalesceKey.apply(event) : null;
+        if (key == null || coalesceWindow.isZero()) {
+            send(projectId, event);
+            return;
+        }
+
+        String pendingKey = projectId + '\u0000' + key;
+        if (!coalescible.test(event)) {
+            T pending = pendingCoalesced.remove(pendingKey);
+            if (pending != null) {
+                send(projectId, pending);
+            }
+            send(projectId, event);
+            return;
+        }
+
+        if (pendingCoalesced.put(pendingKey, event) != null) {
+            coalescedCounter.increment();
+            return;
+        }
+        Mono.delay(coalesceWindow).subscribe(tick -> {
+            T latest = pendingCoalesced.remove(pendingKey);
+            if (latest != null) {
+                send(projectId, latest);
+            }
+        });
+    }
+
+    /**
+     * Subscribe to the events of a project. The Redis subscription is shared by all
+     * local subscribers of the project and released with the last one.
+     */
+    public Flux<T> subscribe(String projectId) {
+        return Flux.defer(() -> {
+            Channel channel = channels.compute(projectId, (id, existing) -> {
+                Channel c = existing != null ? existing : new Channel(id);
+                c.subscribers++;
+                return c;
+            });
+            return channel.events
+                    .onBackpressureBuffer(subscriberBufferSize,
+                            dropped -> droppedCounter.increment(),
+                            BufferOverflowStrategy.DROP_OLDEST)
+                    .doFinally(signal -> release(projectId, channel));
+        });
+    }
+
+    public int getActiveChannelCount() {
+        return channels.size();
+    }
+
+    private void release(String projectId, Channel channel) {
+        channels.computeIfPresent(projectId, (id, existing) -> {
+            if (existing != channel) {
+                return existing;
+            }
+            return --existing.subscribers <= 0 ? null : existing;
+        });
+    }
+
+    private void send(String projectId, T event) {
+        publishedCounter.increment();
+        if (!redisEnabled) {
+            deliverLocally(projectId, event);
+            return;
+        }
+
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize {} event for project {}", name, projectId, e);
+            return;
+        }
+
+        redisTemplate.convertAndSend(channelName(projectId), payload)
+                .subscribe(
+                        receivers -> log.trace("{} event for project {} reached {} replica(s)",
+                                name, projectId, receivers),
+                        error -> {
+                            log.warn("Redis publish failed for {} event on project {}, delivering locally: {}",
+                                    name, projectId, error.getMessage());
+                            fallbackCounter.increment();
+                            deliverLocally(projectId, event);
+                        });
+    }
+
+    private void deliverLocally(String projectId, T event) {
+        Channel channel = channels.get(projectId);
+        if (channel != null) {
+            channel.local.tryEmitNext(event);
+        }
+    }
+
+    private String channelName(String projectId) {
+        return "pms:events:" + name + ":" + projectId;
+    }
+
+    private T deserialize(String payload) {
+        try {
+            return objectMapper.readValue(payload, type);
+        } catch (JsonProcessingException e) {
+            log.warn("Dropping malformed {} event: {}", name, e.getMessage());
+            return null;
+        }
+    }
+
+    private Counter counter(MeterRegistry meterRegistry, String metric) {
+        return Counter.builder(metric)
+                .tag("bus", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Local fan-out point for one project: the shared Redis subscription merged with
+     * locally delivered fallback events. {@code subscribers} is only touched inside
+     * map compute calls, which serialize access per project.
+     */
+    private final class Channel {
+
+        private final Sinks.Many<T> local = Sinks.many().multicast().directBestEffort();
+        private final Flux<T> events;
+        private int subscribers;
+
+        private Channel(String projectId) {
+            Flux<T> remote = redisEnabled
+                    ? listenerContainer.receive(ChannelTopic.of(channelName(projectId)))
+                            .<T>handle((message, sink) -> {
+                                T event = deserialize(message.getMessage());
+                                if (event != null) {
+                                    sink.next(event);
+                                }
+                            })
+                            .onErrorResume(error -> {
+                                log.warn("Redis subscription for {} events on project {} failed: {}",
+                                        name, projectId, error.getMessage());
+                                return Flux.never();
+                            })
+                    : Flux.never();
+            this.events = Flux.merge(remote, local.asFlux())
+                    .publish()
+                    .refCount();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.insuretech.pms.common.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Creates {@link ProjectEventBus} instances sharing one Redis listener container.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProjectEventBusFactory {
+
+    private final ReactiveRedisConnectionFactory connectionFactory;
+    private final ReactiveRedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${pms.events.redis.enabled:true}")
+    private boolean redisEnabled;
+
+    @Value("${pms.events.subscriber-buffer:256}")
+    private int subscriberBufferSize;
+
+    @Value("${pms.events.coalesce-window-ms:150}")
+    private long coalesceWindowMs;
+
+    /**
+     * Bus without coalescing.
+     */
+    public <T> ProjectEventBus<T> create(String name, Class<T> type) {
+        return create(name, type, null, event -> false);
+    }
+
+    /**
+     * Bus that coalesces events matching {@code coalescible} per {@code coalesceKey}
+     * within the configured window.
+     */
+    public <T> ProjectEventBus<T> create(String name, Class<T> type,
+                                         Function<T, String> coalesceKey, Predicate<T> coalescible) {
+        return new ProjectEventBus<>(name, type, listenerContainer,
+                new ReactiveStringRedisTemplate(connectionFactory), objectMapper, meterRegistry,
+                redisEnabled, subscriberBufferSize, Duration.ofMillis(coalesceWindowMs),
+                coalesceKey, coalescible);
+    }
+}
@@ -0,0 +1,246 @@
+package com.insuretech.pms.common.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared processing loop for outbox tables.
+ *
+ * Handlers call {@link #poll} from their own schedule. Each cycle leases a page of
+ * ready rows for this replica, hands it to the handler in chunks with the handler's
+ * concurrency, renews the leases on a heartbeat while the page is in flight, and
+ * releases them as chunks complete. Replicas coordinate only through the leases, so
+ * adding pods adds throughput instead of contention. Within a replica a handler
+ * runs at most one cycle at a time.
+ *
+ * Per handler ({@code outbox} tag) the engine reports leased/handled/failed event
+ * counters, chunk latency, and the ready backlog size and age.
+ */
+@Slf4j
+@Component
+public class OutboxEngine {
+
+    private final OutboxLeaseStore leaseStore;
+    private final MeterRegistry meterRegistry;
+    private final String owner;
+
+    @Value("${pms.outbox.lease-seconds:60}")
+    private long leaseSeconds;
+
+    @Value("${pms.outbox.heartbeat-interval-ms:20000}")
+    private long heartbeatIntervalMs;
+
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+
+    public OutboxEngine(OutboxLeaseStore leaseStore, MeterRegistry meterRegistry) {
+        this.leaseStore = leaseStore;
+        this.meterRegistry = meterRegistry;
+        this.owner = hostName() + ":" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /**
+     * Run one cycle for the handler unless one is already running on this replica.
+     */
+    public <T> void poll(OutboxHandler<T> handler) {
+        if (!handler.enabled()) {
+            return;
+        }
+        Lane lane = lane(handler);
+        if (!lane.running.compareAndSet(false, true)) {
+            log.debug("Outbox {} cycle already running, skipping", lane.name);
+            return;
+        }
+
+        long start = System.nanoTime();
+        drain(handler, lane, Math.max(1, handler.maxPagesPerCycle()))
+                .flatMap(count -> refreshBacklog(handler, lane).thenReturn(count))
+                .doFinally(signal -> lane.running.set(false))
+                .subscribe(
+                        count -> lane.recordCycle(count, start),
+                        error -> log.error("Error in outbox {} cycle", lane.name, error)
+                );
+    }
+
+    /**
+     * Lease and process one page now, for manual triggers. Returns the number of
+     * events handled.
+     */
+    public <T> Mono<Long> runOnce(OutboxHandler<T> handler) {
+        Lane lane = lane(handler);
+        return drain(handler, lane, 1)
+                .flatMap(count -> refreshBacklog(handler, lane).thenReturn(count));
+    }
+
+    /**
+     * Engine-side view of a handler, for the handlers' status endpoints.
+     */
+    public Map<String, Object> status(OutboxHandler<?> handler) {
+        Lane lane = lane(handler);
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("outbox", lane.name);
+        status.put("owner", owner);
+        status.put("processing", lane.running.get());
+        status.put("leaseBatchSize", handler.leaseBatchSize());
+        status.put("concurrency", handler.concurrency());
+        status.put("ready", lane.ready.get());
+        status.put("lagMs", lane.lagMs.get());
+        status.put("throughputPerSecond", Math.round(lane.lastThroughputPerSecond * 100) / 100.0);
+        status.put("totalHandled", (long) lane.handled.count());
+        status.put("totalFailed", (long) lane.failed.count());
+        status.put("lastCycleAt", lane.lastCycleAt);
+        return status;
+    }
+
+    private <T> Mono<Long> drain(OutboxHandler<T> handler, Lane lane, int pagesLeft) {
+        int pageSize = Math.max(1, handler.leaseBatchSize());
+        return leaseStore.lease(handler.source(), owner, pageSize, leaseDuration())
+                .collectList()
+                .flatMap(page -> process(handler, lane, page)
+                        .flatMap(handled -> page.size() >= pageSize && pagesLeft > 1
+                                ? drain(handler, lane, pagesLeft - 1).map(more -> handled + more)
+                                : Mono.just(handled)));
+    }
+
+    private <T> Mono<Long> process(OutboxHandler<T> handler, Lane lane, List<T> page) {
+        if (page.isEmpty()) {
+            return Mono.just(0L);
+        }
+        lane.leased.increment(page.size());
+
+        OutboxSource<T> source = handler.source();
+        List<Object> ids = page.stream().map(source.idOf()).toList();
+        // Released rows no longer carry our owner id, so renewing the whole page only
+        // touches rows that are still in flight.
+        Disposable heartbeat = Flux.interval(Duration.ofMillis(heartbeatIntervalMs))
+                .concatMap(tick -> leaseStore.renew(source, owner, ids, leaseDuration())
+                        .onErrorResume(e -> {
+                            log.warn("Failed to renew outbox {} leases: {}", lane.name, e.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+
+        return Flux.fromIterable(page)
+                .buffer(Math.max(1, handler.chunkSize()))
+                .flatMap(chunk -> handleChunk(handler, lane, chunk), Math.max(1, handler.concurrency()))
+                .reduce(0L, Long::sum)
+                .doFinally(signal -> heartbeat.dispose());
+    }
+
+    private <T> Mono<Long> handleChunk(OutboxHandler<T> handler, Lane lane, List<T> chunk) {
+        OutboxSource<T> source = handler.source();
+        List<Object> ids = chunk.stream().map(source.idOf()).toList();
+        long start = System.nanoTime();
+
+        return Mono.defer(() -> handler.handle(chunk))
+                .then(Mono.defer(() -> leaseStore.release(source, owner, ids)))
+                .then(Mono.fromCallable(() -> {
+                    lane.chunkTimer.record(Duration.ofNanos(System.nanoTime() - start));
+                    lane.handled.increment(chunk.size());
+                    return (long) chunk.size();
+                }))
+                .onErrorResume(error -> {
+                    lane.failed.increment(chunk.size());
+                    log.warn("Outbox {} handler failed for {} events, leases left to expire: {}",
+                            lane.name, chunk.size(), error.getMessage());
+                    return Mono.just(0L);
+                });
+    }
+
+    private Mono<Void> refreshBacklog(OutboxHandler<?> handler, Lane lane) {
+        return leaseStore.backlog(handler.source())
+                .doOnNext(backlog -> {
+                    lane.ready.set(backlog.ready() != null ? backlog.ready() : 0);
+                    lane.lagMs.set(backlog.oldest() != null
+                            ? Math.max(0, Duration.between(backlog.oldest(), LocalDateTime.now()).toMillis())
+                            : 0);
+                })
+                .onErrorResume(e -> {
+                    log.debug("Could not compute outbox {} backlog: {}", lane.name, e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private Duration leaseDuration() {
+        return Duration.ofSeconds(leaseSeconds);
+    }
+
+    private Lane lane(OutboxHandler<?> handler) {
+        return lanes.computeIfAbsent(handler.source().name(), Lane::new);
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "unknown-host";
+        }
+    }
+
+    /**
+     * Per-handler cycle guard and metrics.
+     */
+    private final class Lane {
+        private final String name;
+        private final AtomicBoolean running = new AtomicBoolean(false);
+        private final AtomicLong ready = new AtomicLong();
+        private final AtomicLong lagMs = new AtomicLong();
+        private final Counter leased;
+        private final Counter handled;
+        private final Counter failed;
+        private final Timer chunkTimer;
+        private volatile double lastThroughputPerSecond;
+        private volatile LocalDateTime lastCycleAt;
+
+        private Lane(String name) {
+            this.name = name;
+            this.leased = counter("leased");
+            this.handled = counter("handled");
+            this.failed = counter("failed");
+            this.chunkTimer = Timer.builder("pms.outbox.chunk.duration")
+                    .tag("outbox", name)
+                    .register(meterRegistry);
+            Gauge.builder("pms.outbox.ready", ready, AtomicLong::get)
+                    .tag("outbox", name)
+                    .register(meterRegistry);
+            Gauge.builder("pms.outbox.lag.ms", lagMs, AtomicLong::get)
+                    .tag("outbox", name)
+                    .register(meterRegistry);
+        }
+
+        private Counter counter(String result) {
+            return Counter.builder("pms.outbox.events")
+                    .tag("outbox", name)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+
+        private void recordCycle(long processed, long startNanos) {
+            lastCycleAt = LocalDateTime.now();
+            if (processed > 0) {
+                long elapsedMs = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+                lastThroughputPerSecond = processed * 1000.0 / elapsedMs;
+                log.debug("Outbox {} cycle handled {} events in {}ms", name, processed, elapsedMs);
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.insuretech.pms.common.outbox;
+
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Processes leased outbox rows for {@link OutboxEngine}.
+ *
+ * {@link #handle} is responsible for settling every row it receives (published,
+ * failed with a retry time, dead-lettered, ...). When it completes, the engine
+ * releases the leases. When it errors, the leases are left to expire, so the
+ * rows come back after the lease duration instead of being retried in a hot loop.
+ */
+public interface OutboxHandler<T> {
+
+    OutboxSource<T> source();
+
+    boolean enabled();
+
+    /**
+     * Rows leased per page.
+     */
+    int leaseBatchSize();
+
+    /**
+     * Rows passed to one {@link #handle} call.
+     */
+    default int chunkSize() {
+        return 1;
+    }
+
+    /**
+     * {@link #handle} calls in flight per page.
+     */
+    default int concurrency() {
+        return 1;
+    }
+
+    /**
+     * Pages leased per cycle while pages come back full.
+     */
+    default int maxPagesPerCycle() {
+        return 1;
+    }
+
+    Mono<Void> handle(List<T> events);
+}
@@ -0,0 +1,102 @@
+package com.insuretech.pms.common.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.r2dbc.convert.R2dbcConverter;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Lease bookkeeping on outbox tables.
+ *
+ * Rows are claimed with one UPDATE over a {@code FOR UPDATE SKIP LOCKED} subselect:
+ * concurrent pollers on other replicas skip rows another statement is claiming and
+ * never block on each other. The claim itself is the {@code lease_owner} /
+ * {@code lease_expires_at} pair, so a replica that dies mid-batch loses its rows
+ * once the lease expires.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxLeaseStore {
+
+    private final DatabaseClient databaseClient;
+    private final R2dbcConverter converter;
+
+    /**
+     * Lease up to {@code limit} ready rows, oldest first.
+     */
+    public <T> Flux<T> lease(OutboxSource<T> source, String owner, int limit, Duration leaseDuration) {
+        String sql = """
+                WITH leased AS (
+                    UPDATE %1$s o
+                    SET lease_owner = :owner,
+                        lease_expires_at = NOW() + (:leaseSeconds * INTERVAL '1 second')
+                    WHERE o.id IN (
+                        SELECT id FROM %1$s
+                        WHERE (%2$s)
+                          AND (lease_expires_at IS NULL OR lease_expires_at < NOW())
+                        ORDER BY created_at
+                        LIMIT :limit
+                        FOR UPDATE SKIP LOCKED)
+                    RETURNING o.*)
+                SELECT * FROM leased ORDER BY created_at
+                """.formatted(source.table(), source.readyCondition());
+
+        return databaseClient.sql(sql)
+                .bind("owner", owner)
+                .bind("leaseSeconds", leaseDuration.toSeconds())
+                .bind("limit", limit)
+                .map((row, metadata) -> converter.read(source.entityType(), row, metadata))
+                .all();
+    }
+
+    /**
+     * Extend the leases this owner still holds on the given rows.
+     */
+    public Mono<Long> renew(OutboxSource<?> source, String owner, Collection<?> ids, Duration leaseDuration) {
+        if (ids.isEmpty()) {
+            return Mono.just(0L);
+        }
+        return databaseClient.sql("UPDATE " + source.table()
+                        + " SET lease_expires_at = NOW() + (:leaseSeconds * INTERVAL '1 second')"
+                        + " WHERE id IN (:ids) AND lease_owner = :owner")
+                .bind("leaseSeconds", leaseDuration.toSeconds())
+                .bind("ids", ids)
+                .bind("owner", owner)
+                .fetch().rowsUpdated();
+    }
+
+    /**
+     * Drop the leases this owner holds on the given rows.
+     */
+    public Mono<Long> release(OutboxSource<?> source, String owner, Collection<?> ids) {
+        if (ids.isEmpty()) {
+            return Mono.just(0L);
+        }
+        return databaseClient.sql("UPDATE " + source.table()
+                        + " SET lease_owner = NULL, lease_expires_at = NULL"
+                        + " WHERE id IN (:ids) AND lease_owner = :owner")
+                .bind("ids", ids)
+                .bind("owner", owner)
+                .fetch().rowsUpdated();
+    }
+
+    /**
+     * Number of ready rows and creation time of the oldest one.
+     */
+    public Mono<Backlog> backlog(OutboxSource<?> source) {
+        return databaseClient.sql("SELECT COUNT(*) AS ready, MIN(created_at) AS oldest FROM " + source.table()
+                        + " WHERE (" + source.readyCondition() + ")")
+                .map((row, metadata) -> new Backlog(
+                        row.get("ready", Long.class),
+                        row.get("oldest", LocalDateTime.class)))
+                .one();
+    }
+
+    public record Backlog(Long ready, LocalDateTime oldest) {}
+}
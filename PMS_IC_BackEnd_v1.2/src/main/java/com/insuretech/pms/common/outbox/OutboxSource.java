@@ -0,0 +1,27 @@
+package com.insuretech.pms.common.outbox;
+
+import java.util.function.Function;
+
+/**
+ * An outbox table as seen by one handler.
+ *
+ * The table must have {@code id}, {@code created_at}, {@code lease_owner} and
+ * {@code lease_expires_at} columns. {@code readyCondition} is a SQL predicate over
+ * unqualified columns selecting the rows this handler may process (for example
+ * pending rows and failed rows whose backoff has elapsed); leasing adds the
+ * lease check on top. Several sources may point at the same table, in which case
+ * the lease decides which handler gets a row.
+ *
+ * @param name           metric tag and log name, unique per handler
+ * @param table          schema-qualified table name
+ * @param entityType     entity the leased rows are mapped to
+ * @param readyCondition SQL predicate for rows ready to be processed
+ * @param idOf           id accessor, used to renew and release leases
+ */
+public record OutboxSource<T>(
+        String name,
+        String table,
+        Class<T> entityType,
+        String readyCondition,
+        Function<T, Object> idOf
+) {}
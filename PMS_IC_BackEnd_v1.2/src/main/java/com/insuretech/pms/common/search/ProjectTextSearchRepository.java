@@ -0,0 +1,105 @@
+package com.insuretech.pms.common.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Ranked multi-keyword search over WBS tasks and Kanban/sprint tasks.
+ * All keywords are matched in a single statement; each keyword becomes an
+ * ILIKE predicate served by the pg_trgm GIN indexes (V20260237_02), and rows
+ * are ranked by how many keywords hit the title (weight 1.0) or description
+ * (weight 0.5), with trigram word similarity to the whole query as tie-breaker.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProjectTextSearchRepository {
+
+    private static final int MAX_KEYWORDS = 8;
+
+    private final DatabaseClient databaseClient;
+
+    public record SearchHit(String id, double score) {
+    }
+
+    public Flux<SearchHit> searchWbsTasks(String projectId, Collection<String> keywords, int limit) {
+        return search("""
+                FROM project.wbs_tasks t
+                JOIN project.phases p ON t.phase_id = p.id
+                WHERE p.project_id = :projectId
+                """, "t.name", "t.description", projectId, keywords, limit);
+    }
+
+    public Flux<SearchHit> searchTasks(String projectId, Collection<String> keywords, int limit) {
+        return search("""
+                FROM task.tasks t
+                WHERE t.project_id = :projectId
+                """, "t.title", "t.description", projectId, keywords, limit);
+    }
+
+    private Flux<SearchHit> search(String fromWhere, String titleColumn, String descriptionColumn,
+                                   String projectId, Collection<String> keywords, int limit) {
+        List<String> terms = normalize(keywords);
+        if (terms.isEmpty() || limit <= 0) {
+            return Flux.empty();
+        }
+
+        StringBuilder score = new StringBuilder();
+        StringBuilder match = new StringBuilder();
+        for (int i = 0; i < terms.size(); i++) {
+            String p = ":p" + i;
+            if (i > 0) {
+                score.append(" + ");
+                match.append(" OR ");
+            }
+            score.append("(CASE WHEN ").append(titleColumn).append(" ILIKE ").append(p).append(" THEN 1.0 ELSE 0 END)")
+                    .append(" + (CASE WHEN ").append(descriptionColumn).append(" ILIKE ").append(p).append(" THEN 0.5 ELSE 0 END)");
+            match.append(titleColumn).append(" ILIKE ").append(p)
+                    .append(" OR ").append(descriptionColumn).append(" ILIKE ").append(p);
+        }
+
+        String sql = "SELECT t.id AS id, ((" + score + ") + COALESCE(word_similarity(:query, " + titleColumn + "), 0))::float8 AS score\n"
+                + fromWhere
+                + "AND (" + match + ")\n"
+                + "ORDER BY score DESC, t.id\n"
+                + "LIMIT :limit";
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql)
+                .bind("projectId", projectId)
+                .bind("query", String.join(" ", terms))
+                .bind("limit", limit);
+        for (int i = 0; i < terms.size(); i++) {
+            spec = spec.bind("p" + i, "%" + escapeLike(terms.get(i)) + "%");
+        }
+
+        return spec.map((row, meta) -> new SearchHit(
+                        row.get("id", String.class),
+                        Objects.requireNonNullElse(row.get("score", Double.class), 0.0)))
+                .all()
+                .doOnError(e -> log.warn("Text search failed for project {}: {}", projectId, e.getMessage()));
+    }
+
+    private static List<String> normalize(Collection<String> keywords) {
+        if (keywords == null) {
+            return List.of();
+        }
+        return keywords.stream()
+                .filter(Objects::nonNull)
+                .map(String::trim)
+                .filter(k -> !k.isEmpty())
+                .distinct()
+                .limit(MAX_KEYWORDS)
+                .toList();
+    }
+
+    private static String escapeLike(String keyword) {
+        return keyword.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,185 @@
+package com.insuretech.pms.common.security;
+
+import com.insuretech.pms.auth.service.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resolves bearer tokens to {@link UserDetails} without re-verifying or reloading
+ * on every request.
+ *
+ * Two bounded maps sit in front of {@link JwtTokenProvider} and the users table:
+ * verified tokens (subject, issue time, expiry) keyed by the raw token until it
+ * expires, and resolved principals keyed by subject and issue time for a short
+ * TTL. {@link #invalidate} drops a user's principals when they are deactivated or
+ * their role changes; a per-subject generation keeps a lookup that was already in
+ * flight from storing the stale result.
+ *
+ * Invalidation is local to this instance, so other replicas pick up the change
+ * when their entries expire after the TTL.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class JwtPrincipalCache {
+
+    private final JwtTokenProvider jwtTokenProvider;
+    private final ReactiveUserDetailsService reactiveUserDetailsService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${jwt.principal-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${jwt.principal-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${jwt.principal-cache.max-entries:10000}")
+    private int maxEntries;
+
+    private final Map<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+    private final Map<String, Principal> principals = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> subjectGenerations = new ConcurrentHashMap<>();
+
+    /**
+     * User details for a valid token, or empty when the token is invalid or the
+     * user no longer exists or is inactive.
+     */
+    public Mono<UserDetails> resolve(String token) {
+        return Mono.defer(() -> lookup(token));
+    }
+
+    private Mono<UserDetails> lookup(String token) {
+        VerifiedToken verified = verify(token);
+        if (verified == null) {
+            return Mono.empty();
+        }
+        if (!enabled) {
+            return load(verified.subject());
+        }
+
+        String key = verified.subject() + ":" + verified.issuedAt();
+        Principal cached = principals.get(key);
+        if (cached != null && isValid(cached)) {
+            record("hit");
+            return Mono.just(cached.userDetails());
+        }
+
+        record("miss");
+        long generation = generationOf(verified.subject());
+        return load(verified.subject())
+                .doOnNext(userDetails -> {
+                    if (generation == generationOf(verified.subject())) {
+                        store(principals, key, new Principal(userDetails, verified.subject(),
+                                generation, System.currentTimeMillis()));
+                    }
+                });
+    }
+
+    /**
+     * Drop cached principals of a user, e.g. after deactivation or a role change.
+     */
+    public void invalidate(String subject) {
+        if (subject == null) {
+            return;
+        }
+        subjectGenerations.computeIfAbsent(subject, s -> new AtomicLong()).incrementAndGet();
+        principals.values().removeIf(p -> p.subject().equals(subject));
+        log.debug("Invalidated cached principals for {}", subject);
+    }
+
+    private VerifiedToken verify(String token) {
+        long now = System.currentTimeMillis();
+        VerifiedToken verified = enabled ? verifiedTokens.get(token) : null;
+        if (verified != null && verified.expiresAt() > now) {
+            return verified;
+        }
+
+        try {
+            Claims claims = jwtTokenProvider.parseClaims(token);
+            verified = new VerifiedToken(
+                    claims.getSubject(),
+                    claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : 0L,
+                    claims.getExpiration() != null ? claims.getExpiration().getTime() : now + ttlSeconds * 1000);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.error("Invalid JWT: {}", e.getMessage());
+            verifiedTokens.remove(token);
+            return null;
+        }
+        if (enabled) {
+            store(verifiedTokens, token, verified);
+        }
+        return verified;
+    }
+
+    private Mono<UserDetails> load(String subject) {
+        return reactiveUserDetailsService.findByUsername(subject)
+                .onErrorResume(UsernameNotFoundException.class, e -> {
+                    log.debug("No active user for token subject {}", subject);
+                    return Mono.empty();
+                });
+    }
+
+    private boolean isValid(Principal principal) {
+        return System.currentTimeMillis() - principal.loadedAt() <= ttlSeconds * 1000
+                && principal.generation() == generationOf(principal.subject());
+    }
+
+    private long generationOf(String subject) {
+        AtomicLong generation = subjectGenerations.get(subject);
+        return generation != null ? generation.get() : 0L;
+    }
+
+    private <V extends Expiring> void store(Map<String, V> map, String key, V value) {
+        if (!map.containsKey(key) && map.size() >= maxEntries) {
+            long now = System.currentTimeMillis();
+            map.values().removeIf(v -> v.expiresAt(ttlSeconds) <= now);
+            if (map.size() >= maxEntries) {
+                map.entrySet().stream()
+                        .min(Comparator.comparingLong(e -> e.getValue().expiresAt(ttlSeconds)))
+                        .ifPresent(oldest -> map.remove(oldest.getKey()));
+            }
+        }
+        map.put(key, value);
+    }
+
+    private void record(String result) {
+        Counter.builder("pms.auth.principal.cache")
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private interface Expiring {
+        long expiresAt(long ttlSeconds);
+    }
+
+    private record VerifiedToken(String subject, long issuedAt, long expiresAt) implements Expiring {
+        @Override
+        public long expiresAt(long ttlSeconds) {
+            return expiresAt;
+        }
+    }
+
+    private record Principal(UserDetails userDetails, String subject, long generation, long loadedAt)
+            implements Expiring {
+        @Override
+        public long expiresAt(long ttlSeconds) {
+            return loadedAt + ttlSeconds * 1000;
+        }
+    }
+}
@@ -1,13 +1,11 @@
 package com.insuretech.pms.common.security;
 
-import com.insuretech.pms.auth.service.JwtTokenProvider;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.ReactiveSecurityContextHolder;
-import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.server.ServerWebExchange;
@@ -20,8 +18,7 @@ import reactor.core.publisher.Mono;
 @RequiredArgsConstructor
 public class JwtWebFilter implements WebFilter {
 
-    private final JwtTokenProvider jwtTokenProvider;
-    private final ReactiveUserDetailsService reactiveUserDetailsService;
+    private final JwtPrincipalCache principalCache;
 
     private static final String BEARER_PREFIX = "Bearer ";
 
@@ -33,22 +30,19 @@ public class JwtWebFilter implements WebFilter {
             return chain.filter(exchange);
         }
 
-        if (!jwtTokenProvider.validateToken(token)) {
-            return chain.filter(exchange);
-        }
-
         try {
-            String username = jwtTokenProvider.getUsernameFromToken(token);
-
-            return reactiveUserDetailsService.findByUsername(username)
+            return principalCache.resolve(token)
                     .map(userDetails -> new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
                             userDetails.getAuthorities()
                     ))
-                    .flatMap(authentication -> chain.filter(exchange)
+                    // Decide between authenticated and anonymous first: chain.filter completes
+                    // empty, so a trailing switchIfEmpty would run the chain a second time
+                    .map(authentication -> chain.filter(exchange)
                             .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication)))
-                    .switchIfEmpty(chain.filter(exchange));
+                    .defaultIfEmpty(Mono.defer(() -> chain.filter(exchange)))
+                    .flatMap(filtered -> filtered);
 
         } catch (Exception ex) {
             log.error("Could not set user authentication in security context", ex);
@@ -0,0 +1,114 @@
+package com.insuretech.pms.common.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of project membership decisions keyed by (project, user).
+ *
+ * The cached value is the active member role, or empty for non-members, so both
+ * role checks and membership checks share one entry. Concurrent lookups of the
+ * same key share one query. ReactiveProjectMemberService invalidates entries when
+ * membership changes; for a short settle window after an invalidation lookups go
+ * to the database, so a read racing the uncommitted write cannot re-cache the old
+ * role. The TTL bounds staleness for changes made on other replicas.
+ */
+@Slf4j
+@Component
+public class ProjectMembershipCache {
+
+    @Value("${pms.security.membership-cache.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    @Value("${pms.security.membership-cache.max-entries:20000}")
+    private int maxEntries;
+
+    @Value("${pms.security.membership-cache.settle-millis:2000}")
+    private long settleMillis;
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Key, Long> invalidatedAt = new ConcurrentHashMap<>();
+
+    /**
+     * Return the cached role of a user in a project, loading it with {@code loader} when
+     * missing or expired.
+     */
+    public Mono<Optional<String>> getRole(String projectId, String userId,
+                                          Supplier<Mono<Optional<String>>> loader) {
+        return Mono.defer(() -> {
+            Key key = new Key(projectId, userId);
+            long now = System.currentTimeMillis();
+            if (isSettling(key, now)) {
+                return loader.get();
+            }
+
+            Entry entry = entries.get(key);
+            if (entry == null || entry.expiresAt() < now) {
+                evictIfFull(now);
+                Entry fresh = new Entry(now + ttlSeconds * 1000, loader.get()
+                        .cache(v -> Duration.ofSeconds(ttlSeconds), e -> Duration.ZERO, () -> Duration.ZERO));
+                entry = entries.merge(key, fresh, (old, candidate) -> old.expiresAt() >= now ? old : candidate);
+            }
+            return entry.value();
+        });
+    }
+
+    /**
+     * Store roles loaded in bulk. {@code role} is null for a non-member.
+     */
+    public void put(String projectId, String userId, String role) {
+        Key key = new Key(projectId, userId);
+        long now = System.currentTimeMillis();
+        if (isSettling(key, now)) {
+            return;
+        }
+        evictIfFull(now);
+        entries.put(key, new Entry(now + ttlSeconds * 1000, Mono.just(Optional.ofNullable(role))));
+    }
+
+    /**
+     * Drop the decision for one member after their membership or role changed.
+     */
+    public void invalidate(String projectId, String userId) {
+        Key key = new Key(projectId, userId);
+        invalidatedAt.put(key, System.currentTimeMillis());
+        entries.remove(key);
+        log.debug("Membership cache invalidated: project={}, user={}", projectId, userId);
+    }
+
+    private boolean isSettling(Key key, long now) {
+        Long at = invalidatedAt.get(key);
+        if (at == null) {
+            return false;
+        }
+        if (now - at < settleMillis) {
+            return true;
+        }
+        invalidatedAt.remove(key, at);
+        return false;
+    }
+
+    private void evictIfFull(long now) {
+        if (entries.size() < maxEntries) {
+            return;
+        }
+        entries.values().removeIf(entry -> entry.expiresAt() < now);
+        invalidatedAt.values().removeIf(at -> now - at >= settleMillis);
+        if (entries.size() >= maxEntries) {
+            log.debug("Membership cache full ({} entries), clearing", entries.size());
+            entries.clear();
+        }
+    }
+
+    private record Key(String projectId, String userId) {}
+
+    private record Entry(long expiresAt, Mono<Optional<String>> value) {}
+}
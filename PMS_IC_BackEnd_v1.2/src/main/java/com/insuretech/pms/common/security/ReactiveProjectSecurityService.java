@@ -16,7 +16,11 @@ import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.security.access.AccessDeniedException;
 
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -24,6 +28,7 @@ import java.util.stream.Collectors;
 /**
  * Reactive service for project-scoped authorization checks.
  * Uses R2DBC for both user lookup and project member checks.
+ * Membership decisions are cached per (project, user) in ProjectMembershipCache.
  */
 @Slf4j
 @Service("reactiveProjectSecurity")
@@ -34,6 +39,7 @@ public class ReactiveProjectSecurityService {
     private final ReactiveUserRepository reactiveUserRepository;
     private final DatabaseClient databaseClient;
     private final ReactiveUserStoryRepository reactiveUserStoryRepository;
+    private final ProjectMembershipCache membershipCache;
 
     /**
      * Check if current user has the specified role on the project.
@@ -60,13 +66,9 @@ public class ReactiveProjectSecurityService {
                                     return Mono.just(true);
                                 }
 
-                                return reactiveProjectMemberRepository
-                                        .findByProjectIdAndUserIdAndActiveTrue(projectId, userId)
-                                        .map(member -> {
-                                            String userRole = member.getRole();
-                                            return Arrays.asList(requiredRoles).contains(userRole);
-                                        })
-                                        .defaultIfEmpty(false);
+                                return findMemberRole(projectId, userId)
+                                        .map(role -> role.isPresent()
+                                                && Arrays.asList(requiredRoles).contains(role.get()));
                             });
                 })
                 .defaultIfEmpty(false);
@@ -87,8 +89,7 @@ public class ReactiveProjectSecurityService {
                                     if (hasSystemAccess) {
                                         return Mono.just(true);
                                     }
-                                    return reactiveProjectMemberRepository
-                                            .existsByProjectIdAndUserIdAndActiveTrue(projectId, userId);
+                                    return findMemberRole(projectId, userId).map(Optional::isPresent);
                                 })
                 )
                 .defaultIfEmpty(false);
@@ -130,13 +131,75 @@ public class ReactiveProjectSecurityService {
      */
     public Mono<Optional<String>> getProjectRole(String projectId) {
         return getCurrentUserId()
-                .flatMap(userId -> reactiveProjectMemberRepository
-                        .findByProjectIdAndUserIdAndActiveTrue(projectId, userId)
-                        .map(member -> Optional.of(member.getRole()))
-                        .defaultIfEmpty(Optional.empty()))
+                .flatMap(userId -> findMemberRole(projectId, userId))
                 .defaultIfEmpty(Optional.empty());
     }
 
+    /**
+     * Authorize the current user against many projects at once.
+     * Returns the subset of projectIds on which the user holds one of requiredRoles,
+     * or any active membership when no roles are given. ADMIN and AUDITOR are granted
+     * every project when no roles are given; ADMIN is granted every project otherwise.
+     * All projects are resolved with a single query whose result warms the cache.
+     */
+    public Mono<Set<String>> authorizeProjects(Collection<String> projectIds, String... requiredRoles) {
+        if (projectIds == null || projectIds.isEmpty()) {
+            return Mono.just(new HashSet<>());
+        }
+        boolean anyRole = requiredRoles == null || requiredRoles.length == 0;
+        Set<String> ids = new HashSet<>(projectIds);
+        ids.remove(null);
+
+        return getCurrentUserId()
+                .flatMap(userId -> (anyRole ? hasAnySystemRole("ADMIN", "AUDITOR") : hasSystemRole("ADMIN"))
+                        .flatMap(hasSystemAccess -> {
+                            if (hasSystemAccess) {
+                                return Mono.just(ids);
+                            }
+                            return findMemberRoles(ids, userId)
+                                    .map(roles -> roles.entrySet().stream()
+                                            .filter(e -> e.getValue().isPresent())
+                                            .filter(e -> anyRole
+                                                    || Arrays.asList(requiredRoles).contains(e.getValue().get()))
+                                            .map(Map.Entry::getKey)
+                                            .collect(Collectors.toSet()));
+                        }))
+                .defaultIfEmpty(new HashSet<>());
+    }
+
+    private Mono<Optional<String>> findMemberRole(String projectId, String userId) {
+        return membershipCache.getRole(projectId, userId, () -> reactiveProjectMemberRepository
+                .findByProjectIdAndUserIdAndActiveTrue(projectId, userId)
+                .map(member -> Optional.ofNullable(member.getRole()))
+                .defaultIfEmpty(Optional.empty()));
+    }
+
+    /**
+     * Resolve the roles of a user on several projects, loading every project in
+     * a single query and warming the membership cache with the result.
+     */
+    private Mono<Map<String, Optional<String>>> findMemberRoles(Set<String> projectIds, String userId) {
+        List<String> ids = List.copyOf(projectIds);
+        return databaseClient
+                .sql("SELECT project_id, role FROM project.project_members " +
+                     "WHERE user_id = :userId AND active = true AND project_id IN (:projectIds)")
+                .bind("userId", userId)
+                .bind("projectIds", ids)
+                .map((row, meta) -> Map.entry(row.get("project_id", String.class),
+                        Optional.ofNullable(row.get("role", String.class))))
+                .all()
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue, HashMap::new)
+                .map(found -> {
+                    Map<String, Optional<String>> roles = new HashMap<>();
+                    for (String projectId : ids) {
+                        Optional<String> role = found.getOrDefault(projectId, Optional.empty());
+                        membershipCache.put(projectId, userId, role.orElse(null));
+                        roles.put(projectId, role);
+                    }
+                    return roles;
+                });
+    }
+
     /**
      * Check if current user can manage project members.
      */
@@ -3,6 +3,7 @@ package com.insuretech.pms.common.service;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.util.CellRangeAddressList;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.*;
 import org.springframework.stereotype.Service;
 
@@ -26,14 +27,25 @@ public class ExcelService {
         return new XSSFWorkbook();
     }
 
+    /**
+     * Creates a streaming XLSX workbook that keeps only the last {@code rowWindow}
+     * rows of each sheet in memory and flushes older rows to compressed temp files.
+     * Callers must {@link SXSSFWorkbook#dispose()} it when done.
+     */
+    public SXSSFWorkbook createStreamingWorkbook(int rowWindow) {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(rowWindow);
+        workbook.setCompressTempFiles(true);
+        return workbook;
+    }
+
     /**
      * Creates a header cell style with bold font and background color.
      */
-    public CellStyle createHeaderStyle(XSSFWorkbook workbook) {
+    public CellStyle createHeaderStyle(Workbook workbook) {
         CellStyle style = workbook.createCellStyle();
 
         // Bold font
-        XSSFFont font = workbook.createFont();
+        Font font = workbook.createFont();
         font.setBold(true);
         font.setFontHeightInPoints((short) 11);
         style.setFont(font);
@@ -58,7 +70,7 @@ public class ExcelService {
     /**
      * Creates a standard data cell style.
      */
-    public CellStyle createDataStyle(XSSFWorkbook workbook) {
+    public CellStyle createDataStyle(Workbook workbook) {
         CellStyle style = workbook.createCellStyle();
         style.setBorderBottom(BorderStyle.THIN);
         style.setBorderTop(BorderStyle.THIN);
@@ -72,7 +84,7 @@ public class ExcelService {
     /**
      * Creates a date cell style with YYYY-MM-DD format.
      */
-    public CellStyle createDateStyle(XSSFWorkbook workbook) {
+    public CellStyle createDateStyle(Workbook workbook) {
         CellStyle style = createDataStyle(workbook);
         CreationHelper createHelper = workbook.getCreationHelper();
         style.setDataFormat(createHelper.createDataFormat().getFormat("yyyy-mm-dd"));
@@ -124,6 +124,7 @@ public class ReactiveDelegationService {
                     d.setNew(false);
 
                     return delegationRepository.save(d)
+                            .doOnNext(saved -> effectiveCapService.invalidateUser(saved.getProjectId(), saved.getDelegateeId()))
                             .map(DelegationDto::from);
                 })
                 .doOnSuccess(dto -> log.info("Approved delegation {}", delegationId));
@@ -155,6 +156,8 @@ public class ReactiveDelegationService {
                                 return delegationRepository.save(child);
                             })
                             .then(delegationRepository.save(d))
+                            // 연쇄 폐기는 여러 수임자에 걸치므로 프로젝트 단위로 무효화
+                            .doOnNext(saved -> effectiveCapService.invalidateProject(saved.getProjectId()))
                             .map(DelegationDto::from);
                 })
                 .doOnSuccess(dto -> log.info("Revoked delegation {} (cascade)", delegationId));
@@ -214,13 +217,13 @@ public class ReactiveDelegationService {
                                     return Flux.fromIterable(nodes);
                                 }
 
-                                // 각 노드에 유효 권한 포함
-                                return Flux.fromIterable(nodes)
-                                        .flatMap(node -> effectiveCapService
-                                                .getEffectiveCapabilities(projectId, node.getUserId())
-                                                .collectList()
-                                                .doOnNext(node::setEffectiveCapabilities)
-                                                .thenReturn(node));
+                                // 각 노드에 유효 권한 포함 (프로젝트 단위 일괄 조회)
+                                return effectiveCapService.getEffectiveCapabilitiesByUser(projectId)
+                                        .flatMapMany(capsByUser -> {
+                                            nodes.forEach(node -> node.setEffectiveCapabilities(
+                                                    capsByUser.getOrDefault(node.getUserId(), List.of())));
+                                            return Flux.fromIterable(nodes);
+                                        });
                             });
                 });
     }
@@ -465,43 +468,13 @@ public class ReactiveDelegationService {
 
     /** 사용자가 특정 권한(capability ID)을 유효 권한으로 보유하는지 확인 */
     private Mono<Boolean> checkUserHasCapability(String projectId, String userId, String capabilityId) {
-        String sql = """
-                SELECT COUNT(*) AS cnt
-                FROM governance.v_effective_caps
-                WHERE project_id = :projectId
-                  AND user_id = :userId
-                  AND capability_id = :capId
-                """;
-
-        return databaseClient.sql(sql)
-                .bind("projectId", projectId)
-                .bind("userId", userId)
-                .bind("capId", capabilityId)
-                .map(row -> row.get("cnt", Long.class))
-                .one()
-                .map(cnt -> cnt > 0)
-                .defaultIfEmpty(false);
+        return effectiveCapService.getEffectiveCapabilities(projectId, userId)
+                .any(cap -> capabilityId.equals(cap.getCapabilityId()));
     }
 
     /** 사용자가 특정 권한(capability code)을 유효 권한으로 보유하는지 확인 */
     private Mono<Boolean> checkUserHasCapabilityByCode(String projectId, String userId, String capCode) {
-        String sql = """
-                SELECT COUNT(*) AS cnt
-                FROM governance.v_effective_caps ec
-                JOIN governance.capabilities c ON c.id = ec.capability_id
-                WHERE ec.project_id = :projectId
-                  AND ec.user_id = :userId
-                  AND c.code = :capCode
-                """;
-
-        return databaseClient.sql(sql)
-                .bind("projectId", projectId)
-                .bind("userId", userId)
-                .bind("capCode", capCode)
-                .map(row -> row.get("cnt", Long.class))
-                .one()
-                .map(cnt -> cnt > 0)
-                .defaultIfEmpty(false);
+        return effectiveCapService.hasCapability(projectId, userId, capCode);
     }
 
     /** 재위임 시 부모 위임 ID 조회 */
@@ -1,44 +1,344 @@
 package com.insuretech.pms.governance.authority.service;
 
+import com.insuretech.pms.common.cache.BoundedProjectCache;
+import com.insuretech.pms.common.event.ProjectEventBus;
+import com.insuretech.pms.common.event.ProjectEventBusFactory;
 import com.insuretech.pms.governance.authority.dto.EffectiveCapabilityDto;
+import io.r2dbc.spi.Readable;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.util.List;
-import java.util.Map;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
+/**
+ * Effective capabilities per project, materialized in memory from
+ * governance.v_effective_caps.
+ *
+ * A project's rows are loaded with one view evaluation and kept as a
+ * user → capabilities map, so lookups and capability checks are hash lookups.
+ * Write paths call {@link #invalidateUser} (role/capability grants, delegation
+ * approval) or {@link #invalidateProject} (cascading revocation); only the
+ * invalidated users are re-read on the next access. Invalidated users keep
+ * being re-read for a short settle window so a reload racing the writer's
+ * commit cannot pin stale rows. Delegations are date-bounded, so a project's
+ * map is fully reloaded on the first access of a new day and after a TTL.
+ *
+ * Invalidations are applied locally at once and broadcast over the event bus,
+ * so every replica drops the same entries instead of serving them until the TTL.
+ * A load already in flight when an invalidation arrives is not handed to later
+ * callers; they start a new load.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ReactiveEffectiveCapService {
 
+    private static final String SELECT_SQL = """
+            SELECT ec.project_id, ec.user_id, ec.capability_id, ec.source_type, ec.source_id,
+                   c.code AS capability_code, c.name AS capability_name
+            FROM governance.v_effective_caps ec
+            JOIN governance.capabilities c ON c.id = ec.capability_id
+            WHERE ec.project_id = :projectId
+            """;
+
+    private static final String ORDER_BY = " ORDER BY ec.user_id, ec.source_type, c.code";
+
+    private static final String BROADCAST_CHANNEL = "cluster";
+
     private final DatabaseClient databaseClient;
+    private final ProjectEventBusFactory eventBusFactory;
+
+    @Value("${pms.governance.effective-caps.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${pms.governance.effective-caps.max-projects:500}")
+    private int maxProjects;
+
+    @Value("${pms.governance.effective-caps.settle-millis:2000}")
+    private long settleMillis;
+
+    private final BoundedProjectCache<Holder> projects = new BoundedProjectCache<>(Holder::new, () -> maxProjects);
+
+    private ProjectEventBus<Invalidation> invalidationBus;
+    private Disposable invalidationSubscription;
+
+    @PostConstruct
+    public void init() {
+        invalidationBus = eventBusFactory.create("effective-caps", Invalidation.class);
+        invalidationSubscription = invalidationBus.subscribe(BROADCAST_CHANNEL)
+                .subscribe(this::apply, e -> log.warn("Effective capability invalidations stopped: {}", e.getMessage()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (invalidationSubscription != null) {
+            invalidationSubscription.dispose();
+        }
+    }
 
     public Flux<EffectiveCapabilityDto> getEffectiveCapabilities(String projectId, String userId) {
-        String sql = """
-                SELECT ec.project_id, ec.user_id, ec.capability_id, ec.source_type, ec.source_id,
-                       c.code AS capability_code, c.name AS capability_name
-                FROM governance.v_effective_caps ec
-                JOIN governance.capabilities c ON c.id = ec.capability_id
-                WHERE ec.project_id = :projectId AND ec.user_id = :userId
-                ORDER BY ec.source_type, c.code
-                """;
-
-        return databaseClient.sql(sql)
+        return snapshot(projectId)
+                .flatMapIterable(snapshot -> snapshot.byUser().getOrDefault(userId, List.of()));
+    }
+
+    /**
+     * Effective capabilities of every user of a project, keyed by user id.
+     */
+    public Mono<Map<String, List<EffectiveCapabilityDto>>> getEffectiveCapabilitiesByUser(String projectId) {
+        return snapshot(projectId).map(Snapshot::byUser);
+    }
+
+    public Mono<Boolean> hasCapability(String projectId, String userId, String capabilityCode) {
+        return snapshot(projectId)
+                .map(snapshot -> snapshot.codesByUser().getOrDefault(userId, Set.of()).contains(capabilityCode));
+    }
+
+    /**
+     * A user's roles, direct grants or delegations in a project changed.
+     */
+    public void invalidateUser(String projectId, String userId) {
+        if (projectId == null || userId == null) return;
+        broadcast(new Invalidation(projectId, userId));
+    }
+
+    /**
+     * Changes that may affect any user of a project (e.g. cascading revocation).
+     */
+    public void invalidateProject(String projectId) {
+        if (projectId == null) return;
+        broadcast(new Invalidation(projectId, null));
+    }
+
+    /**
+     * Changes that may affect every project (e.g. scheduled delegation expiry).
+     */
+    public void invalidateAll() {
+        broadcast(new Invalidation(null, null));
+    }
+
+    /**
+     * Apply locally so this replica's next read sees the write, then tell the others.
+     * A replica receiving its own broadcast only extends the settle window.
+     */
+    private void broadcast(Invalidation invalidation) {
+        apply(invalidation);
+        invalidationBus.publish(BROADCAST_CHANNEL, invalidation);
+    }
+
+    private void apply(Invalidation invalidation) {
+        long deadline = System.currentTimeMillis() + settleMillis;
+        if (invalidation.projectId() == null) {
+            projects.holders().forEach(holder -> holder.markAllDirty(deadline));
+        } else if (invalidation.userId() == null) {
+            projects.peek(invalidation.projectId()).ifPresent(holder -> holder.markAllDirty(deadline));
+        } else {
+            projects.peek(invalidation.projectId())
+                    .ifPresent(holder -> holder.markUserDirty(invalidation.userId(), deadline));
+        }
+    }
+
+    private Mono<Snapshot> snapshot(String projectId) {
+        return Mono.defer(() -> {
+            Holder holder = projects.acquire(projectId);
+            Snapshot current = holder.current(ttlSeconds);
+            if (current != null) {
+                return Mono.just(current);
+            }
+            return holder.refresh(() -> {
+                long now = System.currentTimeMillis();
+                Snapshot base = holder.snapshot;
+                if (base == null || holder.allDirtyUntil > 0 || base.isStale(ttlSeconds)) {
+                    return loadAll(projectId).doOnNext(s -> holder.clearDirty(now, true));
+                }
+                Set<String> dirtyUsers = holder.dirtyUsers();
+                if (dirtyUsers.isEmpty()) {
+                    return Mono.just(base);
+                }
+                return loadUsers(projectId, dirtyUsers)
+                        .map(rows -> base.withUsers(dirtyUsers, rows))
+                        .doOnNext(s -> holder.clearDirty(now, false));
+            });
+        });
+    }
+
+    private Mono<Snapshot> loadAll(String projectId) {
+        return databaseClient.sql(SELECT_SQL + ORDER_BY)
                 .bind("projectId", projectId)
-                .bind("userId", userId)
-                .map(row -> EffectiveCapabilityDto.builder()
-                        .projectId(row.get("project_id", String.class))
-                        .userId(row.get("user_id", String.class))
-                        .capabilityId(row.get("capability_id", String.class))
-                        .capabilityCode(row.get("capability_code", String.class))
-                        .capabilityName(row.get("capability_name", String.class))
-                        .sourceType(row.get("source_type", String.class))
-                        .sourceId(row.get("source_id", String.class))
-                        .build())
-                .all();
+                .map(this::toDto)
+                .all()
+                .collectList()
+                .map(rows -> Snapshot.of(groupByUser(rows)))
+                .doOnNext(s -> log.debug("Loaded effective capabilities for project {}: {} user(s)",
+                        projectId, s.byUser().size()));
+    }
+
+    private Mono<Map<String, List<EffectiveCapabilityDto>>> loadUsers(String projectId, Set<String> userIds) {
+        return databaseClient.sql(SELECT_SQL + " AND ec.user_id IN (:userIds)" + ORDER_BY)
+                .bind("projectId", projectId)
+                .bind("userIds", userIds)
+                .map(this::toDto)
+                .all()
+                .collectList()
+                .map(ReactiveEffectiveCapService::groupByUser);
+    }
+
+    private EffectiveCapabilityDto toDto(Readable row) {
+        return EffectiveCapabilityDto.builder()
+                .projectId(row.get("project_id", String.class))
+                .userId(row.get("user_id", String.class))
+                .capabilityId(row.get("capability_id", String.class))
+                .capabilityCode(row.get("capability_code", String.class))
+                .capabilityName(row.get("capability_name", String.class))
+                .sourceType(row.get("source_type", String.class))
+                .sourceId(row.get("source_id", String.class))
+                .build();
+    }
+
+    private static Map<String, List<EffectiveCapabilityDto>> groupByUser(List<EffectiveCapabilityDto> rows) {
+        Map<String, List<EffectiveCapabilityDto>> byUser = new HashMap<>();
+        for (EffectiveCapabilityDto row : rows) {
+            byUser.computeIfAbsent(row.getUserId(), k -> new ArrayList<>()).add(row);
+        }
+        byUser.replaceAll((userId, caps) -> List.copyOf(caps));
+        return byUser;
+    }
+
+    /**
+     * Invalidation broadcast to every replica: a user of a project, a whole project
+     * (no user) or every project (neither).
+     */
+    record Invalidation(String projectId, String userId) {
+    }
+
+    /**
+     * Current snapshot of one project, pending invalidations and the load in flight, if any.
+     * Every invalidation bumps the generation; a load is shared only by callers of the
+     * generation it started from, and never replaces a snapshot of a later generation.
+     */
+    private static final class Holder {
+        private Snapshot snapshot;
+        private long snapshotGeneration = -1;
+        private Mono<Snapshot> inFlight;
+        private long inFlightGeneration;
+        private long generation;
+        private final Map<String, Long> dirtyUntil = new HashMap<>();
+        private long allDirtyUntil;
+
+        /**
+         * The snapshot if it can be served as is, otherwise null.
+         */
+        synchronized Snapshot current(long ttlSeconds) {
+            if (snapshot == null || allDirtyUntil > 0 || !dirtyUntil.isEmpty() || snapshot.isStale(ttlSeconds)) {
+                return null;
+            }
+            return snapshot;
+        }
+
+        synchronized Mono<Snapshot> refresh(Supplier<Mono<Snapshot>> loader) {
+            if (inFlight != null && inFlightGeneration == generation) {
+                return inFlight;
+            }
+            long startedFrom = generation;
+            AtomicReference<Mono<Snapshot>> self = new AtomicReference<>();
+            Mono<Snapshot> load = loader.get()
+                    .map(fresh -> update(fresh, startedFrom))
+                    .doFinally(signal -> clearInFlight(self.get()))
+                    .cache();
+            self.set(load);
+            inFlight = load;
+            inFlightGeneration = startedFrom;
+            return load;
+        }
+
+        synchronized void markUserDirty(String userId, long deadline) {
+            dirtyUntil.merge(userId, deadline, Math::max);
+            generation++;
+        }
+
+        synchronized void markAllDirty(long deadline) {
+            allDirtyUntil = Math.max(allDirtyUntil, deadline);
+            generation++;
+        }
+
+        synchronized Set<String> dirtyUsers() {
+            return Set.copyOf(dirtyUntil.keySet());
+        }
+
+        /**
+         * Drop invalidations whose settle window ended before the load started.
+         */
+        synchronized void clearDirty(long loadStartedAt, boolean full) {
+            dirtyUntil.values().removeIf(deadline -> deadline < loadStartedAt);
+            if (full && allDirtyUntil < loadStartedAt) {
+                allDirtyUntil = 0;
+            }
+        }
+
+        /**
+         * Store a loaded snapshot unless a load of a later generation already did;
+         * returns the snapshot now current.
+         */
+        private synchronized Snapshot update(Snapshot fresh, long loadGeneration) {
+            if (loadGeneration >= snapshotGeneration) {
+                snapshot = fresh;
+                snapshotGeneration = loadGeneration;
+            }
+            return snapshot;
+        }
+
+        private synchronized void clearInFlight(Mono<Snapshot> load) {
+            if (inFlight == load) {
+                inFlight = null;
+            }
+        }
+    }
+
+    /**
+     * Immutable per-project capability map.
+     */
+    private record Snapshot(Map<String, List<EffectiveCapabilityDto>> byUser,
+                            Map<String, Set<String>> codesByUser,
+                            LocalDate loadedOn,
+                            long loadedAt) {
+
+        static Snapshot of(Map<String, List<EffectiveCapabilityDto>> byUser) {
+            return new Snapshot(Map.copyOf(byUser), codesOf(byUser), LocalDate.now(), System.currentTimeMillis());
+        }
+
+        /**
+         * Replace the rows of the given users; the TTL keeps running from the full load.
+         */
+        Snapshot withUsers(Set<String> userIds, Map<String, List<EffectiveCapabilityDto>> rows) {
+            Map<String, List<EffectiveCapabilityDto>> merged = new HashMap<>(byUser);
+            userIds.forEach(merged::remove);
+            merged.putAll(rows);
+            return new Snapshot(Map.copyOf(merged), codesOf(merged), loadedOn, loadedAt);
+        }
+
+        boolean isStale(long ttlSeconds) {
+            return !LocalDate.now().equals(loadedOn)
+                    || System.currentTimeMillis() - loadedAt > ttlSeconds * 1000;
+        }
+
+        private static Map<String, Set<String>> codesOf(Map<String, List<EffectiveCapabilityDto>> byUser) {
+            Map<String, Set<String>> codes = new HashMap<>();
+            byUser.forEach((userId, caps) -> {
+                Set<String> set = new HashSet<>();
+                caps.forEach(cap -> set.add(cap.getCapabilityCode()));
+                codes.put(userId, Set.copyOf(set));
+            });
+            return Map.copyOf(codes);
+        }
     }
 }
@@ -26,6 +26,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 public class ReactiveGovernanceDelegationScheduler {
 
     private final ReactiveDelegationRepository delegationRepository;
+    private final ReactiveEffectiveCapService effectiveCapService;
     private final DatabaseClient databaseClient;
 
     /**
@@ -87,7 +88,8 @@ public class ReactiveGovernanceDelegationScheduler {
                 .then(databaseClient.sql(cascadeSql)
                         .fetch().rowsUpdated()
                         .doOnNext(count -> log.info("[Scheduler] 연쇄 만료 처리된 하위 위임: {}건", count)))
-                .then();
+                .then()
+                .doOnSuccess(v -> effectiveCapService.invalidateAll());
     }
 
     /**
@@ -25,6 +25,7 @@ public class ReactiveRoleService {
     private final ReactiveCapabilityRepository capabilityRepository;
     private final ReactiveUserRoleRepository userRoleRepository;
     private final ReactiveUserCapabilityRepository userCapabilityRepository;
+    private final ReactiveEffectiveCapService effectiveCapService;
     private final DatabaseClient databaseClient;
 
     public Flux<RoleDto> listRoles(String projectId) {
@@ -77,6 +78,7 @@ public class ReactiveRoleService {
                                         .build();
 
                                 return userRoleRepository.save(userRole)
+                                        .doOnNext(saved -> effectiveCapService.invalidateUser(saved.getProjectId(), saved.getUserId()))
                                         .map(saved -> {
                                             UserRoleDto dto = UserRoleDto.from(saved);
                                             dto.setRoleName(role.getName());
@@ -92,7 +94,9 @@ public class ReactiveRoleService {
 
     @Transactional
     public Mono<Void> revokeUserRole(String userRoleId) {
-        return userRoleRepository.deleteById(userRoleId)
+        return userRoleRepository.findById(userRoleId)
+                .flatMap(userRole -> userRoleRepository.delete(userRole)
+                        .doOnSuccess(v -> effectiveCapService.invalidateUser(userRole.getProjectId(), userRole.getUserId())))
                 .doOnSuccess(v -> log.info("Revoked user role {}", userRoleId));
     }
 
@@ -113,6 +117,7 @@ public class ReactiveRoleService {
                             .build();
 
                     return userCapabilityRepository.save(userCap)
+                            .doOnNext(saved -> effectiveCapService.invalidateUser(saved.getProjectId(), saved.getUserId()))
                             .map(saved -> {
                                 UserCapabilityDto dto = UserCapabilityDto.from(saved);
                                 dto.setCapabilityCode(cap.getCode());
@@ -126,7 +131,9 @@ public class ReactiveRoleService {
 
     @Transactional
     public Mono<Void> revokeUserCapability(String userCapId) {
-        return userCapabilityRepository.deleteById(userCapId)
+        return userCapabilityRepository.findById(userCapId)
+                .flatMap(userCap -> userCapabilityRepository.delete(userCap)
+                        .doOnSuccess(v -> effectiveCapService.invalidateUser(userCap.getProjectId(), userCap.getUserId())))
                 .doOnSuccess(v -> log.info("Revoked user capability {}", userCapId));
     }
 
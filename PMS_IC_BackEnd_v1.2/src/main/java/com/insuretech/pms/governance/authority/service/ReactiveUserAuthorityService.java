@@ -27,6 +27,7 @@ public class ReactiveUserAuthorityService {
 
     private final DatabaseClient databaseClient;
     private final ReactivePartMembershipRepository partMembershipRepository;
+    private final ReactiveEffectiveCapService effectiveCapService;
 
     /**
      * 특정 프로젝트 내 사용자의 전체 권한 정보를 통합 조회.
@@ -301,26 +302,15 @@ public class ReactiveUserAuthorityService {
     // ================ 유효 권한 (우선순위 적용) ================
 
     private Mono<List<EffectiveCapabilityInfo>> getEffectiveCapabilities(String projectId, String userId) {
-        // v_effective_caps 뷰에서 전체 유효 권한 조회
-        String sql = """
-                SELECT ec.capability_id, c.code, c.name, ec.source_type, ec.source_id
-                FROM governance.v_effective_caps ec
-                JOIN governance.capabilities c ON c.id = ec.capability_id
-                WHERE ec.project_id = :projectId AND ec.user_id = :userId
-                ORDER BY c.code, ec.source_type
-                """;
-
-        return databaseClient.sql(sql)
-                .bind("projectId", projectId)
-                .bind("userId", userId)
-                .map(row -> new RawEffectiveCap(
-                        row.get("capability_id", String.class),
-                        row.get("code", String.class),
-                        row.get("name", String.class),
-                        row.get("source_type", String.class),
-                        row.get("source_id", String.class)
+        // 프로젝트별로 적재된 v_effective_caps 결과에서 조회
+        return effectiveCapService.getEffectiveCapabilities(projectId, userId)
+                .map(cap -> new RawEffectiveCap(
+                        cap.getCapabilityId(),
+                        cap.getCapabilityCode(),
+                        cap.getCapabilityName(),
+                        cap.getSourceType(),
+                        cap.getSourceId()
                 ))
-                .all()
                 .collectList()
                 .flatMap(rawCaps -> {
                     if (rawCaps.isEmpty()) return Mono.just(List.<EffectiveCapabilityInfo>of());
@@ -5,6 +5,7 @@ import com.insuretech.pms.chat.dto.sse.*;
 import com.insuretech.pms.common.dto.ApiResponse;
 import com.insuretech.pms.lineage.dto.LineageEventDto;
 import com.insuretech.pms.lineage.dto.LineageGraphDto;
+import com.insuretech.pms.lineage.service.ReactiveLineageGraphCache;
 import com.insuretech.pms.lineage.service.ReactiveLineageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,13 +27,27 @@ import java.util.UUID;
 public class ReactiveLineageController {
 
     private final ReactiveLineageService lineageService;
+    private final ReactiveLineageGraphCache graphCache;
     private final SseEventBuilder sseBuilder;
     private final ObjectMapper objectMapper;
 
     @GetMapping("/graph")
     public Mono<ResponseEntity<ApiResponse<LineageGraphDto>>> getLineageGraph(
             @PathVariable String projectId) {
-        return lineageService.buildLineageGraph(projectId)
+        return graphCache.getGraph(projectId)
+                .map(graph -> ResponseEntity.ok(ApiResponse.success(graph)));
+    }
+
+    /**
+     * Subgraph around one node, so clients need not download the whole project graph.
+     */
+    @GetMapping("/graph/neighborhood")
+    public Mono<ResponseEntity<ApiResponse<LineageGraphDto>>> getNeighborhood(
+            @PathVariable String projectId,
+            @RequestParam String nodeId,
+            @RequestParam(defaultValue = "2") int depth,
+            @RequestParam(defaultValue = "500") int maxNodes) {
+        return graphCache.getNeighborhood(projectId, nodeId, depth, maxNodes)
                 .map(graph -> ResponseEntity.ok(ApiResponse.success(graph)));
     }
 
@@ -7,17 +7,31 @@ import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.UUID;
 
 @Repository
 public interface ReactiveOutboxEventRepository extends ReactiveCrudRepository<R2dbcOutboxEvent, UUID> {
 
+    /**
+     * Exponential backoff (30s doubling per attempt, capped at one hour), evaluated
+     * against the retry count before the increment.
+     */
+    String RETRY_BACKOFF = "next_retry_at = NOW() + LEAST(3600, 30 * POWER(2, retry_count)) * INTERVAL '1 second'";
+
     Flux<R2dbcOutboxEvent> findByStatus(String status);
 
     Flux<R2dbcOutboxEvent> findByProjectId(String projectId);
 
     Flux<R2dbcOutboxEvent> findByAggregateTypeAndAggregateId(String aggregateType, String aggregateId);
 
+    @Query("SELECT * FROM lineage.outbox_events WHERE project_id = :projectId AND created_at >= :since ORDER BY created_at LIMIT :limit")
+    Flux<R2dbcOutboxEvent> findByProjectIdSince(String projectId, LocalDateTime since, int limit);
+
+    @Query("SELECT MAX(created_at) FROM lineage.outbox_events WHERE project_id = :projectId")
+    Mono<LocalDateTime> findLatestCreatedAtByProjectId(String projectId);
+
     @Query("SELECT * FROM lineage.outbox_events WHERE status = 'PENDING' ORDER BY created_at LIMIT :limit")
     Flux<R2dbcOutboxEvent> findPendingEvents(int limit);
 
@@ -27,9 +41,15 @@ public interface ReactiveOutboxEventRepository extends ReactiveCrudRepository<R2
     @Query("UPDATE lineage.outbox_events SET status = 'PUBLISHED', published_at = NOW() WHERE id = :id")
     Mono<Void> markPublished(UUID id);
 
-    @Query("UPDATE lineage.outbox_events SET status = 'FAILED', last_error = :error, retry_count = retry_count + 1 WHERE id = :id")
+    @Query("UPDATE lineage.outbox_events SET status = 'FAILED', last_error = :error, retry_count = retry_count + 1, " + RETRY_BACKOFF + " WHERE id = :id")
     Mono<Void> markFailed(UUID id, String error);
 
+    @Query("UPDATE lineage.outbox_events SET status = 'PUBLISHED', published_at = NOW() WHERE id IN (:ids)")
+    Mono<Void> markPublishedAll(Collection<UUID> ids);
+
+    @Query("UPDATE lineage.outbox_events SET status = 'FAILED', last_error = :error, retry_count = retry_count + 1, " + RETRY_BACKOFF + " WHERE id IN (:ids)")
+    Mono<Void> markFailedAll(Collection<UUID> ids, String error);
+
     @Query("UPDATE lineage.outbox_events SET status = 'PENDING' WHERE id = :id")
     Mono<Void> resetForRetry(UUID id);
 
@@ -0,0 +1,342 @@
+package com.insuretech.pms.lineage.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insuretech.pms.common.cache.BoundedProjectCache;
+import com.insuretech.pms.common.cache.ProjectCacheInvalidator;
+import com.insuretech.pms.common.exception.CustomException;
+import com.insuretech.pms.lineage.dto.LineageEdgeDto;
+import com.insuretech.pms.lineage.dto.LineageGraphDto;
+import com.insuretech.pms.lineage.dto.LineageNodeDto;
+import com.insuretech.pms.lineage.reactive.entity.R2dbcOutboxEvent;
+import com.insuretech.pms.lineage.reactive.repository.ReactiveOutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Per-project in-memory lineage graph, kept current from the lineage outbox.
+ *
+ * A snapshot remembers the newest outbox event it reflects. Every read first
+ * fetches the project's events after that watermark (usually none); the
+ * entities they touch are reloaded as a graph slice and patched into a new
+ * snapshot. Too many pending events, an expired snapshot or a missing one
+ * trigger a full rebuild. Concurrent readers of a project share one refresh.
+ *
+ * Most entity writes do not emit outbox events; their write paths call
+ * {@link #invalidateProject} instead, which forces a rebuild. Reads within a
+ * short settle window after an invalidation rebuild again, so a rebuild racing
+ * the writer's commit cannot pin the old graph. The max age bounds staleness
+ * for writes covered by neither.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReactiveLineageGraphCache implements ProjectCacheInvalidator {
+
+    private static final LocalDateTime NO_EVENTS = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final int MAX_DEPTH = 5;
+
+    private final ReactiveLineageService lineageService;
+    private final ReactiveOutboxEventRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${pms.lineage.graph-cache.max-age-seconds:300}")
+    private long maxAgeSeconds;
+
+    @Value("${pms.lineage.graph-cache.max-projects:50}")
+    private int maxProjects;
+
+    @Value("${pms.lineage.graph-cache.max-patch-events:200}")
+    private int maxPatchEvents;
+
+    @Value("${pms.lineage.graph-cache.settle-millis:2000}")
+    private long settleMillis;
+
+    private final BoundedProjectCache<Holder> projects = new BoundedProjectCache<>(Holder::new, () -> maxProjects);
+
+    /**
+     * The full lineage graph of a project.
+     */
+    public Mono<LineageGraphDto> getGraph(String projectId) {
+        return snapshot(projectId).map(Snapshot::graph);
+    }
+
+    /**
+     * Nodes within {@code depth} hops of {@code nodeId} (edges followed in both
+     * directions) and the edges between them, capped at {@code maxNodes} nodes.
+     */
+    public Mono<LineageGraphDto> getNeighborhood(String projectId, String nodeId, int depth, int maxNodes) {
+        int hops = Math.max(0, Math.min(depth, MAX_DEPTH));
+        int limit = Math.max(1, maxNodes);
+        return snapshot(projectId).flatMap(snapshot -> {
+            if (!snapshot.nodes().containsKey(nodeId)) {
+                return Mono.error(CustomException.notFound("Lineage node not found: " + nodeId));
+            }
+
+            Set<String> visited = new LinkedHashSet<>();
+            visited.add(nodeId);
+            List<String> frontier = List.of(nodeId);
+            for (int level = 0; level < hops && !frontier.isEmpty() && visited.size() < limit; level++) {
+                List<String> next = new ArrayList<>();
+                for (String id : frontier) {
+                    for (LineageEdgeDto edge : snapshot.incidentEdges(id)) {
+                        String other = id.equals(edge.getSource()) ? edge.getTarget() : edge.getSource();
+                        if (visited.size() >= limit) break;
+                        if (snapshot.nodes().containsKey(other) && visited.add(other)) {
+                            next.add(other);
+                        }
+                    }
+                }
+                frontier = next;
+            }
+
+            List<LineageNodeDto> nodes = visited.stream().map(snapshot.nodes()::get).toList();
+            List<LineageEdgeDto> edges = new ArrayList<>();
+            for (String id : visited) {
+                for (LineageEdgeDto edge : snapshot.incidentEdges(id)) {
+                    // Add each edge once, from its source side
+                    if (id.equals(edge.getSource()) && visited.contains(edge.getTarget())) {
+                        edges.add(edge);
+                    }
+                }
+            }
+            return Mono.just(LineageGraphDto.builder()
+                    .nodes(nodes)
+                    .edges(edges)
+                    .statistics(lineageService.computeStatistics(nodes, edges))
+                    .build());
+        });
+    }
+
+    /**
+     * Entities of the project changed outside the outbox; the next read rebuilds the graph.
+     */
+    @Override
+    public void invalidateProject(String projectId) {
+        if (projectId == null) return;
+        projects.peek(projectId).ifPresent(holder -> holder.markDirty(settleMillis));
+    }
+
+    private Mono<Snapshot> snapshot(String projectId) {
+        return Mono.defer(() -> {
+            Holder holder = projects.acquire(projectId);
+            return holder.refresh(() -> {
+                Snapshot base = holder.snapshot;
+                return base == null || base.isExpired(maxAgeSeconds) || holder.isDirty(base)
+                        ? rebuild(projectId)
+                        : catchUp(projectId, base);
+            });
+        });
+    }
+
+    private Mono<Snapshot> rebuild(String projectId) {
+        long startedAt = System.currentTimeMillis();
+        // Read the watermark first: events written during the build are re-applied, which is idempotent
+        return outboxRepository.findLatestCreatedAtByProjectId(projectId)
+                .defaultIfEmpty(NO_EVENTS)
+                .flatMap(watermark -> lineageService.buildLineageGraph(projectId)
+                        .map(graph -> Snapshot.of(graph, watermark, Set.of(), startedAt)));
+    }
+
+    private Mono<Snapshot> catchUp(String projectId, Snapshot base) {
+        return outboxRepository.findByProjectIdSince(projectId, base.watermark(), maxPatchEvents + 1)
+                .filter(event -> !base.seenAtWatermark().contains(event.getId()))
+                .collectList()
+                .flatMap(events -> {
+                    if (events.isEmpty()) {
+                        return Mono.just(base);
+                    }
+                    if (events.size() > maxPatchEvents) {
+                        log.debug("Lineage graph for project {} is {}+ events behind, rebuilding",
+                                projectId, maxPatchEvents);
+                        return rebuild(projectId);
+                    }
+                    Set<String> affected = affectedIds(events);
+                    return lineageService.loadGraphSlice(projectId, affected)
+                            .map(slice -> base.patch(affected, slice, events, lineageService))
+                            .doOnNext(s -> log.debug("Patched lineage graph for project {} with {} event(s)",
+                                    projectId, events.size()));
+                });
+    }
+
+    /**
+     * Entities touched by the events: the aggregate and any id-valued payload field
+     * (link events carry the other endpoint there).
+     */
+    @SuppressWarnings("unchecked")
+    private Set<String> affectedIds(List<R2dbcOutboxEvent> events) {
+        Set<String> ids = new HashSet<>();
+        for (R2dbcOutboxEvent event : events) {
+            if (event.getAggregateId() != null) {
+                ids.add(event.getAggregateId());
+            }
+            if (event.getPayload() == null) continue;
+            try {
+                Map<String, Object> payload = objectMapper.readValue(event.getPayload(), Map.class);
+                payload.forEach((key, value) -> {
+                    if (key.endsWith("Id") && !"projectId".equals(key) && value instanceof String id) {
+                        ids.add(id);
+                    }
+                });
+            } catch (JsonProcessingException e) {
+                log.warn("Failed to parse payload for lineage event: {}", event.getId());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Current snapshot of one project, pending invalidation and the refresh in flight, if any.
+     * A refresh started before the latest invalidation is not shared with later readers.
+     */
+    private static final class Holder {
+        private Snapshot snapshot;
+        private Mono<Snapshot> inFlight;
+        private long inFlightStartedAt;
+        private long invalidatedAt;
+        private long dirtyUntil;
+
+        synchronized Mono<Snapshot> refresh(Supplier<Mono<Snapshot>> refresher) {
+            if (inFlight != null && inFlightStartedAt >= invalidatedAt) {
+                return inFlight;
+            }
+            AtomicReference<Mono<Snapshot>> self = new AtomicReference<>();
+            Mono<Snapshot> refresh = refresher.get()
+                    .map(this::update)
+                    .doFinally(signal -> clearInFlight(self.get()))
+                    .cache();
+            self.set(refresh);
+            inFlight = refresh;
+            inFlightStartedAt = System.currentTimeMillis();
+            return refresh;
+        }
+
+        synchronized void markDirty(long settleMillis) {
+            long now = System.currentTimeMillis();
+            invalidatedAt = now;
+            dirtyUntil = Math.max(dirtyUntil, now + settleMillis);
+        }
+
+        /**
+         * Built from data read before an invalidation settled.
+         */
+        synchronized boolean isDirty(Snapshot s) {
+            return s.builtAt() <= dirtyUntil;
+        }
+
+        /**
+         * Keep the newer of the current and the refreshed snapshot; returns the one kept.
+         */
+        private synchronized Snapshot update(Snapshot fresh) {
+            if (snapshot == null || fresh.builtAt() >= snapshot.builtAt()) {
+                snapshot = fresh;
+            }
+            return snapshot;
+        }
+
+        private synchronized void clearInFlight(Mono<Snapshot> refresh) {
+            if (inFlight == refresh) {
+                inFlight = null;
+            }
+        }
+    }
+
+    /**
+     * Immutable graph state with an edge index for neighbourhood queries.
+     */
+    private record Snapshot(LineageGraphDto graph,
+                            Map<String, LineageNodeDto> nodes,
+                            Map<String, List<LineageEdgeDto>> incident,
+                            LocalDateTime watermark,
+                            Set<UUID> seenAtWatermark,
+                            long builtAt) {
+
+        /**
+         * {@code builtAt} is when reading the graph started, so data read after it is newer.
+         */
+        static Snapshot of(LineageGraphDto graph, LocalDateTime watermark, Set<UUID> seenAtWatermark, long builtAt) {
+            Map<String, LineageNodeDto> nodes = new LinkedHashMap<>();
+            for (LineageNodeDto node : graph.getNodes()) {
+                nodes.put(node.getId(), node);
+            }
+            Map<String, List<LineageEdgeDto>> incident = new HashMap<>();
+            for (LineageEdgeDto edge : graph.getEdges()) {
+                incident.computeIfAbsent(edge.getSource(), k -> new ArrayList<>()).add(edge);
+                if (!Objects.equals(edge.getSource(), edge.getTarget())) {
+                    incident.computeIfAbsent(edge.getTarget(), k -> new ArrayList<>()).add(edge);
+                }
+            }
+            return new Snapshot(graph, nodes, incident, watermark, seenAtWatermark, builtAt);
+        }
+
+        List<LineageEdgeDto> incidentEdges(String nodeId) {
+            return incident.getOrDefault(nodeId, List.of());
+        }
+
+        boolean isExpired(long maxAgeSeconds) {
+            return System.currentTimeMillis() - builtAt > maxAgeSeconds * 1000;
+        }
+
+        /**
+         * Replace the affected nodes and every edge touching them with the reloaded slice.
+         */
+        Snapshot patch(Set<String> affected, LineageGraphDto slice, List<R2dbcOutboxEvent> events,
+                       ReactiveLineageService lineageService) {
+            Map<String, LineageNodeDto> sliceNodes = new HashMap<>();
+            for (LineageNodeDto node : slice.getNodes()) {
+                sliceNodes.put(node.getId(), node);
+            }
+
+            // Keep node order stable: updated nodes stay in place, new ones are appended
+            List<LineageNodeDto> nodeList = new ArrayList<>(nodes.size() + sliceNodes.size());
+            for (LineageNodeDto node : graph.getNodes()) {
+                if (!affected.contains(node.getId())) {
+                    nodeList.add(node);
+                } else if (sliceNodes.containsKey(node.getId())) {
+                    nodeList.add(sliceNodes.remove(node.getId()));
+                }
+            }
+            nodeList.addAll(sliceNodes.values());
+
+            Map<String, LineageEdgeDto> edgeMap = new LinkedHashMap<>();
+            for (LineageEdgeDto edge : graph.getEdges()) {
+                if (!affected.contains(edge.getSource()) && !affected.contains(edge.getTarget())) {
+                    edgeMap.put(edge.getId(), edge);
+                }
+            }
+            for (LineageEdgeDto edge : slice.getEdges()) {
+                edgeMap.put(edge.getId(), edge);
+            }
+            List<LineageEdgeDto> edgeList = new ArrayList<>(edgeMap.values());
+
+            LocalDateTime newWatermark = watermark;
+            for (R2dbcOutboxEvent event : events) {
+                if (event.getCreatedAt() != null && event.getCreatedAt().isAfter(newWatermark)) {
+                    newWatermark = event.getCreatedAt();
+                }
+            }
+            Set<UUID> seen = new HashSet<>(newWatermark.equals(watermark) ? seenAtWatermark : Set.of());
+            for (R2dbcOutboxEvent event : events) {
+                if (newWatermark.equals(event.getCreatedAt())) {
+                    seen.add(event.getId());
+                }
+            }
+
+            LineageGraphDto patched = LineageGraphDto.builder()
+                    .nodes(nodeList)
+                    .edges(edgeList)
+                    .statistics(lineageService.computeStatistics(nodeList, edgeList))
+                    .build();
+            // A patch does not reset the max age: it only covers writes that went through the outbox
+            return of(patched, newWatermark, seen, builtAt);
+        }
+    }
+}
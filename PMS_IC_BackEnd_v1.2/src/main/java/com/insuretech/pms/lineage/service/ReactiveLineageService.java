@@ -2,6 +2,8 @@ package com.insuretech.pms.lineage.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insuretech.pms.common.event.ProjectEventBus;
+import com.insuretech.pms.common.event.ProjectEventBusFactory;
 import com.insuretech.pms.lineage.dto.*;
 import com.insuretech.pms.lineage.dto.LineageEdgeDto.LineageRelationship;
 import com.insuretech.pms.lineage.dto.LineageNodeDto.LineageNodeType;
@@ -13,17 +15,16 @@ import com.insuretech.pms.rfp.reactive.repository.ReactiveRfpRepository;
 import com.insuretech.pms.task.reactive.repository.ReactiveUserStoryRepository;
 import com.insuretech.pms.task.reactive.repository.ReactiveTaskRepository;
 import com.insuretech.pms.task.reactive.repository.ReactiveSprintRepository;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.publisher.Sinks;
 
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @Service
@@ -38,8 +39,14 @@ public class ReactiveLineageService {
     private final ReactiveSprintRepository sprintRepository;
     private final DatabaseClient databaseClient;
     private final ObjectMapper objectMapper;
+    private final ProjectEventBusFactory eventBusFactory;
 
-    private final Map<String, Sinks.Many<LineageEventDto>> projectEventSinks = new ConcurrentHashMap<>();
+    private ProjectEventBus<LineageEventDto> lineageEventBus;
+
+    @PostConstruct
+    public void init() {
+        lineageEventBus = eventBusFactory.create("lineage", LineageEventDto.class);
+    }
 
     /**
      * Publish a lineage event to the outbox
@@ -77,8 +84,7 @@ public class ReactiveLineageService {
      * Stream lineage events for a project (SSE)
      */
     public Flux<LineageEventDto> streamProjectEvents(String projectId) {
-        Sinks.Many<LineageEventDto> sink = getOrCreateSink(projectId);
-        return sink.asFlux()
+        return lineageEventBus.subscribe(projectId)
                 .doOnCancel(() -> log.debug("Client disconnected from lineage stream: {}", projectId));
     }
 
@@ -112,6 +118,24 @@ public class ReactiveLineageService {
                 .doOnSuccess(v -> log.warn("Marked event failed: {}, error: {}", eventId, error));
     }
 
+    /**
+     * Mark a batch of events as published in one statement
+     */
+    public Mono<Void> markPublished(Collection<UUID> eventIds) {
+        if (eventIds.isEmpty()) return Mono.empty();
+        return outboxRepository.markPublishedAll(eventIds)
+                .doOnSuccess(v -> log.debug("Marked {} events published", eventIds.size()));
+    }
+
+    /**
+     * Mark a batch of events as failed in one statement
+     */
+    public Mono<Void> markFailed(Collection<UUID> eventIds, String error) {
+        if (eventIds.isEmpty()) return Mono.empty();
+        return outboxRepository.markFailedAll(eventIds, error)
+                .doOnSuccess(v -> log.warn("Marked {} events failed, error: {}", eventIds.size(), error));
+    }
+
     /**
      * Get events by aggregate
      */
@@ -133,9 +157,33 @@ public class ReactiveLineageService {
      * RFP 노드와 RFP→Requirement 관계도 포함하여 완전한 추적성 그래프를 구성한다.
      */
     public Mono<LineageGraphDto> buildLineageGraph(String projectId) {
+        return buildGraph(projectId, null)
+                .doOnSuccess(graph -> log.info("Built lineage graph for project {}: {} nodes, {} edges",
+                        projectId, graph.getNodes().size(), graph.getEdges().size()));
+    }
+
+    /**
+     * Load the part of a project's graph around the given entity ids: the nodes
+     * with those ids (entities that no longer exist are simply absent) and every
+     * edge with one of them as source or target. Used to patch a cached graph.
+     */
+    public Mono<LineageGraphDto> loadGraphSlice(String projectId, Collection<String> entityIds) {
+        if (entityIds.isEmpty()) {
+            return Mono.just(LineageGraphDto.builder().nodes(List.of()).edges(List.of()).build());
+        }
+        return buildGraph(projectId, Set.copyOf(entityIds));
+    }
+
+    /**
+     * Builds the whole graph when {@code focusIds} is null, otherwise only the slice around those ids.
+     */
+    private Mono<LineageGraphDto> buildGraph(String projectId, Set<String> focusIds) {
+        boolean full = focusIds == null;
+
         // RFP 노드 수집
-        Mono<List<LineageNodeDto>> rfpNodes = rfpRepository
-                .findByProjectIdOrderByCreatedAtDesc(projectId)
+        Mono<List<LineageNodeDto>> rfpNodes = (full
+                ? rfpRepository.findByProjectIdOrderByCreatedAtDesc(projectId)
+                : rfpRepository.findAllById(focusIds).filter(rfp -> projectId.equals(rfp.getProjectId())))
                 .map(rfp -> LineageNodeDto.builder()
                         .id(rfp.getId())
                         .type(LineageNodeType.RFP)
@@ -148,11 +196,11 @@ public class ReactiveLineageService {
                 .collectList();
 
         // RFP → Requirement 엣지 (rfp_id FK 기반)
-        Mono<List<LineageEdgeDto>> rfpRequirementEdges = databaseClient
-                .sql("SELECT r.id AS req_id, r.rfp_id " +
-                     "FROM project.requirements r " +
-                     "WHERE r.project_id = :projectId AND r.rfp_id IS NOT NULL")
-                .bind("projectId", projectId)
+        Mono<List<LineageEdgeDto>> rfpRequirementEdges = edgeQuery(
+                "SELECT r.id AS req_id, r.rfp_id " +
+                "FROM project.requirements r " +
+                "WHERE r.project_id = :projectId AND r.rfp_id IS NOT NULL",
+                "r.id", "r.rfp_id", projectId, focusIds)
                 .map((row, meta) -> LineageEdgeDto.builder()
                         .id("rfp-req-" + row.get("req_id", String.class))
                         .source(row.get("rfp_id", String.class))
@@ -163,8 +211,9 @@ public class ReactiveLineageService {
                 .collectList();
 
         // Collect all nodes in parallel
-        Mono<List<LineageNodeDto>> requirementNodes = requirementRepository
-                .findByProjectIdOrderByCodeAsc(projectId)
+        Mono<List<LineageNodeDto>> requirementNodes = (full
+                ? requirementRepository.findByProjectIdOrderByCodeAsc(projectId)
+                : requirementRepository.findAllById(focusIds).filter(req -> projectId.equals(req.getProjectId())))
                 .map(req -> LineageNodeDto.builder()
                         .id(req.getId())
                         .type(LineageNodeType.REQUIREMENT)
@@ -176,8 +225,9 @@ public class ReactiveLineageService {
                         .build())
                 .collectList();
 
-        Mono<List<LineageNodeDto>> storyNodes = userStoryRepository
-                .findByProjectId(projectId)
+        Mono<List<LineageNodeDto>> storyNodes = (full
+                ? userStoryRepository.findByProjectId(projectId)
+                : userStoryRepository.findAllById(focusIds).filter(story -> projectId.equals(story.getProjectId())))
                 .map(story -> LineageNodeDto.builder()
                         .id(story.getId())
                         .type(LineageNodeType.USER_STORY)
@@ -188,8 +238,9 @@ public class ReactiveLineageService {
                         .build())
                 .collectList();
 
-        Mono<List<LineageNodeDto>> taskNodes = taskRepository
-                .findByProjectIdOrderByOrderNumAsc(projectId)
+        Mono<List<LineageNodeDto>> taskNodes = (full
+                ? taskRepository.findByProjectIdOrderByOrderNumAsc(projectId)
+                : taskRepository.findAllById(focusIds).filter(task -> projectId.equals(task.getProjectId())))
                 .map(task -> LineageNodeDto.builder()
                         .id(task.getId())
                         .type(LineageNodeType.TASK)
@@ -199,8 +250,9 @@ public class ReactiveLineageService {
                         .build())
                 .collectList();
 
-        Mono<List<LineageNodeDto>> sprintNodes = sprintRepository
-                .findByProjectIdOrderByStartDateDesc(projectId)
+        Mono<List<LineageNodeDto>> sprintNodes = (full
+                ? sprintRepository.findByProjectIdOrderByStartDateDesc(projectId)
+                : sprintRepository.findAllById(focusIds).filter(sprint -> projectId.equals(sprint.getProjectId())))
                 .map(sprint -> LineageNodeDto.builder()
                         .id(sprint.getId())
                         .type(LineageNodeType.SPRINT)
@@ -211,11 +263,11 @@ public class ReactiveLineageService {
                 .collectList();
 
         // Collect edges from trace links
-        Mono<List<LineageEdgeDto>> traceEdges = databaseClient
-                .sql("SELECT id, requirement_id, linked_entity_type, linked_entity_id, link_type, created_at " +
-                     "FROM project.requirement_trace_links WHERE requirement_id IN " +
-                     "(SELECT id FROM project.requirements WHERE project_id = :projectId)")
-                .bind("projectId", projectId)
+        Mono<List<LineageEdgeDto>> traceEdges = edgeQuery(
+                "SELECT id, requirement_id, linked_entity_type, linked_entity_id, link_type, created_at " +
+                "FROM project.requirement_trace_links WHERE requirement_id IN " +
+                "(SELECT id FROM project.requirements WHERE project_id = :projectId)",
+                "requirement_id", "linked_entity_id", projectId, focusIds)
                 .map((row, meta) -> LineageEdgeDto.builder()
                         .id(row.get("id", String.class))
                         .source(row.get("requirement_id", String.class))
@@ -228,11 +280,11 @@ public class ReactiveLineageService {
                 .collectList();
 
         // Collect edges from requirement-story mappings
-        Mono<List<LineageEdgeDto>> storyMappingEdges = databaseClient
-                .sql("SELECT id::text as id, requirement_id, story_id, mapped_at " +
-                     "FROM project.requirement_story_mapping WHERE requirement_id IN " +
-                     "(SELECT id FROM project.requirements WHERE project_id = :projectId)")
-                .bind("projectId", projectId)
+        Mono<List<LineageEdgeDto>> storyMappingEdges = edgeQuery(
+                "SELECT id::text as id, requirement_id, story_id, mapped_at " +
+                "FROM project.requirement_story_mapping WHERE requirement_id IN " +
+                "(SELECT id FROM project.requirements WHERE project_id = :projectId)",
+                "requirement_id", "story_id", projectId, focusIds)
                 .map((row, meta) -> LineageEdgeDto.builder()
                         .id(row.get("id", String.class))
                         .source(row.get("requirement_id", String.class))
@@ -244,10 +296,10 @@ public class ReactiveLineageService {
                 .collectList();
 
         // Collect edges from task->story relationships
-        Mono<List<LineageEdgeDto>> taskStoryEdges = databaseClient
-                .sql("SELECT id, user_story_id, title FROM task.tasks " +
-                     "WHERE project_id = :projectId AND user_story_id IS NOT NULL")
-                .bind("projectId", projectId)
+        Mono<List<LineageEdgeDto>> taskStoryEdges = edgeQuery(
+                "SELECT id, user_story_id, title FROM task.tasks " +
+                "WHERE project_id = :projectId AND user_story_id IS NOT NULL",
+                "id", "user_story_id", projectId, focusIds)
                 .map((row, meta) -> LineageEdgeDto.builder()
                         .id("ts-" + row.get("id", String.class))
                         .source(row.get("user_story_id", String.class))
@@ -258,10 +310,10 @@ public class ReactiveLineageService {
                 .collectList();
 
         // Collect edges from task->sprint relationships
-        Mono<List<LineageEdgeDto>> taskSprintEdges = databaseClient
-                .sql("SELECT id, sprint_id FROM task.tasks " +
-                     "WHERE project_id = :projectId AND sprint_id IS NOT NULL")
-                .bind("projectId", projectId)
+        Mono<List<LineageEdgeDto>> taskSprintEdges = edgeQuery(
+                "SELECT id, sprint_id FROM task.tasks " +
+                "WHERE project_id = :projectId AND sprint_id IS NOT NULL",
+                "id", "sprint_id", projectId, focusIds)
                 .map((row, meta) -> LineageEdgeDto.builder()
                         .id("tsp-" + row.get("id", String.class))
                         .source(row.get("id", String.class))
@@ -302,41 +354,66 @@ public class ReactiveLineageService {
                     allEdges.addAll(tuple.getT7()); // task-story
                     allEdges.addAll(tuple.getT8()); // task-sprint
 
-                    // Compute statistics
-                    int reqCount = tuple.getT1().size();
-                    int storyCount = tuple.getT2().size();
-                    int taskCount = tuple.getT3().size();
-                    int sprintCount = tuple.getT4().size();
-
-                    // Count linked requirements (those that appear as source in any edge)
-                    Set<String> linkedReqIds = new HashSet<>();
-                    for (LineageEdgeDto edge : allEdges) {
-                        if (tuple.getT1().stream().anyMatch(n -> n.getId().equals(edge.getSource()))) {
-                            linkedReqIds.add(edge.getSource());
-                        }
-                    }
-                    int linkedReqs = linkedReqIds.size();
-                    int unlinkedReqs = reqCount - linkedReqs;
-                    double coverage = reqCount > 0 ? (linkedReqs * 100.0 / reqCount) : 0.0;
-
-                    LineageGraphDto.LineageStatisticsDto stats = LineageGraphDto.LineageStatisticsDto.builder()
-                            .requirements(reqCount)
-                            .stories(storyCount)
-                            .tasks(taskCount)
-                            .sprints(sprintCount)
-                            .coverage(Math.round(coverage * 100.0) / 100.0)
-                            .linkedRequirements(linkedReqs)
-                            .unlinkedRequirements(unlinkedReqs)
-                            .build();
-
                     return LineageGraphDto.builder()
                             .nodes(allNodes)
                             .edges(allEdges)
-                            .statistics(stats)
+                            .statistics(computeStatistics(allNodes, allEdges))
                             .build();
-                })
-                .doOnSuccess(graph -> log.info("Built lineage graph for project {}: {} nodes, {} edges",
-                        projectId, graph.getNodes().size(), graph.getEdges().size()));
+                });
+    }
+
+    /**
+     * Edge query, narrowed to edges touching {@code focusIds} at either end when given.
+     */
+    private DatabaseClient.GenericExecuteSpec edgeQuery(String sql, String sourceColumn, String targetColumn,
+                                                        String projectId, Set<String> focusIds) {
+        if (focusIds == null) {
+            return databaseClient.sql(sql).bind("projectId", projectId);
+        }
+        return databaseClient.sql(sql + " AND (" + sourceColumn + " IN (:focusIds) OR "
+                        + targetColumn + " IN (:focusIds))")
+                .bind("projectId", projectId)
+                .bind("focusIds", focusIds);
+    }
+
+    /**
+     * Node counts and requirement coverage (requirements that are the source of any edge).
+     */
+    public LineageGraphDto.LineageStatisticsDto computeStatistics(Collection<LineageNodeDto> nodes,
+                                                                  Collection<LineageEdgeDto> edges) {
+        Set<String> requirementIds = new HashSet<>();
+        int storyCount = 0;
+        int taskCount = 0;
+        int sprintCount = 0;
+        for (LineageNodeDto node : nodes) {
+            switch (node.getType()) {
+                case REQUIREMENT -> requirementIds.add(node.getId());
+                case USER_STORY -> storyCount++;
+                case TASK -> taskCount++;
+                case SPRINT -> sprintCount++;
+                default -> { }
+            }
+        }
+
+        Set<String> linkedReqIds = new HashSet<>();
+        for (LineageEdgeDto edge : edges) {
+            if (requirementIds.contains(edge.getSource())) {
+                linkedReqIds.add(edge.getSource());
+            }
+        }
+        int reqCount = requirementIds.size();
+        int linkedReqs = linkedReqIds.size();
+        double coverage = reqCount > 0 ? (linkedReqs * 100.0 / reqCount) : 0.0;
+
+        return LineageGraphDto.LineageStatisticsDto.builder()
+                .requirements(reqCount)
+                .stories(storyCount)
+                .tasks(taskCount)
+                .sprints(sprintCount)
+                .coverage(Math.round(coverage * 100.0) / 100.0)
+                .linkedRequirements(linkedReqs)
+                .unlinkedRequirements(reqCount - linkedReqs)
+                .build();
     }
 
     private LineageRelationship mapLinkType(String linkType, String entityType) {
@@ -354,16 +431,8 @@ public class ReactiveLineageService {
         return LineageRelationship.DERIVES;
     }
 
-    private Sinks.Many<LineageEventDto> getOrCreateSink(String projectId) {
-        return projectEventSinks.computeIfAbsent(projectId,
-                k -> Sinks.many().multicast().onBackpressureBuffer());
-    }
-
     private void emitToStream(String projectId, LineageEventDto event) {
-        Sinks.Many<LineageEventDto> sink = projectEventSinks.get(projectId);
-        if (sink != null) {
-            sink.tryEmitNext(event);
-        }
+        lineageEventBus.publish(projectId, event);
     }
 
     private String generateIdempotencyKey(String aggregateType, String aggregateId, LineageEventType eventType) {
@@ -1,28 +1,52 @@
 package com.insuretech.pms.lineage.service;
 
+import com.insuretech.pms.common.outbox.OutboxEngine;
+import com.insuretech.pms.common.outbox.OutboxHandler;
+import com.insuretech.pms.common.outbox.OutboxSource;
 import com.insuretech.pms.lineage.reactive.entity.R2dbcOutboxEvent;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 /**
  * Scheduler service that polls outbox events and sends them to Neo4j via LLM service.
- * Uses the Outbox Pattern for reliable event delivery.
+ * Uses the Outbox Pattern for reliable event delivery; rows are leased through
+ * {@link OutboxEngine}, so several replicas can relay the same outbox.
+ *
+ * Failed events are retried by the same loop once the backoff stored in
+ * next_retry_at has elapsed, up to lineage.poller.max-retries attempts.
+ *
+ * Events are relayed in batches to /api/lineage/sync/batch with bounded concurrency,
+ * and each batch is settled with one multi-row status update. The batch size adapts
+ * to observed call latency: it grows while calls stay well under the target latency
+ * and halves when a call is slow or fails. If the LLM service does not expose the
+ * batch endpoint the poller falls back to per-event sync and probes the batch
+ * endpoint again after lineage.poller.batch-sync.reprobe-interval-ms, so a later
+ * deployment of the endpoint is picked up without a restart.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class ReactiveOutboxPoller {
+public class ReactiveOutboxPoller implements OutboxHandler<R2dbcOutboxEvent> {
+
+    private static final String BATCH_RESPONSE_MISSING = "Event missing from batch sync response";
 
     private final ReactiveLineageService lineageService;
     private final WebClient.Builder webClientBuilder;
+    private final OutboxEngine outboxEngine;
 
     @Value("${llm.service.url:http://localhost:8000}")
     private String llmServiceUrl;
@@ -36,40 +60,234 @@ public class ReactiveOutboxPoller {
     @Value("${lineage.poller.enabled:true}")
     private boolean pollerEnabled;
 
+    @Value("${lineage.poller.batch-sync.enabled:true}")
+    private boolean batchSyncEnabled;
+
+    @Value("${lineage.poller.batch-sync.initial-size:25}")
+    private int initialSyncBatchSize;
+
+    @Value("${lineage.poller.batch-sync.min-size:5}")
+    private int minSyncBatchSize;
+
+    @Value("${lineage.poller.batch-sync.max-size:200}")
+    private int maxSyncBatchSize;
+
+    @Value("${lineage.poller.batch-sync.concurrency:4}")
+    private int concurrency;
+
+    @Value("${lineage.poller.batch-sync.target-latency-ms:2000}")
+    private long targetLatencyMs;
+
+    @Value("${lineage.poller.batch-sync.timeout-ms:30000}")
+    private long batchTimeoutMs;
+
+    @Value("${lineage.poller.batch-sync.reprobe-interval-ms:300000}")
+    private long reprobeIntervalMs;
+
+    @Value("${lineage.poller.max-pages-per-cycle:20}")
+    private int maxPagesPerCycle;
+
+    private WebClient webClient;
+    private OutboxSource<R2dbcOutboxEvent> source;
+
+    private final AtomicInteger syncBatchSize = new AtomicInteger();
+    /** Epoch millis before which the batch endpoint is not tried; 0 while it is available. */
+    private final AtomicLong batchEndpointRetryAt = new AtomicLong();
+
+    private final AtomicLong totalPublished = new AtomicLong();
+    private final AtomicLong totalFailed = new AtomicLong();
+    private volatile long lastBatchLatencyMs;
+
+    @PostConstruct
+    public void init() {
+        webClient = webClientBuilder.baseUrl(llmServiceUrl).build();
+        syncBatchSize.set(clamp(initialSyncBatchSize));
+        source = new OutboxSource<>(
+                "lineage",
+                "lineage.outbox_events",
+                R2dbcOutboxEvent.class,
+                "status = 'PENDING' OR (status = 'FAILED' AND retry_count < " + maxRetries
+                        + " AND (next_retry_at IS NULL OR next_retry_at <= NOW()))",
+                R2dbcOutboxEvent::getId
+        );
+    }
+
     /**
-     * Poll pending events every 5 seconds and send to Neo4j
+     * Poll pending and retry-ready events every 5 seconds and send to Neo4j.
+     * Keeps leasing pages while they come back full, up to max-pages-per-cycle.
      */
     @Scheduled(fixedDelayString = "${lineage.poller.interval:5000}")
     public void pollPendingEvents() {
-        if (!pollerEnabled) {
-            return;
-        }
+        outboxEngine.poll(this);
+    }
 
-        lineageService.getPendingEvents(batchSize)
-                .flatMap(this::processEvent)
-                .subscribe(
-                        event -> log.debug("Processed event: {}", event.getId()),
-                        error -> log.error("Error polling pending events", error),
-                        () -> log.trace("Pending events poll cycle completed")
-                );
+    @Override
+    public OutboxSource<R2dbcOutboxEvent> source() {
+        return source;
+    }
+
+    @Override
+    public boolean enabled() {
+        return pollerEnabled;
+    }
+
+    @Override
+    public int leaseBatchSize() {
+        return Math.max(batchSize, syncBatchSize.get() * concurrency);
+    }
+
+    @Override
+    public int chunkSize() {
+        return syncBatchSize.get();
+    }
+
+    @Override
+    public int concurrency() {
+        return concurrency;
+    }
+
+    @Override
+    public int maxPagesPerCycle() {
+        return maxPagesPerCycle;
+    }
+
+    @Override
+    public Mono<Void> handle(List<R2dbcOutboxEvent> batch) {
+        return processBatch(batch).then();
     }
 
     /**
-     * Retry failed events every 30 seconds
+     * Send one batch and settle its statuses with multi-row updates.
      */
-    @Scheduled(fixedDelayString = "${lineage.poller.retry-interval:30000}")
-    public void retryFailedEvents() {
-        if (!pollerEnabled) {
-            return;
+    private Mono<Long> processBatch(List<R2dbcOutboxEvent> batch) {
+        if (!batchSyncEnabled || !batchEndpointAvailable()) {
+            return Flux.fromIterable(batch)
+                    .flatMap(this::processEvent, concurrency)
+                    .count();
         }
 
-        lineageService.getFailedEventsForRetry(maxRetries, batchSize)
-                .flatMap(this::processEvent)
-                .subscribe(
-                        event -> log.info("Retried event: {}", event.getId()),
-                        error -> log.error("Error retrying failed events", error),
-                        () -> log.trace("Failed events retry cycle completed")
-                );
+        long start = System.nanoTime();
+        return sendBatchToNeo4j(batch)
+                .doOnNext(failures -> adaptBatchSize(batch.size(), elapsedMs(start), true))
+                .flatMap(failures -> settle(batch, failures))
+                .onErrorResume(WebClientResponseException.NotFound.class, error -> {
+                    long now = System.currentTimeMillis();
+                    if (batchEndpointRetryAt.getAndSet(now + reprobeIntervalMs) <= now) {
+                        log.warn("Batch lineage sync endpoint not available, falling back to per-event sync for {}ms",
+                                reprobeIntervalMs);
+                    }
+                    return Flux.fromIterable(batch)
+                            .flatMap(this::processEvent, concurrency)
+                            .count();
+                })
+                .onErrorResume(error -> {
+                    adaptBatchSize(batch.size(), elapsedMs(start), false);
+                    log.warn("Batch Neo4j sync of {} events failed: {}", batch.size(), error.getMessage());
+                    Map<UUID, String> failures = batch.stream()
+                            .collect(Collectors.toMap(R2dbcOutboxEvent::getId,
+                                    e -> Objects.toString(error.getMessage(), "Batch sync failed")));
+                    return settle(batch, failures);
+                });
+    }
+
+    private boolean batchEndpointAvailable() {
+        return System.currentTimeMillis() >= batchEndpointRetryAt.get();
+    }
+
+    /**
+     * Mark every event of the batch published except the failed ones, which are
+     * marked failed grouped by error message.
+     */
+    private Mono<Long> settle(List<R2dbcOutboxEvent> batch, Map<UUID, String> failures) {
+        List<UUID> published = batch.stream()
+                .map(R2dbcOutboxEvent::getId)
+                .filter(id -> !failures.containsKey(id))
+                .collect(Collectors.toList());
+
+        Map<String, List<UUID>> failedByError = failures.entrySet().stream()
+                .collect(Collectors.groupingBy(Map.Entry::getValue,
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toList())));
+
+        return lineageService.markPublished(published)
+                .thenMany(Flux.fromIterable(failedByError.entrySet())
+                        .concatMap(entry -> lineageService.markFailed(entry.getValue(), entry.getKey())))
+                .then(Mono.fromCallable(() -> {
+                    totalPublished.addAndGet(published.size());
+                    totalFailed.addAndGet(failures.size());
+                    return (long) batch.size();
+                }));
+    }
+
+    /**
+     * Send events to Neo4j via the LLM service batch endpoint.
+     * Returns the ids of events that were not synced, with their error.
+     */
+    @SuppressWarnings("unchecked")
+    private Mono<Map<UUID, String>> sendBatchToNeo4j(List<R2dbcOutboxEvent> batch) {
+        Map<String, Object> requestBody = Map.of(
+                "events", batch.stream().map(this::toRequestBody).collect(Collectors.toList())
+        );
+
+        return webClient.post()
+                .uri("/api/lineage/sync/batch")
+                .bodyValue(requestBody)
+                .retrieve()
+                .bodyToMono(Map.class)
+                .timeout(Duration.ofMillis(batchTimeoutMs))
+                .map(response -> {
+                    Map<UUID, String> failures = new HashMap<>();
+                    Object results = response.get("results");
+                    if (!(results instanceof List<?> resultList)) {
+                        if (!Boolean.TRUE.equals(response.get("success"))) {
+                            batch.forEach(e -> failures.put(e.getId(), "Neo4j sync returned false"));
+                        }
+                        return failures;
+                    }
+
+                    Map<String, Map<String, Object>> byEventId = new HashMap<>();
+                    for (Object item : resultList) {
+                        if (item instanceof Map<?, ?> result && result.get("eventId") != null) {
+                            byEventId.put(result.get("eventId").toString(), (Map<String, Object>) result);
+                        }
+                    }
+                    for (R2dbcOutboxEvent event : batch) {
+                        Map<String, Object> result = byEventId.get(event.getId().toString());
+                        if (result == null) {
+                            failures.put(event.getId(), BATCH_RESPONSE_MISSING);
+                        } else if (!Boolean.TRUE.equals(result.get("success"))) {
+                            failures.put(event.getId(), result.get("error") != null
+                                    ? result.get("error").toString() : "Neo4j sync returned false");
+                        }
+                    }
+                    return failures;
+                })
+                .doOnSuccess(failures -> log.debug("Neo4j batch sync: {} events, {} failed",
+                        batch.size(), failures != null ? failures.size() : 0));
+    }
+
+    /**
+     * Grow the batch by a quarter while calls stay under half the target latency
+     * and halve it when a call is slow or fails.
+     */
+    private void adaptBatchSize(int sentSize, long latencyMs, boolean succeeded) {
+        lastBatchLatencyMs = latencyMs;
+        syncBatchSize.updateAndGet(current -> {
+            if (!succeeded || latencyMs > targetLatencyMs) {
+                return clamp(current / 2);
+            }
+            if (latencyMs < targetLatencyMs / 2 && sentSize >= current) {
+                return clamp(current + Math.max(1, current / 4));
+            }
+            return current;
+        });
+    }
+
+    private int clamp(int size) {
+        return Math.max(minSyncBatchSize, Math.min(maxSyncBatchSize, size));
+    }
+
+    private long elapsedMs(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
     }
 
     /**
@@ -79,15 +297,18 @@ public class ReactiveOutboxPoller {
         return sendToNeo4j(event)
                 .flatMap(success -> {
                     if (success) {
+                        totalPublished.incrementAndGet();
                         return lineageService.markPublished(event.getId())
                                 .thenReturn(event);
                     } else {
+                        totalFailed.incrementAndGet();
                         return lineageService.markFailed(event.getId(), "Neo4j sync returned false")
                                 .thenReturn(event);
                     }
                 })
                 .onErrorResume(error -> {
                     log.error("Failed to process event {}: {}", event.getId(), error.getMessage());
+                    totalFailed.incrementAndGet();
                     return lineageService.markFailed(event.getId(), error.getMessage())
                             .thenReturn(event);
                 });
@@ -97,20 +318,9 @@ public class ReactiveOutboxPoller {
      * Send event to Neo4j via LLM service
      */
     private Mono<Boolean> sendToNeo4j(R2dbcOutboxEvent event) {
-        WebClient webClient = webClientBuilder.baseUrl(llmServiceUrl).build();
-
-        Map<String, Object> requestBody = Map.of(
-                "eventId", event.getId().toString(),
-                "eventType", event.getEventType(),
-                "aggregateType", event.getAggregateType(),
-                "aggregateId", event.getAggregateId(),
-                "projectId", event.getProjectId() != null ? event.getProjectId() : "",
-                "payload", event.getPayload()
-        );
-
         return webClient.post()
                 .uri("/api/lineage/sync")
-                .bodyValue(requestBody)
+                .bodyValue(toRequestBody(event))
                 .retrieve()
                 .bodyToMono(Map.class)
                 .timeout(Duration.ofSeconds(10))
@@ -125,13 +335,22 @@ public class ReactiveOutboxPoller {
                 });
     }
 
+    private Map<String, Object> toRequestBody(R2dbcOutboxEvent event) {
+        return Map.of(
+                "eventId", event.getId().toString(),
+                "eventType", event.getEventType(),
+                "aggregateType", event.getAggregateType(),
+                "aggregateId", event.getAggregateId(),
+                "projectId", event.getProjectId() != null ? event.getProjectId() : "",
+                "payload", event.getPayload()
+        );
+    }
+
     /**
-     * Manual trigger to process all pending events (for admin use)
+     * Manual trigger to lease and process one page of pending events (for admin use)
      */
     public Mono<Long> processAllPendingEvents() {
-        return lineageService.getPendingEvents(1000)
-                .flatMap(this::processEvent)
-                .count()
+        return outboxEngine.runOnce(this)
                 .doOnSuccess(count -> log.info("Manually processed {} pending events", count));
     }
 
@@ -139,11 +358,17 @@ public class ReactiveOutboxPoller {
      * Get poller status
      */
     public Map<String, Object> getPollerStatus() {
-        return Map.of(
-                "enabled", pollerEnabled,
-                "batchSize", batchSize,
-                "maxRetries", maxRetries,
-                "llmServiceUrl", llmServiceUrl
-        );
+        Map<String, Object> status = new LinkedHashMap<>(outboxEngine.status(this));
+        status.put("enabled", pollerEnabled);
+        status.put("batchSize", batchSize);
+        status.put("maxRetries", maxRetries);
+        status.put("llmServiceUrl", llmServiceUrl);
+        status.put("batchSyncEnabled", batchSyncEnabled);
+        status.put("batchEndpointAvailable", batchEndpointAvailable());
+        status.put("syncBatchSize", syncBatchSize.get());
+        status.put("lastBatchLatencyMs", lastBatchLatencyMs);
+        status.put("totalPublished", totalPublished.get());
+        status.put("totalFailed", totalFailed.get());
+        return status;
     }
 }
@@ -7,6 +7,10 @@ import com.insuretech.pms.pmo.service.ReactivePmoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -25,9 +29,35 @@ public class ReactivePmoController {
     @Operation(summary = "Get portfolio summary with all projects")
     @GetMapping("/portfolio")
     @PreAuthorize("isAuthenticated()")
-    public Mono<ResponseEntity<ApiResponse<PmoPortfolioDto>>> getPortfolio() {
+    public Mono<ResponseEntity<ApiResponse<PmoPortfolioDto>>> getPortfolio(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         return pmoService.getPortfolio()
-                .map(dto -> ResponseEntity.ok(ApiResponse.success(dto)));
+                .map(dto -> {
+                    String etag = pmoService.portfolioETag(dto);
+                    CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+                    if (matchesAny(ifNoneMatch, etag)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                .eTag(etag)
+                                .cacheControl(cacheControl)
+                                .<ApiResponse<PmoPortfolioDto>>build();
+                    }
+                    return ResponseEntity.ok()
+                            .eTag(etag)
+                            .cacheControl(cacheControl)
+                            .body(ApiResponse.success(dto));
+                });
+    }
+
+    /**
+     * If-None-Match per RFC 9110: "*" or any tag of the comma-separated list, compared weakly.
+     */
+    private static boolean matchesAny(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        ETag current = ETag.create(etag);
+        return ETag.parse(ifNoneMatch).stream()
+                .anyMatch(tag -> tag.isWildcard() || tag.compare(current, false));
     }
 
     @Operation(summary = "Get health matrix for all active projects")
@@ -0,0 +1,149 @@
+package com.insuretech.pms.pmo.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps project.project_health_counters current.
+ *
+ * Task and issue write paths call {@link #markDirty} with the affected project.
+ * Dirty projects are re-aggregated in one set-based UPSERT, either by the
+ * scheduled flush or right before a portfolio read ({@link #ensureFresh}), so
+ * a writer sees its own change. Overdue counts depend on the current date and
+ * writes from other replicas or bulk imports bypass the hooks; both are
+ * covered by a full refresh on the first read of a new day and on a fixed
+ * interval.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PortfolioHealthStore {
+
+    private static final String REFRESH_SQL = """
+            INSERT INTO project.project_health_counters
+                (project_id, total_tasks, done_tasks, overdue_tasks, open_issues, as_of_date, refreshed_at)
+            SELECT p.id,
+                   COALESCE(t.total_tasks, 0),
+                   COALESCE(t.done_tasks, 0),
+                   COALESCE(t.overdue_tasks, 0),
+                   COALESCE(i.open_issues, 0),
+                   CURRENT_DATE,
+                   CURRENT_TIMESTAMP
+            FROM project.projects p
+            LEFT JOIN (
+                SELECT project_id,
+                       COUNT(*) AS total_tasks,
+                       COUNT(*) FILTER (WHERE status = 'DONE') AS done_tasks,
+                       COUNT(*) FILTER (WHERE due_date < CURRENT_DATE AND status NOT IN ('DONE', 'CANCELLED')) AS overdue_tasks
+                FROM task.tasks
+                %1$s
+                GROUP BY project_id
+            ) t ON t.project_id = p.id
+            LEFT JOIN (
+                SELECT project_id, COUNT(*) AS open_issues
+                FROM project.issues
+                WHERE status NOT IN ('CLOSED', 'RESOLVED') %2$s
+                GROUP BY project_id
+            ) i ON i.project_id = p.id
+            %3$s
+            ON CONFLICT (project_id) DO UPDATE SET
+                total_tasks = EXCLUDED.total_tasks,
+                done_tasks = EXCLUDED.done_tasks,
+                overdue_tasks = EXCLUDED.overdue_tasks,
+                open_issues = EXCLUDED.open_issues,
+                as_of_date = EXCLUDED.as_of_date,
+                refreshed_at = EXCLUDED.refreshed_at
+            """;
+
+    private static final String REFRESH_PROJECTS_SQL = REFRESH_SQL.formatted(
+            "WHERE project_id IN (:projectIds)", "AND project_id IN (:projectIds)", "WHERE p.id IN (:projectIds)");
+
+    private static final String REFRESH_ALL_SQL = REFRESH_SQL.formatted("", "", "");
+
+    private final DatabaseClient databaseClient;
+
+    private final Set<String> dirtyProjects = ConcurrentHashMap.newKeySet();
+    private final AtomicReference<LocalDate> lastFullRefresh = new AtomicReference<>();
+
+    /**
+     * Mark a project's counters as stale. Cheap; the re-aggregation is deferred.
+     */
+    public void markDirty(String projectId) {
+        if (projectId != null) {
+            dirtyProjects.add(projectId);
+        }
+    }
+
+    /**
+     * Bring counters up to date before a read: full refresh once per day,
+     * otherwise only the projects marked dirty since the last flush.
+     */
+    public Mono<Void> ensureFresh() {
+        LocalDate today = LocalDate.now();
+        LocalDate last = lastFullRefresh.get();
+        if (!today.equals(last) && lastFullRefresh.compareAndSet(last, today)) {
+            return refreshAll()
+                    .doOnError(e -> lastFullRefresh.compareAndSet(today, last));
+        }
+        return flushDirty();
+    }
+
+    @Scheduled(fixedDelayString = "${pms.pmo.health.flush-interval-ms:5000}")
+    public void scheduledFlush() {
+        flushDirty()
+                .doOnError(e -> log.warn("Portfolio health flush failed: {}", e.getMessage()))
+                .subscribe();
+    }
+
+    @Scheduled(fixedDelayString = "${pms.pmo.health.full-refresh-interval-ms:900000}",
+            initialDelayString = "${pms.pmo.health.full-refresh-initial-delay-ms:60000}")
+    public void scheduledFullRefresh() {
+        lastFullRefresh.set(LocalDate.now());
+        refreshAll()
+                .doOnError(e -> log.warn("Portfolio health refresh failed: {}", e.getMessage()))
+                .subscribe();
+    }
+
+    /**
+     * Re-aggregate the projects marked dirty. Ids that fail to refresh are marked dirty again.
+     */
+    public Mono<Void> flushDirty() {
+        return Mono.defer(() -> {
+            if (dirtyProjects.isEmpty()) {
+                return Mono.empty();
+            }
+            List<String> batch = new ArrayList<>(dirtyProjects);
+            dirtyProjects.removeAll(batch);
+            return databaseClient.sql(REFRESH_PROJECTS_SQL)
+                    .bind("projectIds", batch)
+                    .fetch().rowsUpdated()
+                    .doOnNext(rows -> log.debug("Portfolio health refreshed for {} project(s)", rows))
+                    .doOnError(e -> dirtyProjects.addAll(batch))
+                    .then();
+        });
+    }
+
+    /**
+     * Re-aggregate every project in one statement.
+     */
+    public Mono<Void> refreshAll() {
+        return Mono.defer(() -> {
+            dirtyProjects.clear();
+            return databaseClient.sql(REFRESH_ALL_SQL)
+                    .fetch().rowsUpdated()
+                    .doOnNext(rows -> log.debug("Portfolio health refreshed for all {} project(s)", rows))
+                    .then();
+        });
+    }
+}
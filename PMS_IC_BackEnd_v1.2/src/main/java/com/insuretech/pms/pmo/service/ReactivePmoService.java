@@ -1,5 +1,8 @@
 package com.insuretech.pms.pmo.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insuretech.pms.common.security.ReactiveProjectSecurityService;
 import com.insuretech.pms.pmo.dto.PmoHealthDto;
 import com.insuretech.pms.pmo.dto.PmoPortfolioDto;
 import lombok.RequiredArgsConstructor;
@@ -9,8 +12,13 @@ import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @Service
@@ -18,21 +26,31 @@ import java.util.List;
 public class ReactivePmoService {
 
     private final DatabaseClient databaseClient;
+    private final PortfolioHealthStore healthStore;
+    private final ReactiveProjectSecurityService securityService;
+    private final ObjectMapper objectMapper;
 
     private static final String CALC_VERSION = "1.0";
 
+    private static final String HEALTH_SELECT = """
+            SELECT p.id, p.name, p.status,
+                COALESCE(c.total_tasks, 0) AS total_tasks,
+                COALESCE(c.done_tasks, 0) AS completed_tasks,
+                COALESCE(c.overdue_tasks, 0) AS overdue_tasks,
+                COALESCE(c.open_issues, 0) AS open_issues
+            FROM project.projects p
+            LEFT JOIN project.project_health_counters c ON c.project_id = p.id
+            """;
+
     public Mono<PmoPortfolioDto> getPortfolio() {
-        return databaseClient.sql("""
-                SELECT p.id, p.name, p.status,
-                    (SELECT COUNT(*) FROM task.tasks t WHERE t.project_id = p.id) as total_tasks,
-                    (SELECT COUNT(*) FROM task.tasks t WHERE t.project_id = p.id AND t.status = 'DONE') as completed_tasks,
-                    (SELECT COUNT(*) FROM project.issues i WHERE i.project_id = p.id AND i.status NOT IN ('CLOSED','RESOLVED')) as open_issues,
-                    (SELECT COUNT(*) FROM task.tasks t WHERE t.project_id = p.id AND t.due_date < CURRENT_DATE AND t.status NOT IN ('DONE','CANCELLED')) as overdue_tasks
-                FROM project.projects p
-                WHERE p.status NOT IN ('CLOSED', 'CANCELLED')
-                ORDER BY p.name
-                """)
-                .fetch().all()
+        return healthStore.ensureFresh()
+                .thenMany(databaseClient.sql(HEALTH_SELECT + """
+                        WHERE p.status NOT IN ('CLOSED', 'CANCELLED')
+                        ORDER BY p.name
+                        """)
+                        .fetch().all())
+                .collectList()
+                .flatMapMany(this::visibleRows)
                 .map(row -> {
                     long total = ((Number) row.getOrDefault("total_tasks", 0)).longValue();
                     long completed = ((Number) row.getOrDefault("completed_tasks", 0)).longValue();
@@ -82,62 +100,87 @@ public class ReactivePmoService {
                 });
     }
 
+    /**
+     * Strong validator for a portfolio response: SHA-256 over the serialized
+     * payload, so tags change exactly when the JSON the client sees changes.
+     */
+    public String portfolioETag(PmoPortfolioDto portfolio) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(portfolio));
+            return "\"" + HexFormat.of().formatHex(digest) + "\"";
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not compute portfolio ETag", e);
+        }
+    }
+
     public Mono<PmoHealthDto> getProjectHealth(String projectId) {
-        return databaseClient.sql("""
-                SELECT p.id, p.name, p.status,
-                    (SELECT COUNT(*) FROM task.tasks t WHERE t.project_id = p.id) as total_tasks,
-                    (SELECT COUNT(*) FROM task.tasks t WHERE t.project_id = p.id AND t.status = 'DONE') as completed_tasks,
-                    (SELECT COUNT(*) FROM task.tasks t WHERE t.project_id = p.id AND t.due_date < CURRENT_DATE AND t.status NOT IN ('DONE','CANCELLED')) as overdue_tasks,
-                    (SELECT COUNT(*) FROM project.issues i WHERE i.project_id = p.id AND i.status NOT IN ('CLOSED','RESOLVED')) as open_issues
-                FROM project.projects p
-                WHERE p.id = :projectId
-                """)
-                .bind("projectId", projectId)
-                .fetch().one()
-                .map(row -> {
-                    long total = ((Number) row.getOrDefault("total_tasks", 0)).longValue();
-                    long overdue = ((Number) row.getOrDefault("overdue_tasks", 0)).longValue();
-                    long openIssues = ((Number) row.getOrDefault("open_issues", 0)).longValue();
+        return healthStore.ensureFresh()
+                .then(databaseClient.sql(HEALTH_SELECT + """
+                        WHERE p.id = :projectId
+                        """)
+                        .bind("projectId", projectId)
+                        .fetch().one())
+                .flatMap(row -> visibleRows(List.of(row)).next())
+                .map(this::toHealthDto);
+    }
 
-                    double scheduleScore = computeScheduleScore(overdue, total);
-                    double qualityScore = computeQualityScore(openIssues);
-                    double costScore = 70.0;
-                    double riskScore = 70.0;
-                    double resourceScore = 70.0;
-                    double overall = (scheduleScore + costScore + qualityScore + riskScore + resourceScore) / 5.0;
+    public Flux<PmoHealthDto> getHealthMatrix() {
+        return healthStore.ensureFresh()
+                .thenMany(databaseClient.sql(HEALTH_SELECT + """
+                        WHERE p.status NOT IN ('CLOSED', 'CANCELLED')
+                        ORDER BY p.name
+                        """)
+                        .fetch().all())
+                .collectList()
+                .flatMapMany(this::visibleRows)
+                .map(this::toHealthDto);
+    }
 
-                    return PmoHealthDto.builder()
-                            .projectId((String) row.get("id"))
-                            .projectName((String) row.get("name"))
-                            .overallScore(Math.round(overall * 10) / 10.0)
-                            .grade(gradeFromScore(overall))
-                            .scheduleScore(Math.round(scheduleScore * 10) / 10.0)
-                            .costScore(costScore)
-                            .qualityScore(Math.round(qualityScore * 10) / 10.0)
-                            .riskScore(riskScore)
-                            .resourceScore(resourceScore)
-                            .trend("STABLE")
-                            .calculatedAt(LocalDateTime.now())
-                            .calcVersion(CALC_VERSION)
-                            .dimensions(List.of(
-                                    buildDimension("SCHEDULE", scheduleScore, overdue, total),
-                                    buildDimension("COST", costScore, 0, 0),
-                                    buildDimension("QUALITY", qualityScore, openIssues, 0),
-                                    buildDimension("RISK", riskScore, 0, 0),
-                                    buildDimension("RESOURCE", resourceScore, 0, 0)
-                            ))
-                            .build();
-                });
+    /**
+     * Rows of the projects the current user may see: all of them for PMO_HEAD,
+     * ADMIN and AUDITOR, otherwise the projects they are an active member of,
+     * authorized together in one query.
+     */
+    private Flux<Map<String, Object>> visibleRows(List<Map<String, Object>> rows) {
+        List<String> ids = rows.stream().map(row -> (String) row.get("id")).toList();
+        return securityService.hasSystemRole("PMO_HEAD")
+                .flatMap(isPmo -> isPmo ? Mono.just(Set.copyOf(ids)) : securityService.authorizeProjects(ids))
+                .flatMapMany(allowed -> Flux.fromIterable(rows).filter(row -> allowed.contains(row.get("id"))));
     }
 
-    public Flux<PmoHealthDto> getHealthMatrix() {
-        return databaseClient.sql("""
-                SELECT p.id FROM project.projects p
-                WHERE p.status NOT IN ('CLOSED', 'CANCELLED')
-                ORDER BY p.name
-                """)
-                .fetch().all()
-                .flatMap(row -> getProjectHealth((String) row.get("id")));
+    private PmoHealthDto toHealthDto(Map<String, Object> row) {
+        long total = ((Number) row.getOrDefault("total_tasks", 0)).longValue();
+        long overdue = ((Number) row.getOrDefault("overdue_tasks", 0)).longValue();
+        long openIssues = ((Number) row.getOrDefault("open_issues", 0)).longValue();
+
+        double scheduleScore = computeScheduleScore(overdue, total);
+        double qualityScore = computeQualityScore(openIssues);
+        double costScore = 70.0;
+        double riskScore = 70.0;
+        double resourceScore = 70.0;
+        double overall = (scheduleScore + costScore + qualityScore + riskScore + resourceScore) / 5.0;
+
+        return PmoHealthDto.builder()
+                .projectId((String) row.get("id"))
+                .projectName((String) row.get("name"))
+                .overallScore(Math.round(overall * 10) / 10.0)
+                .grade(gradeFromScore(overall))
+                .scheduleScore(Math.round(scheduleScore * 10) / 10.0)
+                .costScore(costScore)
+                .qualityScore(Math.round(qualityScore * 10) / 10.0)
+                .riskScore(riskScore)
+                .resourceScore(resourceScore)
+                .trend("STABLE")
+                .calculatedAt(LocalDateTime.now())
+                .calcVersion(CALC_VERSION)
+                .dimensions(List.of(
+                        buildDimension("SCHEDULE", scheduleScore, overdue, total),
+                        buildDimension("COST", costScore, 0, 0),
+                        buildDimension("QUALITY", qualityScore, openIssues, 0),
+                        buildDimension("RISK", riskScore, 0, 0),
+                        buildDimension("RESOURCE", resourceScore, 0, 0)
+                ))
+                .build();
     }
 
     private double computeScheduleScore(long overdue, long total) {
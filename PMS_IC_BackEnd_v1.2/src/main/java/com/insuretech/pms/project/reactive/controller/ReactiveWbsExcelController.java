@@ -1,16 +1,20 @@
 package com.insuretech.pms.project.reactive.controller;
 
 import com.insuretech.pms.project.reactive.service.ReactiveWbsExcelService;
+import com.insuretech.pms.project.reactive.service.ReactiveWbsExcelService.WbsImportProgress;
 import com.insuretech.pms.project.reactive.service.ReactiveWbsExcelService.WbsImportResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.http.codec.multipart.FilePart;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDate;
@@ -31,27 +35,27 @@ public class ReactiveWbsExcelController {
 
     /**
      * Export WBS data to Excel file.
+     * The body is streamed as it is generated; a failure after the first bytes
+     * aborts the download instead of returning an error status.
      *
      * @param projectId Project ID
-     * @return Excel file as downloadable resource
+     * @return Excel file as downloadable stream
      */
     @GetMapping("/export")
     @PreAuthorize("isAuthenticated()")
-    public Mono<ResponseEntity<Resource>> exportWbs(@PathVariable String projectId) {
+    public Mono<ResponseEntity<Flux<DataBuffer>>> exportWbs(@PathVariable String projectId) {
         log.info("WBS export requested for project: {}", projectId);
 
         String filename = generateFilename("WBS_Export", projectId);
 
-        return wbsExcelService.exportToExcel(projectId)
-                .map(resource -> ResponseEntity.ok()
-                        .contentType(MediaType.parseMediaType(EXCEL_CONTENT_TYPE))
-                        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                        .body(resource))
-                .doOnSuccess(r -> log.info("WBS export completed for project: {}", projectId))
-                .onErrorResume(e -> {
-                    log.error("WBS export failed for project: {}", projectId, e);
-                    return Mono.just(ResponseEntity.internalServerError().build());
-                });
+        Flux<DataBuffer> body = wbsExcelService.exportToExcel(projectId)
+                .doOnComplete(() -> log.info("WBS export completed for project: {}", projectId))
+                .doOnError(e -> log.error("WBS export failed for project: {}", projectId, e));
+
+        return Mono.just(ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(EXCEL_CONTENT_TYPE))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body));
     }
 
     /**
@@ -122,6 +126,41 @@ public class ReactiveWbsExcelController {
                 });
     }
 
+    /**
+     * Import WBS data from Excel file, streaming progress as server-sent events.
+     * One event is sent per inserted batch; the final COMPLETED event carries the result.
+     *
+     * @param projectId Project ID
+     * @param file      Uploaded Excel file
+     * @return Progress event stream
+     */
+    @PostMapping(value = "/import/stream", consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'PMO_HEAD', 'PM')")
+    public Flux<ServerSentEvent<WbsImportProgress>> importWbsWithProgress(
+            @PathVariable String projectId,
+            @RequestPart("file") FilePart file) {
+
+        log.info("WBS streaming import requested for project: {}, file: {}", projectId, file.filename());
+
+        String filename = file.filename();
+        if (filename == null || !filename.endsWith(".xlsx")) {
+            WbsImportResult errorResult = new WbsImportResult();
+            errorResult.addError("Invalid file type. Please upload an Excel file (.xlsx)");
+            return Flux.just(ServerSentEvent.<WbsImportProgress>builder()
+                    .event("COMPLETED")
+                    .data(new WbsImportProgress("COMPLETED", 0, 0, 0, 0, 0, 1, errorResult))
+                    .build());
+        }
+
+        return wbsExcelService.importWithProgress(file, projectId)
+                .map(progress -> ServerSentEvent.<WbsImportProgress>builder()
+                        .event(progress.stage())
+                        .data(progress)
+                        .build())
+                .doOnError(e -> log.error("WBS streaming import failed for project: {}", projectId, e));
+    }
+
     /**
      * Validate WBS Excel file without importing.
      *
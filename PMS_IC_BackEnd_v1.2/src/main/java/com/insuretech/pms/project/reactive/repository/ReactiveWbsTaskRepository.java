@@ -44,8 +44,8 @@ public interface ReactiveWbsTaskRepository extends ReactiveCrudRepository<R2dbcW
         JOIN project.phases p ON wt.phase_id = p.id
         WHERE p.project_id = :projectId
         AND (
-            LOWER(wt.name) LIKE LOWER(CONCAT('%', :keyword, '%'))
-            OR LOWER(wt.description) LIKE LOWER(CONCAT('%', :keyword, '%'))
+            wt.name ILIKE CONCAT('%', :keyword, '%')
+            OR wt.description ILIKE CONCAT('%', :keyword, '%')
         )
         ORDER BY p.order_num ASC, wt.order_num ASC
         LIMIT 10
@@ -0,0 +1,192 @@
+package com.insuretech.pms.project.reactive.service;
+
+import com.insuretech.pms.project.reactive.repository.ReactivePhaseRepository;
+import com.insuretech.pms.report.dto.DashboardSection;
+import com.insuretech.pms.report.dto.DashboardSection.DashboardMeta;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Per-project store of precomputed dashboard sections.
+ *
+ * Each section carries a version that write services bump via {@link #markDirty}
+ * when the underlying rows change. A read serves the stored section while its
+ * version is current and it is younger than the max age; otherwise only that
+ * section is recomputed. Concurrent readers of a stale section share one
+ * recomputation. The max age bounds staleness for writes that bypass the hooks
+ * (bulk imports, other replicas).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DashboardAggregateStore {
+
+    public enum Section {
+        STATS,
+        PHASE_PROGRESS,
+        SPRINT_VELOCITY,
+        BURNDOWN,
+        PART_STATS,
+        WBS_GROUP_STATS,
+        INSIGHTS
+    }
+
+    /** Sections derived from project.wbs_tasks */
+    public static final Section[] WBS_TASK_SECTIONS = {
+            Section.STATS, Section.PHASE_PROGRESS, Section.WBS_GROUP_STATS, Section.INSIGHTS
+    };
+
+    /** Sections derived from task.user_stories */
+    public static final Section[] USER_STORY_SECTIONS = {
+            Section.PART_STATS, Section.SPRINT_VELOCITY, Section.BURNDOWN
+    };
+
+    /** Sections derived from task.sprints */
+    public static final Section[] SPRINT_SECTIONS = {
+            Section.SPRINT_VELOCITY, Section.BURNDOWN
+    };
+
+    private final ReactivePhaseRepository phaseRepository;
+
+    @Value("${pms.dashboard.aggregate.max-age-seconds:60}")
+    private long maxAgeSeconds;
+
+    private final Map<String, ProjectAggregates> projects = new ConcurrentHashMap<>();
+
+    /**
+     * Return the stored section, recomputing it with {@code loader} when it is
+     * missing, dirty or expired. The returned section is a private copy whose
+     * meta.asOf is the time the aggregate was computed and meta.computeMs the
+     * cost of computing it.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<DashboardSection<T>> get(String projectId, Section section,
+                                             Supplier<Mono<DashboardSection<T>>> loader) {
+        return Mono.defer(() -> {
+            ProjectAggregates aggregates = projects.computeIfAbsent(projectId, id -> new ProjectAggregates());
+            Entry entry = aggregates.entryFor(section, maxAgeSeconds, () -> compute(projectId, section, loader));
+            return entry.value().map(stored -> copyOf((DashboardSection<T>) stored));
+        });
+    }
+
+    /**
+     * Mark sections of a project as stale. The next read recomputes them.
+     */
+    public void markDirty(String projectId, Section... sections) {
+        if (projectId == null) return;
+        ProjectAggregates aggregates = projects.get(projectId);
+        if (aggregates == null) return;
+        for (Section section : sections) {
+            aggregates.markDirty(section);
+        }
+        log.debug("Dashboard aggregates marked dirty: project={}, sections={}", projectId, sections);
+    }
+
+    /**
+     * Mark sections stale for the project owning a phase (WBS rows only carry phase_id).
+     */
+    public Mono<Void> markPhaseDirty(String phaseId, Section... sections) {
+        if (phaseId == null || projects.isEmpty()) return Mono.empty();
+        return phaseRepository.findById(phaseId)
+                .doOnNext(phase -> markDirty(phase.getProjectId(), sections))
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("Failed to resolve project for phase {}: {}", phaseId, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Drop every stored section of a project.
+     */
+    public void invalidateProject(String projectId) {
+        if (projectId != null) {
+            projects.remove(projectId);
+        }
+    }
+
+    private <T> Mono<DashboardSection<?>> compute(String projectId, Section section,
+                                                  Supplier<Mono<DashboardSection<T>>> loader) {
+        return Mono.defer(() -> {
+            long start = System.currentTimeMillis();
+            return loader.get()
+                    .map(result -> {
+                        if (result.getMeta() != null) {
+                            result.getMeta().setComputeMs(System.currentTimeMillis() - start);
+                        }
+                        log.debug("Dashboard section recomputed: project={}, section={}, {}ms",
+                                projectId, section, System.currentTimeMillis() - start);
+                        return (DashboardSection<?>) result;
+                    });
+        });
+    }
+
+    private <T> DashboardSection<T> copyOf(DashboardSection<T> stored) {
+        DashboardMeta meta = stored.getMeta();
+        if (meta == null) {
+            return DashboardSection.<T>builder().data(stored.getData()).build();
+        }
+        return DashboardSection.<T>builder()
+                .data(stored.getData())
+                .meta(DashboardMeta.builder()
+                        .asOf(meta.getAsOf())
+                        .scope(meta.getScope())
+                        .sources(meta.getSources())
+                        .queryIds(meta.getQueryIds())
+                        .completeness(meta.getCompleteness())
+                        .warnings(meta.getWarnings() != null ? new ArrayList<>(meta.getWarnings()) : new ArrayList<>())
+                        .computeMs(meta.getComputeMs())
+                        .usedFallback(meta.getUsedFallback())
+                        .build())
+                .build();
+    }
+
+    /**
+     * Section entries and dirty versions of one project.
+     */
+    private static final class ProjectAggregates {
+        private final Map<Section, Long> versions = new EnumMap<>(Section.class);
+        private final Map<Section, Entry> entries = new EnumMap<>(Section.class);
+
+        synchronized Entry entryFor(Section section, long maxAgeSeconds, Supplier<Mono<DashboardSection<?>>> computation) {
+            long version = versions.getOrDefault(section, 0L);
+            Entry entry = entries.get(section);
+            if (entry != null && entry.version() == version && !entry.isExpired(maxAgeSeconds)) {
+                return entry;
+            }
+
+            Entry fresh = new Entry(version, System.currentTimeMillis(), computation.get()
+                    .doOnError(e -> evict(section, version))
+                    .cache(v -> Duration.ofSeconds(maxAgeSeconds), e -> Duration.ZERO, () -> Duration.ZERO));
+            entries.put(section, fresh);
+            return fresh;
+        }
+
+        synchronized void markDirty(Section section) {
+            versions.merge(section, 1L, Long::sum);
+        }
+
+        private synchronized void evict(Section section, long version) {
+            Entry entry = entries.get(section);
+            if (entry != null && entry.version() == version) {
+                entries.remove(section);
+            }
+        }
+    }
+
+    private record Entry(long version, long createdAt, Mono<DashboardSection<?>> value) {
+        boolean isExpired(long maxAgeSeconds) {
+            return System.currentTimeMillis() - createdAt > maxAgeSeconds * 1000;
+        }
+    }
+}
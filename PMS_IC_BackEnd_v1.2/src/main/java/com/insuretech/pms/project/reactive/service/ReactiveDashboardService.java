@@ -3,6 +3,7 @@ package com.insuretech.pms.project.reactive.service;
 import com.insuretech.pms.project.reactive.entity.R2dbcProject;
 
 import com.insuretech.pms.project.reactive.repository.ReactiveProjectRepository;
+import com.insuretech.pms.project.reactive.service.DashboardAggregateStore.Section;
 import com.insuretech.pms.report.dto.*;
 import com.insuretech.pms.report.dto.DashboardSection.Completeness;
 import com.insuretech.pms.report.dto.DashboardSection.DashboardMeta;
@@ -32,18 +33,30 @@ public class ReactiveDashboardService {
 
     private final ReactiveProjectRepository projectRepository;
     private final DatabaseClient databaseClient;
+    private final DashboardAggregateStore aggregateStore;
 
     // ========== Aggregation Endpoint ==========
 
+    /**
+     * Full dashboard served from the per-project aggregate store. Only sections
+     * invalidated by writes (or past their max age) are recomputed.
+     */
     public Mono<ProjectDashboardDto> getFullDashboard(String projectId) {
         return Mono.zip(
-                safeSection("stats", () -> getProjectStatsSection(projectId)),
-                safeSection("phaseProgress", () -> getPhaseProgress(projectId)),
-                safeSection("sprintVelocity", () -> getSprintVelocity(projectId)),
-                safeSection("burndown", () -> getActiveBurndown(projectId)),
-                safeSection("partStats", () -> getPartStats(projectId)),
-                safeSection("wbsGroupStats", () -> getWbsGroupStats(projectId)),
-                safeSection("insights", () -> getInsights(projectId))
+                safeSection("stats", () -> aggregateStore.get(projectId, Section.STATS,
+                        () -> getProjectStatsSection(projectId))),
+                safeSection("phaseProgress", () -> aggregateStore.get(projectId, Section.PHASE_PROGRESS,
+                        () -> getPhaseProgress(projectId))),
+                safeSection("sprintVelocity", () -> aggregateStore.get(projectId, Section.SPRINT_VELOCITY,
+                        () -> getSprintVelocity(projectId))),
+                safeSection("burndown", () -> aggregateStore.get(projectId, Section.BURNDOWN,
+                        () -> getActiveBurndown(projectId))),
+                safeSection("partStats", () -> aggregateStore.get(projectId, Section.PART_STATS,
+                        () -> getPartStats(projectId))),
+                safeSection("wbsGroupStats", () -> aggregateStore.get(projectId, Section.WBS_GROUP_STATS,
+                        () -> getWbsGroupStats(projectId))),
+                safeSection("insights", () -> aggregateStore.get(projectId, Section.INSIGHTS,
+                        () -> getInsights(projectId)))
         ).map(tuple -> ProjectDashboardDto.builder()
                 .stats(tuple.getT1())
                 .phaseProgress(tuple.getT2())
@@ -60,7 +73,8 @@ public class ReactiveDashboardService {
         long start = System.currentTimeMillis();
         return sectionSupplier.get()
                 .doOnNext(section -> {
-                    if (section.getMeta() != null) {
+                    // Precomputed sections keep the cost of their original computation
+                    if (section.getMeta() != null && section.getMeta().getComputeMs() == null) {
                         section.getMeta().setComputeMs(System.currentTimeMillis() - start);
                     }
                 })
@@ -1,5 +1,6 @@
 package com.insuretech.pms.project.reactive.service;
 
+import com.insuretech.pms.common.cache.ProjectCaches;
 import com.insuretech.pms.common.service.ExcelService;
 import com.insuretech.pms.project.reactive.entity.R2dbcPhase;
 import com.insuretech.pms.project.reactive.entity.R2dbcWbsGroup;
@@ -11,20 +12,39 @@ import com.insuretech.pms.project.reactive.repository.ReactiveWbsItemRepository;
 import com.insuretech.pms.project.reactive.repository.ReactiveWbsTaskRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFComment;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.codec.multipart.FilePart;
 import org.springframework.stereotype.Service;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.*;
 
@@ -42,6 +62,9 @@ public class ReactiveWbsExcelService {
     private final ReactiveWbsGroupRepository wbsGroupRepository;
     private final ReactiveWbsItemRepository wbsItemRepository;
     private final ReactiveWbsTaskRepository wbsTaskRepository;
+    private final WbsBulkWriter wbsBulkWriter;
+    private final DashboardAggregateStore dashboardAggregateStore;
+    private final ProjectCaches projectCaches;
 
     // Excel column headers for WBS export
     private static final String[] WBS_HEADERS = {
@@ -55,20 +78,45 @@ public class ReactiveWbsExcelService {
             "NOT_STARTED", "IN_PROGRESS", "COMPLETED", "ON_HOLD", "CANCELLED"
     };
 
+    // Fixed export column widths; auto-sizing is not possible once rows are flushed
+    private static final int[] WBS_COLUMN_WIDTHS = {
+            3000, 6000, 3500, 6000, 3500, 6000, 3500, 8000, 12000, 4000, 3500,
+            3500, 3500, 3500, 3500, 4000, 4000, 4500, 3000
+    };
+
+    @Value("${pms.wbs.export.row-window:500}")
+    private int exportRowWindow;
+
+    @Value("${pms.wbs.export.buffer-size:65536}")
+    private int exportBufferSize;
+
+    @Value("${pms.wbs.import.batch-size:500}")
+    private int importBatchSize;
+
     /**
-     * Export WBS data to Excel workbook for a project.
+     * Export WBS data to Excel for a project as a stream of buffers.
+     * Rows are written to a streaming workbook as they arrive from the repositories,
+     * so only the row window and the phase/group/item lookups are held in memory.
      *
      * @param projectId Project ID
-     * @return Mono<Resource> containing the Excel file
+     * @return Flux<DataBuffer> with the XLSX file content
      */
-    public Mono<Resource> exportToExcel(String projectId) {
-        return Mono.defer(() -> {
-            log.info("Starting WBS export for project: {}", projectId);
-
-            return collectWbsData(projectId)
-                    .flatMap(this::generateExcelWorkbook)
-                    .subscribeOn(Schedulers.boundedElastic());
-        });
+    public Flux<DataBuffer> exportToExcel(String projectId) {
+        return Flux.using(
+                () -> excelService.createStreamingWorkbook(exportRowWindow),
+                workbook -> writeWbsRows(workbook, projectId)
+                        .thenMany(Flux.defer(() -> DataBufferUtils.outputStreamPublisher(
+                                outputStream -> {
+                                    try {
+                                        workbook.write(outputStream);
+                                    } catch (IOException e) {
+                                        throw new UncheckedIOException(e);
+                                    }
+                                },
+                                DefaultDataBufferFactory.sharedInstance,
+                                task -> Schedulers.boundedElastic().schedule(task),
+                                exportBufferSize))),
+                SXSSFWorkbook::dispose);
     }
 
     /**
@@ -113,15 +161,27 @@ public class ReactiveWbsExcelService {
      * @return Mono<WbsImportResult> with import statistics
      */
     public Mono<WbsImportResult> importFromExcel(FilePart filePart, String projectId) {
-        return DataBufferUtils.join(filePart.content())
-                .flatMap(dataBuffer -> {
-                    byte[] bytes = new byte[dataBuffer.readableByteCount()];
-                    dataBuffer.read(bytes);
-                    DataBufferUtils.release(dataBuffer);
-
-                    return parseAndImportWbs(bytes, projectId);
-                })
-                .subscribeOn(Schedulers.boundedElastic());
+        return importWithProgress(filePart, projectId)
+                .last()
+                .map(WbsImportProgress::result);
+    }
+
+    /**
+     * Import WBS data from Excel file, reporting progress after every flushed batch.
+     * The upload is spooled to a temp file and the sheet is read with the SAX event
+     * model, so the workbook is never materialized in heap. The last element carries
+     * the final result.
+     *
+     * @param filePart Uploaded file
+     * @param projectId Project ID
+     * @return Flux<WbsImportProgress> ending with a COMPLETED entry
+     */
+    public Flux<WbsImportProgress> importWithProgress(FilePart filePart, String projectId) {
+        return Mono.fromCallable(() -> Files.createTempFile("wbs-import-", ".xlsx"))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(path -> DataBufferUtils.write(filePart.content(), path)
+                        .thenMany(streamImport(() -> OPCPackage.open(path.toFile(), PackageAccess.READ), projectId))
+                        .doFinally(signal -> deleteTempFile(path)));
     }
 
     /**
@@ -132,104 +192,56 @@ public class ReactiveWbsExcelService {
      * @return Mono<WbsImportResult> with import statistics
      */
     public Mono<WbsImportResult> importFromBytes(byte[] fileBytes, String projectId) {
-        return parseAndImportWbs(fileBytes, projectId)
-                .subscribeOn(Schedulers.boundedElastic());
+        return streamImport(() -> OPCPackage.open(new ByteArrayInputStream(fileBytes)), projectId)
+                .last()
+                .map(WbsImportProgress::result);
     }
 
     // =============================================
     // Private Export Methods
     // =============================================
 
-    private Mono<WbsExportData> collectWbsData(String projectId) {
-        return phaseRepository.findByProjectIdOrderByOrderNumAsc(projectId)
-                .collectList()
-                .flatMap(phases -> {
-                    if (phases.isEmpty()) {
-                        return Mono.just(new WbsExportData(phases, List.of(), List.of(), List.of()));
-                    }
-
-                    return Mono.zip(
-                            Mono.just(phases),
-                            wbsGroupRepository.findByProjectIdOrdered(projectId).collectList(),
-                            wbsItemRepository.findByProjectIdOrdered(projectId).collectList(),
-                            wbsTaskRepository.findByProjectIdOrdered(projectId).collectList()
-                    ).map(tuple -> new WbsExportData(
-                            tuple.getT1(),
-                            tuple.getT2(),
-                            tuple.getT3(),
-                            tuple.getT4()
-                    ));
-                });
-    }
-
-    private Mono<Resource> generateExcelWorkbook(WbsExportData data) {
-        return Mono.fromCallable(() -> {
-            XSSFWorkbook workbook = excelService.createWorkbook();
-            Sheet sheet = workbook.createSheet("WBS Data");
-
-            // Styles
-            CellStyle headerStyle = excelService.createHeaderStyle(workbook);
-            CellStyle dataStyle = excelService.createDataStyle(workbook);
-            CellStyle dateStyle = excelService.createDateStyle(workbook);
-
-            // Create header row
-            excelService.createHeaderRow(sheet, WBS_HEADERS, headerStyle);
-
-            // Build hierarchical data and write rows
-            int rowNum = 1;
-            Map<String, R2dbcPhase> phaseMap = new HashMap<>();
-            Map<String, R2dbcWbsGroup> groupMap = new HashMap<>();
-            Map<String, R2dbcWbsItem> itemMap = new HashMap<>();
-
-            // Index data by ID
-            for (R2dbcPhase phase : data.phases()) {
-                phaseMap.put(phase.getId(), phase);
-            }
-            for (R2dbcWbsGroup group : data.groups()) {
-                groupMap.put(group.getId(), group);
-            }
-            for (R2dbcWbsItem item : data.items()) {
-                itemMap.put(item.getId(), item);
-            }
-
-            // Write phase rows
-            for (R2dbcPhase phase : data.phases()) {
-                Row row = sheet.createRow(rowNum++);
-                writePhaseRow(row, phase, dataStyle, dateStyle);
-            }
-
-            // Write group rows
-            for (R2dbcWbsGroup group : data.groups()) {
-                Row row = sheet.createRow(rowNum++);
-                R2dbcPhase phase = phaseMap.get(group.getPhaseId());
-                writeGroupRow(row, group, phase, dataStyle, dateStyle);
-            }
-
-            // Write item rows
-            for (R2dbcWbsItem item : data.items()) {
-                Row row = sheet.createRow(rowNum++);
-                R2dbcPhase phase = phaseMap.get(item.getPhaseId());
-                R2dbcWbsGroup group = groupMap.get(item.getGroupId());
-                writeItemRow(row, item, phase, group, dataStyle, dateStyle);
-            }
-
-            // Write task rows
-            for (R2dbcWbsTask task : data.tasks()) {
-                Row row = sheet.createRow(rowNum++);
-                R2dbcPhase phase = phaseMap.get(task.getPhaseId());
-                R2dbcWbsGroup group = groupMap.get(task.getGroupId());
-                R2dbcWbsItem item = itemMap.get(task.getItemId());
-                writeTaskRow(row, task, phase, group, item, dataStyle, dateStyle);
-            }
-
-            // Add validations and auto-size
-            excelService.addDropdownValidation(sheet, 9, STATUS_VALUES, 1, rowNum);
-            excelService.autoSizeColumns(sheet, WBS_HEADERS.length);
-
-            log.info("Generated WBS Excel with {} phases, {} groups, {} items, {} tasks",
-                    data.phases().size(), data.groups().size(), data.items().size(), data.tasks().size());
-
-            return writeWorkbookToResource(workbook);
+    private Mono<Void> writeWbsRows(SXSSFWorkbook workbook, String projectId) {
+        return Mono.defer(() -> {
+            log.info("Starting WBS export for project: {}", projectId);
+            WbsExportContext ctx = new WbsExportContext(workbook);
+
+            Mono<Void> hierarchy = Mono.defer(() -> wbsGroupRepository.findByProjectIdOrdered(projectId)
+                    .publishOn(Schedulers.boundedElastic())
+                    .doOnNext(group -> {
+                        ctx.groups.put(group.getId(), group);
+                        writeGroupRow(ctx.nextRow(), group, ctx.phases.get(group.getPhaseId()),
+                                ctx.dataStyle, ctx.dateStyle);
+                    })
+                    .thenMany(wbsItemRepository.findByProjectIdOrdered(projectId)
+                            .publishOn(Schedulers.boundedElastic())
+                            .doOnNext(item -> {
+                                ctx.items.put(item.getId(), item);
+                                writeItemRow(ctx.nextRow(), item, ctx.phases.get(item.getPhaseId()),
+                                        ctx.groups.get(item.getGroupId()), ctx.dataStyle, ctx.dateStyle);
+                            }))
+                    .thenMany(wbsTaskRepository.findByProjectIdOrdered(projectId)
+                            .publishOn(Schedulers.boundedElastic())
+                            .doOnNext(task -> {
+                                ctx.taskCount++;
+                                writeTaskRow(ctx.nextRow(), task, ctx.phases.get(task.getPhaseId()),
+                                        ctx.groups.get(task.getGroupId()), ctx.items.get(task.getItemId()),
+                                        ctx.dataStyle, ctx.dateStyle);
+                            }))
+                    .then());
+
+            return phaseRepository.findByProjectIdOrderByOrderNumAsc(projectId)
+                    .publishOn(Schedulers.boundedElastic())
+                    .doOnNext(phase -> {
+                        ctx.phases.put(phase.getId(), phase);
+                        writePhaseRow(ctx.nextRow(), phase, ctx.dataStyle, ctx.dateStyle);
+                    })
+                    .then(Mono.defer(() -> ctx.phases.isEmpty() ? Mono.<Void>empty() : hierarchy))
+                    .then(Mono.fromRunnable(() -> {
+                        excelService.addDropdownValidation(ctx.sheet, 9, STATUS_VALUES, 1, ctx.rowNum);
+                        log.info("Generated WBS Excel with {} phases, {} groups, {} items, {} tasks",
+                                ctx.phases.size(), ctx.groups.size(), ctx.items.size(), ctx.taskCount);
+                    }));
         });
     }
 
@@ -412,56 +424,67 @@ public class ReactiveWbsExcelService {
     // Private Import Methods
     // =============================================
 
-    private Mono<WbsImportResult> parseAndImportWbs(byte[] fileBytes, String projectId) {
-        return Mono.fromCallable(() -> {
-            WbsImportResult result = new WbsImportResult();
-
-            try (ByteArrayInputStream bais = new ByteArrayInputStream(fileBytes);
-                 Workbook workbook = new XSSFWorkbook(bais)) {
-
-                Sheet sheet = workbook.getSheetAt(0);
-                if (sheet == null) {
-                    result.addError("No sheet found in workbook");
-                    return result;
-                }
-
-                // Parse rows (skip header)
-                List<WbsRowData> rows = new ArrayList<>();
-                for (int i = 1; i <= sheet.getLastRowNum(); i++) {
-                    Row row = sheet.getRow(i);
-                    if (row == null || excelService.isRowEmpty(row)) {
-                        continue;
-                    }
-
-                    WbsRowData rowData = parseRow(row, i + 1);
-                    if (rowData != null) {
-                        rows.add(rowData);
-                    } else {
-                        result.addWarning("Skipped invalid row " + (i + 1));
+    /**
+     * Parse the first sheet row by row and insert the hierarchy in batches.
+     * SAX parsing is blocking, so the whole import runs on a boundedElastic worker,
+     * and each batch flush is awaited there before parsing continues.
+     */
+    private Flux<WbsImportProgress> streamImport(PackageSource source, String projectId) {
+        return Flux.<WbsImportProgress>create(sink -> {
+            WbsImportSession session = new WbsImportSession(projectId, sink);
+            try (OPCPackage pkg = source.open()) {
+                XSSFReader reader = new XSSFReader(pkg);
+                XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+                if (!sheets.hasNext()) {
+                    session.result.addError("No sheet found in workbook");
+                } else {
+                    session.loadExistingPhases();
+                    sink.next(session.progress("STARTED"));
+                    try (InputStream sheet = sheets.next()) {
+                        XMLReader parser = XMLHelper.newXMLReader();
+                        parser.setContentHandler(new XSSFSheetXMLHandler(
+                                reader.getStylesTable(), null, new ReadOnlySharedStringsTable(pkg),
+                                session, new IsoDateDataFormatter(), false));
+                        parser.parse(new InputSource(sheet));
                     }
+                    session.flush();
                 }
-
-                result.setTotalRows(rows.size());
-                return rows;
-
+            } catch (ImportCancelledException e) {
+                log.info("WBS import cancelled for project: {}", projectId);
+                markImported(projectId, session.result);
+                return;
+            } catch (BatchInsertException e) {
+                log.error("Error inserting WBS batch", e);
+                session.result.addError("Failed to save WBS rows: " + e.getCause().getMessage());
             } catch (Exception e) {
-                log.error("Error parsing Excel file", e);
-                result.addError("Failed to parse Excel file: " + e.getMessage());
-                return result;
-            }
-        }).flatMap(parsed -> {
-            if (parsed instanceof WbsImportResult) {
-                return Mono.just((WbsImportResult) parsed);
+                log.error("Error importing Excel file", e);
+                session.result.addError("Failed to parse Excel file: " + e.getMessage());
             }
 
-            @SuppressWarnings("unchecked")
-            List<WbsRowData> rows = (List<WbsRowData>) parsed;
-            return importWbsRows(rows, projectId);
-        });
+            WbsImportResult r = session.result;
+            log.info("WBS import completed: {} total, {} phases, {} groups, {} items, {} tasks, {} errors",
+                    r.getTotalRows(), r.getPhasesCreated(), r.getGroupsCreated(),
+                    r.getItemsCreated(), r.getTasksCreated(), r.getErrors().size());
+            markImported(projectId, r);
+            sink.next(session.progress("COMPLETED"));
+            sink.complete();
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Every flushed batch commits on its own, so a failed or cancelled import may
+     * still have written rows: drop the project's dashboard sections and derived
+     * caches (chat answers) whenever any landed.
+     */
+    private void markImported(String projectId, WbsImportResult r) {
+        if (r.getPhasesCreated() + r.getGroupsCreated() + r.getItemsCreated() + r.getTasksCreated() > 0) {
+            dashboardAggregateStore.invalidateProject(projectId);
+            projectCaches.invalidateProject(projectId);
+        }
     }
 
-    private WbsRowData parseRow(Row row, int rowNum) {
-        String level = excelService.getCellStringValue(row.getCell(0));
+    private WbsRowData toRowData(String[] values, int rowNum) {
+        String level = values[0];
         if (level == null || level.isEmpty()) {
             return null;
         }
@@ -469,270 +492,400 @@ public class ReactiveWbsExcelService {
         WbsRowData data = new WbsRowData();
         data.setRowNum(rowNum);
         data.setLevel(level.toUpperCase());
-        data.setPhaseName(excelService.getCellStringValue(row.getCell(1)));
-        data.setGroupCode(excelService.getCellStringValue(row.getCell(2)));
-        data.setGroupName(excelService.getCellStringValue(row.getCell(3)));
-        data.setItemCode(excelService.getCellStringValue(row.getCell(4)));
-        data.setItemName(excelService.getCellStringValue(row.getCell(5)));
-        data.setTaskCode(excelService.getCellStringValue(row.getCell(6)));
-        data.setTaskName(excelService.getCellStringValue(row.getCell(7)));
-        data.setDescription(excelService.getCellStringValue(row.getCell(8)));
-        data.setStatus(excelService.getCellStringValue(row.getCell(9)));
-        data.setProgress(excelService.getCellIntegerValue(row.getCell(10)));
-        data.setPlannedStartDate(excelService.getCellDateValue(row.getCell(11)));
-        data.setPlannedEndDate(excelService.getCellDateValue(row.getCell(12)));
-        data.setActualStartDate(excelService.getCellDateValue(row.getCell(13)));
-        data.setActualEndDate(excelService.getCellDateValue(row.getCell(14)));
-        data.setEstimatedHours(excelService.getCellIntegerValue(row.getCell(15)));
-        data.setActualHours(excelService.getCellIntegerValue(row.getCell(16)));
-        data.setAssigneeId(excelService.getCellStringValue(row.getCell(17)));
-        data.setWeight(excelService.getCellIntegerValue(row.getCell(18)));
+        data.setPhaseName(values[1]);
+        data.setGroupCode(values[2]);
+        data.setGroupName(values[3]);
+        data.setItemCode(values[4]);
+        data.setItemName(values[5]);
+        data.setTaskCode(values[6]);
+        data.setTaskName(values[7]);
+        data.setDescription(values[8]);
+        data.setStatus(values[9]);
+        data.setProgress(parseInteger(values[10], rowNum));
+        data.setPlannedStartDate(parseDate(values[11], rowNum));
+        data.setPlannedEndDate(parseDate(values[12], rowNum));
+        data.setActualStartDate(parseDate(values[13], rowNum));
+        data.setActualEndDate(parseDate(values[14], rowNum));
+        data.setEstimatedHours(parseInteger(values[15], rowNum));
+        data.setActualHours(parseInteger(values[16], rowNum));
+        data.setAssigneeId(values[17]);
+        data.setWeight(parseInteger(values[18], rowNum));
 
         return data;
     }
 
-    private Mono<WbsImportResult> importWbsRows(List<WbsRowData> rows, String projectId) {
-        WbsImportResult result = new WbsImportResult();
-        result.setTotalRows(rows.size());
-
-        // Maps to track created/found entities
-        Map<String, String> phaseNameToId = new HashMap<>();
-        Map<String, String> groupKeyToId = new HashMap<>();
-        Map<String, String> itemKeyToId = new HashMap<>();
-
-        // First, get existing phases for the project
-        return phaseRepository.findByProjectIdOrderByOrderNumAsc(projectId)
-                .collectList()
-                .flatMap(existingPhases -> {
-                    // Index existing phases
-                    for (R2dbcPhase phase : existingPhases) {
-                        phaseNameToId.put(phase.getName(), phase.getId());
-                    }
+    private Integer parseInteger(String value, int rowNum) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return (int) Double.parseDouble(value.replace(",", ""));
+        } catch (NumberFormatException e) {
+            log.warn("Invalid integer at row {}: {}", rowNum, value);
+            return null;
+        }
+    }
 
-                    // Process rows sequentially to maintain hierarchy
-                    return Flux.fromIterable(rows)
-                            .concatMap(rowData -> processWbsRow(rowData, projectId, phaseNameToId, groupKeyToId, itemKeyToId, result))
-                            .then(Mono.just(result));
-                })
-                .doOnSuccess(r -> log.info("WBS import completed: {} total, {} phases, {} groups, {} items, {} tasks, {} errors",
-                        r.getTotalRows(), r.getPhasesCreated(), r.getGroupsCreated(),
-                        r.getItemsCreated(), r.getTasksCreated(), r.getErrors().size()));
+    private LocalDate parseDate(String value, int rowNum) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (Exception e) {
+            log.warn("Invalid date at row {}: {}", rowNum, value);
+            return null;
+        }
     }
 
-    private Mono<Void> processWbsRow(WbsRowData rowData, String projectId,
-                                      Map<String, String> phaseNameToId,
-                                      Map<String, String> groupKeyToId,
-                                      Map<String, String> itemKeyToId,
-                                      WbsImportResult result) {
-        String level = rowData.getLevel();
-
-        return switch (level) {
-            case "PHASE" -> processPhaseRow(rowData, projectId, phaseNameToId, result);
-            case "GROUP" -> processGroupRow(rowData, projectId, phaseNameToId, groupKeyToId, result);
-            case "ITEM" -> processItemRow(rowData, projectId, phaseNameToId, groupKeyToId, itemKeyToId, result);
-            case "TASK" -> processTaskRow(rowData, projectId, phaseNameToId, groupKeyToId, itemKeyToId, result);
-            default -> {
-                result.addWarning("Unknown level '" + level + "' at row " + rowData.getRowNum());
-                yield Mono.empty();
-            }
-        };
+    private void deleteTempFile(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete temp file {}: {}", path, e.getMessage());
+        }
     }
 
-    private Mono<Void> processPhaseRow(WbsRowData rowData, String projectId,
-                                        Map<String, String> phaseNameToId,
-                                        WbsImportResult result) {
-        if (rowData.getPhaseName() == null || rowData.getPhaseName().isEmpty()) {
-            result.addError("Row " + rowData.getRowNum() + ": Phase name is required");
-            return Mono.empty();
+    /**
+     * Import state for one upload. Receives SAX row callbacks, resolves each row
+     * against the phases, groups and items seen so far (ids are generated here, so
+     * children can reference parents that are not flushed yet), and buffers the
+     * new entities per level until the batch size is reached.
+     */
+    private final class WbsImportSession implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final String projectId;
+        private final FluxSink<WbsImportProgress> sink;
+        private final WbsImportResult result = new WbsImportResult();
+
+        private final Map<String, String> phaseNameToId = new HashMap<>();
+        private final Map<String, String> groupKeyToId = new HashMap<>();
+        private final Map<String, String> itemKeyToId = new HashMap<>();
+
+        private final List<R2dbcPhase> pendingPhases = new ArrayList<>();
+        private final List<R2dbcWbsGroup> pendingGroups = new ArrayList<>();
+        private final List<R2dbcWbsItem> pendingItems = new ArrayList<>();
+        private final List<R2dbcWbsTask> pendingTasks = new ArrayList<>();
+
+        private final String[] values = new String[WBS_HEADERS.length];
+        private int currentRow;
+        private int nextColumn;
+        private boolean rowHasValues;
+
+        private WbsImportSession(String projectId, FluxSink<WbsImportProgress> sink) {
+            this.projectId = projectId;
+            this.sink = sink;
         }
 
-        // Check if phase already exists
-        if (phaseNameToId.containsKey(rowData.getPhaseName())) {
-            return Mono.empty(); // Phase already exists
+        private void loadExistingPhases() {
+            List<R2dbcPhase> existing = phaseRepository.findByProjectIdOrderByOrderNumAsc(projectId)
+                    .collectList()
+                    .block();
+            if (existing != null) {
+                for (R2dbcPhase phase : existing) {
+                    phaseNameToId.put(phase.getName(), phase.getId());
+                }
+            }
         }
 
-        // Create new phase
-        R2dbcPhase phase = R2dbcPhase.builder()
-                .id(UUID.randomUUID().toString())
-                .projectId(projectId)
-                .name(rowData.getPhaseName())
-                .description(rowData.getDescription())
-                .status(rowData.getStatus() != null ? rowData.getStatus() : "NOT_STARTED")
-                .progress(rowData.getProgress() != null ? rowData.getProgress() : 0)
-                .startDate(rowData.getPlannedStartDate())
-                .endDate(rowData.getPlannedEndDate())
-                .orderNum(phaseNameToId.size())
-                .build();
-
-        return phaseRepository.save(phase)
-                .doOnSuccess(saved -> {
-                    phaseNameToId.put(saved.getName(), saved.getId());
-                    result.incrementPhasesCreated();
-                    log.debug("Created phase: {}", saved.getName());
-                })
-                .then();
-    }
+        @Override
+        public void startRow(int rowNum) {
+            if (sink.isCancelled()) {
+                throw new ImportCancelledException();
+            }
+            currentRow = rowNum;
+            nextColumn = 0;
+            rowHasValues = false;
+            Arrays.fill(values, null);
+        }
 
-    private Mono<Void> processGroupRow(WbsRowData rowData, String projectId,
-                                        Map<String, String> phaseNameToId,
-                                        Map<String, String> groupKeyToId,
-                                        WbsImportResult result) {
-        if (rowData.getPhaseName() == null || rowData.getGroupCode() == null) {
-            result.addError("Row " + rowData.getRowNum() + ": Phase name and group code are required for GROUP level");
-            return Mono.empty();
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int col = cellReference != null ? new CellReference(cellReference).getCol() : nextColumn;
+            nextColumn = col + 1;
+            if (col >= values.length || formattedValue == null) {
+                return;
+            }
+            String value = formattedValue.trim();
+            if (!value.isEmpty()) {
+                values[col] = value;
+                rowHasValues = true;
+            }
         }
 
-        String phaseId = phaseNameToId.get(rowData.getPhaseName());
-        if (phaseId == null) {
-            result.addError("Row " + rowData.getRowNum() + ": Phase '" + rowData.getPhaseName() + "' not found");
-            return Mono.empty();
+        @Override
+        public void endRow(int rowNum) {
+            // Skip header and empty rows
+            if (rowNum == 0 || !rowHasValues) {
+                return;
+            }
+
+            WbsRowData rowData = toRowData(values, rowNum + 1);
+            if (rowData == null) {
+                result.addWarning("Skipped invalid row " + (rowNum + 1));
+                return;
+            }
+
+            result.setTotalRows(result.getTotalRows() + 1);
+            handleRow(rowData);
+
+            if (pendingPhases.size() + pendingGroups.size() + pendingItems.size() + pendingTasks.size()
+                    >= importBatchSize) {
+                flush();
+                sink.next(progress("IMPORTING"));
+            }
         }
 
-        String groupKey = phaseId + ":" + rowData.getGroupCode();
-        if (groupKeyToId.containsKey(groupKey)) {
-            return Mono.empty(); // Group already exists
+        private void handleRow(WbsRowData rowData) {
+            switch (rowData.getLevel()) {
+                case "PHASE" -> handlePhaseRow(rowData);
+                case "GROUP" -> handleGroupRow(rowData);
+                case "ITEM" -> handleItemRow(rowData);
+                case "TASK" -> handleTaskRow(rowData);
+                default -> result.addWarning("Unknown level '" + rowData.getLevel() + "' at row " + rowData.getRowNum());
+            }
         }
 
-        R2dbcWbsGroup group = R2dbcWbsGroup.builder()
-                .id(UUID.randomUUID().toString())
-                .phaseId(phaseId)
-                .code(rowData.getGroupCode())
-                .name(rowData.getGroupName() != null ? rowData.getGroupName() : rowData.getGroupCode())
-                .description(rowData.getDescription())
-                .status(rowData.getStatus() != null ? rowData.getStatus() : "NOT_STARTED")
-                .progress(rowData.getProgress() != null ? rowData.getProgress() : 0)
-                .plannedStartDate(rowData.getPlannedStartDate())
-                .plannedEndDate(rowData.getPlannedEndDate())
-                .actualStartDate(rowData.getActualStartDate())
-                .actualEndDate(rowData.getActualEndDate())
-                .weight(rowData.getWeight() != null ? rowData.getWeight() : 100)
-                .orderNum(groupKeyToId.size())
-                .build();
-
-        return wbsGroupRepository.save(group)
-                .doOnSuccess(saved -> {
-                    groupKeyToId.put(groupKey, saved.getId());
-                    result.incrementGroupsCreated();
-                    log.debug("Created group: {}", saved.getCode());
-                })
-                .then();
-    }
+        private void handlePhaseRow(WbsRowData rowData) {
+            if (rowData.getPhaseName() == null || rowData.getPhaseName().isEmpty()) {
+                result.addError("Row " + rowData.getRowNum() + ": Phase name is required");
+                return;
+            }
+
+            // Check if phase already exists
+            if (phaseNameToId.containsKey(rowData.getPhaseName())) {
+                return;
+            }
 
-    private Mono<Void> processItemRow(WbsRowData rowData, String projectId,
-                                       Map<String, String> phaseNameToId,
-                                       Map<String, String> groupKeyToId,
-                                       Map<String, String> itemKeyToId,
-                                       WbsImportResult result) {
-        if (rowData.getPhaseName() == null || rowData.getGroupCode() == null || rowData.getItemCode() == null) {
-            result.addError("Row " + rowData.getRowNum() + ": Phase name, group code, and item code are required for ITEM level");
-            return Mono.empty();
+            R2dbcPhase phase = R2dbcPhase.builder()
+                    .id(UUID.randomUUID().toString())
+                    .projectId(projectId)
+                    .name(rowData.getPhaseName())
+                    .description(rowData.getDescription())
+                    .status(rowData.getStatus() != null ? rowData.getStatus() : "NOT_STARTED")
+                    .progress(rowData.getProgress() != null ? rowData.getProgress() : 0)
+                    .startDate(rowData.getPlannedStartDate())
+                    .endDate(rowData.getPlannedEndDate())
+                    .orderNum(phaseNameToId.size())
+                    .build();
+
+            phaseNameToId.put(phase.getName(), phase.getId());
+            pendingPhases.add(phase);
         }
 
-        String phaseId = phaseNameToId.get(rowData.getPhaseName());
-        if (phaseId == null) {
-            result.addError("Row " + rowData.getRowNum() + ": Phase '" + rowData.getPhaseName() + "' not found");
-            return Mono.empty();
+        private void handleGroupRow(WbsRowData rowData) {
+            if (rowData.getPhaseName() == null || rowData.getGroupCode() == null) {
+                result.addError("Row " + rowData.getRowNum() + ": Phase name and group code are required for GROUP level");
+                return;
+            }
+
+            String phaseId = phaseNameToId.get(rowData.getPhaseName());
+            if (phaseId == null) {
+                result.addError("Row " + rowData.getRowNum() + ": Phase '" + rowData.getPhaseName() + "' not found");
+                return;
+            }
+
+            String groupKey = phaseId + ":" + rowData.getGroupCode();
+            if (groupKeyToId.containsKey(groupKey)) {
+                return; // Group already exists
+            }
+
+            R2dbcWbsGroup group = R2dbcWbsGroup.builder()
+                    .id(UUID.randomUUID().toString())
+                    .phaseId(phaseId)
+                    .code(rowData.getGroupCode())
+                    .name(rowData.getGroupName() != null ? rowData.getGroupName() : rowData.getGroupCode())
+                    .description(rowData.getDescription())
+                    .status(rowData.getStatus() != null ? rowData.getStatus() : "NOT_STARTED")
+                    .progress(rowData.getProgress() != null ? rowData.getProgress() : 0)
+                    .plannedStartDate(rowData.getPlannedStartDate())
+                    .plannedEndDate(rowData.getPlannedEndDate())
+                    .actualStartDate(rowData.getActualStartDate())
+                    .actualEndDate(rowData.getActualEndDate())
+                    .weight(rowData.getWeight() != null ? rowData.getWeight() : 100)
+                    .orderNum(groupKeyToId.size())
+                    .build();
+
+            groupKeyToId.put(groupKey, group.getId());
+            pendingGroups.add(group);
         }
 
-        String groupKey = phaseId + ":" + rowData.getGroupCode();
-        String groupId = groupKeyToId.get(groupKey);
-        if (groupId == null) {
-            result.addError("Row " + rowData.getRowNum() + ": Group '" + rowData.getGroupCode() + "' not found in phase '" + rowData.getPhaseName() + "'");
-            return Mono.empty();
+        private void handleItemRow(WbsRowData rowData) {
+            if (rowData.getPhaseName() == null || rowData.getGroupCode() == null || rowData.getItemCode() == null) {
+                result.addError("Row " + rowData.getRowNum() + ": Phase name, group code, and item code are required for ITEM level");
+                return;
+            }
+
+            String phaseId = phaseNameToId.get(rowData.getPhaseName());
+            if (phaseId == null) {
+                result.addError("Row " + rowData.getRowNum() + ": Phase '" + rowData.getPhaseName() + "' not found");
+                return;
+            }
+
+            String groupId = groupKeyToId.get(phaseId + ":" + rowData.getGroupCode());
+            if (groupId == null) {
+                result.addError("Row " + rowData.getRowNum() + ": Group '" + rowData.getGroupCode() + "' not found in phase '" + rowData.getPhaseName() + "'");
+                return;
+            }
+
+            String itemKey = groupId + ":" + rowData.getItemCode();
+            if (itemKeyToId.containsKey(itemKey)) {
+                return; // Item already exists
+            }
+
+            R2dbcWbsItem item = R2dbcWbsItem.builder()
+                    .id(UUID.randomUUID().toString())
+                    .phaseId(phaseId)
+                    .groupId(groupId)
+                    .code(rowData.getItemCode())
+                    .name(rowData.getItemName() != null ? rowData.getItemName() : rowData.getItemCode())
+                    .description(rowData.getDescription())
+                    .status(rowData.getStatus() != null ? rowData.getStatus() : "NOT_STARTED")
+                    .progress(rowData.getProgress() != null ? rowData.getProgress() : 0)
+                    .plannedStartDate(rowData.getPlannedStartDate())
+                    .plannedEndDate(rowData.getPlannedEndDate())
+                    .actualStartDate(rowData.getActualStartDate())
+                    .actualEndDate(rowData.getActualEndDate())
+                    .estimatedHours(rowData.getEstimatedHours())
+                    .actualHours(rowData.getActualHours())
+                    .assigneeId(rowData.getAssigneeId())
+                    .weight(rowData.getWeight() != null ? rowData.getWeight() : 100)
+                    .orderNum(itemKeyToId.size())
+                    .build();
+
+            itemKeyToId.put(itemKey, item.getId());
+            pendingItems.add(item);
         }
 
-        String itemKey = groupId + ":" + rowData.getItemCode();
-        if (itemKeyToId.containsKey(itemKey)) {
-            return Mono.empty(); // Item already exists
+        private void handleTaskRow(WbsRowData rowData) {
+            if (rowData.getPhaseName() == null || rowData.getGroupCode() == null ||
+                    rowData.getItemCode() == null || rowData.getTaskCode() == null) {
+                result.addError("Row " + rowData.getRowNum() + ": Phase, group, item, and task codes are required for TASK level");
+                return;
+            }
+
+            String phaseId = phaseNameToId.get(rowData.getPhaseName());
+            if (phaseId == null) {
+                result.addError("Row " + rowData.getRowNum() + ": Phase '" + rowData.getPhaseName() + "' not found");
+                return;
+            }
+
+            String groupId = groupKeyToId.get(phaseId + ":" + rowData.getGroupCode());
+            if (groupId == null) {
+                result.addError("Row " + rowData.getRowNum() + ": Group '" + rowData.getGroupCode() + "' not found");
+                return;
+            }
+
+            String itemId = itemKeyToId.get(groupId + ":" + rowData.getItemCode());
+            if (itemId == null) {
+                result.addError("Row " + rowData.getRowNum() + ": Item '" + rowData.getItemCode() + "' not found");
+                return;
+            }
+
+            pendingTasks.add(R2dbcWbsTask.builder()
+                    .id(UUID.randomUUID().toString())
+                    .phaseId(phaseId)
+                    .groupId(groupId)
+                    .itemId(itemId)
+                    .code(rowData.getTaskCode())
+                    .name(rowData.getTaskName() != null ? rowData.getTaskName() : rowData.getTaskCode())
+                    .description(rowData.getDescription())
+                    .status(rowData.getStatus() != null ? rowData.getStatus() : "NOT_STARTED")
+                    .progress(rowData.getProgress() != null ? rowData.getProgress() : 0)
+                    .plannedStartDate(rowData.getPlannedStartDate())
+                    .plannedEndDate(rowData.getPlannedEndDate())
+                    .actualStartDate(rowData.getActualStartDate())
+                    .actualEndDate(rowData.getActualEndDate())
+                    .estimatedHours(rowData.getEstimatedHours())
+                    .actualHours(rowData.getActualHours())
+                    .assigneeId(rowData.getAssigneeId())
+                    .weight(rowData.getWeight() != null ? rowData.getWeight() : 100)
+                    .orderNum(0)
+                    .build());
         }
 
-        R2dbcWbsItem item = R2dbcWbsItem.builder()
-                .id(UUID.randomUUID().toString())
-                .phaseId(phaseId)
-                .groupId(groupId)
-                .code(rowData.getItemCode())
-                .name(rowData.getItemName() != null ? rowData.getItemName() : rowData.getItemCode())
-                .description(rowData.getDescription())
-                .status(rowData.getStatus() != null ? rowData.getStatus() : "NOT_STARTED")
-                .progress(rowData.getProgress() != null ? rowData.getProgress() : 0)
-                .plannedStartDate(rowData.getPlannedStartDate())
-                .plannedEndDate(rowData.getPlannedEndDate())
-                .actualStartDate(rowData.getActualStartDate())
-                .actualEndDate(rowData.getActualEndDate())
-                .estimatedHours(rowData.getEstimatedHours())
-                .actualHours(rowData.getActualHours())
-                .assigneeId(rowData.getAssigneeId())
-                .weight(rowData.getWeight() != null ? rowData.getWeight() : 100)
-                .orderNum(itemKeyToId.size())
-                .build();
-
-        return wbsItemRepository.save(item)
-                .doOnSuccess(saved -> {
-                    itemKeyToId.put(itemKey, saved.getId());
-                    result.incrementItemsCreated();
-                    log.debug("Created item: {}", saved.getCode());
-                })
-                .then();
-    }
+        /**
+         * Insert buffered rows parents-first and wait for completion, so parsing
+         * does not run ahead of the database.
+         */
+        private void flush() {
+            if (pendingPhases.isEmpty() && pendingGroups.isEmpty()
+                    && pendingItems.isEmpty() && pendingTasks.isEmpty()) {
+                return;
+            }
 
-    private Mono<Void> processTaskRow(WbsRowData rowData, String projectId,
-                                       Map<String, String> phaseNameToId,
-                                       Map<String, String> groupKeyToId,
-                                       Map<String, String> itemKeyToId,
-                                       WbsImportResult result) {
-        if (rowData.getPhaseName() == null || rowData.getGroupCode() == null ||
-                rowData.getItemCode() == null || rowData.getTaskCode() == null) {
-            result.addError("Row " + rowData.getRowNum() + ": Phase, group, item, and task codes are required for TASK level");
-            return Mono.empty();
+            Mono<Void> batch = Mono.empty();
+            if (!pendingPhases.isEmpty()) {
+                List<R2dbcPhase> phases = List.copyOf(pendingPhases);
+                batch = batch.then(wbsBulkWriter.insertPhases(phases))
+                        .doOnSuccess(n -> result.setPhasesCreated(result.getPhasesCreated() + phases.size()))
+                        .then();
+            }
+            if (!pendingGroups.isEmpty()) {
+                List<R2dbcWbsGroup> groups = List.copyOf(pendingGroups);
+                batch = batch.then(wbsBulkWriter.insertGroups(groups))
+                        .doOnSuccess(n -> result.setGroupsCreated(result.getGroupsCreated() + groups.size()))
+                        .then();
+            }
+            if (!pendingItems.isEmpty()) {
+                List<R2dbcWbsItem> items = List.copyOf(pendingItems);
+                batch = batch.then(wbsBulkWriter.insertItems(items))
+                        .doOnSuccess(n -> result.setItemsCreated(result.getItemsCreated() + items.size()))
+                        .then();
+            }
+            if (!pendingTasks.isEmpty()) {
+                List<R2dbcWbsTask> tasks = List.copyOf(pendingTasks);
+                batch = batch.then(wbsBulkWriter.insertTasks(tasks))
+                        .doOnSuccess(n -> result.setTasksCreated(result.getTasksCreated() + tasks.size()))
+                        .then();
+            }
+
+            pendingPhases.clear();
+            pendingGroups.clear();
+            pendingItems.clear();
+            pendingTasks.clear();
+            try {
+                batch.block();
+            } catch (RuntimeException e) {
+                throw new BatchInsertException(e);
+            }
         }
 
-        String phaseId = phaseNameToId.get(rowData.getPhaseName());
-        if (phaseId == null) {
-            result.addError("Row " + rowData.getRowNum() + ": Phase '" + rowData.getPhaseName() + "' not found");
-            return Mono.empty();
+        private WbsImportProgress progress(String stage) {
+            return new WbsImportProgress(stage, result.getTotalRows(), result.getPhasesCreated(),
+                    result.getGroupsCreated(), result.getItemsCreated(), result.getTasksCreated(),
+                    result.getErrors().size(), "COMPLETED".equals(stage) ? result : null);
         }
+    }
 
-        String groupKey = phaseId + ":" + rowData.getGroupCode();
-        String groupId = groupKeyToId.get(groupKey);
-        if (groupId == null) {
-            result.addError("Row " + rowData.getRowNum() + ": Group '" + rowData.getGroupCode() + "' not found");
-            return Mono.empty();
+    /**
+     * Formats date-styled numeric cells as ISO dates so they parse like string dates.
+     */
+    private static final class IsoDateDataFormatter extends DataFormatter {
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString,
+                                            boolean use1904Windowing) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                return DateUtil.getLocalDateTime(value, use1904Windowing).toLocalDate().toString();
+            }
+            return super.formatRawCellContents(value, formatIndex, formatString, use1904Windowing);
         }
+    }
 
-        String itemKey = groupId + ":" + rowData.getItemCode();
-        String itemId = itemKeyToId.get(itemKey);
-        if (itemId == null) {
-            result.addError("Row " + rowData.getRowNum() + ": Item '" + rowData.getItemCode() + "' not found");
-            return Mono.empty();
+    @FunctionalInterface
+    private interface PackageSource {
+        OPCPackage open() throws Exception;
+    }
+
+    private static final class BatchInsertException extends RuntimeException {
+        private BatchInsertException(Throwable cause) {
+            super(cause);
         }
+    }
 
-        R2dbcWbsTask task = R2dbcWbsTask.builder()
-                .id(UUID.randomUUID().toString())
-                .phaseId(phaseId)
-                .groupId(groupId)
-                .itemId(itemId)
-                .code(rowData.getTaskCode())
-                .name(rowData.getTaskName() != null ? rowData.getTaskName() : rowData.getTaskCode())
-                .description(rowData.getDescription())
-                .status(rowData.getStatus() != null ? rowData.getStatus() : "NOT_STARTED")
-                .progress(rowData.getProgress() != null ? rowData.getProgress() : 0)
-                .plannedStartDate(rowData.getPlannedStartDate())
-                .plannedEndDate(rowData.getPlannedEndDate())
-                .actualStartDate(rowData.getActualStartDate())
-                .actualEndDate(rowData.getActualEndDate())
-                .estimatedHours(rowData.getEstimatedHours())
-                .actualHours(rowData.getActualHours())
-                .assigneeId(rowData.getAssigneeId())
-                .weight(rowData.getWeight() != null ? rowData.getWeight() : 100)
-                .orderNum(0)
-                .build();
-
-        return wbsTaskRepository.save(task)
-                .doOnSuccess(saved -> {
-                    result.incrementTasksCreated();
-                    log.debug("Created task: {}", saved.getCode());
-                })
-                .then();
+    private static final class ImportCancelledException extends RuntimeException {
+        private ImportCancelledException() {
+            super("WBS import cancelled", null, false, false);
+        }
     }
 
     // =============================================
@@ -751,12 +904,34 @@ public class ReactiveWbsExcelService {
     // Inner Classes
     // =============================================
 
-    private record WbsExportData(
-            List<R2dbcPhase> phases,
-            List<R2dbcWbsGroup> groups,
-            List<R2dbcWbsItem> items,
-            List<R2dbcWbsTask> tasks
-    ) {}
+    /**
+     * Export state for one streaming workbook. Rows are written serially, so no
+     * synchronization is needed. Tasks are not retained once written.
+     */
+    private final class WbsExportContext {
+        private final Sheet sheet;
+        private final CellStyle dataStyle;
+        private final CellStyle dateStyle;
+        private final Map<String, R2dbcPhase> phases = new HashMap<>();
+        private final Map<String, R2dbcWbsGroup> groups = new HashMap<>();
+        private final Map<String, R2dbcWbsItem> items = new HashMap<>();
+        private int rowNum = 1;
+        private long taskCount;
+
+        private WbsExportContext(SXSSFWorkbook workbook) {
+            this.sheet = workbook.createSheet("WBS Data");
+            this.dataStyle = excelService.createDataStyle(workbook);
+            this.dateStyle = excelService.createDateStyle(workbook);
+            excelService.createHeaderRow(sheet, WBS_HEADERS, excelService.createHeaderStyle(workbook));
+            for (int i = 0; i < WBS_COLUMN_WIDTHS.length; i++) {
+                sheet.setColumnWidth(i, WBS_COLUMN_WIDTHS[i]);
+            }
+        }
+
+        private Row nextRow() {
+            return sheet.createRow(rowNum++);
+        }
+    }
 
     @lombok.Data
     private static class WbsRowData {
@@ -782,6 +957,20 @@ public class ReactiveWbsExcelService {
         private Integer weight;
     }
 
+    /**
+     * Import progress snapshot; {@code result} is set only on the COMPLETED entry.
+     */
+    public record WbsImportProgress(
+            String stage,
+            int rowsRead,
+            int phasesCreated,
+            int groupsCreated,
+            int itemsCreated,
+            int tasksCreated,
+            int errorCount,
+            WbsImportResult result
+    ) {}
+
     @lombok.Data
     public static class WbsImportResult {
         private int totalRows;
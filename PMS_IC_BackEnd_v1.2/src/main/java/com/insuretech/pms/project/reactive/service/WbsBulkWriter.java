@@ -0,0 +1,160 @@
+package com.insuretech.pms.project.reactive.service;
+
+import com.insuretech.pms.project.reactive.entity.R2dbcPhase;
+import com.insuretech.pms.project.reactive.entity.R2dbcWbsGroup;
+import com.insuretech.pms.project.reactive.entity.R2dbcWbsItem;
+import com.insuretech.pms.project.reactive.entity.R2dbcWbsTask;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Multi-row INSERTs for the WBS hierarchy, used by bulk import.
+ * Rows are written as given (ids are assigned by the caller), chunked so a
+ * statement stays well below the Postgres bind parameter limit.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WbsBulkWriter {
+
+    private static final int MAX_PARAMS_PER_STATEMENT = 30_000;
+
+    private static final List<Column<R2dbcPhase>> PHASE_COLUMNS = List.of(
+            new Column<>("id", String.class, R2dbcPhase::getId),
+            new Column<>("project_id", String.class, R2dbcPhase::getProjectId),
+            new Column<>("name", String.class, R2dbcPhase::getName),
+            new Column<>("order_num", Integer.class, R2dbcPhase::getOrderNum),
+            new Column<>("status", String.class, R2dbcPhase::getStatus),
+            new Column<>("start_date", LocalDate.class, R2dbcPhase::getStartDate),
+            new Column<>("end_date", LocalDate.class, R2dbcPhase::getEndDate),
+            new Column<>("progress", Integer.class, R2dbcPhase::getProgress),
+            new Column<>("description", String.class, R2dbcPhase::getDescription),
+            new Column<>("track_type", String.class, R2dbcPhase::getTrackType)
+    );
+
+    private static final List<Column<R2dbcWbsGroup>> GROUP_COLUMNS = List.of(
+            new Column<>("id", String.class, R2dbcWbsGroup::getId),
+            new Column<>("phase_id", String.class, R2dbcWbsGroup::getPhaseId),
+            new Column<>("code", String.class, R2dbcWbsGroup::getCode),
+            new Column<>("name", String.class, R2dbcWbsGroup::getName),
+            new Column<>("description", String.class, R2dbcWbsGroup::getDescription),
+            new Column<>("status", String.class, R2dbcWbsGroup::getStatus),
+            new Column<>("progress", Integer.class, R2dbcWbsGroup::getProgress),
+            new Column<>("planned_start_date", LocalDate.class, R2dbcWbsGroup::getPlannedStartDate),
+            new Column<>("planned_end_date", LocalDate.class, R2dbcWbsGroup::getPlannedEndDate),
+            new Column<>("actual_start_date", LocalDate.class, R2dbcWbsGroup::getActualStartDate),
+            new Column<>("actual_end_date", LocalDate.class, R2dbcWbsGroup::getActualEndDate),
+            new Column<>("weight", Integer.class, R2dbcWbsGroup::getWeight),
+            new Column<>("order_num", Integer.class, R2dbcWbsGroup::getOrderNum)
+    );
+
+    private static final List<Column<R2dbcWbsItem>> ITEM_COLUMNS = List.of(
+            new Column<>("id", String.class, R2dbcWbsItem::getId),
+            new Column<>("group_id", String.class, R2dbcWbsItem::getGroupId),
+            new Column<>("phase_id", String.class, R2dbcWbsItem::getPhaseId),
+            new Column<>("code", String.class, R2dbcWbsItem::getCode),
+            new Column<>("name", String.class, R2dbcWbsItem::getName),
+            new Column<>("description", String.class, R2dbcWbsItem::getDescription),
+            new Column<>("status", String.class, R2dbcWbsItem::getStatus),
+            new Column<>("progress", Integer.class, R2dbcWbsItem::getProgress),
+            new Column<>("planned_start_date", LocalDate.class, R2dbcWbsItem::getPlannedStartDate),
+            new Column<>("planned_end_date", LocalDate.class, R2dbcWbsItem::getPlannedEndDate),
+            new Column<>("actual_start_date", LocalDate.class, R2dbcWbsItem::getActualStartDate),
+            new Column<>("actual_end_date", LocalDate.class, R2dbcWbsItem::getActualEndDate),
+            new Column<>("weight", Integer.class, R2dbcWbsItem::getWeight),
+            new Column<>("order_num", Integer.class, R2dbcWbsItem::getOrderNum),
+            new Column<>("estimated_hours", Integer.class, R2dbcWbsItem::getEstimatedHours),
+            new Column<>("actual_hours", Integer.class, R2dbcWbsItem::getActualHours),
+            new Column<>("assignee_id", String.class, R2dbcWbsItem::getAssigneeId)
+    );
+
+    private static final List<Column<R2dbcWbsTask>> TASK_COLUMNS = List.of(
+            new Column<>("id", String.class, R2dbcWbsTask::getId),
+            new Column<>("item_id", String.class, R2dbcWbsTask::getItemId),
+            new Column<>("group_id", String.class, R2dbcWbsTask::getGroupId),
+            new Column<>("phase_id", String.class, R2dbcWbsTask::getPhaseId),
+            new Column<>("code", String.class, R2dbcWbsTask::getCode),
+            new Column<>("name", String.class, R2dbcWbsTask::getName),
+            new Column<>("description", String.class, R2dbcWbsTask::getDescription),
+            new Column<>("status", String.class, R2dbcWbsTask::getStatus),
+            new Column<>("progress", Integer.class, R2dbcWbsTask::getProgress),
+            new Column<>("weight", Integer.class, R2dbcWbsTask::getWeight),
+            new Column<>("order_num", Integer.class, R2dbcWbsTask::getOrderNum),
+            new Column<>("estimated_hours", Integer.class, R2dbcWbsTask::getEstimatedHours),
+            new Column<>("actual_hours", Integer.class, R2dbcWbsTask::getActualHours),
+            new Column<>("assignee_id", String.class, R2dbcWbsTask::getAssigneeId),
+            new Column<>("planned_start_date", LocalDate.class, R2dbcWbsTask::getPlannedStartDate),
+            new Column<>("planned_end_date", LocalDate.class, R2dbcWbsTask::getPlannedEndDate),
+            new Column<>("actual_start_date", LocalDate.class, R2dbcWbsTask::getActualStartDate),
+            new Column<>("actual_end_date", LocalDate.class, R2dbcWbsTask::getActualEndDate)
+    );
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Long> insertPhases(List<R2dbcPhase> phases) {
+        return insert("project.phases", PHASE_COLUMNS, phases);
+    }
+
+    public Mono<Long> insertGroups(List<R2dbcWbsGroup> groups) {
+        return insert("project.wbs_groups", GROUP_COLUMNS, groups);
+    }
+
+    public Mono<Long> insertItems(List<R2dbcWbsItem> items) {
+        return insert("project.wbs_items", ITEM_COLUMNS, items);
+    }
+
+    public Mono<Long> insertTasks(List<R2dbcWbsTask> tasks) {
+        return insert("project.wbs_tasks", TASK_COLUMNS, tasks);
+    }
+
+    private <T> Mono<Long> insert(String table, List<Column<T>> columns, List<T> rows) {
+        if (rows.isEmpty()) {
+            return Mono.just(0L);
+        }
+
+        int chunkSize = Math.max(1, MAX_PARAMS_PER_STATEMENT / columns.size());
+        return Flux.range(0, (rows.size() + chunkSize - 1) / chunkSize)
+                .concatMap(chunk -> insertChunk(table, columns,
+                        rows.subList(chunk * chunkSize, Math.min(rows.size(), (chunk + 1) * chunkSize))))
+                .reduce(0L, Long::sum)
+                .doOnSuccess(count -> log.debug("Bulk inserted {} rows into {}", count, table));
+    }
+
+    private <T> Mono<Long> insertChunk(String table, List<Column<T>> columns, List<T> rows) {
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(table).append(" (");
+        for (Column<T> column : columns) {
+            sql.append(column.name()).append(", ");
+        }
+        sql.append("created_at, updated_at) VALUES ");
+
+        for (int r = 0; r < rows.size(); r++) {
+            sql.append(r == 0 ? "(" : ", (");
+            for (int c = 0; c < columns.size(); c++) {
+                sql.append(":p").append(r).append('_').append(c).append(", ");
+            }
+            sql.append("NOW(), NOW())");
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (int r = 0; r < rows.size(); r++) {
+            T row = rows.get(r);
+            for (int c = 0; c < columns.size(); c++) {
+                Column<T> column = columns.get(c);
+                Object value = column.getter().apply(row);
+                String param = "p" + r + "_" + c;
+                spec = value != null ? spec.bind(param, value) : spec.bindNull(param, column.type());
+            }
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    private record Column<T>(String name, Class<?> type, Function<T, Object> getter) {}
+}
@@ -0,0 +1,339 @@
+package com.insuretech.pms.project.reactive.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Set-based WBS snapshot capture and restore.
+ * Every level is copied with one INSERT ... SELECT, so the row count of a phase
+ * no longer drives the number of round trips. Callers run these inside their
+ * transaction; nothing here commits on its own.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class WbsSnapshotBulkWriter {
+
+    private static final String INSERT_SNAPSHOT = """
+            INSERT INTO project.wbs_snapshots
+                (id, phase_id, project_id, snapshot_name, description, snapshot_type, status,
+                 created_at, created_by, updated_at)
+            VALUES (:snapshotId, :phaseId, :projectId, :snapshotName, :description, :snapshotType, 'ACTIVE',
+                    NOW(), :createdBy, NOW())
+            """;
+
+    private static final String CAPTURE_GROUPS = """
+            INSERT INTO project.wbs_groups_snapshot
+                (id, snapshot_id, original_id, phase_id, code, name, description, status, progress,
+                 planned_start_date, planned_end_date, actual_start_date, actual_end_date, weight, order_num,
+                 linked_epic_id, original_created_at, original_created_by, original_updated_at, original_updated_by)
+            SELECT gen_random_uuid()::text, :snapshotId, g.id, g.phase_id, g.code, g.name, g.description, g.status,
+                   g.progress, g.planned_start_date, g.planned_end_date, g.actual_start_date, g.actual_end_date,
+                   g.weight, g.order_num, g.linked_epic_id, g.created_at, g.created_by, g.updated_at, g.updated_by
+            FROM project.wbs_groups g
+            WHERE g.phase_id = :phaseId
+            """;
+
+    private static final String CAPTURE_ITEMS = """
+            INSERT INTO project.wbs_items_snapshot
+                (id, snapshot_id, original_id, original_group_id, phase_id, code, name, description, status, progress,
+                 planned_start_date, planned_end_date, actual_start_date, actual_end_date, weight, order_num,
+                 estimated_hours, actual_hours, assignee_id,
+                 original_created_at, original_created_by, original_updated_at, original_updated_by)
+            SELECT gen_random_uuid()::text, :snapshotId, i.id, i.group_id, i.phase_id, i.code, i.name, i.description,
+                   i.status, i.progress, i.planned_start_date, i.planned_end_date, i.actual_start_date,
+                   i.actual_end_date, i.weight, i.order_num, i.estimated_hours, i.actual_hours, i.assignee_id,
+                   i.created_at, i.created_by, i.updated_at, i.updated_by
+            FROM project.wbs_items i
+            WHERE i.phase_id = :phaseId
+            """;
+
+    private static final String CAPTURE_TASKS = """
+            INSERT INTO project.wbs_tasks_snapshot
+                (id, snapshot_id, original_id, original_item_id, original_group_id, phase_id, code, name, description,
+                 status, progress, weight, order_num, estimated_hours, actual_hours, assignee_id, linked_task_id,
+                 planned_start_date, planned_end_date, actual_start_date, actual_end_date,
+                 original_created_at, original_created_by, original_updated_at, original_updated_by)
+            SELECT gen_random_uuid()::text, :snapshotId, t.id, t.item_id, t.group_id, t.phase_id, t.code, t.name,
+                   t.description, t.status, t.progress, t.weight, t.order_num, t.estimated_hours, t.actual_hours,
+                   t.assignee_id, t.linked_task_id, t.planned_start_date, t.planned_end_date, t.actual_start_date,
+                   t.actual_end_date, t.created_at, t.created_by, t.updated_at, t.updated_by
+            FROM project.wbs_tasks t
+            WHERE t.phase_id = :phaseId
+            """;
+
+    // Phase membership is read back from the rows captured above, so the filter
+    // uses the snapshot_id indexes instead of loading the project's dependencies.
+    private static final String CAPTURE_DEPENDENCIES = """
+            WITH phase_nodes AS (
+                SELECT original_id AS id FROM project.wbs_groups_snapshot WHERE snapshot_id = :snapshotId
+                UNION ALL
+                SELECT original_id FROM project.wbs_items_snapshot WHERE snapshot_id = :snapshotId
+                UNION ALL
+                SELECT original_id FROM project.wbs_tasks_snapshot WHERE snapshot_id = :snapshotId
+            )
+            INSERT INTO project.wbs_dependencies_snapshot
+                (id, snapshot_id, original_id, predecessor_type, predecessor_id, successor_type, successor_id,
+                 dependency_type, lag_days, project_id,
+                 original_created_at, original_created_by, original_updated_at, original_updated_by)
+            SELECT gen_random_uuid()::text, :snapshotId, d.id, d.predecessor_type, d.predecessor_id, d.successor_type,
+                   d.successor_id, d.dependency_type, d.lag_days, d.project_id,
+                   d.created_at, d.created_by, d.updated_at, d.updated_by
+            FROM project.wbs_dependencies d
+            WHERE d.project_id = :projectId
+              AND (d.predecessor_id IN (SELECT id FROM phase_nodes) OR d.successor_id IN (SELECT id FROM phase_nodes))
+            """;
+
+    private static final String UPDATE_COUNTS = """
+            UPDATE project.wbs_snapshots
+            SET group_count = :groupCount, item_count = :itemCount, task_count = :taskCount,
+                dependency_count = :dependencyCount, updated_at = NOW()
+            WHERE id = :snapshotId
+            """;
+
+    // Dependencies touching the phase (as it is now or as it was captured) that
+    // are not part of the snapshot. Removed first so no edge outlives its nodes.
+    private static final String DELETE_STALE_DEPENDENCIES = """
+            WITH scope AS (
+                SELECT id FROM project.wbs_groups WHERE phase_id = :phaseId
+                UNION
+                SELECT id FROM project.wbs_items WHERE phase_id = :phaseId
+                UNION
+                SELECT id FROM project.wbs_tasks WHERE phase_id = :phaseId
+                UNION
+                SELECT original_id FROM project.wbs_groups_snapshot WHERE snapshot_id = :snapshotId
+                UNION
+                SELECT original_id FROM project.wbs_items_snapshot WHERE snapshot_id = :snapshotId
+                UNION
+                SELECT original_id FROM project.wbs_tasks_snapshot WHERE snapshot_id = :snapshotId
+            )
+            DELETE FROM project.wbs_dependencies d
+            WHERE d.project_id = :projectId
+              AND (d.predecessor_id IN (SELECT id FROM scope) OR d.successor_id IN (SELECT id FROM scope))
+              AND NOT EXISTS (SELECT 1 FROM project.wbs_dependencies_snapshot s
+                              WHERE s.snapshot_id = :snapshotId AND s.original_id = d.id)
+            """;
+
+    private static final String DELETE_STALE_TASKS = """
+            DELETE FROM project.wbs_tasks t
+            WHERE t.phase_id = :phaseId
+              AND NOT EXISTS (SELECT 1 FROM project.wbs_tasks_snapshot s
+                              WHERE s.snapshot_id = :snapshotId AND s.original_id = t.id)
+            """;
+
+    private static final String DELETE_STALE_ITEMS = """
+            DELETE FROM project.wbs_items i
+            WHERE i.phase_id = :phaseId
+              AND NOT EXISTS (SELECT 1 FROM project.wbs_items_snapshot s
+                              WHERE s.snapshot_id = :snapshotId AND s.original_id = i.id)
+            """;
+
+    private static final String DELETE_STALE_GROUPS = """
+            DELETE FROM project.wbs_groups g
+            WHERE g.phase_id = :phaseId
+              AND NOT EXISTS (SELECT 1 FROM project.wbs_groups_snapshot s
+                              WHERE s.snapshot_id = :snapshotId AND s.original_id = g.id)
+            """;
+
+    // Upserts only touch rows that actually differ from the snapshot, so an
+    // unchanged phase restores without rewriting (or re-auditing) anything.
+    private static final String RESTORE_GROUPS = """
+            INSERT INTO project.wbs_groups AS g
+                (id, phase_id, code, name, description, status, progress, planned_start_date, planned_end_date,
+                 actual_start_date, actual_end_date, weight, order_num, linked_epic_id,
+                 created_at, created_by, updated_at, updated_by)
+            SELECT s.original_id, s.phase_id, s.code, s.name, s.description, s.status, s.progress,
+                   s.planned_start_date, s.planned_end_date, s.actual_start_date, s.actual_end_date, s.weight,
+                   s.order_num, s.linked_epic_id, COALESCE(s.original_created_at, NOW()), s.original_created_by,
+                   NOW(), :restoredBy
+            FROM project.wbs_groups_snapshot s
+            WHERE s.snapshot_id = :snapshotId
+            ON CONFLICT (id) DO UPDATE SET
+                phase_id = EXCLUDED.phase_id, code = EXCLUDED.code, name = EXCLUDED.name,
+                description = EXCLUDED.description, status = EXCLUDED.status, progress = EXCLUDED.progress,
+                planned_start_date = EXCLUDED.planned_start_date, planned_end_date = EXCLUDED.planned_end_date,
+                actual_start_date = EXCLUDED.actual_start_date, actual_end_date = EXCLUDED.actual_end_date,
+                weight = EXCLUDED.weight, order_num = EXCLUDED.order_num, linked_epic_id = EXCLUDED.linked_epic_id,
+                updated_at = EXCLUDED.updated_at, updated_by = EXCLUDED.updated_by
+            WHERE (g.phase_id, g.code, g.name, g.description, g.status, g.progress, g.planned_start_date,
+                   g.planned_end_date, g.actual_start_date, g.actual_end_date, g.weight, g.order_num,
+                   g.linked_epic_id)
+                IS DISTINCT FROM
+                  (EXCLUDED.phase_id, EXCLUDED.code, EXCLUDED.name, EXCLUDED.description, EXCLUDED.status,
+                   EXCLUDED.progress, EXCLUDED.planned_start_date, EXCLUDED.planned_end_date,
+                   EXCLUDED.actual_start_date, EXCLUDED.actual_end_date, EXCLUDED.weight, EXCLUDED.order_num,
+                   EXCLUDED.linked_epic_id)
+            """;
+
+    private static final String RESTORE_ITEMS = """
+            INSERT INTO project.wbs_items AS i
+                (id, group_id, phase_id, code, name, description, status, progress, planned_start_date,
+                 planned_end_date, actual_start_date, actual_end_date, weight, order_num, estimated_hours,
+                 actual_hours, assignee_id, created_at, created_by, updated_at, updated_by)
+            SELECT s.original_id, s.original_group_id, s.phase_id, s.code, s.name, s.description, s.status,
+                   s.progress, s.planned_start_date, s.planned_end_date, s.actual_start_date, s.actual_end_date,
+                   s.weight, s.order_num, s.estimated_hours, s.actual_hours, s.assignee_id,
+                   COALESCE(s.original_created_at, NOW()), s.original_created_by, NOW(), :restoredBy
+            FROM project.wbs_items_snapshot s
+            WHERE s.snapshot_id = :snapshotId
+            ON CONFLICT (id) DO UPDATE SET
+                group_id = EXCLUDED.group_id, phase_id = EXCLUDED.phase_id, code = EXCLUDED.code,
+                name = EXCLUDED.name, description = EXCLUDED.description, status = EXCLUDED.status,
+                progress = EXCLUDED.progress, planned_start_date = EXCLUDED.planned_start_date,
+                planned_end_date = EXCLUDED.planned_end_date, actual_start_date = EXCLUDED.actual_start_date,
+                actual_end_date = EXCLUDED.actual_end_date, weight = EXCLUDED.weight,
+                order_num = EXCLUDED.order_num, estimated_hours = EXCLUDED.estimated_hours,
+                actual_hours = EXCLUDED.actual_hours, assignee_id = EXCLUDED.assignee_id,
+                updated_at = EXCLUDED.updated_at, updated_by = EXCLUDED.updated_by
+            WHERE (i.group_id, i.phase_id, i.code, i.name, i.description, i.status, i.progress,
+                   i.planned_start_date, i.planned_end_date, i.actual_start_date, i.actual_end_date, i.weight,
+                   i.order_num, i.estimated_hours, i.actual_hours, i.assignee_id)
+                IS DISTINCT FROM
+                  (EXCLUDED.group_id, EXCLUDED.phase_id, EXCLUDED.code, EXCLUDED.name, EXCLUDED.description,
+                   EXCLUDED.status, EXCLUDED.progress, EXCLUDED.planned_start_date, EXCLUDED.planned_end_date,
+                   EXCLUDED.actual_start_date, EXCLUDED.actual_end_date, EXCLUDED.weight, EXCLUDED.order_num,
+                   EXCLUDED.estimated_hours, EXCLUDED.actual_hours, EXCLUDED.assignee_id)
+            """;
+
+    private static final String RESTORE_TASKS = """
+            INSERT INTO project.wbs_tasks AS t
+                (id, item_id, group_id, phase_id, code, name, description, status, progress, weight, order_num,
+                 estimated_hours, actual_hours, assignee_id, linked_task_id, planned_start_date, planned_end_date,
+                 actual_start_date, actual_end_date, created_at, created_by, updated_at, updated_by)
+            SELECT s.original_id, s.original_item_id, s.original_group_id, s.phase_id, s.code, s.name,
+                   s.description, s.status, s.progress, s.weight, s.order_num, s.estimated_hours, s.actual_hours,
+                   s.assignee_id, s.linked_task_id, s.planned_start_date, s.planned_end_date, s.actual_start_date,
+                   s.actual_end_date, COALESCE(s.original_created_at, NOW()), s.original_created_by,
+                   NOW(), :restoredBy
+            FROM project.wbs_tasks_snapshot s
+            WHERE s.snapshot_id = :snapshotId
+            ON CONFLICT (id) DO UPDATE SET
+                item_id = EXCLUDED.item_id, group_id = EXCLUDED.group_id, phase_id = EXCLUDED.phase_id,
+                code = EXCLUDED.code, name = EXCLUDED.name, description = EXCLUDED.description,
+                status = EXCLUDED.status, progress = EXCLUDED.progress, weight = EXCLUDED.weight,
+                order_num = EXCLUDED.order_num, estimated_hours = EXCLUDED.estimated_hours,
+                actual_hours = EXCLUDED.actual_hours, assignee_id = EXCLUDED.assignee_id,
+                linked_task_id = EXCLUDED.linked_task_id, planned_start_date = EXCLUDED.planned_start_date,
+                planned_end_date = EXCLUDED.planned_end_date, actual_start_date = EXCLUDED.actual_start_date,
+                actual_end_date = EXCLUDED.actual_end_date,
+                updated_at = EXCLUDED.updated_at, updated_by = EXCLUDED.updated_by
+            WHERE (t.item_id, t.group_id, t.phase_id, t.code, t.name, t.description, t.status, t.progress,
+                   t.weight, t.order_num, t.estimated_hours, t.actual_hours, t.assignee_id, t.linked_task_id,
+                   t.planned_start_date, t.planned_end_date, t.actual_start_date, t.actual_end_date)
+                IS DISTINCT FROM
+                  (EXCLUDED.item_id, EXCLUDED.group_id, EXCLUDED.phase_id, EXCLUDED.code, EXCLUDED.name,
+                   EXCLUDED.description, EXCLUDED.status, EXCLUDED.progress, EXCLUDED.weight, EXCLUDED.order_num,
+                   EXCLUDED.estimated_hours, EXCLUDED.actual_hours, EXCLUDED.assignee_id, EXCLUDED.linked_task_id,
+                   EXCLUDED.planned_start_date, EXCLUDED.planned_end_date, EXCLUDED.actual_start_date,
+                   EXCLUDED.actual_end_date)
+            """;
+
+    private static final String RESTORE_DEPENDENCIES = """
+            INSERT INTO project.wbs_dependencies AS d
+                (id, predecessor_type, predecessor_id, successor_type, successor_id, dependency_type, lag_days,
+                 project_id, created_at, created_by, updated_at, updated_by)
+            SELECT s.original_id, s.predecessor_type, s.predecessor_id, s.successor_type, s.successor_id,
+                   s.dependency_type, s.lag_days, s.project_id, COALESCE(s.original_created_at, NOW()),
+                   s.original_created_by, NOW(), :restoredBy
+            FROM project.wbs_dependencies_snapshot s
+            WHERE s.snapshot_id = :snapshotId
+            ON CONFLICT (id) DO UPDATE SET
+                predecessor_type = EXCLUDED.predecessor_type, predecessor_id = EXCLUDED.predecessor_id,
+                successor_type = EXCLUDED.successor_type, successor_id = EXCLUDED.successor_id,
+                dependency_type = EXCLUDED.dependency_type, lag_days = EXCLUDED.lag_days,
+                project_id = EXCLUDED.project_id, updated_at = EXCLUDED.updated_at, updated_by = EXCLUDED.updated_by
+            WHERE (d.predecessor_type, d.predecessor_id, d.successor_type, d.successor_id, d.dependency_type,
+                   d.lag_days, d.project_id)
+                IS DISTINCT FROM
+                  (EXCLUDED.predecessor_type, EXCLUDED.predecessor_id, EXCLUDED.successor_type,
+                   EXCLUDED.successor_id, EXCLUDED.dependency_type, EXCLUDED.lag_days, EXCLUDED.project_id)
+            """;
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Writes the snapshot header and copies the phase's groups, items, tasks and
+     * the dependencies touching them. Returns the captured row counts.
+     */
+    public Mono<SnapshotCounts> capture(String snapshotId, String phaseId, String projectId,
+                                        String snapshotName, String description, String snapshotType,
+                                        String createdBy) {
+        DatabaseClient.GenericExecuteSpec header = databaseClient.sql(INSERT_SNAPSHOT)
+                .bind("snapshotId", snapshotId)
+                .bind("phaseId", phaseId)
+                .bind("projectId", projectId)
+                .bind("snapshotName", snapshotName)
+                .bind("snapshotType", snapshotType);
+        header = bindNullable(header, "description", description);
+        header = bindNullable(header, "createdBy", createdBy);
+
+        // Statements share the transaction's connection, so they run one after another.
+        return header.fetch().rowsUpdated()
+                .then(copy(CAPTURE_GROUPS, snapshotId, phaseId, null))
+                .flatMap(groups -> copy(CAPTURE_ITEMS, snapshotId, phaseId, null)
+                        .flatMap(items -> copy(CAPTURE_TASKS, snapshotId, phaseId, null)
+                                .flatMap(tasks -> copy(CAPTURE_DEPENDENCIES, snapshotId, null, projectId)
+                                        .map(deps -> new SnapshotCounts(groups, items, tasks, deps)))))
+                .flatMap(counts -> databaseClient.sql(UPDATE_COUNTS)
+                        .bind("snapshotId", snapshotId)
+                        .bind("groupCount", counts.groups())
+                        .bind("itemCount", counts.items())
+                        .bind("taskCount", counts.tasks())
+                        .bind("dependencyCount", counts.dependencies())
+                        .fetch().rowsUpdated()
+                        .thenReturn(counts));
+    }
+
+    /**
+     * Brings the phase back to the captured state: rows missing from the snapshot
+     * are deleted children-first, snapshot rows are upserted parents-first.
+     * Returns the number of rows deleted and written.
+     */
+    public Mono<RestoreCounts> restore(String snapshotId, String phaseId, String projectId, String restoredBy) {
+        Mono<Long> deleted = execute(DELETE_STALE_DEPENDENCIES, snapshotId, phaseId, projectId, null)
+                .concatWith(execute(DELETE_STALE_TASKS, snapshotId, phaseId, null, null))
+                .concatWith(execute(DELETE_STALE_ITEMS, snapshotId, phaseId, null, null))
+                .concatWith(execute(DELETE_STALE_GROUPS, snapshotId, phaseId, null, null))
+                .reduce(0L, Long::sum);
+
+        Mono<Long> written = execute(RESTORE_GROUPS, snapshotId, null, null, restoredBy)
+                .concatWith(execute(RESTORE_ITEMS, snapshotId, null, null, restoredBy))
+                .concatWith(execute(RESTORE_TASKS, snapshotId, null, null, restoredBy))
+                .concatWith(execute(RESTORE_DEPENDENCIES, snapshotId, null, null, restoredBy))
+                .reduce(0L, Long::sum);
+
+        return deleted.flatMap(d -> written.map(w -> new RestoreCounts(d, w)))
+                .doOnSuccess(counts -> log.debug("Restored snapshot {} into phase {}: {} rows deleted, {} rows written",
+                        snapshotId, phaseId, counts.deleted(), counts.written()));
+    }
+
+    private Mono<Integer> copy(String sql, String snapshotId, String phaseId, String projectId) {
+        return execute(sql, snapshotId, phaseId, projectId, null).map(Long::intValue);
+    }
+
+    private Mono<Long> execute(String sql, String snapshotId, String phaseId, String projectId, String restoredBy) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql).bind("snapshotId", snapshotId);
+        if (phaseId != null) {
+            spec = spec.bind("phaseId", phaseId);
+        }
+        if (projectId != null) {
+            spec = spec.bind("projectId", projectId);
+        }
+        if (sql.contains(":restoredBy")) {
+            spec = bindNullable(spec, "restoredBy", restoredBy);
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec,
+                                                                  String name, String value) {
+        return value != null ? spec.bind(name, value) : spec.bindNull(name, String.class);
+    }
+
+    public record SnapshotCounts(int groups, int items, int tasks, int dependencies) {}
+
+    public record RestoreCounts(long deleted, long written) {}
+}
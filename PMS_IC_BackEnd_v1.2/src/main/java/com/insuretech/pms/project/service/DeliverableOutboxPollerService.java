@@ -2,34 +2,46 @@ package com.insuretech.pms.project.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insuretech.pms.common.outbox.OutboxEngine;
+import com.insuretech.pms.common.outbox.OutboxHandler;
+import com.insuretech.pms.common.outbox.OutboxSource;
 import com.insuretech.pms.project.reactive.entity.R2dbcDeliverableOutbox;
-import com.insuretech.pms.project.reactive.repository.ReactiveDeliverableOutboxRepository;
 import com.insuretech.pms.rag.service.RAGIndexingService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Poller service that processes outbox events for RAG indexing.
- * Runs on a scheduled basis and processes pending events.
+ * Rows are leased through {@link OutboxEngine}; this class only decides what to do
+ * with each event. Events waiting for a retry stay in PROCESSING with next_retry_at
+ * set by {@link DeliverableOutboxService#markEventFailed}.
  */
 @Slf4j
 @Service
-public class DeliverableOutboxPollerService {
+public class DeliverableOutboxPollerService implements OutboxHandler<R2dbcDeliverableOutbox> {
+
+    private static final OutboxSource<R2dbcDeliverableOutbox> SOURCE = new OutboxSource<>(
+            "deliverable-rag",
+            "project.deliverable_outbox",
+            R2dbcDeliverableOutbox.class,
+            "status = 'PENDING' OR (status = 'PROCESSING' AND next_retry_at <= NOW() AND retry_count < max_retries)",
+            R2dbcDeliverableOutbox::getId
+    );
 
     private final DeliverableOutboxService outboxService;
-    private final ReactiveDeliverableOutboxRepository outboxRepository;
     private final RAGIndexingService ragIndexingService;
+    private final OutboxEngine outboxEngine;
     private final ObjectMapper objectMapper;
 
     @Value("${lineage.outbox.batch-size:100}")
@@ -41,17 +53,18 @@ public class DeliverableOutboxPollerService {
     @Value("${lineage.outbox.enabled:true}")
     private boolean pollerEnabled;
 
-    private final AtomicBoolean isProcessing = new AtomicBoolean(false);
+    @Value("${rag.indexing.max-concurrent-documents:4}")
+    private int maxConcurrentDocuments;
 
     public DeliverableOutboxPollerService(
             DeliverableOutboxService outboxService,
-            ReactiveDeliverableOutboxRepository outboxRepository,
             RAGIndexingService ragIndexingService,
+            OutboxEngine outboxEngine,
             ObjectMapper objectMapper
     ) {
         this.outboxService = outboxService;
-        this.outboxRepository = outboxRepository;
         this.ragIndexingService = ragIndexingService;
+        this.outboxEngine = outboxEngine;
         this.objectMapper = objectMapper;
     }
 
@@ -61,33 +74,34 @@ public class DeliverableOutboxPollerService {
      */
     @Scheduled(fixedDelayString = "${lineage.outbox.poll-interval:5000}")
     public void pollAndProcessEvents() {
-        if (!pollerEnabled) {
-            return;
-        }
+        outboxEngine.poll(this);
+    }
 
-        // Prevent concurrent processing
-        if (!isProcessing.compareAndSet(false, true)) {
-            log.debug("Poller is already processing, skipping this cycle");
-            return;
-        }
+    @Override
+    public OutboxSource<R2dbcDeliverableOutbox> source() {
+        return SOURCE;
+    }
 
-        try {
-            log.debug("Starting outbox polling cycle");
-
-            outboxService.getPendingEvents(batchSize)
-                    .flatMap(this::processEvent)
-                    .doOnError(e -> log.error("Error in polling cycle", e))
-                    .doFinally(signal -> {
-                        isProcessing.set(false);
-                        log.debug("Completed outbox polling cycle");
-                    })
-                    .subscribeOn(Schedulers.boundedElastic())
-                    .subscribe();
+    @Override
+    public boolean enabled() {
+        return pollerEnabled;
+    }
 
-        } catch (Exception e) {
-            log.error("Fatal error in polling cycle", e);
-            isProcessing.set(false);
-        }
+    @Override
+    public int leaseBatchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public int concurrency() {
+        return maxConcurrentDocuments;
+    }
+
+    @Override
+    public Mono<Void> handle(List<R2dbcDeliverableOutbox> events) {
+        return Flux.fromIterable(events)
+                .concatMap(this::processEvent)
+                .then();
     }
 
     /**
@@ -97,39 +111,28 @@ public class DeliverableOutboxPollerService {
         log.info("Processing event: {} type: {} for deliverable: {}",
                 event.getId(), event.getEventType(), event.getAggregateId());
 
-        // Mark as processing first
-        return outboxRepository.markAsProcessing(event.getId())
-                .flatMap(updated -> {
-                    if (updated == 0) {
-                        log.debug("Event {} already being processed", event.getId());
-                        return Mono.empty();
+        return handleEvent(event)
+                .flatMap(success -> {
+                    if (success) {
+                        String ragDocId = "deliverable:" + event.getAggregateId();
+                        return outboxService.markEventProcessed(event.getId(), ragDocId);
+                    } else {
+                        return outboxService.markEventFailed(
+                                event.getId(),
+                                "RAG indexing failed"
+                        );
                     }
-
-                    return Mono.fromCallable(() -> processEventSync(event))
-                            .subscribeOn(Schedulers.boundedElastic())
-                            .flatMap(success -> {
-                                if (success) {
-                                    String ragDocId = "deliverable:" + event.getAggregateId();
-                                    return outboxService.markEventProcessed(event.getId(), ragDocId);
-                                } else {
-                                    return outboxService.markEventFailed(
-                                            event.getId(),
-                                            "RAG indexing failed"
-                                    );
-                                }
-                            })
-                            .onErrorResume(e -> {
-                                log.error("Error processing event: {}", event.getId(), e);
-                                return outboxService.markEventFailed(event.getId(), e.getMessage());
-                            });
                 })
-                .then();
+                .onErrorResume(e -> {
+                    log.error("Error processing event: {}", event.getId(), e);
+                    return outboxService.markEventFailed(event.getId(), e.getMessage());
+                });
     }
 
     /**
-     * Synchronous event processing logic
+     * Event processing logic
      */
-    private boolean processEventSync(R2dbcDeliverableOutbox event) {
+    private Mono<Boolean> handleEvent(R2dbcDeliverableOutbox event) {
         try {
             Map<String, Object> payload = parsePayload(event.getPayload());
 
@@ -152,23 +155,23 @@ public class DeliverableOutboxPollerService {
 
                 default:
                     log.warn("Unknown event type: {}", eventType);
-                    return false;
+                    return Mono.just(false);
             }
 
         } catch (Exception e) {
-            log.error("Error processing event sync: {}", event.getId(), e);
-            return false;
+            log.error("Error processing event: {}", event.getId(), e);
+            return Mono.just(false);
         }
     }
 
     /**
      * Handle deliverable upload - index file to RAG
      */
-    private boolean handleUploadEvent(String deliverableId, String ragDocId, Map<String, Object> payload) {
+    private Mono<Boolean> handleUploadEvent(String deliverableId, String ragDocId, Map<String, Object> payload) {
         String fileName = (String) payload.get("file_name");
         if (fileName == null) {
             log.error("No file_name in payload for deliverable: {}", deliverableId);
-            return false;
+            return Mono.just(false);
         }
 
         // Build file path
@@ -203,7 +206,7 @@ public class DeliverableOutboxPollerService {
     /**
      * Handle deliverable deletion - remove from RAG
      */
-    private boolean handleDeleteEvent(String ragDocId) {
+    private Mono<Boolean> handleDeleteEvent(String ragDocId) {
         log.info("Deleting document from RAG: {}", ragDocId);
         return ragIndexingService.deleteDocument(ragDocId);
     }
@@ -211,7 +214,7 @@ public class DeliverableOutboxPollerService {
     /**
      * Handle deliverable approval - update metadata in RAG
      */
-    private boolean handleApprovalEvent(String deliverableId, String ragDocId, Map<String, Object> payload) {
+    private Mono<Boolean> handleApprovalEvent(String deliverableId, String ragDocId, Map<String, Object> payload) {
         log.info("Processing approval event for: {}", ragDocId);
 
         // Build metadata update from payload
@@ -239,7 +242,7 @@ public class DeliverableOutboxPollerService {
 
         if (metadataUpdate.isEmpty()) {
             log.warn("No metadata to update for approval event: {}", ragDocId);
-            return true; // Consider success if nothing to update
+            return Mono.just(true); // Consider success if nothing to update
         }
 
         // Call RAG service to update metadata
@@ -262,9 +265,7 @@ public class DeliverableOutboxPollerService {
      * Manual trigger for processing (useful for testing)
      */
     public Mono<Long> triggerProcessing() {
-        return outboxService.getPendingEvents(batchSize)
-                .flatMap(this::processEvent)
-                .count()
+        return outboxEngine.runOnce(this)
                 .doOnSuccess(count -> log.info("Manually processed {} events", count));
     }
 
@@ -272,9 +273,8 @@ public class DeliverableOutboxPollerService {
      * Get current poller status
      */
     public Map<String, Object> getStatus() {
-        Map<String, Object> status = new HashMap<>();
+        Map<String, Object> status = new HashMap<>(outboxEngine.status(this));
         status.put("enabled", pollerEnabled);
-        status.put("processing", isProcessing.get());
         status.put("batchSize", batchSize);
         status.put("lastCheck", LocalDateTime.now().toString());
         return status;
@@ -1,10 +1,13 @@
 package com.insuretech.pms.project.service;
 
 import com.insuretech.pms.common.exception.CustomException;
+import com.insuretech.pms.pmo.service.PortfolioHealthStore;
 import com.insuretech.pms.project.dto.IssueDto;
 import com.insuretech.pms.project.reactive.entity.R2dbcIssue;
 import com.insuretech.pms.project.reactive.repository.ReactiveIssueRepository;
 import com.insuretech.pms.project.reactive.repository.ReactiveProjectRepository;
+import com.insuretech.pms.project.reactive.service.DashboardAggregateStore;
+import com.insuretech.pms.project.reactive.service.DashboardAggregateStore.Section;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -22,6 +25,8 @@ public class ReactiveIssueService {
 
     private final ReactiveIssueRepository issueRepository;
     private final ReactiveProjectRepository projectRepository;
+    private final DashboardAggregateStore dashboardAggregateStore;
+    private final PortfolioHealthStore portfolioHealthStore;
 
     public Flux<IssueDto> getIssuesByProject(String projectId) {
         return issueRepository.findByProjectIdOrderByCreatedAtDesc(projectId)
@@ -55,6 +60,10 @@ public class ReactiveIssueService {
                     return issueRepository.save(issue);
                 })
                 .map(IssueDto::from)
+                .doOnNext(dto -> {
+                    dashboardAggregateStore.markDirty(dto.getProjectId(), Section.STATS);
+                    portfolioHealthStore.markDirty(dto.getProjectId());
+                })
                 .doOnSuccess(dto -> log.info("Created issue: {} for project: {}", dto.getId(), projectId));
     }
 
@@ -76,6 +85,10 @@ public class ReactiveIssueService {
                     return issueRepository.save(issue);
                 })
                 .map(IssueDto::from)
+                .doOnNext(dto -> {
+                    dashboardAggregateStore.markDirty(dto.getProjectId(), Section.STATS);
+                    portfolioHealthStore.markDirty(dto.getProjectId());
+                })
                 .doOnSuccess(dto -> log.info("Updated issue: {}", issueId));
     }
 
@@ -91,6 +104,10 @@ public class ReactiveIssueService {
                     return issueRepository.save(issue);
                 })
                 .map(IssueDto::from)
+                .doOnNext(dto -> {
+                    dashboardAggregateStore.markDirty(dto.getProjectId(), Section.STATS);
+                    portfolioHealthStore.markDirty(dto.getProjectId());
+                })
                 .doOnSuccess(dto -> log.info("Updated issue {} status to {}", issueId, status));
     }
 
@@ -98,7 +115,11 @@ public class ReactiveIssueService {
     public Mono<Void> deleteIssue(String issueId) {
         return issueRepository.findById(issueId)
                 .switchIfEmpty(Mono.error(CustomException.notFound("Issue not found: " + issueId)))
-                .flatMap(issue -> issueRepository.deleteById(issueId))
+                .flatMap(issue -> issueRepository.deleteById(issueId)
+                        .doOnSuccess(v -> {
+                            dashboardAggregateStore.markDirty(issue.getProjectId(), Section.STATS);
+                            portfolioHealthStore.markDirty(issue.getProjectId());
+                        }))
                 .doOnSuccess(v -> log.info("Deleted issue: {}", issueId));
     }
 }
@@ -5,6 +5,8 @@ import com.insuretech.pms.project.dto.PhaseDto;
 import com.insuretech.pms.project.reactive.entity.R2dbcPhase;
 import com.insuretech.pms.project.reactive.repository.ReactivePhaseRepository;
 import com.insuretech.pms.project.reactive.repository.ReactiveProjectRepository;
+import com.insuretech.pms.project.reactive.service.DashboardAggregateStore;
+import com.insuretech.pms.project.reactive.service.DashboardAggregateStore.Section;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -21,6 +23,7 @@ public class ReactivePhaseService {
 
     private final ReactivePhaseRepository phaseRepository;
     private final ReactiveProjectRepository projectRepository;
+    private final DashboardAggregateStore dashboardAggregateStore;
 
     public Flux<PhaseDto> getPhases(String projectId) {
         if (projectId != null && !projectId.isBlank()) {
@@ -56,6 +59,8 @@ public class ReactivePhaseService {
                     return phaseRepository.save(phase);
                 })
                 .map(PhaseDto::from)
+                .doOnNext(dto -> dashboardAggregateStore.markDirty(dto.getProjectId(),
+                        Section.PHASE_PROGRESS, Section.WBS_GROUP_STATS, Section.INSIGHTS))
                 .doOnSuccess(dto -> log.info("Created phase: {} for project: {}", dto.getId(), projectId));
     }
 
@@ -75,6 +80,8 @@ public class ReactivePhaseService {
                     return phaseRepository.save(phase);
                 })
                 .map(PhaseDto::from)
+                .doOnNext(dto -> dashboardAggregateStore.markDirty(dto.getProjectId(),
+                        Section.PHASE_PROGRESS, Section.WBS_GROUP_STATS, Section.INSIGHTS))
                 .doOnSuccess(dto -> log.info("Updated phase: {}", phaseId));
     }
 
@@ -82,7 +89,9 @@ public class ReactivePhaseService {
     public Mono<Void> deletePhase(String phaseId) {
         return phaseRepository.findById(phaseId)
                 .switchIfEmpty(Mono.error(CustomException.notFound("Phase not found: " + phaseId)))
-                .flatMap(phase -> phaseRepository.deleteById(phaseId))
+                .flatMap(phase -> phaseRepository.deleteById(phaseId)
+                        .doOnSuccess(v -> dashboardAggregateStore.markDirty(phase.getProjectId(),
+                                Section.PHASE_PROGRESS, Section.WBS_GROUP_STATS, Section.INSIGHTS)))
                 .doOnSuccess(v -> log.info("Deleted phase: {}", phaseId));
     }
 }
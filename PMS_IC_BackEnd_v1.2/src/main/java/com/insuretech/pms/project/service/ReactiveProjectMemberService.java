@@ -2,6 +2,7 @@ package com.insuretech.pms.project.service;
 
 import com.insuretech.pms.auth.reactive.repository.ReactiveUserRepository;
 import com.insuretech.pms.common.exception.CustomException;
+import com.insuretech.pms.common.security.ProjectMembershipCache;
 import com.insuretech.pms.project.dto.ProjectMemberDto;
 import com.insuretech.pms.project.reactive.entity.R2dbcProjectMember;
 import com.insuretech.pms.project.reactive.repository.ReactiveProjectMemberRepository;
@@ -23,6 +24,7 @@ public class ReactiveProjectMemberService {
     private final ReactiveProjectMemberRepository memberRepository;
     private final ReactiveProjectRepository projectRepository;
     private final ReactiveUserRepository userRepository;
+    private final ProjectMembershipCache membershipCache;
 
     public Flux<ProjectMemberDto> getMembersByProject(String projectId) {
         return memberRepository.findByProjectIdAndActiveTrue(projectId)
@@ -46,6 +48,7 @@ public class ReactiveProjectMemberService {
                                     .build();
                             return memberRepository.save(member);
                         })))
+                .doOnNext(member -> membershipCache.invalidate(projectId, userId))
                 .flatMap(member -> userRepository.findById(member.getUserId())
                         .map(user -> ProjectMemberDto.from(member, user.getName(), user.getEmail(), user.getDepartment()))
                         .defaultIfEmpty(ProjectMemberDto.from(member)))
@@ -60,6 +63,7 @@ public class ReactiveProjectMemberService {
                     member.setRole(role);
                     return memberRepository.save(member);
                 })
+                .doOnNext(member -> membershipCache.invalidate(member.getProjectId(), member.getUserId()))
                 .flatMap(member -> userRepository.findById(member.getUserId())
                         .map(user -> ProjectMemberDto.from(member, user.getName(), user.getEmail(), user.getDepartment()))
                         .defaultIfEmpty(ProjectMemberDto.from(member)))
@@ -70,7 +74,8 @@ public class ReactiveProjectMemberService {
     public Mono<Void> removeMember(String projectId, String memberId) {
         return memberRepository.findById(memberId)
                 .switchIfEmpty(Mono.error(CustomException.notFound("Member not found: " + memberId)))
-                .flatMap(member -> memberRepository.deleteById(memberId))
+                .flatMap(member -> memberRepository.deleteById(memberId)
+                        .doOnSuccess(v -> membershipCache.invalidate(member.getProjectId(), member.getUserId())))
                 .doOnSuccess(v -> log.info("Removed member {} from project {}", memberId, projectId));
     }
 }
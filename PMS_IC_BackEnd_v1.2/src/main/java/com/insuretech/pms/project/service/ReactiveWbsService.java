@@ -12,6 +12,8 @@ import com.insuretech.pms.project.reactive.repository.ReactivePhaseRepository;
 import com.insuretech.pms.project.reactive.repository.ReactiveWbsGroupRepository;
 import com.insuretech.pms.project.reactive.repository.ReactiveWbsItemRepository;
 import com.insuretech.pms.project.reactive.repository.ReactiveWbsTaskRepository;
+import com.insuretech.pms.project.reactive.service.DashboardAggregateStore;
+import com.insuretech.pms.project.reactive.service.DashboardAggregateStore.Section;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -30,6 +32,7 @@ public class ReactiveWbsService {
     private final ReactiveWbsItemRepository itemRepository;
     private final ReactiveWbsTaskRepository taskRepository;
     private final ReactivePhaseRepository phaseRepository;
+    private final DashboardAggregateStore dashboardAggregateStore;
 
     // ========== Full Tree (single-request optimization) ==========
 
@@ -103,6 +106,8 @@ public class ReactiveWbsService {
                             return groupRepository.save(group);
                         }))
                 .map(WbsGroupDto::from)
+                .flatMap(dto -> dashboardAggregateStore.markPhaseDirty(dto.getPhaseId(), Section.WBS_GROUP_STATS)
+                        .thenReturn(dto))
                 .doOnSuccess(dto -> log.info("Created WBS group: {} for phase: {}", dto.getId(), phaseId));
     }
 
@@ -126,6 +131,8 @@ public class ReactiveWbsService {
                     return groupRepository.save(group);
                 })
                 .map(WbsGroupDto::from)
+                .flatMap(dto -> dashboardAggregateStore.markPhaseDirty(dto.getPhaseId(), Section.WBS_GROUP_STATS)
+                        .thenReturn(dto))
                 .doOnSuccess(dto -> log.info("Updated WBS group: {}", groupId));
     }
 
@@ -135,7 +142,9 @@ public class ReactiveWbsService {
                 .switchIfEmpty(Mono.error(CustomException.notFound("WBS Group not found: " + groupId)))
                 .flatMap(group -> taskRepository.deleteByItemId(groupId)
                         .then(itemRepository.deleteByGroupId(groupId))
-                        .then(groupRepository.deleteById(groupId)))
+                        .then(groupRepository.deleteById(groupId))
+                        .then(dashboardAggregateStore.markPhaseDirty(group.getPhaseId(),
+                                DashboardAggregateStore.WBS_TASK_SECTIONS)))
                 .doOnSuccess(v -> log.info("Deleted WBS group: {}", groupId));
     }
 
@@ -187,6 +196,8 @@ public class ReactiveWbsService {
                             return itemRepository.save(item);
                         }))
                 .map(WbsItemDto::from)
+                .flatMap(dto -> dashboardAggregateStore.markPhaseDirty(dto.getPhaseId(), Section.WBS_GROUP_STATS)
+                        .thenReturn(dto))
                 .doOnSuccess(dto -> log.info("Created WBS item: {} for group: {}", dto.getId(), groupId));
     }
 
@@ -212,6 +223,8 @@ public class ReactiveWbsService {
                     return itemRepository.save(item);
                 })
                 .map(WbsItemDto::from)
+                .flatMap(dto -> dashboardAggregateStore.markPhaseDirty(dto.getPhaseId(), Section.WBS_GROUP_STATS)
+                        .thenReturn(dto))
                 .doOnSuccess(dto -> log.info("Updated WBS item: {}", itemId));
     }
 
@@ -220,7 +233,9 @@ public class ReactiveWbsService {
         return itemRepository.findById(itemId)
                 .switchIfEmpty(Mono.error(CustomException.notFound("WBS Item not found: " + itemId)))
                 .flatMap(item -> taskRepository.deleteByItemId(itemId)
-                        .then(itemRepository.deleteById(itemId)))
+                        .then(itemRepository.deleteById(itemId))
+                        .then(dashboardAggregateStore.markPhaseDirty(item.getPhaseId(),
+                                DashboardAggregateStore.WBS_TASK_SECTIONS)))
                 .doOnSuccess(v -> log.info("Deleted WBS item: {}", itemId));
     }
 
@@ -279,6 +294,8 @@ public class ReactiveWbsService {
                             return taskRepository.save(task);
                         }))
                 .map(WbsTaskDto::from)
+                .flatMap(dto -> dashboardAggregateStore.markPhaseDirty(dto.getPhaseId(), DashboardAggregateStore.WBS_TASK_SECTIONS)
+                        .thenReturn(dto))
                 .doOnSuccess(dto -> log.info("Created WBS task: {} for item: {}", dto.getId(), itemId));
     }
 
@@ -305,6 +322,8 @@ public class ReactiveWbsService {
                     return taskRepository.save(task);
                 })
                 .map(WbsTaskDto::from)
+                .flatMap(dto -> dashboardAggregateStore.markPhaseDirty(dto.getPhaseId(), DashboardAggregateStore.WBS_TASK_SECTIONS)
+                        .thenReturn(dto))
                 .doOnSuccess(dto -> log.info("Updated WBS task: {}", taskId));
     }
 
@@ -312,7 +331,9 @@ public class ReactiveWbsService {
     public Mono<Void> deleteTask(String taskId) {
         return taskRepository.findById(taskId)
                 .switchIfEmpty(Mono.error(CustomException.notFound("WBS Task not found: " + taskId)))
-                .flatMap(task -> taskRepository.deleteById(taskId))
+                .flatMap(task -> taskRepository.deleteById(taskId)
+                        .then(dashboardAggregateStore.markPhaseDirty(task.getPhaseId(),
+                                DashboardAggregateStore.WBS_TASK_SECTIONS)))
                 .doOnSuccess(v -> log.info("Deleted WBS task: {}", taskId));
     }
 }
@@ -1,21 +1,24 @@
 package com.insuretech.pms.project.service;
 
+import com.insuretech.pms.common.cache.ProjectCaches;
 import com.insuretech.pms.common.exception.CustomException;
+import com.insuretech.pms.pmo.service.PortfolioHealthStore;
 import com.insuretech.pms.project.dto.CreateWbsSnapshotRequest;
 import com.insuretech.pms.project.dto.WbsSnapshotDto;
 import com.insuretech.pms.project.reactive.entity.*;
 import com.insuretech.pms.project.reactive.repository.*;
+import com.insuretech.pms.project.reactive.service.DashboardAggregateStore;
+import com.insuretech.pms.project.reactive.service.WbsSnapshotBulkWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.HashSet;
-import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -34,13 +37,15 @@ public class ReactiveWbsSnapshotService {
 
     private final ReactivePhaseRepository phaseRepository;
     private final ReactiveProjectRepository projectRepository;
-    private final ReactiveWbsGroupRepository wbsGroupRepository;
-    private final ReactiveWbsItemRepository wbsItemRepository;
-    private final ReactiveWbsTaskRepository wbsTaskRepository;
-    private final ReactiveWbsDependencyRepository wbsDependencyRepository;
+    private final WbsSnapshotBulkWriter snapshotBulkWriter;
+    private final TransactionalOperator transactionalOperator;
+    private final DashboardAggregateStore dashboardAggregateStore;
+    private final PortfolioHealthStore portfolioHealthStore;
+    private final ProjectCaches projectCaches;
 
     /**
-     * Create a snapshot of all WBS data for a phase
+     * Create a snapshot of all WBS data for a phase.
+     * Rows are copied set-based inside the transaction (see {@link WbsSnapshotBulkWriter}).
      */
     @Transactional
     public Mono<WbsSnapshotDto> createSnapshot(CreateWbsSnapshotRequest request) {
@@ -55,79 +60,12 @@ public class ReactiveWbsSnapshotService {
 
         return phaseRepository.findById(request.getPhaseId())
                 .switchIfEmpty(Mono.error(CustomException.notFound("Phase not found: " + request.getPhaseId())))
-                .flatMap(phase -> {
-                    // Capture groups
-                    Mono<Integer> groupCountMono = wbsGroupRepository.findByPhaseIdOrderByOrderNumAsc(phase.getId())
-                            .flatMap(group -> {
-                                R2dbcWbsGroupSnapshot snapshot = R2dbcWbsGroupSnapshot.fromEntity(group, snapshotId);
-                                snapshot.setId(UUID.randomUUID().toString());
-                                return groupSnapshotRepository.save(snapshot);
-                            })
-                            .count()
-                            .map(Long::intValue);
-
-                    // Capture items
-                    Mono<Integer> itemCountMono = wbsItemRepository.findByPhaseIdOrderByOrderNumAsc(phase.getId())
-                            .flatMap(item -> {
-                                R2dbcWbsItemSnapshot snapshot = R2dbcWbsItemSnapshot.fromEntity(item, snapshotId);
-                                snapshot.setId(UUID.randomUUID().toString());
-                                return itemSnapshotRepository.save(snapshot);
-                            })
-                            .count()
-                            .map(Long::intValue);
-
-                    // Capture tasks
-                    Mono<Integer> taskCountMono = wbsTaskRepository.findByPhaseIdOrderByOrderNumAsc(phase.getId())
-                            .flatMap(task -> {
-                                R2dbcWbsTaskSnapshot snapshot = R2dbcWbsTaskSnapshot.fromEntity(task, snapshotId);
-                                snapshot.setId(UUID.randomUUID().toString());
-                                return taskSnapshotRepository.save(snapshot);
-                            })
-                            .count()
-                            .map(Long::intValue);
-
-                    // Collect phase item IDs for filtering dependencies
-                    Mono<Set<String>> phaseItemIdsMono = Flux.concat(
-                            wbsGroupRepository.findByPhaseIdOrderByOrderNumAsc(phase.getId()).map(R2dbcWbsGroup::getId),
-                            wbsItemRepository.findByPhaseIdOrderByOrderNumAsc(phase.getId()).map(R2dbcWbsItem::getId),
-                            wbsTaskRepository.findByPhaseIdOrderByOrderNumAsc(phase.getId()).map(R2dbcWbsTask::getId)
-                    ).collect(HashSet::new, Set::add);
-
-                    // Capture dependencies
-                    Mono<Integer> depCountMono = phaseItemIdsMono.flatMap(phaseItemIds ->
-                            wbsDependencyRepository.findByProjectId(phase.getProjectId())
-                                    .filter(dep -> phaseItemIds.contains(dep.getPredecessorId()) || phaseItemIds.contains(dep.getSuccessorId()))
-                                    .flatMap(dep -> {
-                                        R2dbcWbsDependencySnapshot snapshot = R2dbcWbsDependencySnapshot.fromEntity(dep, snapshotId);
-                                        snapshot.setId(UUID.randomUUID().toString());
-                                        return dependencySnapshotRepository.save(snapshot);
-                                    })
-                                    .count()
-                                    .map(Long::intValue)
-                    );
-
-                    return Mono.zip(groupCountMono, itemCountMono, taskCountMono, depCountMono)
-                            .flatMap(tuple -> {
-                                R2dbcWbsSnapshot snapshot = R2dbcWbsSnapshot.builder()
-                                        .id(snapshotId)
-                                        .phaseId(phase.getId())
-                                        .projectId(phase.getProjectId())
-                                        .snapshotName(snapshotName)
-                                        .description(request.getDescription())
-                                        .snapshotType(snapshotType)
-                                        .groupCount(tuple.getT1())
-                                        .itemCount(tuple.getT2())
-                                        .taskCount(tuple.getT3())
-                                        .dependencyCount(tuple.getT4())
-                                        .status("ACTIVE")
-                                        .build();
-
-                                return snapshotRepository.save(snapshot)
-                                        .doOnSuccess(s -> log.info("Created WBS snapshot: {} for phase: {} with {} groups, {} items, {} tasks, {} dependencies",
-                                                snapshotId, phase.getId(), tuple.getT1(), tuple.getT2(), tuple.getT3(), tuple.getT4()))
-                                        .flatMap(savedSnapshot -> enrichWithNames(savedSnapshot));
-                            });
-                });
+                .flatMap(phase -> snapshotBulkWriter.capture(snapshotId, phase.getId(), phase.getProjectId(),
+                                snapshotName, request.getDescription(), snapshotType, null)
+                        .doOnSuccess(counts -> log.info("Created WBS snapshot: {} for phase: {} with {} groups, {} items, {} tasks, {} dependencies",
+                                snapshotId, phase.getId(), counts.groups(), counts.items(), counts.tasks(), counts.dependencies())))
+                .then(snapshotRepository.findById(snapshotId))
+                .flatMap(this::enrichWithNames);
     }
 
     /**
@@ -156,9 +94,10 @@ public class ReactiveWbsSnapshotService {
     }
 
     /**
-     * Restore WBS data from a snapshot
+     * Restore WBS data from a snapshot.
+     * Applied as a diff: only rows that were added, removed or changed since the snapshot are written.
+     * Cached project aggregates are retired once the restore has committed.
      */
-    @Transactional
     public Mono<Void> restoreSnapshot(String snapshotId, String username) {
         return snapshotRepository.findByIdAndStatus(snapshotId, "ACTIVE")
                 .switchIfEmpty(Mono.error(CustomException.notFound("Snapshot not found or not available for restore")))
@@ -166,114 +105,26 @@ public class ReactiveWbsSnapshotService {
                         .switchIfEmpty(Mono.error(CustomException.notFound("Phase not found: " + snapshot.getPhaseId())))
                         .flatMap(phase -> {
                             log.info("Starting WBS restore from snapshot: {} for phase: {}", snapshotId, phase.getId());
-
-                            // Delete current WBS data
-                            Mono<Void> deleteCurrentData = wbsTaskRepository.deleteByPhaseId(phase.getId())
-                                    .then(wbsItemRepository.deleteByPhaseId(phase.getId()))
-                                    .then(wbsGroupRepository.deleteByPhaseId(phase.getId()));
-
-                            // Restore groups
-                            Mono<Long> restoreGroups = groupSnapshotRepository.findBySnapshotIdOrderByOrderNumAsc(snapshotId)
-                                    .flatMap(gs -> {
-                                        R2dbcWbsGroup group = R2dbcWbsGroup.builder()
-                                                .id(gs.getOriginalId())
-                                                .phaseId(gs.getPhaseId())
-                                                .code(gs.getCode())
-                                                .name(gs.getName())
-                                                .description(gs.getDescription())
-                                                .status(gs.getStatus())
-                                                .progress(gs.getProgress())
-                                                .plannedStartDate(gs.getPlannedStartDate())
-                                                .plannedEndDate(gs.getPlannedEndDate())
-                                                .actualStartDate(gs.getActualStartDate())
-                                                .actualEndDate(gs.getActualEndDate())
-                                                .weight(gs.getWeight())
-                                                .orderNum(gs.getOrderNum())
-                                                .linkedEpicId(gs.getLinkedEpicId())
-                                                .build();
-                                        return wbsGroupRepository.save(group);
-                                    })
-                                    .count();
-
-                            // Restore items
-                            Mono<Long> restoreItems = itemSnapshotRepository.findBySnapshotIdOrderByOrderNumAsc(snapshotId)
-                                    .flatMap(is -> {
-                                        R2dbcWbsItem item = R2dbcWbsItem.builder()
-                                                .id(is.getOriginalId())
-                                                .groupId(is.getOriginalGroupId())
-                                                .phaseId(is.getPhaseId())
-                                                .code(is.getCode())
-                                                .name(is.getName())
-                                                .description(is.getDescription())
-                                                .status(is.getStatus())
-                                                .progress(is.getProgress())
-                                                .plannedStartDate(is.getPlannedStartDate())
-                                                .plannedEndDate(is.getPlannedEndDate())
-                                                .actualStartDate(is.getActualStartDate())
-                                                .actualEndDate(is.getActualEndDate())
-                                                .weight(is.getWeight())
-                                                .orderNum(is.getOrderNum())
-                                                .estimatedHours(is.getEstimatedHours())
-                                                .actualHours(is.getActualHours())
-                                                .assigneeId(is.getAssigneeId())
-                                                .build();
-                                        return wbsItemRepository.save(item);
-                                    })
-                                    .count();
-
-                            // Restore tasks
-                            Mono<Long> restoreTasks = taskSnapshotRepository.findBySnapshotIdOrderByOrderNumAsc(snapshotId)
-                                    .flatMap(ts -> {
-                                        R2dbcWbsTask task = R2dbcWbsTask.builder()
-                                                .id(ts.getOriginalId())
-                                                .itemId(ts.getOriginalItemId())
-                                                .groupId(ts.getOriginalGroupId())
-                                                .phaseId(ts.getPhaseId())
-                                                .code(ts.getCode())
-                                                .name(ts.getName())
-                                                .description(ts.getDescription())
-                                                .status(ts.getStatus())
-                                                .progress(ts.getProgress())
-                                                .weight(ts.getWeight())
-                                                .orderNum(ts.getOrderNum())
-                                                .estimatedHours(ts.getEstimatedHours())
-                                                .actualHours(ts.getActualHours())
-                                                .assigneeId(ts.getAssigneeId())
-                                                .linkedTaskId(ts.getLinkedTaskId())
-                                                .plannedStartDate(ts.getPlannedStartDate())
-                                                .plannedEndDate(ts.getPlannedEndDate())
-                                                .actualStartDate(ts.getActualStartDate())
-                                                .actualEndDate(ts.getActualEndDate())
-                                                .build();
-                                        return wbsTaskRepository.save(task);
-                                    })
-                                    .count();
-
-                            // Restore dependencies
-                            Mono<Long> restoreDeps = dependencySnapshotRepository.findBySnapshotId(snapshotId)
-                                    .flatMap(ds -> {
-                                        R2dbcWbsDependency dep = R2dbcWbsDependency.builder()
-                                                .id(ds.getOriginalId())
-                                                .predecessorType(ds.getPredecessorType())
-                                                .predecessorId(ds.getPredecessorId())
-                                                .successorType(ds.getSuccessorType())
-                                                .successorId(ds.getSuccessorId())
-                                                .dependencyType(ds.getDependencyType())
-                                                .lagDays(ds.getLagDays())
-                                                .projectId(ds.getProjectId())
-                                                .build();
-                                        return wbsDependencyRepository.save(dep);
-                                    })
-                                    .count();
-
-                            return deleteCurrentData
-                                    .then(restoreGroups)
-                                    .then(restoreItems)
-                                    .then(restoreTasks)
-                                    .then(restoreDeps)
+                            return snapshotBulkWriter.restore(snapshotId, phase.getId(), phase.getProjectId(), username)
                                     .then(snapshotRepository.markAsRestored(snapshotId, "RESTORED", username))
-                                    .doOnSuccess(v -> log.info("Restored WBS from snapshot: {}", snapshotId));
-                        }));
+                                    .thenReturn(phase.getProjectId());
+                        }))
+                .as(transactionalOperator::transactional)
+                .doOnNext(projectId -> {
+                    log.info("Restored WBS from snapshot: {}", snapshotId);
+                    markRestored(projectId);
+                })
+                .then();
+    }
+
+    /**
+     * WBS rows of the whole phase were rewritten: recompute dashboard sections and portfolio
+     * counters, and retire derived caches (chat answers, lineage graph).
+     */
+    private void markRestored(String projectId) {
+        dashboardAggregateStore.invalidateProject(projectId);
+        portfolioHealthStore.markDirty(projectId);
+        projectCaches.invalidateProject(projectId);
     }
 
     /**
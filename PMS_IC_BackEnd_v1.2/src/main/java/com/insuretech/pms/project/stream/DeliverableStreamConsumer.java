@@ -14,7 +14,6 @@ import org.springframework.data.redis.stream.StreamReceiver;
 import org.springframework.stereotype.Service;
 import reactor.core.Disposable;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import java.net.InetAddress;
 import java.nio.file.Path;
@@ -48,6 +47,9 @@ public class DeliverableStreamConsumer {
     @Value("${lineage.redis.stream.poll-timeout:2000}")
     private long pollTimeoutMs;
 
+    @Value("${rag.indexing.max-concurrent-documents:4}")
+    private int maxConcurrentDocuments;
+
     @Value("${pms.storage.deliverables:uploads/deliverables}")
     private String deliverableStoragePath;
 
@@ -132,8 +134,7 @@ public class DeliverableStreamConsumer {
                         .onErrorResume(e -> {
                             log.error("Error processing record {}: {}", record.getId(), e.getMessage());
                             return Mono.empty();
-                        }))
-                .subscribeOn(Schedulers.boundedElastic())
+                        }), maxConcurrentDocuments)
                 .subscribe();
     }
 
@@ -145,8 +146,7 @@ public class DeliverableStreamConsumer {
         log.info("Processing stream event: {} type: {} for deliverable: {}",
                 event.getEventId(), event.getEventType(), event.getDeliverableId());
 
-        return Mono.fromCallable(() -> processEventSync(event))
-                .subscribeOn(Schedulers.boundedElastic())
+        return handleEvent(event)
                 .flatMap(success -> {
                     if (success) {
                         return outboxService.markEventProcessed(event.getEventId(), event.getRagDocId())
@@ -177,9 +177,9 @@ public class DeliverableStreamConsumer {
     }
 
     /**
-     * Synchronous event processing logic.
+     * Event processing logic.
      */
-    private boolean processEventSync(DeliverableStreamEvent event) {
+    private Mono<Boolean> handleEvent(DeliverableStreamEvent event) {
         try {
             Map<String, Object> payload = parsePayload(event.getPayload());
 
@@ -196,20 +196,20 @@ public class DeliverableStreamConsumer {
                         handleApprovalEvent(deliverableId, ragDocId, payload);
                 default -> {
                     log.warn("Unknown event type: {}", eventType);
-                    yield false;
+                    yield Mono.just(false);
                 }
             };
         } catch (Exception e) {
-            log.error("Error processing event sync: {}", event.getEventId(), e);
-            return false;
+            log.error("Error processing event: {}", event.getEventId(), e);
+            return Mono.just(false);
         }
     }
 
-    private boolean handleUploadEvent(String deliverableId, String ragDocId, Map<String, Object> payload) {
+    private Mono<Boolean> handleUploadEvent(String deliverableId, String ragDocId, Map<String, Object> payload) {
         String fileName = (String) payload.get("file_name");
         if (fileName == null) {
             log.error("No file_name in payload for deliverable: {}", deliverableId);
-            return false;
+            return Mono.just(false);
         }
 
         Path filePath = Paths.get(deliverableStoragePath, deliverableId, fileName);
@@ -227,12 +227,12 @@ public class DeliverableStreamConsumer {
         return ragIndexingService.indexFile(ragDocId, filePath, metadata);
     }
 
-    private boolean handleDeleteEvent(String ragDocId) {
+    private Mono<Boolean> handleDeleteEvent(String ragDocId) {
         log.info("Deleting document from RAG via stream: {}", ragDocId);
         return ragIndexingService.deleteDocument(ragDocId);
     }
 
-    private boolean handleApprovalEvent(String deliverableId, String ragDocId, Map<String, Object> payload) {
+    private Mono<Boolean> handleApprovalEvent(String deliverableId, String ragDocId, Map<String, Object> payload) {
         log.info("Processing approval event via stream for: {}", ragDocId);
 
         Map<String, Object> metadataUpdate = new HashMap<>();
@@ -243,7 +243,7 @@ public class DeliverableStreamConsumer {
 
         if (metadataUpdate.isEmpty()) {
             log.warn("No metadata to update for approval event: {}", ragDocId);
-            return true;
+            return Mono.just(true);
         }
 
         return ragIndexingService.updateDocumentMetadata(ragDocId, metadataUpdate);
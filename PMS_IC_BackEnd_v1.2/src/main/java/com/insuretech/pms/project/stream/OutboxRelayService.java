@@ -1,38 +1,49 @@
 package com.insuretech.pms.project.stream;
 
+import com.insuretech.pms.common.outbox.OutboxEngine;
+import com.insuretech.pms.common.outbox.OutboxHandler;
+import com.insuretech.pms.common.outbox.OutboxSource;
 import com.insuretech.pms.project.reactive.entity.R2dbcDeliverableOutbox;
 import com.insuretech.pms.project.reactive.repository.ReactiveDeliverableOutboxRepository;
-import com.insuretech.pms.project.service.DeliverableOutboxService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Service that relays outbox events to Redis Streams.
  *
  * This implements the "relay" part of the Transactional Outbox Pattern:
- * 1. Polls the outbox table for pending events
+ * 1. Leases pending events from the outbox table through {@link OutboxEngine}
  * 2. Publishes them to Redis Streams
  * 3. Marks them as relayed in the outbox table
  *
- * The actual processing is done by DeliverableStreamConsumer.
+ * The actual processing is done by DeliverableStreamConsumer. The direct RAG poller
+ * reads the same table; the lease guarantees each event goes to only one of them.
  */
 @Slf4j
 @Service
-public class OutboxRelayService {
+public class OutboxRelayService implements OutboxHandler<R2dbcDeliverableOutbox> {
+
+    private static final OutboxSource<R2dbcDeliverableOutbox> SOURCE = new OutboxSource<>(
+            "deliverable-relay",
+            "project.deliverable_outbox",
+            R2dbcDeliverableOutbox.class,
+            "status = 'PENDING'",
+            R2dbcDeliverableOutbox::getId
+    );
 
-    private final DeliverableOutboxService outboxService;
     private final ReactiveDeliverableOutboxRepository outboxRepository;
     private final DeliverableStreamPublisher streamPublisher;
+    private final OutboxEngine outboxEngine;
 
     @Value("${lineage.redis.stream.enabled:true}")
     private boolean streamEnabled;
@@ -40,17 +51,19 @@ public class OutboxRelayService {
     @Value("${lineage.redis.stream.relay-batch-size:50}")
     private int relayBatchSize;
 
-    private final AtomicBoolean isRelaying = new AtomicBoolean(false);
+    @Value("${lineage.redis.stream.relay-concurrency:8}")
+    private int relayConcurrency;
+
     private final AtomicLong totalRelayed = new AtomicLong(0);
 
     public OutboxRelayService(
-            DeliverableOutboxService outboxService,
             ReactiveDeliverableOutboxRepository outboxRepository,
-            DeliverableStreamPublisher streamPublisher
+            DeliverableStreamPublisher streamPublisher,
+            OutboxEngine outboxEngine
     ) {
-        this.outboxService = outboxService;
         this.outboxRepository = outboxRepository;
         this.streamPublisher = streamPublisher;
+        this.outboxEngine = outboxEngine;
     }
 
     /**
@@ -59,39 +72,41 @@ public class OutboxRelayService {
      */
     @Scheduled(fixedDelayString = "${lineage.redis.stream.relay-interval:3000}")
     public void relayPendingEvents() {
-        if (!streamEnabled) {
-            return;
-        }
+        outboxEngine.poll(this);
+    }
 
-        if (!isRelaying.compareAndSet(false, true)) {
-            log.debug("Relay is already in progress, skipping this cycle");
-            return;
-        }
+    @Override
+    public OutboxSource<R2dbcDeliverableOutbox> source() {
+        return SOURCE;
+    }
 
-        try {
-            log.debug("Starting outbox relay cycle");
-
-            outboxService.getPendingEvents(relayBatchSize)
-                    .flatMap(this::relayEvent)
-                    .count()
-                    .doOnSuccess(count -> {
-                        if (count > 0) {
-                            totalRelayed.addAndGet(count);
-                            log.info("Relayed {} events to Redis Streams (total: {})", count, totalRelayed.get());
-                        }
-                    })
-                    .doOnError(e -> log.error("Error in relay cycle", e))
-                    .doFinally(signal -> {
-                        isRelaying.set(false);
-                        log.debug("Completed outbox relay cycle");
-                    })
-                    .subscribeOn(Schedulers.boundedElastic())
-                    .subscribe();
+    @Override
+    public boolean enabled() {
+        return streamEnabled;
+    }
 
-        } catch (Exception e) {
-            log.error("Fatal error in relay cycle", e);
-            isRelaying.set(false);
-        }
+    @Override
+    public int leaseBatchSize() {
+        return relayBatchSize;
+    }
+
+    @Override
+    public int concurrency() {
+        return relayConcurrency;
+    }
+
+    @Override
+    public Mono<Void> handle(List<R2dbcDeliverableOutbox> events) {
+        return Flux.fromIterable(events)
+                .concatMap(this::relayEvent)
+                .count()
+                .doOnNext(count -> {
+                    if (count > 0) {
+                        long total = totalRelayed.addAndGet(count);
+                        log.debug("Relayed {} events to Redis Streams (total: {})", count, total);
+                    }
+                })
+                .then();
     }
 
     /**
@@ -126,9 +141,7 @@ public class OutboxRelayService {
             return Mono.just(0L);
         }
 
-        return outboxService.getPendingEvents(relayBatchSize)
-                .flatMap(this::relayEvent)
-                .count()
+        return outboxEngine.runOnce(this)
                 .doOnSuccess(count -> log.info("Manually relayed {} events", count));
     }
 
@@ -136,9 +149,8 @@ public class OutboxRelayService {
      * Get relay service status.
      */
     public Map<String, Object> getStatus() {
-        Map<String, Object> status = new HashMap<>();
+        Map<String, Object> status = new HashMap<>(outboxEngine.status(this));
         status.put("enabled", streamEnabled);
-        status.put("relaying", isRelaying.get());
         status.put("batchSize", relayBatchSize);
         status.put("totalRelayed", totalRelayed.get());
 
@@ -2,56 +2,114 @@ package com.insuretech.pms.rag.service;
 
 import com.insuretech.pms.common.security.RoleAccessLevel;
 import com.insuretech.pms.project.reactive.entity.R2dbcProjectMember.ProjectRole;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.Loader;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
 import org.apache.poi.xslf.usermodel.XMLSlideShow;
 import org.apache.poi.xslf.usermodel.XSLFShape;
 import org.apache.poi.xslf.usermodel.XSLFSlide;
 import org.apache.poi.xslf.usermodel.XSLFTextShape;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
-import org.apache.poi.xwpf.usermodel.XWPFParagraph;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
 
 /**
  * RAG 문서 인덱싱 서비스
  * 업로드된 파일을 LLM 서비스의 벡터 DB에 인덱싱
+ *
+ * Text is extracted lazily in segments (PDF page ranges, one spreadsheet sheet at a
+ * time, groups of paragraphs/slides/lines) on a bounded extraction pool, and segments
+ * are appended one at a time to /api/documents/{id}/segments. Each call returns the
+ * chunk offset for the next one, so the chunks of all segments form one ordered
+ * sequence, and a large file never needs to be held in memory or sent in one request.
+ * Back-pressure from the HTTP side limits how far extraction runs ahead.
+ *
+ * A file is indexed under a staging id and promoted over the previous version only
+ * after every segment is accepted; a failed run discards the staging document and
+ * leaves the previous version in place.
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class RAGIndexingService {
 
-    private final RestTemplate restTemplate;
+    private static final String STAGING_SEPARATOR = ":staging:";
+
+    // Segments extracted ahead of the one being posted
+    private static final int SEGMENT_PREFETCH = 2;
+
+    private final WebClient.Builder webClientBuilder;
 
     @Value("${ai.service.url:http://localhost:8000}")
     private String llmServiceUrl;
 
+    @Value("${rag.indexing.extract-parallelism:4}")
+    private int extractParallelism;
+
+    @Value("${rag.indexing.segment-chars:20000}")
+    private int segmentChars;
+
+    @Value("${rag.indexing.pdf-pages-per-segment:10}")
+    private int pdfPagesPerSegment;
+
+    @Value("${rag.indexing.request-timeout-seconds:120}")
+    private long requestTimeoutSeconds;
+
+    private WebClient webClient;
+    private Scheduler extractScheduler;
+
+    @PostConstruct
+    public void init() {
+        webClient = webClientBuilder.baseUrl(llmServiceUrl).build();
+        extractScheduler = Schedulers.newBoundedElastic(extractParallelism, 1000, "rag-extract");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        extractScheduler.dispose();
+    }
+
     /**
      * Index file to RAG system (legacy method for backward compatibility)
      */
-    public boolean indexFile(String documentId, Path filePath, Map<String, String> metadata) {
+    public Mono<Boolean> indexFile(String documentId, Path filePath, Map<String, String> metadata) {
         return indexFile(documentId, filePath, metadata, null, null, null);
     }
 
     /**
-     * Index file to RAG system with project partitioning and access control
+     * Index file to RAG system with project partitioning and access control.
+     * The file is indexed under a staging id and replaces any previous version only once
+     * every segment is accepted, so a failed re-index leaves the previous version intact.
      *
      * @param documentId       Unique document identifier
      * @param filePath         Path to the file
@@ -60,7 +118,7 @@ public class RAGIndexingService {
      * @param uploadedByUserId User ID who uploaded the file
      * @param uploadedByRole   Role of the uploader (determines access level)
      */
-    public boolean indexFile(
+    public Mono<Boolean> indexFile(
             String documentId,
             Path filePath,
             Map<String, String> metadata,
@@ -68,40 +126,51 @@ public class RAGIndexingService {
             String uploadedByUserId,
             ProjectRole uploadedByRole
     ) {
-        try {
-            String content = extractTextFromFile(filePath);
-
-            if (content == null || content.trim().isEmpty()) {
-                log.warn("No text extracted from file: {}", filePath);
-                return false;
-            }
+        // Build metadata with access control info
+        Map<String, String> enrichedMetadata = new HashMap<>(metadata != null ? metadata : new HashMap<>());
 
-            // Build metadata with access control info
-            Map<String, String> enrichedMetadata = new HashMap<>(metadata != null ? metadata : new HashMap<>());
-
-            if (projectId != null) {
-                enrichedMetadata.put("project_id", projectId);
-            }
-            if (uploadedByUserId != null) {
-                enrichedMetadata.put("uploaded_by_user_id", uploadedByUserId);
-            }
-            if (uploadedByRole != null) {
-                enrichedMetadata.put("uploaded_by_role", uploadedByRole.name());
-                enrichedMetadata.put("access_level", String.valueOf(RoleAccessLevel.getLevel(uploadedByRole)));
-            }
-
-            return indexDocument(documentId, content, enrichedMetadata);
-
-        } catch (Exception e) {
-            log.error("Failed to index file: {}", filePath, e);
-            return false;
+        if (projectId != null) {
+            enrichedMetadata.put("project_id", projectId);
         }
+        if (uploadedByUserId != null) {
+            enrichedMetadata.put("uploaded_by_user_id", uploadedByUserId);
+        }
+        if (uploadedByRole != null) {
+            enrichedMetadata.put("uploaded_by_role", uploadedByRole.name());
+            enrichedMetadata.put("access_level", String.valueOf(RoleAccessLevel.getLevel(uploadedByRole)));
+        }
+
+        long start = System.nanoTime();
+        String stagingId = documentId + STAGING_SEPARATOR + UUID.randomUUID();
+        return Flux.defer(() -> {
+                    long[] chunkOffset = {0};
+                    return extractSegments(filePath)
+                            .filter(segment -> !segment.isBlank())
+                            .index()
+                            .concatMap(segment -> appendSegment(stagingId, segment, chunkOffset[0], enrichedMetadata)
+                                    .doOnNext(next -> chunkOffset[0] = next), SEGMENT_PREFETCH);
+                })
+                .count()
+                .flatMap(segments -> {
+                    if (segments == 0) {
+                        log.warn("No text extracted from file: {}", filePath);
+                        return Mono.just(false);
+                    }
+                    return promote(stagingId, documentId)
+                            .doOnSuccess(v -> log.info("Document indexed: {} ({} segments in {}ms)", documentId,
+                                    segments, (System.nanoTime() - start) / 1_000_000))
+                            .thenReturn(true);
+                })
+                .onErrorResume(e -> {
+                    log.error("Failed to index file: {}", filePath, e);
+                    return discard(stagingId).thenReturn(false);
+                });
     }
 
     /**
-     * Extract text from file based on file extension
+     * Extract text from file based on file extension, as a lazy sequence of segments
      */
-    private String extractTextFromFile(Path filePath) throws IOException {
+    private Flux<String> extractSegments(Path filePath) {
         String fileName = filePath.getFileName().toString().toLowerCase();
 
         if (fileName.endsWith(".pdf")) {
@@ -113,19 +182,43 @@ public class RAGIndexingService {
         } else if (fileName.endsWith(".pptx") || fileName.endsWith(".ppt")) {
             return extractFromPowerPoint(filePath);
         } else if (fileName.endsWith(".txt") || fileName.endsWith(".md") || fileName.endsWith(".csv")) {
-            return Files.readString(filePath);
+            return toSegments(Flux.using(
+                    () -> Files.lines(filePath),
+                    lines -> Flux.fromStream(lines.map(line -> line + "\n")),
+                    java.util.stream.Stream::close))
+                    .subscribeOn(extractScheduler);
         } else {
             log.warn("Unsupported file type: {}", fileName);
-            return null;
+            return Flux.empty();
         }
     }
 
     /**
      * PDF에서 텍스트 추출
+     * Page ranges are extracted in parallel, each worker with its own document handle
+     * (PDDocument is not thread-safe), and emitted in page order.
      */
-    private String extractFromPdf(Path filePath) throws IOException {
-        try (PDDocument document = org.apache.pdfbox.Loader.loadPDF(filePath.toFile())) {
+    private Flux<String> extractFromPdf(Path filePath) {
+        int pagesPerSegment = Math.max(1, pdfPagesPerSegment);
+        return Mono.fromCallable(() -> {
+                    try (PDDocument document = Loader.loadPDF(filePath.toFile())) {
+                        return document.getNumberOfPages();
+                    }
+                })
+                .subscribeOn(extractScheduler)
+                .flatMapMany(pages -> Flux.range(0, (pages + pagesPerSegment - 1) / pagesPerSegment)
+                        .flatMapSequential(range -> Mono.fromCallable(() -> extractPdfPages(filePath,
+                                                range * pagesPerSegment + 1,
+                                                Math.min(pages, (range + 1) * pagesPerSegment)))
+                                        .subscribeOn(extractScheduler),
+                                Math.max(1, extractParallelism)));
+    }
+
+    private String extractPdfPages(Path filePath, int startPage, int endPage) throws IOException {
+        try (PDDocument document = Loader.loadPDF(filePath.toFile())) {
             PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setStartPage(startPage);
+            stripper.setEndPage(endPage);
             return stripper.getText(document);
         }
     }
@@ -133,178 +226,243 @@ public class RAGIndexingService {
     /**
      * Extract text from Word document (.docx)
      */
-    private String extractFromDocx(Path filePath) throws IOException {
-        try (FileInputStream fis = new FileInputStream(filePath.toFile());
-             XWPFDocument document = new XWPFDocument(fis)) {
-
-            StringBuilder text = new StringBuilder();
-            for (XWPFParagraph paragraph : document.getParagraphs()) {
-                text.append(paragraph.getText()).append("\n\n");
-            }
-            return text.toString();
-        }
+    private Flux<String> extractFromDocx(Path filePath) {
+        return toSegments(Flux.using(
+                () -> new XWPFDocument(new FileInputStream(filePath.toFile())),
+                document -> Flux.fromIterable(document.getParagraphs())
+                        .map(paragraph -> paragraph.getText() + "\n\n"),
+                this::closeQuietly))
+                .subscribeOn(extractScheduler);
     }
 
     /**
      * Extract text from Excel file (.xlsx, .xls)
+     * Sheets are read one at a time through the SAX event API, so only the text of the
+     * current sheet is held in memory.
      */
-    private String extractFromExcel(Path filePath) throws IOException {
-        try (FileInputStream fis = new FileInputStream(filePath.toFile());
-             XSSFWorkbook workbook = new XSSFWorkbook(fis)) {
-
-            StringBuilder text = new StringBuilder();
-
-            for (int i = 0; i < workbook.getNumberOfSheets(); i++) {
-                Sheet sheet = workbook.getSheetAt(i);
-                text.append("### Sheet: ").append(sheet.getSheetName()).append("\n\n");
-
-                for (Row row : sheet) {
-                    StringBuilder rowText = new StringBuilder();
-                    for (Cell cell : row) {
-                        String cellValue = getCellValueAsString(cell);
-                        if (!cellValue.isEmpty()) {
-                            if (rowText.length() > 0) {
-                                rowText.append("\t");
+    private Flux<String> extractFromExcel(Path filePath) {
+        return Flux.using(
+                        () -> OPCPackage.open(filePath.toFile(), PackageAccess.READ),
+                        pkg -> Flux.defer(() -> {
+                            try {
+                                XSSFReader reader = new XSSFReader(pkg);
+                                ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+                                StylesTable styles = reader.getStylesTable();
+                                XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+                                return Flux.<List<String>>generate(sink -> {
+                                    if (!sheets.hasNext()) {
+                                        sink.complete();
+                                        return;
+                                    }
+                                    try (InputStream sheet = sheets.next()) {
+                                        sink.next(extractSheet(sheet, sheets.getSheetName(), strings, styles));
+                                    } catch (Exception e) {
+                                        sink.error(e);
+                                    }
+                                });
+                            } catch (Exception e) {
+                                return Flux.error(e);
                             }
-                            rowText.append(cellValue);
-                        }
-                    }
-                    if (rowText.length() > 0) {
-                        text.append(rowText).append("\n");
-                    }
-                }
-                text.append("\n");
-            }
-            return text.toString();
-        }
+                        }),
+                        pkg -> pkg.revert())
+                .flatMapIterable(segments -> segments)
+                .subscribeOn(extractScheduler);
     }
 
-    /**
-     * Get cell value as string regardless of cell type
-     */
-    private String getCellValueAsString(Cell cell) {
-        if (cell == null) {
-            return "";
-        }
-        return switch (cell.getCellType()) {
-            case STRING -> cell.getStringCellValue();
-            case NUMERIC -> {
-                if (org.apache.poi.ss.usermodel.DateUtil.isCellDateFormatted(cell)) {
-                    yield cell.getLocalDateTimeCellValue().toString();
+    private List<String> extractSheet(InputStream sheet, String sheetName,
+                                      ReadOnlySharedStringsTable strings, StylesTable styles) throws Exception {
+        List<String> segments = new ArrayList<>();
+        StringBuilder text = new StringBuilder("### Sheet: ").append(sheetName).append("\n\n");
+
+        XSSFSheetXMLHandler.SheetContentsHandler handler = new XSSFSheetXMLHandler.SheetContentsHandler() {
+            private final StringBuilder rowText = new StringBuilder();
+
+            @Override
+            public void startRow(int rowNum) {
+                rowText.setLength(0);
+            }
+
+            @Override
+            public void endRow(int rowNum) {
+                if (rowText.length() > 0) {
+                    text.append(rowText).append("\n");
+                }
+                if (text.length() >= segmentChars) {
+                    segments.add(text.toString());
+                    text.setLength(0);
                 }
-                yield String.valueOf(cell.getNumericCellValue());
             }
-            case BOOLEAN -> String.valueOf(cell.getBooleanCellValue());
-            case FORMULA -> {
-                try {
-                    yield cell.getStringCellValue();
-                } catch (Exception e) {
-                    yield String.valueOf(cell.getNumericCellValue());
+
+            @Override
+            public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+                if (formattedValue == null || formattedValue.isEmpty()) {
+                    return;
+                }
+                if (rowText.length() > 0) {
+                    rowText.append("\t");
                 }
+                rowText.append(formattedValue);
             }
-            default -> "";
         };
+
+        XMLReader parser = XMLHelper.newXMLReader();
+        parser.setContentHandler(new XSSFSheetXMLHandler(styles, null, strings, handler, new DataFormatter(), false));
+        parser.parse(new InputSource(sheet));
+
+        if (text.length() > 0) {
+            segments.add(text.append("\n").toString());
+        }
+        return segments;
     }
 
     /**
      * Extract text from PowerPoint file (.pptx, .ppt)
      */
-    private String extractFromPowerPoint(Path filePath) throws IOException {
-        try (FileInputStream fis = new FileInputStream(filePath.toFile());
-             XMLSlideShow ppt = new XMLSlideShow(fis)) {
-
-            StringBuilder text = new StringBuilder();
-            int slideNum = 1;
-
-            for (XSLFSlide slide : ppt.getSlides()) {
-                text.append("### Slide ").append(slideNum++).append("\n\n");
+    private Flux<String> extractFromPowerPoint(Path filePath) {
+        return toSegments(Flux.using(
+                () -> new XMLSlideShow(new FileInputStream(filePath.toFile())),
+                ppt -> Flux.fromIterable(ppt.getSlides())
+                        .index()
+                        .map(indexed -> slideText(indexed.getT1() + 1, indexed.getT2())),
+                this::closeQuietly))
+                .subscribeOn(extractScheduler);
+    }
 
-                for (XSLFShape shape : slide.getShapes()) {
-                    if (shape instanceof XSLFTextShape textShape) {
-                        String shapeText = textShape.getText();
-                        if (shapeText != null && !shapeText.trim().isEmpty()) {
-                            text.append(shapeText.trim()).append("\n\n");
-                        }
-                    }
+    private String slideText(long slideNum, XSLFSlide slide) {
+        StringBuilder text = new StringBuilder("### Slide ").append(slideNum).append("\n\n");
+        for (XSLFShape shape : slide.getShapes()) {
+            if (shape instanceof XSLFTextShape textShape) {
+                String shapeText = textShape.getText();
+                if (shapeText != null && !shapeText.trim().isEmpty()) {
+                    text.append(shapeText.trim()).append("\n\n");
                 }
             }
-            return text.toString();
         }
+        return text.toString();
     }
 
     /**
-     * LLM 서비스에 문서 인덱싱 요청
+     * Group consecutive pieces of text into segments of roughly segmentChars characters.
      */
-    private boolean indexDocument(String documentId, String content, Map<String, String> metadata) {
-        try {
-            String url = llmServiceUrl + "/api/documents";
-
-            // 요청 바디 구성
-            Map<String, Object> document = new HashMap<>();
-            document.put("id", documentId);
-            document.put("content", content);
-            document.put("metadata", metadata != null ? metadata : new HashMap<>());
-
-            List<Map<String, Object>> documents = List.of(document);
-
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("documents", documents);
-
-            // HTTP 요청
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody, headers);
-
-            @SuppressWarnings("unchecked")
-            Map<String, Object> response = restTemplate.postForObject(url, request, Map.class);
-
-            if (response != null && response.containsKey("success_count")) {
-                Integer successCount = (Integer) response.get("success_count");
-                log.info("Document indexed successfully: {} (success_count={})", documentId, successCount);
-                return successCount != null && successCount > 0;
-            }
-
-            return false;
+    private Flux<String> toSegments(Flux<String> pieces) {
+        return Flux.defer(() -> {
+            int[] size = {0};
+            return pieces.bufferUntil(piece -> {
+                        size[0] += piece.length();
+                        if (size[0] >= segmentChars) {
+                            size[0] = 0;
+                            return true;
+                        }
+                        return false;
+                    })
+                    .map(group -> String.join("", group));
+        });
+    }
 
+    private void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
         } catch (Exception e) {
-            log.error("Failed to index document to LLM service: {}", documentId, e);
-            return false;
+            log.debug("Failed to close document: {}", e.getMessage());
         }
     }
 
     /**
-     * 문서 삭제
+     * LLM 서비스에 문서 세그먼트 인덱싱 요청
+     * Appends one segment at the given chunk offset and returns the offset for the next.
      */
-    public boolean deleteDocument(String documentId) {
-        try {
-            String url = llmServiceUrl + "/api/documents/" + documentId;
-            restTemplate.delete(url);
-            log.info("Document deleted from RAG: {}", documentId);
-            return true;
-
-        } catch (Exception e) {
-            log.error("Failed to delete document from RAG: {}", documentId, e);
-            return false;
-        }
+    private Mono<Long> appendSegment(String stagingId, Tuple2<Long, String> segment, long chunkOffset,
+                                     Map<String, String> metadata) {
+        Map<String, String> segmentMetadata = new HashMap<>(metadata);
+        segmentMetadata.put("segment_index", String.valueOf(segment.getT1()));
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("content", segment.getT2());
+        body.put("metadata", segmentMetadata);
+        body.put("chunk_offset", chunkOffset);
+
+        return webClient.post()
+                .uri("/api/documents/{id}/segments", stagingId)
+                .bodyValue(body)
+                .retrieve()
+                .bodyToMono(Map.class)
+                .timeout(Duration.ofSeconds(requestTimeoutSeconds))
+                .map(response -> {
+                    Object next = response.get("next_chunk_offset");
+                    if (!(next instanceof Number n)) {
+                        throw new IllegalStateException("Segment " + segment.getT1() + " of " + stagingId
+                                + " was not indexed");
+                    }
+                    log.debug("Indexed segment {} of {} (next chunk offset {})", segment.getT1(), stagingId, n);
+                    return n.longValue();
+                });
     }
 
     /**
-     * RAG 통계 조회
+     * Replace the previous version with the fully indexed staging document.
      */
-    public Map<String, Object> getStats() {
-        try {
-            String url = llmServiceUrl + "/api/documents/stats";
+    private Mono<Void> promote(String stagingId, String documentId) {
+        return webClient.post()
+                .uri("/api/documents/{id}/promote", stagingId)
+                .bodyValue(Map.of("target_id", documentId))
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(Duration.ofSeconds(requestTimeoutSeconds))
+                .then();
+    }
 
-            @SuppressWarnings("unchecked")
-            Map<String, Object> stats = restTemplate.getForObject(url, Map.class);
+    /**
+     * Drop a staging document left by a failed run; a missing one is not an error.
+     */
+    private Mono<Void> discard(String stagingId) {
+        return webClient.delete()
+                .uri("/api/documents/{id}", stagingId)
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(Duration.ofSeconds(requestTimeoutSeconds))
+                .onErrorResume(e -> {
+                    if (!(e instanceof WebClientResponseException.NotFound)) {
+                        log.warn("Failed to discard staging document {}: {}", stagingId, e.getMessage());
+                    }
+                    return Mono.empty();
+                })
+                .then();
+    }
 
-            return stats != null ? stats : Collections.emptyMap();
+    /**
+     * 문서 삭제
+     */
+    public Mono<Boolean> deleteDocument(String documentId) {
+        return webClient.delete()
+                .uri("/api/documents/{id}", documentId)
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(Duration.ofSeconds(requestTimeoutSeconds))
+                .map(response -> {
+                    log.info("Document deleted from RAG: {}", documentId);
+                    return true;
+                })
+                .onErrorResume(e -> {
+                    log.error("Failed to delete document from RAG: {}", documentId, e);
+                    return Mono.just(false);
+                });
+    }
 
-        } catch (Exception e) {
-            log.error("Failed to get RAG stats", e);
-            return Collections.emptyMap();
-        }
+    /**
+     * RAG 통계 조회
+     */
+    @SuppressWarnings("unchecked")
+    public Mono<Map<String, Object>> getStats() {
+        return webClient.get()
+                .uri("/api/documents/stats")
+                .retrieve()
+                .bodyToMono(Map.class)
+                .timeout(Duration.ofSeconds(requestTimeoutSeconds))
+                .map(stats -> (Map<String, Object>) stats)
+                .onErrorResume(e -> {
+                    log.error("Failed to get RAG stats", e);
+                    return Mono.just(Collections.emptyMap());
+                });
     }
 
     /**
@@ -313,23 +471,20 @@ public class RAGIndexingService {
      * @param documentId Document ID to check
      * @return true if exists, false otherwise
      */
-    public boolean documentExists(String documentId) {
-        try {
-            String url = llmServiceUrl + "/api/documents/" + documentId;
-
-            @SuppressWarnings("unchecked")
-            Map<String, Object> response = restTemplate.getForObject(url, Map.class);
-
-            return response != null && Boolean.TRUE.equals(response.get("exists"));
-
-        } catch (Exception e) {
-            // 404 means document doesn't exist
-            if (e.getMessage() != null && e.getMessage().contains("404")) {
-                return false;
-            }
-            log.error("Failed to check document existence: {}", documentId, e);
-            return false;
-        }
+    public Mono<Boolean> documentExists(String documentId) {
+        return webClient.get()
+                .uri("/api/documents/{id}", documentId)
+                .retrieve()
+                .bodyToMono(Map.class)
+                .timeout(Duration.ofSeconds(requestTimeoutSeconds))
+                .map(response -> Boolean.TRUE.equals(response.get("exists")))
+                .onErrorResume(e -> {
+                    // 404 means document doesn't exist
+                    if (!(e instanceof WebClientResponseException.NotFound)) {
+                        log.error("Failed to check document existence: {}", documentId, e);
+                    }
+                    return Mono.just(false);
+                });
     }
 
     /**
@@ -339,29 +494,20 @@ public class RAGIndexingService {
      * @param metadata   Metadata to update (status, approver, approved_at, access_level, etc.)
      * @return true if successful, false otherwise
      */
-    public boolean updateDocumentMetadata(String documentId, Map<String, Object> metadata) {
-        try {
-            String url = llmServiceUrl + "/api/documents/" + documentId + "/metadata";
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(metadata, headers);
-
-            // Use exchange with PATCH method
-            restTemplate.exchange(
-                    url,
-                    org.springframework.http.HttpMethod.PATCH,
-                    request,
-                    Map.class
-            );
-
-            log.info("Document metadata updated successfully: {}", documentId);
-            return true;
-
-        } catch (Exception e) {
-            log.error("Failed to update document metadata: {}", documentId, e);
-            return false;
-        }
+    public Mono<Boolean> updateDocumentMetadata(String documentId, Map<String, Object> metadata) {
+        return webClient.patch()
+                .uri("/api/documents/{id}/metadata", documentId)
+                .bodyValue(metadata)
+                .retrieve()
+                .toBodilessEntity()
+                .timeout(Duration.ofSeconds(requestTimeoutSeconds))
+                .map(response -> {
+                    log.info("Document metadata updated successfully: {}", documentId);
+                    return true;
+                })
+                .onErrorResume(e -> {
+                    log.error("Failed to update document metadata: {}", documentId, e);
+                    return Mono.just(false);
+                });
     }
 }
@@ -3,6 +3,7 @@ package com.insuretech.pms.report.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.insuretech.pms.common.exception.CustomException;
+import com.insuretech.pms.common.security.ReactiveProjectSecurityService;
 import com.insuretech.pms.report.dto.ReportDto;
 import com.insuretech.pms.report.dto.ReportGenerationRequest;
 import com.insuretech.pms.report.enums.GenerationMode;
@@ -13,25 +14,29 @@ import com.insuretech.pms.report.reactive.entity.R2dbcReport;
 import com.insuretech.pms.report.reactive.repository.ReactiveReportRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.publisher.Sinks;
 
 import java.time.LocalDate;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ReactiveReportService {
 
+    private static final String SYSTEM_ROLE = "SYSTEM";
+
     private final ReactiveReportRepository reportRepository;
     private final ObjectMapper objectMapper;
-
-    private final Map<UUID, Sinks.Many<ReportProgressEvent>> reportProgressSinks = new ConcurrentHashMap<>();
+    private final ReportGenerationEngine generationEngine;
+    private final ReactiveProjectSecurityService securityService;
 
     public Flux<ReportDto> getReportsByProject(String projectId) {
         return reportRepository.findByProjectIdOrderByCreatedAtDesc(projectId)
@@ -79,90 +84,30 @@ public class ReactiveReportService {
 
     /**
      * SSE streaming endpoint for report generation progress.
-     * Emits progress events during report generation.
+     * Emits progress events as the generation engine works through the report.
+     * The report is attributed to the caller with their project role, or their
+     * system role when they are not a member (e.g. PMO_HEAD, ADMIN).
      */
     public Flux<ReportProgressEvent> streamReportGeneration(String projectId, ReportGenerationRequest request) {
-        UUID reportId = UUID.randomUUID();
-        Sinks.Many<ReportProgressEvent> sink = Sinks.many().multicast().onBackpressureBuffer();
-        reportProgressSinks.put(reportId, sink);
-
-        // Start report generation asynchronously
-        generateReportAsync(reportId, projectId, request, sink)
-                .subscribe();
-
-        return sink.asFlux()
-                .doOnCancel(() -> {
-                    log.info("Report generation cancelled: {}", reportId);
-                    reportProgressSinks.remove(reportId);
-                })
-                .doOnComplete(() -> reportProgressSinks.remove(reportId));
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .flatMap(auth -> securityService.getProjectRole(projectId)
+                        .map(projectRole -> new Creator(auth.getName(), projectRole.orElseGet(() -> systemRole(auth)))))
+                .defaultIfEmpty(new Creator("system", SYSTEM_ROLE))
+                .flatMapMany(creator -> generationEngine.submit(projectId, request, creator.userId(), creator.role()))
+                .doOnCancel(() -> log.info("Report generation stream cancelled for project: {}", projectId));
     }
 
-    private Mono<Void> generateReportAsync(UUID reportId, String projectId,
-                                            ReportGenerationRequest request,
-                                            Sinks.Many<ReportProgressEvent> sink) {
-        return Mono.fromRunnable(() -> {
-            try {
-                // Phase 1: Initialize
-                emitProgress(sink, reportId, "INITIALIZING", 0, "Starting report generation...");
-
-                // Phase 2: Collect data
-                emitProgress(sink, reportId, "COLLECTING_DATA", 20, "Collecting project data...");
-
-                // Phase 3: Analyze
-                emitProgress(sink, reportId, "ANALYZING", 40, "Analyzing metrics...");
-
-                // Phase 4: Generate content
-                emitProgress(sink, reportId, "GENERATING", 60, "Generating report content...");
-
-                // Phase 5: Format
-                emitProgress(sink, reportId, "FORMATTING", 80, "Formatting report...");
-
-                // Create and save the report
-                R2dbcReport report = R2dbcReport.builder()
-                        .id(reportId)
-                        .projectId(projectId)
-                        .reportType(request.getReportType() != null ? request.getReportType().name() : "WEEKLY")
-                        .reportScope(request.getScope() != null ? request.getScope().name() : "PROJECT")
-                        .title(request.getCustomTitle())
-                        .periodStart(request.getPeriodStart())
-                        .periodEnd(request.getPeriodEnd())
-                        .creatorRole("PM")
-                        .generationMode("AUTO")
-                        .status("DRAFT")
-                        .content("{\"summary\": \"Auto-generated report\"}")
-                        .build();
-
-                reportRepository.save(report)
-                        .doOnSuccess(saved -> {
-                            emitProgress(sink, reportId, "COMPLETED", 100, "Report generation completed");
-                            sink.tryEmitComplete();
-                        })
-                        .doOnError(error -> {
-                            emitProgress(sink, reportId, "FAILED", -1, "Error: " + error.getMessage());
-                            sink.tryEmitError(error);
-                        })
-                        .subscribe();
-
-            } catch (Exception e) {
-                log.error("Report generation failed: {}", e.getMessage(), e);
-                emitProgress(sink, reportId, "FAILED", -1, "Error: " + e.getMessage());
-                sink.tryEmitError(e);
-            }
-        }).then();
+    private static String systemRole(Authentication auth) {
+        return auth.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(authority -> authority.startsWith("ROLE_"))
+                .map(authority -> authority.substring("ROLE_".length()))
+                .findFirst()
+                .orElse(SYSTEM_ROLE);
     }
 
-    private void emitProgress(Sinks.Many<ReportProgressEvent> sink, UUID reportId,
-                              String phase, int percentage, String message) {
-        ReportProgressEvent event = new ReportProgressEvent(reportId, phase, percentage, message);
-        sink.tryEmitNext(event);
-
-        // Small delay to simulate processing
-        try {
-            Thread.sleep(500);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+    private record Creator(String userId, String role) {
     }
 
     public Mono<Void> publishReport(UUID id) {
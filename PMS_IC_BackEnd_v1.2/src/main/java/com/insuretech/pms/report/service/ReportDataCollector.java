@@ -0,0 +1,162 @@
+package com.insuretech.pms.report.service;
+
+import com.insuretech.pms.project.reactive.entity.R2dbcKpi;
+import com.insuretech.pms.project.reactive.repository.ReactiveKpiRepository;
+import com.insuretech.pms.project.reactive.service.DashboardAggregateStore;
+import com.insuretech.pms.project.reactive.service.DashboardAggregateStore.Section;
+import com.insuretech.pms.project.reactive.service.ReactiveDashboardService;
+import com.insuretech.pms.report.dto.DashboardSection;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Collects the datasets a report needs, all queries in flight at once.
+ *
+ * Dashboard-backed datasets go through {@link DashboardAggregateStore}, so a report
+ * generated right after a dashboard view reuses its sections. Each dataset is
+ * emitted as soon as its query completes, which is what drives the progress the
+ * client sees. A failing or unknown dataset is emitted empty with a warning
+ * instead of failing the report.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReportDataCollector {
+
+    // Datasets the renderer always needs for header, metrics and snapshot
+    public static final String STATS = "stats";
+    public static final String KPIS = "kpis";
+
+    private static final int TASK_ROW_LIMIT = 200;
+
+    private final ReactiveDashboardService dashboardService;
+    private final DashboardAggregateStore aggregateStore;
+    private final ReactiveKpiRepository kpiRepository;
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Names of the datasets this collector can produce.
+     */
+    public Set<String> supportedDatasets() {
+        return loaders().keySet();
+    }
+
+    public Flux<Dataset> collect(ReportScopeParams scope, Set<String> datasets) {
+        Map<String, Function<ReportScopeParams, Mono<Object>>> loaders = loaders();
+        return Flux.fromIterable(datasets)
+                .flatMap(name -> {
+                    Function<ReportScopeParams, Mono<Object>> loader = loaders.get(name);
+                    if (loader == null) {
+                        return Mono.just(Dataset.missing(name, "No data source '" + name + "'"));
+                    }
+                    return loader.apply(scope)
+                            .map(value -> new Dataset(name, value, null))
+                            .defaultIfEmpty(Dataset.missing(name, null))
+                            .onErrorResume(e -> {
+                                log.warn("Report dataset {} failed for project {}: {}",
+                                        name, scope.projectId(), e.getMessage());
+                                return Mono.just(Dataset.missing(name, name + " query failed: " + e.getMessage()));
+                            });
+                }, Math.max(1, datasets.size()));
+    }
+
+    private Map<String, Function<ReportScopeParams, Mono<Object>>> loaders() {
+        Map<String, Function<ReportScopeParams, Mono<Object>>> loaders = new LinkedHashMap<>();
+        loaders.put(STATS, s -> section(s, Section.STATS, () -> dashboardService.getProjectStatsSection(s.projectId())));
+        loaders.put("phases.status", s -> section(s, Section.PHASE_PROGRESS, () -> dashboardService.getPhaseProgress(s.projectId())));
+        loaders.put("teams.performance", s -> section(s, Section.PART_STATS, () -> dashboardService.getPartStats(s.projectId())));
+        loaders.put("sprints.velocity", s -> section(s, Section.SPRINT_VELOCITY, () -> dashboardService.getSprintVelocity(s.projectId())));
+        loaders.put("sprints.burndown", s -> section(s, Section.BURNDOWN, () -> dashboardService.getActiveBurndown(s.projectId())));
+        loaders.put(KPIS, s -> kpiRepository.findByProjectId(s.projectId())
+                .map(ReportDataCollector::kpiRow)
+                .collectList()
+                .map(Object.class::cast));
+        loaders.put("issues.active", this::activeIssues);
+        loaders.put("tasks.completed", s -> tasks(s, "wt.status = 'COMPLETED' AND wt.actual_end_date BETWEEN :periodStart AND :periodEnd"));
+        loaders.put("tasks.inProgress", s -> tasks(s, "wt.status = 'IN_PROGRESS'"));
+        loaders.put("tasks.planned", s -> tasks(s, "wt.status = 'NOT_STARTED' AND wt.planned_start_date BETWEEN :periodEnd AND :nextPeriodEnd"));
+        return loaders;
+    }
+
+    private <T> Mono<Object> section(ReportScopeParams scope, Section section,
+                                     Supplier<Mono<DashboardSection<T>>> loader) {
+        return aggregateStore.get(scope.projectId(), section, loader)
+                .flatMap(s -> Mono.justOrEmpty((Object) s.getData()));
+    }
+
+    private Mono<Object> activeIssues(ReportScopeParams scope) {
+        return databaseClient.sql("""
+                        SELECT id, title, issue_type, priority, status, assignee, due_date
+                        FROM project.issues
+                        WHERE project_id = :projectId AND status IN ('OPEN', 'IN_PROGRESS')
+                        ORDER BY CASE priority WHEN 'CRITICAL' THEN 0 WHEN 'HIGH' THEN 1 WHEN 'MEDIUM' THEN 2 ELSE 3 END,
+                                 due_date NULLS LAST
+                        LIMIT :limit
+                        """)
+                .bind("projectId", scope.projectId())
+                .bind("limit", TASK_ROW_LIMIT)
+                .fetch().all()
+                .collectList()
+                .map(Object.class::cast);
+    }
+
+    private Mono<Object> tasks(ReportScopeParams scope, String condition) {
+        LocalDate nextPeriodEnd = scope.periodEnd().plusDays(
+                Math.max(1, scope.periodEnd().toEpochDay() - scope.periodStart().toEpochDay() + 1));
+        String sql = """
+                SELECT wt.id, wt.code, wt.name, wt.status, wt.progress, wt.assignee_id,
+                       wt.planned_start_date, wt.planned_end_date, wt.actual_end_date, ph.name AS phase_name
+                FROM project.wbs_tasks wt
+                JOIN project.phases ph ON wt.phase_id = ph.id
+                WHERE ph.project_id = :projectId
+                  AND %s%s
+                ORDER BY wt.planned_end_date NULLS LAST, wt.order_num
+                LIMIT :limit
+                """.formatted(condition, scope.phaseId() != null ? " AND wt.phase_id = :phaseId" : "");
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql)
+                .bind("projectId", scope.projectId())
+                .bind("limit", TASK_ROW_LIMIT);
+        if (scope.phaseId() != null) spec = spec.bind("phaseId", scope.phaseId());
+        if (sql.contains(":periodStart")) spec = spec.bind("periodStart", scope.periodStart());
+        if (sql.contains(":periodEnd")) spec = spec.bind("periodEnd", scope.periodEnd());
+        if (sql.contains(":nextPeriodEnd")) spec = spec.bind("nextPeriodEnd", nextPeriodEnd);
+        return spec.fetch().all().collectList().map(Object.class::cast);
+    }
+
+    private static Map<String, Object> kpiRow(R2dbcKpi kpi) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("name", kpi.getName());
+        row.put("category", kpi.getCategory());
+        row.put("target", kpi.getTarget());
+        row.put("current", kpi.getCurrent());
+        row.put("status", kpi.getStatus());
+        return row;
+    }
+
+    /**
+     * Project and period a report is generated for.
+     */
+    public record ReportScopeParams(String projectId, String phaseId, LocalDate periodStart, LocalDate periodEnd) {
+    }
+
+    /**
+     * One collected dataset; {@code value} is null when it could not be collected.
+     */
+    public record Dataset(String name, Object value, String warning) {
+        static Dataset missing(String name, String warning) {
+            return new Dataset(name, null, warning);
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.insuretech.pms.report.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insuretech.pms.common.exception.CustomException;
+import com.insuretech.pms.report.dto.ReportGenerationRequest;
+import com.insuretech.pms.report.reactive.entity.R2dbcReport;
+import com.insuretech.pms.report.reactive.entity.R2dbcReportTemplate;
+import com.insuretech.pms.report.reactive.repository.ReactiveReportTemplateRepository;
+import com.insuretech.pms.report.service.ReactiveReportService.ReportProgressEvent;
+import com.insuretech.pms.report.service.ReportDataCollector.Dataset;
+import com.insuretech.pms.report.service.ReportDataCollector.ReportScopeParams;
+import com.insuretech.pms.report.service.ReportSectionRenderer.SectionSpec;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Staged report generation with a per-node cap on concurrent jobs.
+ *
+ * A job resolves its template, collects the datasets its sections need in
+ * parallel ({@link ReportDataCollector}), renders the sections
+ * ({@link ReportSectionRenderer}) and inserts the report. Progress events are
+ * emitted as each stage and each dataset completes, so the percentage tracks
+ * real work. Nothing blocks: a waiting job holds no thread, only a slot in the
+ * queue.
+ *
+ * At most {@code max-concurrent} jobs run per node; up to {@code max-queued}
+ * more wait in FIFO order and are told their position, anything beyond that is
+ * rejected. A job keeps running when its client disconnects, so the report is
+ * still saved.
+ */
+@Slf4j
+@Component
+public class ReportGenerationEngine {
+
+    private final ReactiveReportTemplateRepository templateRepository;
+    private final ReportDataCollector dataCollector;
+    private final ReportSectionRenderer sectionRenderer;
+    private final R2dbcEntityTemplate entityTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${pms.report.generation.max-concurrent:4}")
+    private int maxConcurrent;
+
+    @Value("${pms.report.generation.max-queued:50}")
+    private int maxQueued;
+
+    private final Deque<Job> queue = new ArrayDeque<>();
+    private int running;
+
+    public ReportGenerationEngine(ReactiveReportTemplateRepository templateRepository,
+                                  ReportDataCollector dataCollector,
+                                  ReportSectionRenderer sectionRenderer,
+                                  R2dbcEntityTemplate entityTemplate,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry) {
+        this.templateRepository = templateRepository;
+        this.dataCollector = dataCollector;
+        this.sectionRenderer = sectionRenderer;
+        this.entityTemplate = entityTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void registerGauges() {
+        Gauge.builder("pms.report.generation.running", this, e -> e.snapshot()[0]).register(meterRegistry);
+        Gauge.builder("pms.report.generation.queued", this, e -> e.snapshot()[1]).register(meterRegistry);
+    }
+
+    /**
+     * Queue a report and return its progress events. Errors with 429 when the
+     * queue is full.
+     */
+    public Flux<ReportProgressEvent> submit(String projectId, ReportGenerationRequest request,
+                                            String createdBy, String creatorRole) {
+        Job job = new Job(UUID.randomUUID(), projectId, request, createdBy, creatorRole);
+        int position;
+        synchronized (this) {
+            if (running < maxConcurrent) {
+                running++;
+                position = 0;
+            } else if (queue.size() >= maxQueued) {
+                return Flux.error(new CustomException(
+                        "Report generation queue is full, try again shortly", HttpStatus.TOO_MANY_REQUESTS));
+            } else {
+                queue.addLast(job);
+                position = queue.size();
+            }
+        }
+
+        job.emit("INITIALIZING", 0, "Starting report generation...");
+        if (position == 0) {
+            start(job);
+        } else {
+            job.emit("QUEUED", 0, "Waiting for a generation slot (position " + position + ")");
+        }
+        return job.sink.asFlux();
+    }
+
+    private void start(Job job) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        generate(job)
+                .doOnSuccess(report -> {
+                    sample.stop(timer("completed"));
+                    job.emit("COMPLETED", 100, "Report generation completed");
+                    job.sink.tryEmitComplete();
+                })
+                .doOnError(error -> {
+                    sample.stop(timer("failed"));
+                    log.error("Report generation failed for project {}: {}", job.projectId, error.getMessage(), error);
+                    job.emit("FAILED", -1, "Error: " + error.getMessage());
+                    job.sink.tryEmitError(error);
+                })
+                .doFinally(signal -> startNext())
+                .subscribe(report -> { }, error -> { });
+    }
+
+    private void startNext() {
+        Job next;
+        synchronized (this) {
+            next = queue.pollFirst();
+            if (next == null) {
+                running--;
+            }
+        }
+        if (next != null) {
+            start(next);
+        }
+    }
+
+    private Mono<R2dbcReport> generate(Job job) {
+        ReportGenerationRequest request = job.request;
+        job.emit("LOADING_TEMPLATE", 5, "Loading report template...");
+
+        return loadTemplate(request)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(template -> {
+                    List<SectionSpec> sections = sectionRenderer.sections(template.orElse(null), request.getSections());
+                    Set<String> datasets = sectionRenderer.datasets(sections);
+                    validateRequestedSections(request.getSections(), sections, datasets);
+                    job.emit("COLLECTING_DATA", 10, "Collecting " + datasets.size() + " datasets...");
+
+                    int[] collected = {0};
+                    return dataCollector.collect(job.scope(), datasets)
+                            .doOnNext(dataset -> {
+                                int done = ++collected[0];
+                                job.emit("COLLECTING_DATA", 10 + 50 * done / datasets.size(),
+                                        "Collected " + dataset.name() + " (" + done + "/" + datasets.size() + ")");
+                            })
+                            .collectList()
+                            .map(results -> render(job, template.orElse(null), sections, results))
+                            .flatMap(report -> {
+                                job.emit("SAVING", 95, "Saving report...");
+                                return entityTemplate.insert(report);
+                            });
+                });
+    }
+
+    /**
+     * Sections the client named explicitly must exist and be backed by a data
+     * source, so a typo fails before any query runs instead of producing an
+     * empty section. Template-defined sections keep degrading to a warning.
+     */
+    private void validateRequestedSections(List<String> requestedKeys, List<SectionSpec> sections,
+                                           Set<String> datasets) {
+        if (requestedKeys == null || requestedKeys.isEmpty()) {
+            return;
+        }
+        Set<String> known = sections.stream().map(SectionSpec::key).collect(Collectors.toSet());
+        List<String> unknownSections = requestedKeys.stream().filter(key -> !known.contains(key)).toList();
+        if (!unknownSections.isEmpty()) {
+            throw CustomException.badRequest("Unknown report sections: " + unknownSections);
+        }
+        Set<String> supported = dataCollector.supportedDatasets();
+        List<String> unsupported = datasets.stream().filter(name -> !supported.contains(name)).toList();
+        if (!unsupported.isEmpty()) {
+            throw CustomException.badRequest("Requested sections read unsupported datasets: " + unsupported);
+        }
+    }
+
+    private Mono<R2dbcReportTemplate> loadTemplate(ReportGenerationRequest request) {
+        if (request.getTemplateId() != null) {
+            return templateRepository.findById(request.getTemplateId());
+        }
+        if (request.getReportType() != null) {
+            return templateRepository.findByReportTypeAndIsDefaultTrue(request.getReportType().name());
+        }
+        return Mono.empty();
+    }
+
+    private R2dbcReport render(Job job, R2dbcReportTemplate template, List<SectionSpec> sections,
+                               List<Dataset> results) {
+        Map<String, Object> data = new HashMap<>();
+        List<String> warnings = new ArrayList<>();
+        for (Dataset dataset : results) {
+            if (dataset.value() != null) {
+                data.put(dataset.name(), dataset.value());
+            }
+            if (dataset.warning() != null) {
+                warnings.add(dataset.warning());
+            }
+        }
+
+        List<Map<String, Object>> rendered = new ArrayList<>(sections.size());
+        for (int i = 0; i < sections.size(); i++) {
+            SectionSpec section = sections.get(i);
+            job.emit("RENDERING", 60 + 30 * (i + 1) / sections.size(), "Rendered " + section.title());
+            rendered.add(sectionRenderer.render(section, data, warnings));
+        }
+
+        ReportGenerationRequest request = job.request;
+        Map<String, Object> content = new LinkedHashMap<>();
+        content.put("templateId", template != null ? template.getId() : null);
+        content.put("templateName", template != null ? template.getName() : null);
+        content.put("sections", rendered);
+        content.put("warnings", warnings);
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("stats", data.get(ReportDataCollector.STATS));
+        snapshot.put("kpis", data.get(ReportDataCollector.KPIS));
+
+        R2dbcReport report = R2dbcReport.builder()
+                .id(job.reportId)
+                .projectId(job.projectId)
+                .reportType(request.getReportType() != null ? request.getReportType().name() : "WEEKLY")
+                .reportScope(request.getScope() != null ? request.getScope().name() : "PROJECT")
+                .title(request.getCustomTitle() != null ? request.getCustomTitle()
+                        : template != null ? template.getName() : null)
+                .periodStart(job.scope().periodStart())
+                .periodEnd(job.scope().periodEnd())
+                .scopePhaseId(request.getScopePhaseId())
+                .scopeTeamId(request.getScopeTeamId())
+                .scopeUserId(request.getScopeUserId())
+                .creatorRole(job.creatorRole)
+                .generationMode("AUTO")
+                .templateId(template != null ? template.getId() : null)
+                .status("DRAFT")
+                .content(toJson(content))
+                .metricsSnapshot(toJson(snapshot))
+                .build();
+        report.setCreatedBy(job.createdBy);
+        return report;
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (Exception e) {
+            throw CustomException.internalError("Failed to serialize report content: " + e.getMessage());
+        }
+    }
+
+    private Timer timer(String result) {
+        return Timer.builder("pms.report.generation.duration")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private synchronized int[] snapshot() {
+        return new int[]{running, queue.size()};
+    }
+
+    private static final class Job {
+        private final UUID reportId;
+        private final String projectId;
+        private final ReportGenerationRequest request;
+        private final String createdBy;
+        private final String creatorRole;
+        private final ReportScopeParams scope;
+        private final Sinks.Many<ReportProgressEvent> sink = Sinks.many().unicast().onBackpressureBuffer();
+
+        private Job(UUID reportId, String projectId, ReportGenerationRequest request,
+                    String createdBy, String creatorRole) {
+            this.reportId = reportId;
+            this.projectId = projectId;
+            this.request = request;
+            this.createdBy = createdBy;
+            this.creatorRole = creatorRole;
+            // Resolved once so data collection and the saved report agree on the period, even across midnight
+            LocalDate end = request.getPeriodEnd() != null ? request.getPeriodEnd() : LocalDate.now();
+            LocalDate start = request.getPeriodStart() != null ? request.getPeriodStart() : end.minusDays(6);
+            this.scope = new ReportScopeParams(projectId, request.getScopePhaseId(), start, end);
+        }
+
+        private ReportScopeParams scope() {
+            return scope;
+        }
+
+        // Datasets complete on different threads; the sink needs serialized emission
+        private synchronized void emit(String phase, int percentage, String message) {
+            sink.tryEmitNext(new ReportProgressEvent(reportId, phase, percentage, message));
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.insuretech.pms.report.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insuretech.pms.report.dto.BurndownDto;
+import com.insuretech.pms.report.dto.DashboardStats;
+import com.insuretech.pms.report.dto.PhaseProgressDto;
+import com.insuretech.pms.report.dto.ReportTemplateDto;
+import com.insuretech.pms.report.dto.SprintVelocityDto;
+import com.insuretech.pms.report.enums.SectionType;
+import com.insuretech.pms.report.reactive.entity.R2dbcReportTemplate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Turns a template's section list into report content.
+ *
+ * The template's {@code structure.sections} decides which sections exist, their
+ * order and what data each one reads ({@code config.dataSource} for tables and
+ * lists, {@code config.metrics} for charts). Rendering is plain data shaping over
+ * the collected datasets; nothing here touches the database.
+ *
+ * AI_GENERATED sections are drafted from the collected metrics and keep their
+ * prompt, so an LLM pass can replace the draft later. MANUAL_INPUT sections are
+ * left empty for the author.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReportSectionRenderer {
+
+    private static final Map<String, String> DATA_SOURCE_ALIASES = Map.of(
+            "team.completedTasks", "tasks.completed",
+            "team.plannedTasks", "tasks.planned",
+            "team.blockers", "issues.active"
+    );
+
+    private static final List<SectionSpec> DEFAULT_SECTIONS = List.of(
+            new SectionSpec("summary", "Summary", SectionType.AI_GENERATED, Map.of(), 1),
+            new SectionSpec("progress_overview", "Progress", SectionType.METRIC_CHART,
+                    Map.of("metrics", List.of("completion_rate", "velocity", "burndown")), 2),
+            new SectionSpec("phase_status", "Phase Status", SectionType.DATA_TABLE,
+                    Map.of("dataSource", "phases.status"), 3),
+            new SectionSpec("completed_tasks", "Completed Tasks", SectionType.DATA_LIST,
+                    Map.of("dataSource", "tasks.completed"), 4),
+            new SectionSpec("issues_risks", "Issues", SectionType.DATA_LIST,
+                    Map.of("dataSource", "issues.active"), 5)
+    );
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Sections of the template (or the built-in default), restricted to the
+     * requested keys when the request names any.
+     */
+    public List<SectionSpec> sections(R2dbcReportTemplate template, List<String> requestedKeys) {
+        List<SectionSpec> sections = template != null ? parseSections(template) : DEFAULT_SECTIONS;
+        if (sections.isEmpty()) {
+            sections = DEFAULT_SECTIONS;
+        }
+        if (requestedKeys != null && !requestedKeys.isEmpty()) {
+            sections = sections.stream().filter(s -> requestedKeys.contains(s.key())).toList();
+        }
+        return sections.stream().sorted(Comparator.comparingInt(SectionSpec::order)).toList();
+    }
+
+    /**
+     * Datasets the sections read, besides the ones every report needs.
+     */
+    public Set<String> datasets(List<SectionSpec> sections) {
+        Set<String> datasets = new LinkedHashSet<>(List.of(ReportDataCollector.STATS, ReportDataCollector.KPIS));
+        for (SectionSpec section : sections) {
+            String dataSource = dataSource(section);
+            if (dataSource != null) {
+                datasets.add(dataSource);
+            }
+            for (String metric : metrics(section)) {
+                switch (metric) {
+                    case "velocity" -> datasets.add("sprints.velocity");
+                    case "burndown" -> datasets.add("sprints.burndown");
+                    default -> { }
+                }
+            }
+        }
+        return datasets;
+    }
+
+    public Map<String, Object> render(SectionSpec section, Map<String, Object> data, List<String> warnings) {
+        Map<String, Object> rendered = new LinkedHashMap<>();
+        rendered.put("key", section.key());
+        rendered.put("title", section.title());
+        rendered.put("type", section.type().name());
+        rendered.put("order", section.order());
+
+        switch (section.type()) {
+            case DATA_TABLE, DATA_LIST -> {
+                String dataSource = dataSource(section);
+                Object value = dataSource != null ? data.get(dataSource) : null;
+                if (dataSource != null && value == null) {
+                    warnings.add(section.key() + ": no data for " + dataSource);
+                }
+                rendered.put("dataSource", dataSource);
+                rendered.put("rows", project(rows(value), columns(section)));
+            }
+            case METRIC_CHART -> {
+                rendered.put("chartType", section.config().get("chartType"));
+                rendered.put("metrics", metricValues(metrics(section), data));
+            }
+            case AI_GENERATED -> {
+                rendered.put("prompt", section.config().get("prompt"));
+                rendered.put("content", draftSummary(data));
+                rendered.put("generatedBy", "RULES");
+            }
+            case MANUAL_INPUT -> {
+                rendered.put("content", null);
+                rendered.put("placeholder", section.config().get("placeholder"));
+            }
+        }
+        return rendered;
+    }
+
+    private List<SectionSpec> parseSections(R2dbcReportTemplate template) {
+        if (template.getStructure() == null) {
+            return List.of();
+        }
+        try {
+            Map<String, Object> structure = objectMapper.readValue(template.getStructure(), new TypeReference<>() {});
+            Object raw = structure.get("sections");
+            if (!(raw instanceof List<?> list)) {
+                return List.of();
+            }
+            List<SectionSpec> sections = new ArrayList<>();
+            for (Object item : list) {
+                if (item instanceof Map<?, ?> map) {
+                    SectionSpec spec = toSpec(map, sections.size() + 1);
+                    if (spec != null) {
+                        sections.add(spec);
+                    }
+                }
+            }
+            return sections;
+        } catch (Exception e) {
+            log.warn("Invalid structure in report template {}: {}", template.getId(), e.getMessage());
+            return List.of();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private SectionSpec toSpec(Map<?, ?> map, int defaultOrder) {
+        Object key = map.get("key");
+        Object type = map.get("type");
+        if (key == null || type == null) {
+            return null;
+        }
+        SectionType sectionType;
+        try {
+            sectionType = SectionType.valueOf(type.toString());
+        } catch (IllegalArgumentException e) {
+            log.debug("Skipping report section {} with unknown type {}", key, type);
+            return null;
+        }
+        Map<String, Object> config = map.get("config") instanceof Map<?, ?> c ? (Map<String, Object>) c : Map.of();
+        int order = map.get("order") instanceof Number n ? n.intValue() : defaultOrder;
+        Object title = map.get("title");
+        return new SectionSpec(key.toString(), title != null ? title.toString() : key.toString(), sectionType, config, order);
+    }
+
+    private static String dataSource(SectionSpec section) {
+        Object dataSource = section.config().get("dataSource");
+        if (dataSource == null) {
+            return null;
+        }
+        return DATA_SOURCE_ALIASES.getOrDefault(dataSource.toString(), dataSource.toString());
+    }
+
+    private static List<String> metrics(SectionSpec section) {
+        return section.config().get("metrics") instanceof List<?> list
+                ? list.stream().map(Object::toString).toList()
+                : List.of();
+    }
+
+    private static List<String> columns(SectionSpec section) {
+        Object columns = section.config().get("columns");
+        if (columns == null) {
+            columns = section.config().get("fields");
+        }
+        return columns instanceof List<?> list ? list.stream().map(Object::toString).toList() : List.of();
+    }
+
+    private List<Map<String, Object>> rows(Object value) {
+        if (value == null) {
+            return List.of();
+        }
+        Object list = value;
+        if (value instanceof PhaseProgressDto phases) {
+            list = phases.getPhases();
+        } else if (!(value instanceof List<?>)) {
+            // Wrapper DTOs expose their rows as their single list-valued property
+            Map<String, Object> map = objectMapper.convertValue(value, new TypeReference<>() {});
+            list = map.values().stream().filter(v -> v instanceof List<?>).findFirst().orElse(List.of(map));
+        }
+        return objectMapper.convertValue(list, new TypeReference<>() {});
+    }
+
+    /**
+     * Keep the template's columns when the rows have them; rows whose keys do not
+     * match any column are passed through so the section is never blank for a
+     * naming mismatch.
+     */
+    private static List<Map<String, Object>> project(List<Map<String, Object>> rows, List<String> columns) {
+        if (columns.isEmpty() || rows.isEmpty()) {
+            return rows;
+        }
+        boolean anyMatch = columns.stream().anyMatch(rows.get(0)::containsKey);
+        if (!anyMatch) {
+            return rows;
+        }
+        List<Map<String, Object>> projected = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            Map<String, Object> out = new LinkedHashMap<>();
+            for (String column : columns) {
+                out.put(column, row.get(column));
+            }
+            projected.add(out);
+        }
+        return projected;
+    }
+
+    private Map<String, Object> metricValues(List<String> metrics, Map<String, Object> data) {
+        DashboardStats stats = data.get(ReportDataCollector.STATS) instanceof DashboardStats s ? s : null;
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String metric : metrics) {
+            values.put(metric, switch (metric) {
+                case "completion_rate" -> completionRate(stats);
+                case "velocity" -> latestVelocity(data.get("sprints.velocity"));
+                case "burndown" -> data.get("sprints.burndown") instanceof BurndownDto b ? b.getDataPoints() : null;
+                case "budget_planned" -> stats != null ? stats.getBudgetTotal() : null;
+                case "budget_actual" -> stats != null ? stats.getBudgetSpent() : null;
+                case "budget_utilization" -> stats != null ? stats.getBudgetExecutionRate() : null;
+                default -> kpiValue(metric, data.get(ReportDataCollector.KPIS));
+            });
+        }
+        return values;
+    }
+
+    private String draftSummary(Map<String, Object> data) {
+        DashboardStats stats = data.get(ReportDataCollector.STATS) instanceof DashboardStats s ? s : null;
+        if (stats == null) {
+            return null;
+        }
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("Tasks: %d/%d completed (%s%%), %d in progress.",
+                nz(stats.getCompletedTasks()), nz(stats.getTotalTasks()),
+                completionRate(stats), nz(stats.getInProgressTasks())));
+        summary.append(String.format(" Issues: %d open, %d high priority.",
+                nz(stats.getOpenIssues()), nz(stats.getHighPriorityIssues())));
+        if (data.get("phases.status") instanceof PhaseProgressDto phases && phases.getPhases() != null) {
+            long atRisk = phases.getPhases().stream()
+                    .filter(p -> "danger".equals(p.getDerivedStatus()) || "warning".equals(p.getDerivedStatus()))
+                    .count();
+            if (atRisk > 0) {
+                summary.append(String.format(" %d phase(s) need attention.", atRisk));
+            }
+        }
+        return summary.toString();
+    }
+
+    private static Integer completionRate(DashboardStats stats) {
+        if (stats == null || stats.getTotalTasks() == null || stats.getTotalTasks() == 0) {
+            return null;
+        }
+        return (int) Math.round(nz(stats.getCompletedTasks()) * 100.0 / stats.getTotalTasks());
+    }
+
+    private static Double latestVelocity(Object value) {
+        if (value instanceof SprintVelocityDto velocity && velocity.getSprints() != null) {
+            return velocity.getSprints().stream()
+                    .filter(s -> s.getVelocity() != null)
+                    .reduce((first, second) -> second)
+                    .map(SprintVelocityDto.SprintMetric::getVelocity)
+                    .orElse(null);
+        }
+        return null;
+    }
+
+    private static Object kpiValue(String metric, Object kpis) {
+        if (kpis instanceof List<?> list) {
+            for (Object item : list) {
+                if (item instanceof Map<?, ?> kpi && kpi.get("name") != null
+                        && metric.equalsIgnoreCase(kpi.get("name").toString().replace(' ', '_'))) {
+                    return kpi.get("current");
+                }
+            }
+        }
+        return null;
+    }
+
+    private static long nz(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    /**
+     * One section of a {@link ReportTemplateDto#getStructure() template structure}.
+     */
+    public record SectionSpec(String key, String title, SectionType type, Map<String, Object> config, int order) {
+    }
+}
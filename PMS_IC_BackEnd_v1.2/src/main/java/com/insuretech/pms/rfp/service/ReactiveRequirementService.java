@@ -1,5 +1,6 @@
 package com.insuretech.pms.rfp.service;
 
+import com.insuretech.pms.common.cache.ProjectCaches;
 import com.insuretech.pms.common.exception.CustomException;
 import com.insuretech.pms.rfp.dto.CreateRequirementRequest;
 import com.insuretech.pms.rfp.dto.RequirementDto;
@@ -24,6 +25,7 @@ import java.util.UUID;
 public class ReactiveRequirementService {
 
     private final ReactiveRequirementRepository requirementRepository;
+    private final ProjectCaches projectCaches;
 
     public Flux<RequirementDto> getRequirementsByProject(String projectId) {
         return requirementRepository.findByProjectIdOrderByCodeAsc(projectId)
@@ -65,7 +67,10 @@ public class ReactiveRequirementService {
                     return requirementRepository.save(requirement);
                 })
                 .map(this::toDto)
-                .doOnSuccess(dto -> log.info("Created requirement: {} for project: {}", dto.getCode(), projectId));
+                .doOnSuccess(dto -> {
+                    projectCaches.invalidateProject(projectId);
+                    log.info("Created requirement: {} for project: {}", dto.getCode(), projectId);
+                });
     }
 
     public Mono<RequirementDto> updateRequirement(String id, UpdateRequirementRequest request) {
@@ -88,13 +93,15 @@ public class ReactiveRequirementService {
                     }
                     return requirementRepository.save(req);
                 })
+                .doOnNext(req -> projectCaches.invalidateProject(req.getProjectId()))
                 .map(this::toDto);
     }
 
     public Mono<Void> deleteRequirement(String id) {
         return requirementRepository.findById(id)
                 .switchIfEmpty(Mono.error(CustomException.notFound("Requirement not found: " + id)))
-                .flatMap(req -> requirementRepository.delete(req))
+                .flatMap(req -> requirementRepository.delete(req)
+                        .doOnSuccess(v -> projectCaches.invalidateProject(req.getProjectId())))
                 .doOnSuccess(v -> log.info("Deleted requirement: {}", id));
     }
 
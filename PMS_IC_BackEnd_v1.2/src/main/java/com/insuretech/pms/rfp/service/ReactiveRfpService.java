@@ -1,5 +1,6 @@
 package com.insuretech.pms.rfp.service;
 
+import com.insuretech.pms.common.cache.ProjectCaches;
 import com.insuretech.pms.common.exception.CustomException;
 import com.insuretech.pms.rfp.dto.CreateRfpRequest;
 import com.insuretech.pms.rfp.dto.RfpDto;
@@ -13,24 +14,35 @@ import com.insuretech.pms.rfp.reactive.repository.ReactiveRfpRepository;
 import com.insuretech.pms.rfp.reactive.repository.ReactiveRequirementRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.codec.multipart.FilePart;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SynchronousSink;
+import reactor.core.scheduler.Schedulers;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Slf4j
 @Service
@@ -39,19 +51,34 @@ public class ReactiveRfpService {
     private final ReactiveRfpRepository rfpRepository;
     private final ReactiveRequirementRepository requirementRepository;
     private final ReactiveDocumentChunkRepository chunkRepository;
+    private final ProjectCaches projectCaches;
     private final WebClient webClient;
 
+    private static final Set<String> TEXT_TYPES = Set.of("txt", "csv", "json", "xml", "md");
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
     @Value("${ai.service.url:http://localhost:8000}")
     private String aiServiceUrl;
 
+    @Value("${pms.storage.max-file-size:104857600}")
+    private long maxUploadSize;
+
+    @Value("${pms.rfp.inline-content-max-bytes:10485760}")
+    private long inlineContentMaxBytes;
+
+    @Value("${pms.rfp.upload-dir:uploads/rfp}")
+    private String uploadRoot;
+
     public ReactiveRfpService(
             ReactiveRfpRepository rfpRepository,
             ReactiveRequirementRepository requirementRepository,
             ReactiveDocumentChunkRepository chunkRepository,
+            ProjectCaches projectCaches,
             WebClient.Builder webClientBuilder) {
         this.rfpRepository = rfpRepository;
         this.requirementRepository = requirementRepository;
         this.chunkRepository = chunkRepository;
+        this.projectCaches = projectCaches;
         this.webClient = webClientBuilder.build();
     }
 
@@ -82,6 +109,7 @@ public class ReactiveRfpService {
                 .flatMap(this::toDtoWithCount)
                 .doOnSuccess(dto -> {
                     log.info("Created RFP: {} for project: {}", dto.getId(), projectId);
+                    projectCaches.invalidateProject(projectId);
                     // Sprint A: 콘텐츠가 있으면 자동 파싱 트리거 (fire-and-forget)
                     if (request.getContent() != null && !request.getContent().isBlank()) {
                         parseRfpContent(dto.getId()).subscribe(
@@ -101,6 +129,7 @@ public class ReactiveRfpService {
                     if (request.getStatus() != null) rfp.setStatus(request.getStatus());
                     return rfpRepository.save(rfp);
                 })
+                .doOnNext(rfp -> projectCaches.invalidateProject(rfp.getProjectId()))
                 .flatMap(this::toDtoWithCount);
     }
 
@@ -112,7 +141,8 @@ public class ReactiveRfpService {
                         return Mono.error(CustomException.badRequest(
                                 "Cannot delete CONFIRMED RFP. Use ON_HOLD instead."));
                     }
-                    return rfpRepository.delete(rfp);
+                    return rfpRepository.delete(rfp)
+                            .doOnSuccess(v -> projectCaches.invalidateProject(rfp.getProjectId()));
                 })
                 .doOnSuccess(v -> log.info("Deleted RFP: {}", id));
     }
@@ -137,7 +167,8 @@ public class ReactiveRfpService {
                         log.warn("RFP {} transitioning to FAILED without reason", id);
                     }
 
-                    return rfpRepository.updateStatus(id, newStatus);
+                    return rfpRepository.updateStatus(id, newStatus)
+                            .doOnSuccess(v -> projectCaches.invalidateProject(rfp.getProjectId()));
                 })
                 .doOnSuccess(v -> log.info("Updated RFP status: {} to {}", id, newStatus));
     }
@@ -153,7 +184,9 @@ public class ReactiveRfpService {
                     RfpStateMachine.validateTransition(rfp.getStatus(), "FAILED");
                     rfp.setFailureReason(reason);
                     rfp.setStatus("FAILED");
-                    return rfpRepository.save(rfp).then();
+                    return rfpRepository.save(rfp)
+                            .doOnNext(saved -> projectCaches.invalidateProject(saved.getProjectId()))
+                            .then();
                 });
     }
 
@@ -175,7 +208,9 @@ public class ReactiveRfpService {
                     RfpStateMachine.validateTransition("ON_HOLD", restoreStatus);
                     rfp.setStatus(restoreStatus);
                     rfp.setPreviousStatus(null);
-                    return rfpRepository.save(rfp).then();
+                    return rfpRepository.save(rfp)
+                            .doOnNext(saved -> projectCaches.invalidateProject(saved.getProjectId()))
+                            .then();
                 });
     }
 
@@ -202,59 +237,73 @@ public class ReactiveRfpService {
         String fileType = getFileExtension(fileName);
         String rfpId = UUID.randomUUID().toString();
         String storedName = rfpId + "-" + fileName;
-        Path uploadDir = Paths.get("uploads", "rfp", projectId);
+        Path uploadDir = Paths.get(uploadRoot, projectId);
         Path targetPath = uploadDir.resolve(storedName);
-
-        // 1. FilePart 데이터를 바이트로 수집 → 디스크 저장 → RFP 엔티티 생성
-        return DataBufferUtils.join(file.content())
-                .flatMap(dataBuffer -> {
-                    try {
-                        Files.createDirectories(uploadDir);
-                        byte[] bytes = new byte[dataBuffer.readableByteCount()];
-                        dataBuffer.read(bytes);
-                        DataBufferUtils.release(dataBuffer);
-                        Files.write(targetPath, bytes);
-
-                        long fileSize = bytes.length;
-
-                        // 텍스트 기반 파일이면 내용을 content에 저장 (파싱용)
-                        String content = null;
-                        Set<String> textTypes = Set.of("txt", "csv", "json", "xml", "md");
-                        if (textTypes.contains(fileType)) {
-                            content = new String(bytes, StandardCharsets.UTF_8);
+        Path partPath = uploadDir.resolve(storedName + ".part");
+
+        // 1. FilePart 스트림을 그대로 디스크에 기록 (크기/해시는 스트리밍 중 계산, 최대 크기 초과 시 중단)
+        MessageDigest digest = newSha256();
+        AtomicLong fileSize = new AtomicLong();
+        Flux<DataBuffer> content = file.content()
+                .handle((DataBuffer buffer, SynchronousSink<DataBuffer> sink) -> {
+                    if (fileSize.addAndGet(buffer.readableByteCount()) > maxUploadSize) {
+                        DataBufferUtils.release(buffer);
+                        sink.error(CustomException.badRequest(
+                                "파일 크기가 최대 허용 크기(" + maxUploadSize + " bytes)를 초과합니다"));
+                        return;
+                    }
+                    try (DataBuffer.ByteBufferIterator it = buffer.readableByteBuffers()) {
+                        while (it.hasNext()) {
+                            digest.update(it.next());
                         }
-
-                        // RFP 엔티티 생성
-                        String rfpTitle = (title != null && !title.isBlank())
-                                ? title
-                                : fileName.replaceFirst("[.][^.]+$", "");
-
-                        R2dbcRfp rfp = R2dbcRfp.builder()
-                                .id(rfpId)
-                                .projectId(projectId)
-                                .title(rfpTitle)
-                                .content(content)
-                                .fileName(fileName)
-                                .filePath(targetPath.toString())
-                                .fileType(fileType)
-                                .fileSize(fileSize)
-                                .status("UPLOADED")
-                                .processingStatus("PENDING")
-                                .tenantId(projectId)
-                                .build();
-
-                        return rfpRepository.save(rfp);
-                    } catch (IOException e) {
-                        DataBufferUtils.release(dataBuffer);
-                        return Mono.<R2dbcRfp>error(
-                                CustomException.internalError("파일 저장 실패: " + e.getMessage()));
                     }
+                    sink.next(buffer);
+                });
+
+        return Mono.fromCallable(() -> Files.createDirectories(uploadDir))
+                .subscribeOn(Schedulers.boundedElastic())
+                .then(DataBufferUtils.write(content, partPath,
+                        StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE))
+                .then(Mono.fromCallable(() -> Files.move(partPath, targetPath, StandardCopyOption.ATOMIC_MOVE))
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .onErrorResume(e -> Mono.fromRunnable(() -> deleteQuietly(partPath))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .then(Mono.error(e instanceof CustomException
+                                ? e
+                                : CustomException.internalError("파일 저장 실패: " + e.getMessage()))))
+                // 2. 텍스트 기반 파일이고 충분히 작으면 내용을 content에 저장 (파싱용), 큰 파일은 파싱 시 디스크에서 읽음
+                .then(Mono.defer(() -> TEXT_TYPES.contains(fileType) && fileSize.get() <= inlineContentMaxBytes
+                        ? readText(targetPath).map(Optional::of)
+                        : Mono.just(Optional.<String>empty())))
+                .flatMap(text -> {
+                    // RFP 엔티티 생성
+                    String rfpTitle = (title != null && !title.isBlank())
+                            ? title
+                            : fileName.replaceFirst("[.][^.]+$", "");
+
+                    R2dbcRfp rfp = R2dbcRfp.builder()
+                            .id(rfpId)
+                            .projectId(projectId)
+                            .title(rfpTitle)
+                            .content(text.orElse(null))
+                            .fileName(fileName)
+                            .filePath(targetPath.toString())
+                            .fileType(fileType)
+                            .fileSize(fileSize.get())
+                            .checksum(HexFormat.of().formatHex(digest.digest()))
+                            .status("UPLOADED")
+                            .processingStatus("PENDING")
+                            .tenantId(projectId)
+                            .build();
+
+                    return rfpRepository.save(rfp);
                 })
                 .flatMap(this::toDtoWithCount)
                 .doOnSuccess(dto -> {
-                    log.info("파일 업로드 완료: rfp={}, file={}", dto.getId(), fileName);
-                    // 텍스트 콘텐츠가 있으면 자동 파싱 트리거 (fire-and-forget)
-                    if (dto.getContent() != null && !dto.getContent().isBlank()) {
+                    log.info("파일 업로드 완료: rfp={}, file={}, size={}", dto.getId(), fileName, fileSize.get());
+                    projectCaches.invalidateProject(projectId);
+                    // 텍스트 기반 파일이면 자동 파싱 트리거 (fire-and-forget)
+                    if (TEXT_TYPES.contains(fileType) || (dto.getContent() != null && !dto.getContent().isBlank())) {
                         parseRfpContent(dto.getId()).subscribe(
                                 null,
                                 err -> log.warn("자동 파싱 실패 rfp={}: {}", dto.getId(), err.getMessage())
@@ -263,6 +312,52 @@ public class ReactiveRfpService {
                 });
     }
 
+    /**
+     * 파싱용 텍스트: content 필드 우선, 없으면 업로드된 텍스트 파일을 디스크에서 읽는다.
+     */
+    private Mono<String> resolveParseText(R2dbcRfp rfp) {
+        if (rfp.getContent() != null && !rfp.getContent().isBlank()) {
+            return Mono.just(rfp.getContent());
+        }
+        if (rfp.getFilePath() == null || !TEXT_TYPES.contains(rfp.getFileType())) {
+            return Mono.empty();
+        }
+        Path path = Paths.get(rfp.getFilePath());
+        return Mono.fromCallable(() -> Files.exists(path))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(exists -> exists ? readText(path) : Mono.empty());
+    }
+
+    /**
+     * 파일을 비동기 채널로 읽어 UTF-8 문자열로 변환.
+     */
+    private Mono<String> readText(Path path) {
+        return DataBufferUtils.join(DataBufferUtils.read(path, DefaultDataBufferFactory.sharedInstance, READ_BUFFER_SIZE))
+                .map(buffer -> {
+                    try {
+                        return buffer.toString(StandardCharsets.UTF_8);
+                    } finally {
+                        DataBufferUtils.release(buffer);
+                    }
+                });
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("임시 파일 삭제 실패: {}", path, e);
+        }
+    }
+
     /**
      * 파일 확장자를 추출 (소문자).
      */
@@ -298,22 +393,23 @@ public class ReactiveRfpService {
                         return Mono.empty();
                     }
 
-                    String text = rfp.getContent();
-                    if (text == null || text.isBlank()) {
-                        return Mono.error(CustomException.badRequest("파싱할 콘텐츠가 없습니다: " + rfpId));
-                    }
-
                     // 상태 전이 가능 여부 확인 (UPLOADED/NEEDS_REANALYSIS → PARSING)
-                    if (RfpStateMachine.isTransitionAllowed(currentStatus, "PARSING")) {
-                        return rfpRepository.updateStatus(rfpId, "PARSING")
-                                .then(callLlmParse(rfpId, text, rfp.getFileType()))
-                                .flatMap(chunks -> saveChunks(rfpId, chunks))
-                                .then(rfpRepository.updateStatus(rfpId, "PARSED"))
-                                .doOnSuccess(v -> log.info("파싱 완료: rfp={}", rfpId));
-                    } else {
+                    if (!RfpStateMachine.isTransitionAllowed(currentStatus, "PARSING")) {
                         log.info("상태 전이 불가 ({} → PARSING), 파싱 건너뜀: rfp={}", currentStatus, rfpId);
                         return Mono.empty();
                     }
+
+                    return resolveParseText(rfp)
+                            .filter(text -> !text.isBlank())
+                            .switchIfEmpty(Mono.error(CustomException.badRequest("파싱할 콘텐츠가 없습니다: " + rfpId)))
+                            .flatMap(text -> rfpRepository.updateStatus(rfpId, "PARSING")
+                                    .then(callLlmParse(rfpId, text, rfp.getFileType())))
+                            .flatMap(chunks -> saveChunks(rfpId, chunks))
+                            .then(rfpRepository.updateStatus(rfpId, "PARSED"))
+                            .doOnSuccess(v -> {
+                                log.info("파싱 완료: rfp={}", rfpId);
+                                projectCaches.invalidateProject(rfp.getProjectId());
+                            });
                 })
                 .onErrorResume(err -> {
                     log.error("파싱 실패: rfp={}, error={}", rfpId, err.getMessage());
@@ -326,7 +422,9 @@ public class ReactiveRfpService {
                                     rfp.setRetryable(isRetryableError(err));
                                     rfp.setStatus("FAILED");
                                     rfp.setNew(false); // 기존 엔티티 UPDATE
-                                    return rfpRepository.save(rfp).then();
+                                    return rfpRepository.save(rfp)
+                                            .doOnNext(saved -> projectCaches.invalidateProject(saved.getProjectId()))
+                                            .then();
                                 }
                                 return Mono.empty();
                             });
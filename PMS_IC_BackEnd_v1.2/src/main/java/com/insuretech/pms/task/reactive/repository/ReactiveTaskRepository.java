@@ -51,8 +51,8 @@ public interface ReactiveTaskRepository extends ReactiveCrudRepository<R2dbcTask
         SELECT t.* FROM task.tasks t
         WHERE t.project_id = :projectId
         AND (
-            LOWER(t.title) LIKE LOWER(CONCAT('%', :keyword, '%'))
-            OR LOWER(t.description) LIKE LOWER(CONCAT('%', :keyword, '%'))
+            t.title ILIKE CONCAT('%', :keyword, '%')
+            OR t.description ILIKE CONCAT('%', :keyword, '%')
         )
         ORDER BY t.order_num ASC
         LIMIT 10
@@ -1,6 +1,10 @@
 package com.insuretech.pms.task.service;
 
+import com.insuretech.pms.common.cache.ProjectCaches;
+import com.insuretech.pms.common.event.ProjectEventBus;
+import com.insuretech.pms.common.event.ProjectEventBusFactory;
 import com.insuretech.pms.common.exception.CustomException;
+import com.insuretech.pms.pmo.service.PortfolioHealthStore;
 import com.insuretech.pms.task.dto.KanbanBoardDto;
 import com.insuretech.pms.task.dto.TaskDto;
 import com.insuretech.pms.task.dto.TaskMoveRequest;
@@ -8,13 +12,13 @@ import com.insuretech.pms.task.reactive.entity.R2dbcKanbanColumn;
 import com.insuretech.pms.task.reactive.entity.R2dbcTask;
 import com.insuretech.pms.task.reactive.repository.ReactiveKanbanColumnRepository;
 import com.insuretech.pms.task.reactive.repository.ReactiveTaskRepository;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.publisher.Sinks;
 
 import java.util.Map;
 import java.util.UUID;
@@ -28,12 +32,28 @@ public class ReactiveKanbanService {
     private final ReactiveTaskRepository taskRepository;
     private final ReactiveKanbanColumnRepository columnRepository;
     private final TransactionalOperator transactionalOperator;
+    private final ProjectEventBusFactory eventBusFactory;
+    private final PortfolioHealthStore portfolioHealthStore;
+    private final ProjectCaches projectCaches;
 
-    // SSE event sinks for real-time updates per project
-    private final Map<String, Sinks.Many<TaskEvent>> projectEventSinks = new ConcurrentHashMap<>();
+    private static final int MAX_CACHED_COLUMNS = 10_000;
+
+    // Column -> project resolution for event routing. A column never changes project,
+    // so entries stay valid; warmed from board and task reads.
+    private final Map<String, String> columnProjectIds = new ConcurrentHashMap<>();
+
+    // Cluster-wide SSE fan-out per project; bursts of moves of one task are coalesced
+    private ProjectEventBus<TaskEvent> taskEventBus;
+
+    @PostConstruct
+    public void init() {
+        taskEventBus = eventBusFactory.create("kanban", TaskEvent.class,
+                TaskEvent::getTaskId, event -> "MOVED".equals(event.getEventType()));
+    }
 
     public Mono<KanbanBoardDto> getKanbanBoard(String projectId) {
         return columnRepository.findByProjectIdOrderByOrderNumAsc(projectId)
+                .doOnNext(this::rememberColumn)
                 .flatMap(column -> taskRepository.findByColumnIdOrderByOrderNumAsc(column.getId())
                         .map(this::toTaskDto)
                         .collectList()
@@ -56,10 +76,12 @@ public class ReactiveKanbanService {
         return columnRepository.findByProjectIdOrderByOrderNumAsc(projectId)
                 .next()
                 .switchIfEmpty(Mono.error(CustomException.notFound("No kanban columns found for project")))
+                .doOnNext(this::rememberColumn)
                 .flatMap(column -> {
                     R2dbcTask task = R2dbcTask.builder()
                             .id(UUID.randomUUID().toString())
                             .columnId(column.getId())
+                            .projectId(projectId)
                             .title(dto.getTitle())
                             .description(dto.getDescription())
                             .assigneeId(dto.getAssigneeId())
@@ -72,7 +94,10 @@ public class ReactiveKanbanService {
                 })
                 .map(this::toTaskDto)
                 .as(transactionalOperator::transactional)
-                .doOnSuccess(task -> emitEvent(projectId, TaskEvent.created(task)));
+                .doOnSuccess(task -> {
+                    markChanged(projectId);
+                    emitEvent(projectId, TaskEvent.created(task));
+                });
     }
 
     public Mono<TaskDto> moveTask(String taskId, TaskMoveRequest request) {
@@ -90,12 +115,8 @@ public class ReactiveKanbanService {
                             });
                 })
                 .as(transactionalOperator::transactional)
-                .doOnSuccess(task -> {
-                    String projectId = getProjectIdFromColumn(request.getTargetColumnId());
-                    if (projectId != null) {
-                        emitEvent(projectId, TaskEvent.moved(task));
-                    }
-                });
+                .flatMap(task -> publishForColumn(request.getTargetColumnId(), TaskEvent.moved(task))
+                        .thenReturn(task));
     }
 
     public Mono<TaskDto> updateTask(String taskId, TaskDto dto) {
@@ -117,12 +138,8 @@ public class ReactiveKanbanService {
                 })
                 .map(this::toTaskDto)
                 .as(transactionalOperator::transactional)
-                .doOnSuccess(task -> {
-                    String projectId = getProjectIdFromColumn(task.getColumnId());
-                    if (projectId != null) {
-                        emitEvent(projectId, TaskEvent.updated(task));
-                    }
-                });
+                .flatMap(task -> publishForColumn(task.getColumnId(), TaskEvent.updated(task))
+                        .thenReturn(task));
     }
 
     public Mono<Void> deleteTask(String taskId) {
@@ -131,38 +148,67 @@ public class ReactiveKanbanService {
                 .flatMap(task -> {
                     String columnId = task.getColumnId();
                     return taskRepository.delete(task)
-                            .then(Mono.fromRunnable(() -> {
-                                String projectId = getProjectIdFromColumn(columnId);
-                                if (projectId != null) {
-                                    emitEvent(projectId, TaskEvent.deleted(taskId));
-                                }
-                            }));
+                            .then(publishForColumn(columnId, TaskEvent.deleted(taskId)));
                 });
     }
 
+    /**
+     * Task data of a project changed: refresh portfolio counters and retire derived caches
+     * (chat answers, lineage graph).
+     */
+    private void markChanged(String projectId) {
+        portfolioHealthStore.markDirty(projectId);
+        projectCaches.invalidateProject(projectId);
+    }
+
     // SSE streaming for real-time updates
     public Flux<TaskEvent> streamTaskEvents(String projectId) {
-        return getOrCreateSink(projectId).asFlux()
+        return taskEventBus.subscribe(projectId)
                 .doOnCancel(() -> log.debug("Client disconnected from kanban stream: {}", projectId));
     }
 
-    private Sinks.Many<TaskEvent> getOrCreateSink(String projectId) {
-        return projectEventSinks.computeIfAbsent(projectId,
-                id -> Sinks.many().multicast().onBackpressureBuffer(256));
+    private void emitEvent(String projectId, TaskEvent event) {
+        taskEventBus.publish(projectId, event);
     }
 
-    private void emitEvent(String projectId, TaskEvent event) {
-        Sinks.Many<TaskEvent> sink = projectEventSinks.get(projectId);
-        if (sink != null) {
-            sink.tryEmitNext(event);
-        }
+    /**
+     * Mark the project owning the column as changed and emit the event to it. Called
+     * once the write has committed; a failed lookup is logged and does not fail the write.
+     */
+    private Mono<Void> publishForColumn(String columnId, TaskEvent event) {
+        return resolveProjectId(columnId)
+                .doOnNext(projectId -> {
+                    markChanged(projectId);
+                    emitEvent(projectId, event);
+                })
+                .onErrorResume(e -> {
+                    log.warn("Could not resolve project for column {}: {}", columnId, e.getMessage());
+                    return Mono.empty();
+                })
+                .then();
     }
 
-    private String getProjectIdFromColumn(String columnId) {
-        // In a real implementation, cache this lookup
+    private Mono<String> resolveProjectId(String columnId) {
+        if (columnId == null) {
+            return Mono.empty();
+        }
+        String cached = columnProjectIds.get(columnId);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
         return columnRepository.findById(columnId)
-                .map(R2dbcKanbanColumn::getProjectId)
-                .block();
+                .doOnNext(this::rememberColumn)
+                .map(R2dbcKanbanColumn::getProjectId);
+    }
+
+    private void rememberColumn(R2dbcKanbanColumn column) {
+        if (column.getId() == null || column.getProjectId() == null) {
+            return;
+        }
+        if (columnProjectIds.size() >= MAX_CACHED_COLUMNS) {
+            columnProjectIds.clear();
+        }
+        columnProjectIds.put(column.getId(), column.getProjectId());
     }
 
     private TaskDto toTaskDto(R2dbcTask task) {
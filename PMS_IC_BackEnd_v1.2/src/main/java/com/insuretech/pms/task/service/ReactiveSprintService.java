@@ -2,6 +2,8 @@ package com.insuretech.pms.task.service;
 
 import com.insuretech.pms.common.exception.CustomException;
 import com.insuretech.pms.project.reactive.repository.ReactiveProjectRepository;
+import com.insuretech.pms.common.cache.ProjectCaches;
+import com.insuretech.pms.project.reactive.service.DashboardAggregateStore;
 import com.insuretech.pms.task.dto.SprintDto;
 import com.insuretech.pms.task.reactive.entity.R2dbcSprint;
 import com.insuretech.pms.task.reactive.repository.ReactiveSprintRepository;
@@ -21,6 +23,8 @@ public class ReactiveSprintService {
 
     private final ReactiveSprintRepository sprintRepository;
     private final ReactiveProjectRepository projectRepository;
+    private final DashboardAggregateStore dashboardAggregateStore;
+    private final ProjectCaches projectCaches;
 
     public Flux<SprintDto> getSprintsByProject(String projectId) {
         return sprintRepository.findByProjectIdOrderByStartDateDesc(projectId)
@@ -60,6 +64,7 @@ public class ReactiveSprintService {
                     return sprintRepository.save(sprint);
                 })
                 .map(SprintDto::fromEntity)
+                .doOnNext(this::markDashboardDirty)
                 .doOnSuccess(dto -> log.info("Created sprint: {} for project: {}", dto.getId(), projectId));
     }
 
@@ -76,6 +81,7 @@ public class ReactiveSprintService {
                     return sprintRepository.save(sprint);
                 })
                 .map(SprintDto::fromEntity)
+                .doOnNext(this::markDashboardDirty)
                 .doOnSuccess(dto -> log.info("Updated sprint: {}", sprintId));
     }
 
@@ -88,6 +94,7 @@ public class ReactiveSprintService {
                     return sprintRepository.save(sprint);
                 })
                 .map(SprintDto::fromEntity)
+                .doOnNext(this::markDashboardDirty)
                 .doOnSuccess(dto -> log.info("Started sprint: {}", sprintId));
     }
 
@@ -100,6 +107,7 @@ public class ReactiveSprintService {
                     return sprintRepository.save(sprint);
                 })
                 .map(SprintDto::fromEntity)
+                .doOnNext(this::markDashboardDirty)
                 .doOnSuccess(dto -> log.info("Completed sprint: {}", sprintId));
     }
 
@@ -112,6 +120,7 @@ public class ReactiveSprintService {
                     return sprintRepository.save(sprint);
                 })
                 .map(SprintDto::fromEntity)
+                .doOnNext(this::markDashboardDirty)
                 .doOnSuccess(dto -> log.info("Cancelled sprint: {}", sprintId));
     }
 
@@ -119,7 +128,17 @@ public class ReactiveSprintService {
     public Mono<Void> deleteSprint(String sprintId) {
         return sprintRepository.findById(sprintId)
                 .switchIfEmpty(Mono.error(CustomException.notFound("Sprint not found: " + sprintId)))
-                .flatMap(sprint -> sprintRepository.deleteById(sprintId))
+                .flatMap(sprint -> sprintRepository.deleteById(sprintId)
+                        .doOnSuccess(v -> markChanged(sprint.getProjectId())))
                 .doOnSuccess(v -> log.info("Deleted sprint: {}", sprintId));
     }
+
+    private void markDashboardDirty(SprintDto sprint) {
+        markChanged(sprint.getProjectId());
+    }
+
+    private void markChanged(String projectId) {
+        dashboardAggregateStore.markDirty(projectId, DashboardAggregateStore.SPRINT_SECTIONS);
+        projectCaches.invalidateProject(projectId);
+    }
 }
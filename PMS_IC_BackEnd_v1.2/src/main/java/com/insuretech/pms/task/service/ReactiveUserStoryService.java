@@ -2,6 +2,8 @@ package com.insuretech.pms.task.service;
 
 import com.insuretech.pms.common.exception.CustomException;
 import com.insuretech.pms.project.reactive.repository.ReactiveProjectRepository;
+import com.insuretech.pms.common.cache.ProjectCaches;
+import com.insuretech.pms.project.reactive.service.DashboardAggregateStore;
 import com.insuretech.pms.task.dto.CreateUserStoryRequest;
 import com.insuretech.pms.task.dto.UpdateUserStoryRequest;
 import com.insuretech.pms.task.dto.UserStoryResponse;
@@ -26,6 +28,8 @@ public class ReactiveUserStoryService {
 
     private final ReactiveUserStoryRepository userStoryRepository;
     private final ReactiveProjectRepository projectRepository;
+    private final DashboardAggregateStore dashboardAggregateStore;
+    private final ProjectCaches projectCaches;
 
     public Flux<UserStoryResponse> getUserStoriesByProject(String projectId) {
         return userStoryRepository.findByProjectIdOrderByPriorityOrderAsc(projectId)
@@ -90,6 +94,7 @@ public class ReactiveUserStoryService {
                             return userStoryRepository.save(story);
                         }))
                 .map(this::toResponse)
+                .doOnNext(this::markDashboardDirty)
                 .doOnSuccess(dto -> log.info("Created user story: {} for project: {}", dto.getId(), request.getProjectId()));
     }
 
@@ -112,6 +117,7 @@ public class ReactiveUserStoryService {
                     return userStoryRepository.save(story);
                 })
                 .map(this::toResponse)
+                .doOnNext(this::markDashboardDirty)
                 .doOnSuccess(dto -> log.info("Updated user story: {}", storyId));
     }
 
@@ -125,6 +131,7 @@ public class ReactiveUserStoryService {
                     return userStoryRepository.save(story);
                 })
                 .map(this::toResponse)
+                .doOnNext(this::markDashboardDirty)
                 .doOnSuccess(dto -> log.info("Assigned user story {} to sprint {}", storyId, sprintId));
     }
 
@@ -138,6 +145,7 @@ public class ReactiveUserStoryService {
                     return userStoryRepository.save(story);
                 })
                 .map(this::toResponse)
+                .doOnNext(this::markDashboardDirty)
                 .doOnSuccess(dto -> log.info("Removed user story {} from sprint", storyId));
     }
 
@@ -150,6 +158,7 @@ public class ReactiveUserStoryService {
                     return userStoryRepository.save(story);
                 })
                 .map(this::toResponse)
+                .doOnNext(this::markDashboardDirty)
                 .doOnSuccess(dto -> log.info("Updated user story {} status to {}", storyId, status));
     }
 
@@ -162,6 +171,7 @@ public class ReactiveUserStoryService {
                     return userStoryRepository.save(story);
                 })
                 .map(this::toResponse)
+                .doOnNext(this::markDashboardDirty)
                 .doOnSuccess(dto -> log.info("Linked user story {} to WBS item {}", storyId, wbsItemId));
     }
 
@@ -169,7 +179,8 @@ public class ReactiveUserStoryService {
     public Mono<Void> deleteUserStory(String storyId) {
         return userStoryRepository.findById(storyId)
                 .switchIfEmpty(Mono.error(CustomException.notFound("User story not found: " + storyId)))
-                .flatMap(story -> userStoryRepository.deleteById(storyId))
+                .flatMap(story -> userStoryRepository.deleteById(storyId)
+                        .doOnSuccess(v -> markChanged(story.getProjectId())))
                 .doOnSuccess(v -> log.info("Deleted user story: {}", storyId));
     }
 
@@ -181,6 +192,15 @@ public class ReactiveUserStoryService {
         return userStoryRepository.sumStoryPointsByPartId(partId);
     }
 
+    private void markDashboardDirty(UserStoryResponse story) {
+        markChanged(story.getProjectId());
+    }
+
+    private void markChanged(String projectId) {
+        dashboardAggregateStore.markDirty(projectId, DashboardAggregateStore.USER_STORY_SECTIONS);
+        projectCaches.invalidateProject(projectId);
+    }
+
     private UserStoryResponse toResponse(R2dbcUserStory story) {
         List<String> acceptanceCriteriaList = story.getAcceptanceCriteria() != null
                 ? Arrays.asList(story.getAcceptanceCriteria().split("\n"))
@@ -0,0 +1,67 @@
+-- V20260237_01: Daily rollups for chat analytics
+-- Analytics endpoints read day-bucketed counts from these tables instead of
+-- scanning chat_sessions/chat_messages. ChatAnalyticsRollupScheduler keeps
+-- the most recent days current; this migration backfills history once.
+
+-- ============================================================
+-- 1. Range indexes for windowed queries
+-- ============================================================
+CREATE INDEX IF NOT EXISTS idx_chat_sessions_created_at ON chat.chat_sessions(created_at);
+CREATE INDEX IF NOT EXISTS idx_chat_messages_created_at ON chat.chat_messages(created_at);
+
+-- ============================================================
+-- 2. Per-day, per-user activity (sessions created, messages sent in user's sessions)
+-- ============================================================
+CREATE TABLE IF NOT EXISTS chat.chat_daily_user_stats (
+    stat_date       DATE NOT NULL,
+    user_id         VARCHAR(50) NOT NULL,
+    session_count   BIGINT NOT NULL DEFAULT 0,
+    message_count   BIGINT NOT NULL DEFAULT 0,
+    updated_at      TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (stat_date, user_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_chat_daily_user_stats_user ON chat.chat_daily_user_stats(user_id, stat_date);
+
+-- ============================================================
+-- 3. Per-day message counts by role and engine
+-- ============================================================
+CREATE TABLE IF NOT EXISTS chat.chat_daily_engine_stats (
+    stat_date       DATE NOT NULL,
+    role            VARCHAR(20) NOT NULL,
+    engine          VARCHAR(50) NOT NULL,
+    message_count   BIGINT NOT NULL DEFAULT 0,
+    last_message_at TIMESTAMP,
+    updated_at      TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (stat_date, role, engine)
+);
+
+COMMENT ON TABLE chat.chat_daily_user_stats IS 'Daily chat activity per user, maintained by ChatAnalyticsRollupScheduler';
+COMMENT ON TABLE chat.chat_daily_engine_stats IS 'Daily chat message counts per role/engine, maintained by ChatAnalyticsRollupScheduler';
+
+-- ============================================================
+-- 4. Backfill
+-- ============================================================
+INSERT INTO chat.chat_daily_user_stats (stat_date, user_id, session_count, message_count)
+SELECT stat_date, user_id, SUM(session_count), SUM(message_count)
+FROM (
+    SELECT DATE(s.created_at) AS stat_date, s.user_id, COUNT(*) AS session_count, 0 AS message_count
+    FROM chat.chat_sessions s
+    WHERE s.created_at IS NOT NULL
+    GROUP BY DATE(s.created_at), s.user_id
+    UNION ALL
+    SELECT DATE(m.created_at), s.user_id, 0, COUNT(*)
+    FROM chat.chat_messages m
+    JOIN chat.chat_sessions s ON s.id = m.session_id
+    WHERE m.created_at IS NOT NULL
+    GROUP BY DATE(m.created_at), s.user_id
+) t
+GROUP BY stat_date, user_id
+ON CONFLICT (stat_date, user_id) DO NOTHING;
+
+INSERT INTO chat.chat_daily_engine_stats (stat_date, role, engine, message_count, last_message_at)
+SELECT DATE(m.created_at), m.role, COALESCE(m.engine, 'unknown'), COUNT(*), MAX(m.created_at)
+FROM chat.chat_messages m
+WHERE m.created_at IS NOT NULL
+GROUP BY DATE(m.created_at), m.role, COALESCE(m.engine, 'unknown')
+ON CONFLICT (stat_date, role, engine) DO NOTHING;
@@ -0,0 +1,23 @@
+-- V20260237_02: Trigram indexes for task / WBS keyword search
+-- Chat context enrichment and the WBS task tool search free text with
+-- ILIKE '%keyword%'. Without an index every search is a sequential scan.
+-- pg_trgm works on character trigrams, so Korean text (no word separators
+-- between stems and particles) is matched without a language dictionary.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- ============================================================
+-- 1. WBS tasks
+-- ============================================================
+CREATE INDEX IF NOT EXISTS idx_wbs_tasks_name_trgm
+    ON project.wbs_tasks USING gin (name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_wbs_tasks_description_trgm
+    ON project.wbs_tasks USING gin (description gin_trgm_ops);
+
+-- ============================================================
+-- 2. Kanban / sprint tasks
+-- ============================================================
+CREATE INDEX IF NOT EXISTS idx_tasks_title_trgm
+    ON task.tasks USING gin (title gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_tasks_description_trgm
+    ON task.tasks USING gin (description gin_trgm_ops);
@@ -0,0 +1,50 @@
+-- V20260237_03: Precomputed per-project health counters for the PMO portfolio
+-- ReactivePmoService reads these rows instead of running correlated COUNT(*)
+-- subqueries over task.tasks and project.issues for every active project.
+-- PortfolioHealthStore re-aggregates projects whose tasks/issues changed and
+-- periodically refreshes every project (overdue counts move with the date).
+
+-- ============================================================
+-- 1. Counter table
+-- ============================================================
+CREATE TABLE IF NOT EXISTS project.project_health_counters (
+    project_id      VARCHAR(36) PRIMARY KEY,
+    total_tasks     BIGINT NOT NULL DEFAULT 0,
+    done_tasks      BIGINT NOT NULL DEFAULT 0,
+    overdue_tasks   BIGINT NOT NULL DEFAULT 0,
+    open_issues     BIGINT NOT NULL DEFAULT 0,
+    as_of_date      DATE NOT NULL DEFAULT CURRENT_DATE,
+    refreshed_at    TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- ============================================================
+-- 2. Indexes backing per-project re-aggregation
+-- ============================================================
+CREATE INDEX IF NOT EXISTS idx_tasks_project_status ON task.tasks(project_id, status);
+CREATE INDEX IF NOT EXISTS idx_issues_project_status ON project.issues(project_id, status);
+
+-- ============================================================
+-- 3. Backfill
+-- ============================================================
+INSERT INTO project.project_health_counters (project_id, total_tasks, done_tasks, overdue_tasks, open_issues)
+SELECT p.id,
+       COALESCE(t.total_tasks, 0),
+       COALESCE(t.done_tasks, 0),
+       COALESCE(t.overdue_tasks, 0),
+       COALESCE(i.open_issues, 0)
+FROM project.projects p
+LEFT JOIN (
+    SELECT project_id,
+           COUNT(*) AS total_tasks,
+           COUNT(*) FILTER (WHERE status = 'DONE') AS done_tasks,
+           COUNT(*) FILTER (WHERE due_date < CURRENT_DATE AND status NOT IN ('DONE', 'CANCELLED')) AS overdue_tasks
+    FROM task.tasks
+    GROUP BY project_id
+) t ON t.project_id = p.id
+LEFT JOIN (
+    SELECT project_id, COUNT(*) AS open_issues
+    FROM project.issues
+    WHERE status NOT IN ('CLOSED', 'RESOLVED')
+    GROUP BY project_id
+) i ON i.project_id = p.id
+ON CONFLICT (project_id) DO NOTHING;
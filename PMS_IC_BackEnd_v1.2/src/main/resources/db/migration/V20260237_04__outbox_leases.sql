@@ -0,0 +1,31 @@
+-- V20260237_04: Lease columns for the shared outbox engine
+-- OutboxEngine claims rows with UPDATE ... WHERE id IN (SELECT ... FOR UPDATE SKIP LOCKED)
+-- and records the claim in lease_owner / lease_expires_at. Replicas skip rows leased
+-- by someone else until the lease expires, so a crashed pod only delays its rows.
+
+-- ============================================================
+-- 1. Lineage outbox
+-- ============================================================
+ALTER TABLE IF EXISTS lineage.outbox_events
+    ADD COLUMN IF NOT EXISTS next_retry_at TIMESTAMP,
+    ADD COLUMN IF NOT EXISTS lease_owner VARCHAR(100),
+    ADD COLUMN IF NOT EXISTS lease_expires_at TIMESTAMP;
+
+-- Pending and retryable rows in lease order
+CREATE INDEX IF NOT EXISTS idx_lineage_outbox_ready
+    ON lineage.outbox_events(created_at)
+    WHERE status IN ('PENDING', 'FAILED');
+
+-- ============================================================
+-- 2. Deliverable outbox (RAG poller and Redis Streams relay)
+-- ============================================================
+ALTER TABLE project.deliverable_outbox
+    ADD COLUMN IF NOT EXISTS lease_owner VARCHAR(100),
+    ADD COLUMN IF NOT EXISTS lease_expires_at TIMESTAMP;
+
+-- Rows the old poller flagged PROCESSING before crashing never got a retry time
+-- and were never picked up again; the lease replaces that flag.
+UPDATE project.deliverable_outbox
+SET status = 'PENDING'
+WHERE status = 'PROCESSING'
+  AND next_retry_at IS NULL;
@@ -0,0 +1,171 @@
+package com.insuretech.pms.ai.service;
+
+import com.insuretech.pms.ai.dto.AiBriefingResponseDto;
+import com.insuretech.pms.ai.dto.RawProjectMetrics;
+import com.insuretech.pms.ai.service.AiBriefingCacheService.CachedBriefing;
+import com.insuretech.pms.common.exception.CustomException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("AiBriefingService Tests")
+class AiBriefingServiceTest {
+
+    private static final String PROJECT = "proj-001";
+
+    private AiBriefingCacheService cacheService;
+    private AiDataAggregationService aggregationService;
+    private AiLlmClient llmClient;
+    private SimpleMeterRegistry meterRegistry;
+    private AiBriefingService service;
+
+    @BeforeEach
+    void setUp() {
+        cacheService = mock(AiBriefingCacheService.class);
+        aggregationService = mock(AiDataAggregationService.class);
+        llmClient = mock(AiLlmClient.class);
+        meterRegistry = new SimpleMeterRegistry();
+
+        when(cacheService.store(anyString(), anyString(), anyString(), any())).thenReturn(Mono.empty());
+        when(cacheService.invalidate(anyString(), anyString(), anyString())).thenReturn(Mono.just(true));
+        when(aggregationService.checkCompleteness(any())).thenReturn(List.of());
+        when(llmClient.enrichBriefing(anyString(), anyString(), anyString(), any()))
+                .thenAnswer(inv -> Mono.just(inv.getArgument(3)));
+
+        AiMetricsSnapshotStore snapshotStore =
+                new AiMetricsSnapshotStore(aggregationService, new AiRuleEngine(), meterRegistry);
+        ReflectionTestUtils.setField(snapshotStore, "ttlSeconds", 60L);
+
+        service = new AiBriefingService(cacheService, snapshotStore, new AiRuleEngine(),
+                mock(AiActionMapper.class), llmClient, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("should share one generation between concurrent misses")
+    void shouldCoalesceConcurrentMisses() {
+        Sinks.One<RawProjectMetrics> metrics = Sinks.one();
+        when(cacheService.lookup(PROJECT, "PM", "current_sprint")).thenReturn(Mono.empty());
+        when(aggregationService.aggregateMetrics(PROJECT, "current_sprint")).thenReturn(metrics.asMono());
+
+        Mono<AiBriefingResponseDto> first = service.getBriefing(PROJECT, "PM", "current_sprint");
+        Mono<AiBriefingResponseDto> second = service.getBriefing(PROJECT, "PM", "current_sprint");
+        first.subscribe();
+        second.subscribe();
+        metrics.tryEmitValue(RawProjectMetrics.builder().build());
+
+        verify(aggregationService, times(1)).aggregateMetrics(PROJECT, "current_sprint");
+        assertThat(meterRegistry.counter("pms.ai.briefing.cache", "result", "coalesced").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("should aggregate once for the briefings of every role")
+    void shouldShareSnapshotAcrossRoles() {
+        when(aggregationService.aggregateMetrics(PROJECT, "current_sprint"))
+                .thenReturn(Mono.just(RawProjectMetrics.builder().build()));
+
+        StepVerifier.create(service.warmBriefings(PROJECT, List.of("PM", "PMO_HEAD", "DEVELOPER", "QA"), "current_sprint"))
+                .expectNext(4L)
+                .verifyComplete();
+
+        verify(aggregationService, times(1)).aggregateMetrics(PROJECT, "current_sprint");
+        verify(cacheService, atLeastOnce()).store(eq(PROJECT), eq("QA"), eq("current_sprint"), any());
+    }
+
+    @Test
+    @DisplayName("should serve a stale briefing and regenerate it in the background")
+    void shouldServeStaleWhileRevalidating() {
+        AiBriefingResponseDto cached = AiBriefingResponseDto.builder().build();
+        when(cacheService.lookup(PROJECT, "PM", "current_sprint"))
+                .thenReturn(Mono.just(new CachedBriefing(cached, false, true)));
+        when(aggregationService.aggregateMetrics(PROJECT, "current_sprint"))
+                .thenReturn(Mono.just(RawProjectMetrics.builder().build()));
+
+        StepVerifier.create(service.getBriefing(PROJECT, "PM", "current_sprint"))
+                .expectNext(cached)
+                .verifyComplete();
+
+        verify(aggregationService, times(1)).aggregateMetrics(PROJECT, "current_sprint");
+        verify(cacheService, atLeastOnce()).store(eq(PROJECT), eq("PM"), eq("current_sprint"), any());
+        assertThat(meterRegistry.counter("pms.ai.briefing.cache", "result", "stale").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("should serve a fresh briefing without touching the database")
+    void shouldServeFreshHit() {
+        AiBriefingResponseDto cached = AiBriefingResponseDto.builder().build();
+        when(cacheService.lookup(PROJECT, "PM", "current_sprint"))
+                .thenReturn(Mono.just(new CachedBriefing(cached, true, false)));
+
+        StepVerifier.create(service.getBriefing(PROJECT, "PM", "current_sprint"))
+                .expectNext(cached)
+                .verifyComplete();
+
+        verify(aggregationService, never()).aggregateMetrics(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("should regenerate after a generation that was already running when refresh was requested")
+    void shouldChainRefreshAfterRunningGeneration() {
+        Sinks.One<RawProjectMetrics> before = Sinks.one();
+        when(cacheService.lookup(PROJECT, "PM", "current_sprint")).thenReturn(Mono.empty());
+        when(aggregationService.aggregateMetrics(PROJECT, "current_sprint"))
+                .thenReturn(before.asMono(), Mono.just(RawProjectMetrics.builder().build()));
+
+        service.getBriefing(PROJECT, "PM", "current_sprint").subscribe();
+        List<AiBriefingResponseDto> refreshed = new ArrayList<>();
+        service.refreshBriefing(PROJECT, "PM", "current_sprint").subscribe(refreshed::add);
+        verify(aggregationService, times(1)).aggregateMetrics(PROJECT, "current_sprint");
+        assertThat(refreshed).isEmpty();
+
+        before.tryEmitValue(RawProjectMetrics.builder().build());
+
+        verify(aggregationService, times(2)).aggregateMetrics(PROJECT, "current_sprint");
+        assertThat(refreshed).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("should share one chained generation between refreshes requested during a running one")
+    void shouldCoalesceRefreshesBehindRunningGeneration() {
+        Sinks.One<RawProjectMetrics> before = Sinks.one();
+        when(cacheService.lookup(PROJECT, "PM", "current_sprint")).thenReturn(Mono.empty());
+        when(aggregationService.aggregateMetrics(PROJECT, "current_sprint"))
+                .thenReturn(before.asMono(), Mono.just(RawProjectMetrics.builder().build()));
+
+        service.getBriefing(PROJECT, "PM", "current_sprint").subscribe();
+        service.refreshBriefing(PROJECT, "PM", "current_sprint").subscribe();
+        service.refreshBriefing(PROJECT, "PM", "current_sprint").subscribe();
+        before.tryEmitValue(RawProjectMetrics.builder().build());
+
+        verify(aggregationService, times(2)).aggregateMetrics(PROJECT, "current_sprint");
+        assertThat(meterRegistry.counter("pms.ai.briefing.cache", "result", "coalesced").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("should reject a scope the aggregation does not support")
+    void shouldRejectUnsupportedScope() {
+        StepVerifier.create(service.getBriefing(PROJECT, "PM", "whatever-" + System.nanoTime()))
+                .expectError(CustomException.class)
+                .verify();
+
+        verify(cacheService, never()).lookup(anyString(), anyString(), anyString());
+    }
+}
@@ -0,0 +1,97 @@
+package com.insuretech.pms.ai.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("AiBriefingWarmupScheduler Tests")
+class AiBriefingWarmupSchedulerTest {
+
+    private AiBriefingService briefingService;
+    private DatabaseClient databaseClient;
+    private AiBriefingWarmupScheduler scheduler;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        briefingService = mock(AiBriefingService.class);
+        databaseClient = mock(DatabaseClient.class, Answers.RETURNS_DEEP_STUBS);
+        TransactionalOperator transactionalOperator = mock(TransactionalOperator.class);
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        when(databaseClient.sql(contains("project.projects")).map(any(Function.class)).all())
+                .thenReturn(Flux.just("proj-001", "proj-002"));
+        when(briefingService.warmBriefings(anyString(), anyList(), anyString())).thenReturn(Mono.just(4L));
+
+        scheduler = new AiBriefingWarmupScheduler(briefingService, databaseClient, transactionalOperator);
+        ReflectionTestUtils.setField(scheduler, "roles", List.of("PM", "PMO_HEAD", "DEVELOPER", "QA"));
+        ReflectionTestUtils.setField(scheduler, "scope", "current_sprint");
+        ReflectionTestUtils.setField(scheduler, "concurrency", 2);
+    }
+
+    @Test
+    @DisplayName("should warm every active project when it holds the lock")
+    void shouldWarmWhenLockAcquired() {
+        lockAcquired(true);
+
+        StepVerifier.create(scheduler.warmUpIfLeader())
+                .expectNext(8L)
+                .verifyComplete();
+
+        verify(briefingService).warmBriefings(eq("proj-001"), anyList(), eq("current_sprint"));
+        verify(briefingService).warmBriefings(eq("proj-002"), anyList(), eq("current_sprint"));
+    }
+
+    @Test
+    @DisplayName("should skip the run when another replica holds the lock")
+    void shouldSkipWhenLockHeldElsewhere() {
+        lockAcquired(false);
+
+        StepVerifier.create(scheduler.warmUpIfLeader())
+                .verifyComplete();
+
+        verify(briefingService, never()).warmBriefings(anyString(), anyList(), anyString());
+    }
+
+    @Test
+    @DisplayName("should keep warming other projects when one fails")
+    void shouldContinueAfterProjectFailure() {
+        lockAcquired(true);
+        when(briefingService.warmBriefings(eq("proj-001"), anyList(), anyString()))
+                .thenReturn(Mono.error(new IllegalStateException("boom")));
+
+        StepVerifier.create(scheduler.warmUpIfLeader())
+                .expectNext(4L)
+                .verifyComplete();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void lockAcquired(boolean locked) {
+        when(databaseClient.sql(contains("pg_try_advisory_xact_lock"))
+                .bind(eq("key"), any())
+                .map(any(BiFunction.class))
+                .one())
+                .thenReturn(Mono.just(locked));
+    }
+}
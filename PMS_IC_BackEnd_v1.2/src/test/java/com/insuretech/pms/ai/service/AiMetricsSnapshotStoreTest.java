@@ -0,0 +1,128 @@
+package com.insuretech.pms.ai.service;
+
+import com.insuretech.pms.ai.dto.RawProjectMetrics;
+import com.insuretech.pms.ai.service.AiMetricsSnapshotStore.MetricsSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("AiMetricsSnapshotStore Tests")
+class AiMetricsSnapshotStoreTest {
+
+    private static final String PROJECT = "proj-001";
+    private static final String SCOPE = "current_sprint";
+
+    private AiDataAggregationService aggregationService;
+    private SimpleMeterRegistry meterRegistry;
+    private AiMetricsSnapshotStore store;
+
+    @BeforeEach
+    void setUp() {
+        aggregationService = mock(AiDataAggregationService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        when(aggregationService.checkCompleteness(any())).thenReturn(List.of());
+
+        store = new AiMetricsSnapshotStore(aggregationService, new AiRuleEngine(), meterRegistry);
+        ReflectionTestUtils.setField(store, "ttlSeconds", 60L);
+    }
+
+    @Test
+    @DisplayName("should reuse a snapshot within the TTL")
+    void shouldReuseSnapshotWithinTtl() {
+        when(aggregationService.aggregateMetrics(PROJECT, SCOPE))
+                .thenReturn(Mono.just(RawProjectMetrics.builder().build()));
+
+        MetricsSnapshot first = store.get(PROJECT, SCOPE).block();
+        MetricsSnapshot second = store.get(PROJECT, SCOPE).block();
+
+        assertThat(second).isSameAs(first);
+        verify(aggregationService, times(1)).aggregateMetrics(PROJECT, SCOPE);
+        assertThat(counter("computed")).isEqualTo(1.0);
+        assertThat(counter("hit")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("should aggregate again once the snapshot expired")
+    void shouldRecomputeAfterTtl() throws InterruptedException {
+        ReflectionTestUtils.setField(store, "ttlSeconds", 0L);
+        when(aggregationService.aggregateMetrics(PROJECT, SCOPE))
+                .thenReturn(Mono.just(RawProjectMetrics.builder().build()));
+
+        store.get(PROJECT, SCOPE).block();
+        Thread.sleep(5);
+        store.get(PROJECT, SCOPE).block();
+
+        verify(aggregationService, times(2)).aggregateMetrics(PROJECT, SCOPE);
+        assertThat(counter("computed")).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("should drop a failed snapshot so the next read retries")
+    void shouldEvictOnError() {
+        when(aggregationService.aggregateMetrics(PROJECT, SCOPE))
+                .thenReturn(Mono.error(new IllegalStateException("db down")))
+                .thenReturn(Mono.just(RawProjectMetrics.builder().build()));
+
+        StepVerifier.create(store.get(PROJECT, SCOPE))
+                .expectError(IllegalStateException.class)
+                .verify();
+        StepVerifier.create(store.get(PROJECT, SCOPE))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        verify(aggregationService, times(2)).aggregateMetrics(PROJECT, SCOPE);
+        assertThat(counter("computed")).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("should aggregate again after invalidation")
+    void shouldRecomputeAfterInvalidate() {
+        when(aggregationService.aggregateMetrics(PROJECT, SCOPE))
+                .thenReturn(Mono.just(RawProjectMetrics.builder().build()));
+
+        store.get(PROJECT, SCOPE).block();
+        store.invalidate(PROJECT, SCOPE);
+        store.get(PROJECT, SCOPE).block();
+
+        verify(aggregationService, times(2)).aggregateMetrics(PROJECT, SCOPE);
+    }
+
+    @Test
+    @DisplayName("should sweep expired snapshots and keep live ones")
+    void shouldSweepExpiredSnapshots() throws InterruptedException {
+        when(aggregationService.aggregateMetrics(PROJECT, SCOPE))
+                .thenReturn(Mono.just(RawProjectMetrics.builder().build()));
+        store.get(PROJECT, SCOPE).block();
+
+        store.sweepExpired();
+        assertThat(snapshots()).containsOnlyKeys(PROJECT + ":" + SCOPE);
+
+        ReflectionTestUtils.setField(store, "ttlSeconds", 0L);
+        Thread.sleep(5);
+        store.sweepExpired();
+        assertThat(snapshots()).isEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> snapshots() {
+        return (Map<String, Object>) ReflectionTestUtils.getField(store, "snapshots");
+    }
+
+    private double counter(String result) {
+        return meterRegistry.counter("pms.ai.briefing.snapshot", "result", result).count();
+    }
+}
@@ -0,0 +1,113 @@
+package com.insuretech.pms.auth.service;
+
+import com.insuretech.pms.auth.dto.UserDto;
+import com.insuretech.pms.auth.reactive.entity.R2dbcUser;
+import com.insuretech.pms.auth.reactive.repository.ReactiveUserRepository;
+import com.insuretech.pms.common.security.JwtPrincipalCache;
+import com.insuretech.pms.support.R2dbcTestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReactiveUserService Tests")
+class ReactiveUserServiceTest {
+
+    @Mock
+    private ReactiveUserRepository userRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Mock
+    private JwtPrincipalCache principalCache;
+
+    @InjectMocks
+    private ReactiveUserService userService;
+
+    private R2dbcUser testUser;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        R2dbcTestDataFactory.resetCounter();
+        testUser = R2dbcTestDataFactory.developer();
+
+        lenient().when(transactionalOperator.transactional(any(Mono.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Nested
+    @DisplayName("principal cache invalidation")
+    class PrincipalCacheInvalidation {
+
+        @Test
+        @DisplayName("should not invalidate cached principals when a user is read")
+        void shouldNotInvalidateOnRead() {
+            when(userRepository.findById(testUser.getId())).thenReturn(Mono.just(testUser));
+
+            StepVerifier.create(userService.getUserById(testUser.getId()))
+                    .assertNext(dto -> assertThat(dto.getEmail()).isEqualTo(testUser.getEmail()))
+                    .verifyComplete();
+
+            verify(principalCache, never()).invalidate(anyString());
+        }
+
+        @Test
+        @DisplayName("should invalidate cached principals when a user is deactivated")
+        void shouldInvalidateOnStatusChange() {
+            testUser.setActive(false);
+            when(userRepository.updateActiveStatus(testUser.getId(), false)).thenReturn(Mono.empty());
+            when(userRepository.findById(testUser.getId())).thenReturn(Mono.just(testUser));
+
+            StepVerifier.create(userService.updateUserStatus(testUser.getId(), false))
+                    .assertNext(dto -> assertThat(dto.getActive()).isFalse())
+                    .verifyComplete();
+
+            verify(principalCache).invalidate(testUser.getEmail());
+        }
+
+        @Test
+        @DisplayName("should invalidate cached principals when a user's role changes")
+        void shouldInvalidateOnRoleChange() {
+            when(userRepository.findById(testUser.getId())).thenReturn(Mono.just(testUser));
+            when(userRepository.save(any(R2dbcUser.class))).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+            UserDto update = UserDto.builder().name(testUser.getName()).role("PM").build();
+
+            StepVerifier.create(userService.updateUser(testUser.getId(), update))
+                    .assertNext(dto -> assertThat(dto.getRole()).isEqualTo("PM"))
+                    .verifyComplete();
+
+            verify(principalCache).invalidate(testUser.getEmail());
+        }
+
+        @Test
+        @DisplayName("should invalidate cached principals when a user is deleted")
+        void shouldInvalidateOnDelete() {
+            when(userRepository.findById(testUser.getId())).thenReturn(Mono.just(testUser));
+            when(userRepository.save(any(R2dbcUser.class))).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+
+            StepVerifier.create(userService.deleteUser(testUser.getId()))
+                    .verifyComplete();
+
+            verify(principalCache).invalidate(testUser.getEmail());
+        }
+    }
+}
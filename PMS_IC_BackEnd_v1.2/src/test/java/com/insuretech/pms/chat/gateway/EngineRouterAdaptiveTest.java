@@ -0,0 +1,119 @@
+package com.insuretech.pms.chat.gateway;
+
+import com.insuretech.pms.chat.gateway.dto.GatewayRequest;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("EngineRouter adaptive policy Tests")
+class EngineRouterAdaptiveTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimiter rateLimiter;
+    private EngineLoadTracker loadTracker;
+    private EngineRouter router;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+
+        HealthChecker healthChecker = mock(HealthChecker.class);
+        when(healthChecker.isHealthy(anyString())).thenReturn(true);
+        VllmConfigService vllmConfigService = mock(VllmConfigService.class);
+        when(vllmConfigService.isEnabled()).thenReturn(true);
+        GgufConfigService ggufConfigService = mock(GgufConfigService.class);
+        when(ggufConfigService.isEnabled()).thenReturn(true);
+
+        rateLimiter = new RateLimiter(meterRegistry);
+        ReflectionTestUtils.setField(rateLimiter, "ggufMaxConcurrent", 1);
+        ReflectionTestUtils.setField(rateLimiter, "vllmMaxConcurrent", 1);
+        ReflectionTestUtils.setField(rateLimiter, "perUserMaxConcurrent", 5);
+        ReflectionTestUtils.setField(rateLimiter, "acquireTimeoutSeconds", 1);
+        ReflectionTestUtils.setField(rateLimiter, "maxQueueDepth", 2);
+        rateLimiter.init();
+
+        loadTracker = new EngineLoadTracker(meterRegistry);
+        ReflectionTestUtils.setField(loadTracker, "alpha", 1.0);
+
+        router = new EngineRouter(healthChecker, vllmConfigService, ggufConfigService,
+                CircuitBreakerRegistry.ofDefaults(), rateLimiter, loadTracker, meterRegistry);
+        ReflectionTestUtils.setField(router, "routingPolicy", "adaptive");
+        ReflectionTestUtils.setField(router, "switchMargin", 0.15);
+        ReflectionTestUtils.setField(router, "priorDecodeMs", 3000L);
+        ReflectionTestUtils.setField(router, "contextThreshold", 4096);
+        ReflectionTestUtils.setField(router, "toolsPreferVllm", true);
+    }
+
+    @Test
+    @DisplayName("should fall back to the rules before any engine has been measured")
+    void shouldUseRulesOnColdStart() {
+        String engine = router.selectEngine(autoRequest());
+
+        assertThat(engine).isIn("vllm", "gguf");
+        assertThat(decisions("adaptive", "none", "cold_start")).isEqualTo(1.0);
+        assertThat(decisions("rules", engine, "rules")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("should pick the engine with the lowest predicted completion time")
+    void shouldPickFastestEngine() {
+        measure("vllm", 100, 900);   // ~1000ms
+        measure("gguf", 500, 1000);  // ~1500ms
+
+        assertThat(router.selectEngine(autoRequest())).isEqualTo("vllm");
+        assertThat(decisions("adaptive", "vllm", "lowest_predicted")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("should route around an engine whose slots are taken")
+    void shouldAccountForQueueDepth() {
+        measure("vllm", 100, 900);
+        measure("gguf", 500, 1000);
+        rateLimiter.acquire("vllm", null).block();
+
+        // vLLM now waits one full service time: ~2000ms against ~1500ms
+        assertThat(router.predictCompletionMs("vllm")).isGreaterThan(router.predictCompletionMs("gguf"));
+        assertThat(router.selectEngine(autoRequest())).isEqualTo("gguf");
+    }
+
+    @Test
+    @DisplayName("should stay on the previous engine unless another is clearly faster")
+    void shouldApplyHysteresis() {
+        measure("vllm", 100, 900);
+        measure("gguf", 500, 1000);
+        assertThat(router.selectEngine(autoRequest())).isEqualTo("vllm");
+
+        measure("gguf", 100, 850);   // ~950ms, within the switch margin
+        assertThat(router.selectEngine(autoRequest())).isEqualTo("vllm");
+        assertThat(decisions("adaptive", "vllm", "hysteresis")).isEqualTo(1.0);
+
+        measure("gguf", 100, 400);   // ~500ms
+        assertThat(router.selectEngine(autoRequest())).isEqualTo("gguf");
+    }
+
+    private void measure(String engine, long ttftMs, long decodeMs) {
+        loadTracker.recordTtft(engine, ttftMs);
+        loadTracker.recordCompletion(engine, 1000, decodeMs);
+    }
+
+    private double decisions(String policy, String engine, String reason) {
+        var counter = meterRegistry.find("llm.routing.decision")
+                .tag("policy", policy)
+                .tag("engine", engine)
+                .tag("reason", reason)
+                .counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    private GatewayRequest autoRequest() {
+        return GatewayRequest.builder().engine("auto").build();
+    }
+}
@@ -0,0 +1,146 @@
+package com.insuretech.pms.chat.gateway;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insuretech.pms.chat.dto.ChatMessageDto;
+import com.insuretech.pms.chat.dto.sse.DeltaEvent;
+import com.insuretech.pms.chat.dto.sse.ErrorEvent;
+import com.insuretech.pms.chat.dto.sse.MetaEvent;
+import com.insuretech.pms.chat.dto.sse.SseEventBuilder;
+import com.insuretech.pms.chat.gateway.dto.GatewayRequest;
+import com.insuretech.pms.chat.gateway.dto.SafetyContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("LlmResponseCache Tests")
+class LlmResponseCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final SseEventBuilder sseBuilder = new SseEventBuilder(objectMapper);
+    private SimpleMeterRegistry meterRegistry;
+    private LlmResponseCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new LlmResponseCache(sseBuilder, objectMapper, meterRegistry);
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 600L);
+        ReflectionTestUtils.setField(cache, "maxEntries", 10);
+        ReflectionTestUtils.setField(cache, "maxPromptChars", 2000);
+        ReflectionTestUtils.setField(cache, "replayChunkChars", 4);
+        ReflectionTestUtils.setField(cache, "replayIntervalMs", 0L);
+    }
+
+    @Test
+    @DisplayName("should key equivalent prompts identically and differ by context")
+    void shouldNormalizePromptAndHashContext() {
+        String key = cache.keyFor(request("이번 스프린트 진행률은?", "docs-v1"), "gguf", "gemma");
+
+        assertThat(cache.keyFor(request("  이번   스프린트 진행률은 ", "docs-v1"), "gguf", "gemma")).isEqualTo(key);
+        assertThat(cache.keyFor(request("이번 스프린트 진행률은?", "docs-v2"), "gguf", "gemma")).isNotEqualTo(key);
+        assertThat(cache.keyFor(request("이번 스프린트 진행률은?", "docs-v1"), "vllm", "qwen")).isNotEqualTo(key);
+    }
+
+    @Test
+    @DisplayName("should replay a completed answer and count hits per engine")
+    void shouldReplayCompletedAnswer() {
+        GatewayRequest request = request("진행률?", "docs");
+        String key = cache.keyFor(request, "gguf", "gemma");
+
+        assertThat(cache.lookup(key, request, "gguf", Instant.now())).isEmpty();
+        cache.recordInto(key, request, "gguf", workerStream("진행률은 ", "42%입니다.")).blockLast();
+
+        List<ServerSentEvent<String>> replay = cache.lookup(key, request, "gguf", Instant.now())
+                .orElseThrow().collectList().block();
+
+        assertThat(replay).extracting(ServerSentEvent::event)
+                .containsExactly("meta", "delta", "delta", "delta", "done");
+        assertThat(replay.get(0).data()).contains("\"mode\":\"cache\"");
+        assertThat(meterRegistry.counter("llm.response_cache", "engine", "gguf", "result", "hit").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("llm.response_cache", "engine", "gguf", "result", "miss").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should not store failed answers and should drop answers of invalidated projects")
+    void shouldSkipFailuresAndHonourInvalidation() {
+        GatewayRequest request = request("진행률?", "docs");
+        String key = cache.keyFor(request, "gguf", "gemma");
+
+        cache.recordInto(key, request, "gguf", Flux.just(
+                meta(), sseBuilder.deltaText("부분"), sseBuilder.error(ErrorEvent.timeout("t")))).blockLast();
+        assertThat(cache.lookup(key, request, "gguf", Instant.now())).isEmpty();
+
+        cache.recordInto(key, request, "gguf", workerStream("답변")).blockLast();
+        cache.invalidateProject("project-1");
+        assertThat(cache.lookup(key, request, "gguf", Instant.now())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should not store answers the worker truncated or that were cut off")
+    void shouldSkipTruncatedAnswers() {
+        OpenAiSseTransformer transformer = new OpenAiSseTransformer(objectMapper, sseBuilder);
+        GatewayRequest request = request("진행률?", "docs");
+        String key = cache.keyFor(request, "gguf", "gemma");
+        String partial = "data: {\"choices\":[{\"delta\":{\"content\":\"진행률은 \"},\"finish_reason\":null}]}\n\n";
+        String length = "data: {\"choices\":[{\"delta\":{},\"finish_reason\":\"length\"}]}\n\n";
+
+        cache.recordInto(key, request, "gguf",
+                Flux.just(meta()).concatWith(transformer.transformOpenAiSseBuffers(body(partial + length)))).blockLast();
+        assertThat(cache.lookup(key, request, "gguf", Instant.now())).isEmpty();
+
+        cache.recordInto(key, request, "gguf",
+                Flux.just(meta()).concatWith(transformer.transformOpenAiSseBuffers(body(partial)))).blockLast();
+        assertThat(cache.lookup(key, request, "gguf", Instant.now())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should not cache requests with tool results or tools")
+    void shouldBypassToolRequests() {
+        GatewayRequest request = request("진행률?", "docs");
+        request.setMessages(List.of(
+                ChatMessageDto.builder().role("user").content("진행률?").build(),
+                ChatMessageDto.builder().role("tool").content("{}").build()));
+
+        assertThat(cache.keyFor(request, "gguf", "gemma")).isNull();
+    }
+
+    private GatewayRequest request(String prompt, String docs) {
+        return GatewayRequest.builder()
+                .traceId("trace")
+                .engine("auto")
+                .messages(List.of(
+                        ChatMessageDto.builder().role("system").content("You are a helpful assistant.").build(),
+                        ChatMessageDto.builder().role("system").content("Context from retrieved documents:\n" + docs).build(),
+                        ChatMessageDto.builder().role("user").content(prompt).build()))
+                .safety(SafetyContext.builder().projectId("project-1").build())
+                .build();
+    }
+
+    private ServerSentEvent<String> meta() {
+        return sseBuilder.meta(MetaEvent.builder().engine("gguf").model("gemma").mode("chat").build());
+    }
+
+    private static Flux<DataBuffer> body(String sse) {
+        return Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(sse.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private Flux<ServerSentEvent<String>> workerStream(String... texts) {
+        return Flux.concat(
+                Flux.just(meta()),
+                Flux.fromArray(texts).map(text -> sseBuilder.delta(DeltaEvent.text(text))),
+                Flux.just(sseBuilder.doneStop()));
+    }
+}
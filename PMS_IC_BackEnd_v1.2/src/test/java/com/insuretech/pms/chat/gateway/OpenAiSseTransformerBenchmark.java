@@ -0,0 +1,91 @@
+package com.insuretech.pms.chat.gateway;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insuretech.pms.chat.dto.sse.SseEventBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link OpenAiSseTransformer} over a recorded-size worker stream.
+ *
+ * {@code buffers} compares the DataBuffer path used by the gateway against the
+ * String line path it replaced, at 1 and 8 chunks per network read. Not run by
+ * surefire; start it from the IDE or with
+ * {@code java -cp target/test-classes:<test classpath> com.insuretech.pms.chat.gateway.OpenAiSseTransformerBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OpenAiSseTransformerBenchmark {
+
+    private static final int TOKENS = 512;
+
+    @Param({"1", "8"})
+    public int chunksPerRead;
+
+    private OpenAiSseTransformer transformer;
+    private List<byte[]> reads;
+    private List<String> lines;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        transformer = new OpenAiSseTransformer(objectMapper, new SseEventBuilder(objectMapper));
+
+        reads = new ArrayList<>();
+        lines = new ArrayList<>();
+        StringBuilder read = new StringBuilder();
+        for (int i = 0; i < TOKENS; i++) {
+            String data = "{\"id\":\"chatcmpl-1\",\"object\":\"chat.completion.chunk\",\"choices\":[{\"index\":0,"
+                    + "\"delta\":{\"content\":\"토큰" + i + " \"},\"finish_reason\":null}]}";
+            lines.add("data: " + data);
+            read.append("data: ").append(data).append("\n\n");
+            if ((i + 1) % chunksPerRead == 0) {
+                reads.add(read.toString().getBytes(StandardCharsets.UTF_8));
+                read.setLength(0);
+            }
+        }
+        read.append("data: {\"choices\":[{\"delta\":{},\"finish_reason\":\"stop\"}]}\n\ndata: [DONE]\n\n");
+        reads.add(read.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public long buffers() {
+        Flux<DataBuffer> body = Flux.fromIterable(reads).map(DefaultDataBufferFactory.sharedInstance::wrap);
+        return transformer.transformOpenAiSseBuffers(body).count().block();
+    }
+
+    @Benchmark
+    public long stringLines() {
+        return transformer.transformOpenAiSse(Flux.fromIterable(lines)).count().block();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(OpenAiSseTransformerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
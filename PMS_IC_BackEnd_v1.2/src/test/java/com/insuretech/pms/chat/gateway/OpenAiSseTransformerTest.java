@@ -0,0 +1,154 @@
+package com.insuretech.pms.chat.gateway;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insuretech.pms.chat.dto.sse.SseEventBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("OpenAiSseTransformer Tests")
+class OpenAiSseTransformerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private OpenAiSseTransformer transformer;
+
+    @BeforeEach
+    void setUp() {
+        transformer = new OpenAiSseTransformer(objectMapper, new SseEventBuilder(objectMapper));
+        ReflectionTestUtils.setField(transformer, "maxCoalescedChars", 8);
+    }
+
+    @Test
+    @DisplayName("should coalesce text chunks that arrive in one read")
+    void shouldCoalesceTextWithinRead() throws Exception {
+        List<ServerSentEvent<String>> events = transformBuffers(
+                textChunk("Hel") + textChunk("lo") + "data: [DONE]\n\n");
+
+        assertThat(events).hasSize(2);
+        assertThat(text(events.get(0))).isEqualTo("Hello");
+        assertThat(events.get(1).event()).isEqualTo("done");
+    }
+
+    @Test
+    @DisplayName("should split coalesced text at the size bound")
+    void shouldBoundCoalescedText() throws Exception {
+        List<ServerSentEvent<String>> events = transformBuffers(
+                textChunk("12345") + textChunk("67890") + textChunk("ab"));
+
+        assertThat(events).hasSize(3);
+        assertThat(text(events.get(0))).isEqualTo("12345");
+        assertThat(text(events.get(1))).isEqualTo("67890ab");
+    }
+
+    @Test
+    @DisplayName("should frame lines and multi-byte characters split across reads")
+    void shouldFrameAcrossReads() throws Exception {
+        String firstLine = textChunk("안녕");
+        byte[] body = (firstLine + "data: {\"choices\":[{\"delta\":{\"content\":\"!\"}}]}")
+                .getBytes(StandardCharsets.UTF_8);
+        // Split inside the first Korean character, then inside the JSON of the second line
+        int insideChar = firstLine.substring(0, firstLine.indexOf('안')).getBytes(StandardCharsets.UTF_8).length + 1;
+        int insideSecond = firstLine.getBytes(StandardCharsets.UTF_8).length + 10;
+        List<ServerSentEvent<String>> events = transform(
+                Arrays.copyOfRange(body, 0, insideChar),
+                Arrays.copyOfRange(body, insideChar, insideSecond),
+                Arrays.copyOfRange(body, insideSecond, body.length));
+
+        assertThat(events).hasSize(3);
+        assertThat(text(events.get(0))).isEqualTo("안녕");
+        // The last line has no trailing newline and is flushed on completion
+        assertThat(text(events.get(1))).isEqualTo("!");
+    }
+
+    @Test
+    @DisplayName("should accumulate tool call fragments and finish with tool_calls")
+    void shouldAccumulateToolCalls() throws Exception {
+        String first = "data: {\"choices\":[{\"delta\":{\"tool_calls\":[{\"index\":0,\"id\":\"call_1\","
+                + "\"function\":{\"name\":\"search\",\"arguments\":\"{\\\"q\\\":\"}}]}}]}\n\n";
+        String second = "data: {\"choices\":[{\"delta\":{\"tool_calls\":[{\"index\":0,"
+                + "\"function\":{\"arguments\":\"\\\"x\\\"}\"}}]},\"finish_reason\":\"tool_calls\"}]}\n\n";
+
+        List<ServerSentEvent<String>> events = transformBuffers(textChunk("Hi") + first, second);
+
+        assertThat(events).extracting(ServerSentEvent::event).containsExactly("delta", "delta", "delta", "done");
+        assertThat(text(events.get(0))).isEqualTo("Hi");
+        assertThat(json(events.get(1)).path("toolCall").path("name").asText()).isEqualTo("search");
+
+        JsonNode done = json(events.get(3));
+        assertThat(done.toString()).contains("call_1").contains("{\\\"q\\\":\\\"x\\\"}");
+    }
+
+    @Test
+    @DisplayName("should carry the worker's finish_reason into the done event")
+    void shouldCarryFinishReason() throws Exception {
+        String truncated = "data: {\"choices\":[{\"delta\":{},\"finish_reason\":\"length\"}]}\n\n";
+
+        List<ServerSentEvent<String>> stopped = transformBuffers(
+                textChunk("ok") + "data: {\"choices\":[{\"delta\":{},\"finish_reason\":\"stop\"}]}\n\n");
+        List<ServerSentEvent<String>> cutAtLimit = transformBuffers(textChunk("par") + truncated);
+        List<ServerSentEvent<String>> cutOff = transformBuffers(textChunk("par"));
+
+        assertThat(json(stopped.get(1)).path("finish_reason").asText()).isEqualTo("stop");
+        assertThat(json(cutAtLimit.get(1)).path("finish_reason").asText()).isEqualTo("length");
+        assertThat(json(cutOff.get(1)).path("finish_reason").isNull()).isTrue();
+    }
+
+    @Test
+    @DisplayName("should skip malformed chunks and non-data lines")
+    void shouldSkipMalformedChunks() throws Exception {
+        List<ServerSentEvent<String>> events = transformBuffers(
+                ": keep-alive\n\ndata: {\"choices\":[{\"delta\":\n\n" + textChunk("ok"));
+
+        assertThat(events).hasSize(2);
+        assertThat(text(events.get(0))).isEqualTo("ok");
+    }
+
+    @Test
+    @DisplayName("should transform pre-split String lines without coalescing")
+    void shouldTransformStringLines() throws Exception {
+        List<ServerSentEvent<String>> events = transformer.transformOpenAiSse(Flux.just(
+                        "data: {\"choices\":[{\"delta\":{\"content\":\"a\"}}]}",
+                        "data: {\"choices\":[{\"delta\":{\"content\":\"b\"}}]}",
+                        "data: [DONE]"))
+                .collectList()
+                .block();
+
+        assertThat(events).hasSize(3);
+        assertThat(text(events.get(0))).isEqualTo("a");
+        assertThat(text(events.get(1))).isEqualTo("b");
+    }
+
+    private List<ServerSentEvent<String>> transformBuffers(String... reads) {
+        return transform(Arrays.stream(reads).map(r -> r.getBytes(StandardCharsets.UTF_8)).toArray(byte[][]::new));
+    }
+
+    private List<ServerSentEvent<String>> transform(byte[]... reads) {
+        Flux<DataBuffer> body = Flux.fromArray(reads).map(DefaultDataBufferFactory.sharedInstance::wrap);
+        return transformer.transformOpenAiSseBuffers(body).collectList().block();
+    }
+
+    private static String textChunk(String text) {
+        return "data: {\"id\":\"c\",\"choices\":[{\"index\":0,\"delta\":{\"content\":\"" + text + "\"},\"finish_reason\":null}]}\n\n";
+    }
+
+    private String text(ServerSentEvent<String> event) throws Exception {
+        assertThat(event.event()).isEqualTo("delta");
+        return json(event).path("text").asText();
+    }
+
+    private JsonNode json(ServerSentEvent<String> event) throws Exception {
+        return objectMapper.readTree(event.data());
+    }
+}
@@ -0,0 +1,110 @@
+package com.insuretech.pms.chat.gateway;
+
+import com.insuretech.pms.chat.gateway.dto.RequestPriority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.Disposable;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RateLimiter Tests")
+class RateLimiterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = new RateLimiter(meterRegistry);
+        ReflectionTestUtils.setField(rateLimiter, "ggufMaxConcurrent", 1);
+        ReflectionTestUtils.setField(rateLimiter, "vllmMaxConcurrent", 2);
+        ReflectionTestUtils.setField(rateLimiter, "perUserMaxConcurrent", 5);
+        ReflectionTestUtils.setField(rateLimiter, "acquireTimeoutSeconds", 1);
+        ReflectionTestUtils.setField(rateLimiter, "maxQueueDepth", 2);
+        rateLimiter.init();
+    }
+
+    @Test
+    @DisplayName("should grant immediately when engine has capacity")
+    void shouldGrantImmediately() {
+        StepVerifier.create(rateLimiter.acquire("gguf", "user-1"))
+                .assertNext(permit -> {
+                    assertThat(permit.getEngine()).isEqualTo("gguf");
+                    assertThat(rateLimiter.getActiveRequests("gguf")).isEqualTo(1);
+                    assertThat(rateLimiter.getAvailablePermits("gguf")).isZero();
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("should hand released slot to interactive lane before batch lane")
+    void shouldPreferInteractiveLane() {
+        RateLimiter.RateLimitPermit holder = rateLimiter.acquire("gguf", null).block();
+        List<RequestPriority> order = new ArrayList<>();
+
+        Disposable batch = rateLimiter.acquire("gguf", null, RequestPriority.BATCH)
+                .subscribe(p -> order.add(RequestPriority.BATCH));
+        Disposable interactive = rateLimiter.acquire("gguf", null, RequestPriority.INTERACTIVE)
+                .subscribe(p -> {
+                    order.add(RequestPriority.INTERACTIVE);
+                    rateLimiter.release(p);
+                });
+
+        assertThat(rateLimiter.getQueuedRequests("gguf")).isEqualTo(2);
+
+        rateLimiter.release(holder);
+
+        assertThat(order).containsExactly(RequestPriority.INTERACTIVE, RequestPriority.BATCH);
+        assertThat(rateLimiter.getQueuedRequests("gguf")).isZero();
+        batch.dispose();
+        interactive.dispose();
+    }
+
+    @Test
+    @DisplayName("should reject when queue is full")
+    void shouldRejectWhenQueueFull() {
+        rateLimiter.acquire("gguf", null).block();
+        Disposable first = rateLimiter.acquire("gguf", null).subscribe();
+        Disposable second = rateLimiter.acquire("gguf", null).subscribe();
+
+        StepVerifier.create(rateLimiter.acquire("gguf", null))
+                .expectError(RateLimiter.RateLimitExceededException.class)
+                .verify();
+
+        first.dispose();
+        second.dispose();
+    }
+
+    @Test
+    @DisplayName("should time out queued request and free its queue slot")
+    void shouldTimeOutQueuedRequest() {
+        rateLimiter.acquire("gguf", "user-1").block();
+
+        StepVerifier.create(rateLimiter.acquire("gguf", "user-2"))
+                .expectError(RateLimiter.RateLimitExceededException.class)
+                .verify();
+
+        assertThat(rateLimiter.getQueuedRequests("gguf")).isZero();
+        assertThat(meterRegistry.find("llm.rate_limit.queue_depth").gauges()).isNotEmpty();
+    }
+
+    @Test
+    @DisplayName("should ignore double release")
+    void shouldIgnoreDoubleRelease() {
+        RateLimiter.RateLimitPermit permit = rateLimiter.acquire("vllm", "user-1").block();
+
+        rateLimiter.release(permit);
+        rateLimiter.release(permit);
+
+        assertThat(rateLimiter.getActiveRequests("vllm")).isZero();
+        assertThat(rateLimiter.getAvailablePermits("vllm")).isEqualTo(2);
+    }
+}
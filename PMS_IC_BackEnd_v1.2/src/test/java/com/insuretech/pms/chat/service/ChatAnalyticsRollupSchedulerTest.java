@@ -0,0 +1,136 @@
+package com.insuretech.pms.chat.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.r2dbc.core.RowsFetchSpec;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("ChatAnalyticsRollupScheduler Tests")
+class ChatAnalyticsRollupSchedulerTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 2);
+
+    private DatabaseClient databaseClient;
+    private GenericExecuteSpec writeSpec;
+    private RowsFetchSpec<Object> lockFetch;
+    private RowsFetchSpec<Object> lastDayFetch;
+    private ChatAnalyticsRollupScheduler scheduler;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        databaseClient = mock(DatabaseClient.class);
+        GenericExecuteSpec lockSpec = mock(GenericExecuteSpec.class);
+        GenericExecuteSpec lastDaySpec = mock(GenericExecuteSpec.class);
+        writeSpec = mock(GenericExecuteSpec.class);
+        lockFetch = mock(RowsFetchSpec.class);
+        lastDayFetch = mock(RowsFetchSpec.class);
+
+        when(databaseClient.sql(anyString())).thenAnswer(inv -> {
+            String sql = inv.getArgument(0);
+            if (sql.contains("pg_try_advisory_xact_lock")) {
+                return lockSpec;
+            }
+            return sql.contains("MAX(stat_date)") ? lastDaySpec : writeSpec;
+        });
+        when(lockSpec.bind(anyString(), any())).thenReturn(lockSpec);
+        when(lockSpec.map(any(BiFunction.class))).thenReturn(lockFetch);
+        when(lastDaySpec.map(any(BiFunction.class))).thenReturn(lastDayFetch);
+        when(writeSpec.bind(anyString(), any())).thenReturn(writeSpec);
+        when(writeSpec.then()).thenReturn(Mono.empty());
+
+        TransactionalOperator transactionalOperator = mock(TransactionalOperator.class);
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        scheduler = new ChatAnalyticsRollupScheduler(databaseClient, transactionalOperator);
+        ReflectionTestUtils.setField(scheduler, "lookbackDays", 1);
+    }
+
+    @Nested
+    @DisplayName("refreshDay")
+    class RefreshDay {
+
+        @Test
+        @DisplayName("should replace both rollups of the day when it holds the lock")
+        void shouldReplaceDayWhenLocked() {
+            when(lockFetch.one()).thenReturn(Mono.just(true));
+
+            StepVerifier.create(scheduler.refreshDay(DAY))
+                    .expectNext(true)
+                    .verifyComplete();
+
+            verify(databaseClient).sql(startsWith("DELETE FROM chat.chat_daily_user_stats"));
+            verify(databaseClient).sql(startsWith("DELETE FROM chat.chat_daily_engine_stats"));
+            verify(databaseClient).sql(startsWith("INSERT INTO chat.chat_daily_user_stats"));
+            verify(databaseClient).sql(startsWith("INSERT INTO chat.chat_daily_engine_stats"));
+            verify(writeSpec, times(4)).bind("day", DAY);
+            verify(writeSpec, times(2)).bind("from", DAY.atStartOfDay());
+            verify(writeSpec, times(2)).bind("to", DAY.plusDays(1).atStartOfDay());
+        }
+
+        @Test
+        @DisplayName("should leave the day untouched when another replica holds the lock")
+        void shouldSkipWhenLockHeldElsewhere() {
+            when(lockFetch.one()).thenReturn(Mono.just(false));
+
+            StepVerifier.create(scheduler.refreshDay(DAY))
+                    .expectNext(false)
+                    .verifyComplete();
+
+            verify(databaseClient, never()).sql(startsWith("DELETE"));
+            verify(databaseClient, never()).sql(startsWith("INSERT"));
+        }
+    }
+
+    @Nested
+    @DisplayName("refreshRecentDays")
+    class RefreshRecentDays {
+
+        @Test
+        @DisplayName("should recompute from the last rolled-up day minus the lookback through today")
+        void shouldRefreshFromLastRolledUpDay() {
+            when(lockFetch.one()).thenReturn(Mono.just(true));
+            when(lastDayFetch.one()).thenReturn(Mono.just(Optional.of(LocalDate.now().minusDays(3))));
+
+            StepVerifier.create(scheduler.refreshRecentDays())
+                    .expectNext(5L)
+                    .verifyComplete();
+
+            verify(databaseClient, times(5)).sql(startsWith("DELETE FROM chat.chat_daily_user_stats"));
+        }
+
+        @Test
+        @DisplayName("should cover only the lookback window when nothing is rolled up yet")
+        void shouldRefreshLookbackWhenEmpty() {
+            when(lockFetch.one()).thenReturn(Mono.just(true));
+            when(lastDayFetch.one()).thenReturn(Mono.just(Optional.empty()));
+
+            StepVerifier.create(scheduler.refreshRecentDays())
+                    .expectNext(2L)
+                    .verifyComplete();
+
+            verify(writeSpec, times(4)).bind("day", LocalDate.now().minusDays(1));
+            verify(writeSpec, times(4)).bind("day", LocalDate.now());
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.insuretech.pms.chat.service;
+
+import com.insuretech.pms.common.search.ProjectTextSearchRepository;
+import com.insuretech.pms.common.search.ProjectTextSearchRepository.SearchHit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.r2dbc.core.FetchSpec;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("ChatContextEnrichmentService Tests")
+class ChatContextEnrichmentServiceTest {
+
+    private static final String PROJECT_ID = "proj-001";
+    private static final String QUESTION = "이미지 전처리 담당자 누구야?";
+
+    private ProjectTextSearchRepository textSearchRepository;
+    private DatabaseClient databaseClient;
+    private GenericExecuteSpec wbsSpec;
+    private GenericExecuteSpec sprintSpec;
+    private final List<Map<String, Object>> wbsRows = new ArrayList<>();
+    private final List<Map<String, Object>> sprintRows = new ArrayList<>();
+    private ChatContextEnrichmentService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        textSearchRepository = mock(ProjectTextSearchRepository.class);
+        databaseClient = mock(DatabaseClient.class);
+        wbsSpec = mock(GenericExecuteSpec.class);
+        sprintSpec = mock(GenericExecuteSpec.class);
+
+        when(databaseClient.sql(anyString())).thenAnswer(inv ->
+                ((String) inv.getArgument(0)).contains("FROM project.wbs_tasks") ? wbsSpec : sprintSpec);
+        for (GenericExecuteSpec spec : List.of(wbsSpec, sprintSpec)) {
+            List<Map<String, Object>> rows = spec == wbsSpec ? wbsRows : sprintRows;
+            FetchSpec<Map<String, Object>> fetch = mock(FetchSpec.class);
+            when(spec.bind(anyString(), any())).thenReturn(spec);
+            when(spec.fetch()).thenReturn(fetch);
+            when(fetch.all()).thenAnswer(inv -> Flux.fromIterable(rows));
+        }
+        when(textSearchRepository.searchWbsTasks(anyString(), anyList(), anyInt())).thenReturn(Flux.empty());
+        when(textSearchRepository.searchTasks(anyString(), anyList(), anyInt())).thenReturn(Flux.empty());
+
+        service = new ChatContextEnrichmentService(textSearchRepository, databaseClient);
+    }
+
+    @Nested
+    @DisplayName("WBS task details")
+    class WbsTaskDetails {
+
+        @Test
+        @DisplayName("should load all ranked ids in one query and keep the search rank order")
+        void shouldLoadInRankOrder() {
+            when(textSearchRepository.searchWbsTasks(eq(PROJECT_ID), anyList(), anyInt()))
+                    .thenReturn(Flux.just(new SearchHit("wt-2", 1.5), new SearchHit("wt-1", 0.5)));
+            wbsRows.add(wbsRow("wt-1", "Data cleansing"));
+            wbsRows.add(wbsRow("wt-2", "Image preprocessing"));
+
+            StepVerifier.create(service.getTaskDocsForContext(QUESTION, PROJECT_ID))
+                    .assertNext(docs -> {
+                        assertThat(docs).hasSize(2);
+                        assertThat(docs.get(0)).startsWith("[WBS Task] Image preprocessing\n");
+                        assertThat(docs.get(1)).startsWith("[WBS Task] Data cleansing\n");
+                    })
+                    .verifyComplete();
+
+            verify(wbsSpec).bind("ids", List.of("wt-2", "wt-1"));
+            verify(databaseClient, never()).sql(contains("FROM task.tasks"));
+        }
+
+        @Test
+        @DisplayName("should map hierarchy names, progress, dates and assignee from the joined row")
+        void shouldMapJoinedRow() {
+            when(textSearchRepository.searchWbsTasks(eq(PROJECT_ID), anyList(), anyInt()))
+                    .thenReturn(Flux.just(new SearchHit("wt-1", 1.0)));
+            wbsRows.add(wbsRow("wt-1", "Image preprocessing"));
+
+            StepVerifier.create(service.getTaskDocsForContext(QUESTION, PROJECT_ID))
+                    .assertNext(docs -> assertThat(docs).containsExactly("""
+                            [WBS Task] Image preprocessing
+                            Code: WBS-wt-1
+                            Phase: Design > Group: Vision > Item: Pipeline
+                            Status: IN_PROGRESS, Progress: 40%
+                            Assignee: Kim (Email: kim@example.com)
+                            Description: Resize and normalize
+                            """))
+                    .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("should fall back to placeholders for missing hierarchy rows and an unassigned task")
+        void shouldFallBackForMissingJoins() {
+            when(textSearchRepository.searchWbsTasks(eq(PROJECT_ID), anyList(), anyInt()))
+                    .thenReturn(Flux.just(new SearchHit("wt-1", 1.0)));
+            Map<String, Object> row = wbsRow("wt-1", "Image preprocessing");
+            row.put("phase_name", null);
+            row.put("group_name", null);
+            row.put("item_name", null);
+            row.put("assignee_id", null);
+            row.put("description", null);
+            wbsRows.add(row);
+
+            StepVerifier.create(service.getTaskDocsForContext(QUESTION, PROJECT_ID))
+                    .assertNext(docs -> assertThat(docs.get(0))
+                            .contains("Phase: Unknown Phase > Group: Unknown Group > Item: Unknown Item\n")
+                            .contains("Assignee: Not assigned\n")
+                            .doesNotContain("Email:")
+                            .doesNotContain("Description:"))
+                    .verifyComplete();
+        }
+    }
+
+    @Nested
+    @DisplayName("Sprint task details")
+    class SprintTaskDetails {
+
+        @Test
+        @DisplayName("should map priority and an assignee whose user row is missing")
+        void shouldMapSprintRow() {
+            when(textSearchRepository.searchTasks(eq(PROJECT_ID), anyList(), anyInt()))
+                    .thenReturn(Flux.just(new SearchHit("t-1", 1.0)));
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", "t-1");
+            row.put("title", "Tune augmentation");
+            row.put("status", "TODO");
+            row.put("priority", "HIGH");
+            row.put("assignee_id", "user-9");
+            row.put("due_date", LocalDate.of(2026, 3, 2));
+            sprintRows.add(row);
+
+            StepVerifier.create(service.getTaskDocsForContext(QUESTION, PROJECT_ID))
+                    .assertNext(docs -> assertThat(docs).containsExactly("""
+                            [Kanban/Sprint Task] Tune augmentation
+                            Status: TODO, Priority: HIGH
+                            Assignee: Unknown
+                            """))
+                    .verifyComplete();
+
+            verify(sprintSpec).bind("ids", List.of("t-1"));
+            verify(databaseClient, never()).sql(contains("FROM project.wbs_tasks"));
+        }
+    }
+
+    @Nested
+    @DisplayName("empty sources")
+    class EmptySources {
+
+        @Test
+        @DisplayName("should not query details and return no documents when neither source has hits")
+        void shouldSkipDetailQueries() {
+            StepVerifier.create(service.getTaskDocsForContext(QUESTION, PROJECT_ID))
+                    .expectNext(List.of())
+                    .verifyComplete();
+
+            verify(databaseClient, never()).sql(anyString());
+        }
+
+        @Test
+        @DisplayName("should drop ranked ids whose detail row no longer exists")
+        void shouldDropMissingDetailRows() {
+            when(textSearchRepository.searchWbsTasks(eq(PROJECT_ID), anyList(), anyInt()))
+                    .thenReturn(Flux.just(new SearchHit("wt-gone", 2.0), new SearchHit("wt-1", 1.0)));
+            wbsRows.add(wbsRow("wt-1", "Image preprocessing"));
+
+            StepVerifier.create(service.getTaskDocsForContext(QUESTION, PROJECT_ID))
+                    .assertNext(docs -> assertThat(docs).singleElement()
+                            .asString().startsWith("[WBS Task] Image preprocessing\n"))
+                    .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("should keep the other source's documents when one detail query fails")
+        void shouldKeepOtherSourceOnFailure() {
+            when(textSearchRepository.searchWbsTasks(eq(PROJECT_ID), anyList(), anyInt()))
+                    .thenReturn(Flux.just(new SearchHit("wt-1", 1.0)));
+            when(textSearchRepository.searchTasks(eq(PROJECT_ID), anyList(), anyInt()))
+                    .thenReturn(Flux.error(new IllegalStateException("connection closed")));
+            wbsRows.add(wbsRow("wt-1", "Image preprocessing"));
+
+            StepVerifier.create(service.getTaskDocsForContext(QUESTION, PROJECT_ID))
+                    .assertNext(docs -> assertThat(docs).hasSize(1))
+                    .verifyComplete();
+        }
+    }
+
+    private static Map<String, Object> wbsRow(String id, String name) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", id);
+        row.put("code", "WBS-" + id);
+        row.put("name", name);
+        row.put("description", "Resize and normalize");
+        row.put("status", "IN_PROGRESS");
+        row.put("progress", 40);
+        row.put("planned_start_date", LocalDate.of(2026, 3, 2));
+        row.put("planned_end_date", LocalDate.of(2026, 3, 20));
+        row.put("assignee_id", "user-1");
+        row.put("phase_name", "Design");
+        row.put("group_name", "Vision");
+        row.put("item_name", "Pipeline");
+        row.put("assignee_name", "Kim");
+        row.put("assignee_email", "kim@example.com");
+        row.put("assignee_role", "DEVELOPER");
+        return row;
+    }
+}
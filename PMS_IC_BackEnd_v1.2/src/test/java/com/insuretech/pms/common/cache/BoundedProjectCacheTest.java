@@ -0,0 +1,77 @@
+package com.insuretech.pms.common.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("BoundedProjectCache Tests")
+class BoundedProjectCacheTest {
+
+    @Test
+    @DisplayName("should return the same holder for repeated acquires")
+    void shouldReuseHolder() {
+        AtomicInteger created = new AtomicInteger();
+        BoundedProjectCache<Object> cache = new BoundedProjectCache<>(() -> {
+            created.incrementAndGet();
+            return new Object();
+        }, () -> 10);
+
+        Object first = cache.acquire("p1");
+
+        assertThat(cache.acquire("p1")).isSameAs(first);
+        assertThat(created).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("should evict the least recently acquired project beyond the bound")
+    void shouldEvictLeastRecentlyAcquired() {
+        BoundedProjectCache<Object> cache = new BoundedProjectCache<>(Object::new, () -> 2);
+        cache.acquire("p1");
+        cache.acquire("p2");
+        cache.acquire("p1");
+
+        cache.acquire("p3");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.peek("p1")).isPresent();
+        assertThat(cache.peek("p2")).isEmpty();
+        assertThat(cache.peek("p3")).isPresent();
+    }
+
+    @Test
+    @DisplayName("should not create holders on peek")
+    void shouldNotCreateOnPeek() {
+        BoundedProjectCache<Object> cache = new BoundedProjectCache<>(Object::new, () -> 2);
+
+        assertThat(cache.peek("p1")).isEmpty();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("should stay within the bound under concurrent inserts")
+    void shouldStayBoundedUnderConcurrency() throws InterruptedException {
+        BoundedProjectCache<Object> cache = new BoundedProjectCache<>(Object::new, () -> 8);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch done = new CountDownLatch(8);
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            pool.submit(() -> {
+                for (int i = 0; i < 500; i++) {
+                    cache.acquire("p" + (thread * 1000 + i));
+                }
+                done.countDown();
+            });
+        }
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        pool.shutdown();
+        assertThat(cache.size()).isLessThanOrEqualTo(8);
+    }
+}
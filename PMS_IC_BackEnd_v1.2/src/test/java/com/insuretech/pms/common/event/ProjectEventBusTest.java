@@ -0,0 +1,170 @@
+package com.insuretech.pms.common.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.ReactiveSubscription.ChannelMessage;
+import org.springframework.data.redis.connection.ReactiveSubscription.Message;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("ProjectEventBus Tests")
+class ProjectEventBusTest {
+
+    private static final String PROJECT_ID = "proj-001";
+    private static final String CHANNEL = "pms:events:kanban:proj-001";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ReactiveRedisMessageListenerContainer listenerContainer;
+    private ReactiveStringRedisTemplate redisTemplate;
+    private Sinks.Many<Message<String, String>> redisMessages;
+    private SimpleMeterRegistry meterRegistry;
+
+    record TaskEvent(String taskId, String type) {
+    }
+
+    @BeforeEach
+    void setUp() {
+        listenerContainer = mock(ReactiveRedisMessageListenerContainer.class);
+        redisTemplate = mock(ReactiveStringRedisTemplate.class);
+        redisMessages = Sinks.many().multicast().directBestEffort();
+        meterRegistry = new SimpleMeterRegistry();
+
+        when(listenerContainer.receive(any(ChannelTopic.class))).thenReturn(redisMessages.asFlux());
+    }
+
+    private ProjectEventBus<TaskEvent> bus(boolean redisEnabled, Duration coalesceWindow) {
+        return new ProjectEventBus<>("kanban", TaskEvent.class, listenerContainer, redisTemplate, objectMapper,
+                meterRegistry, redisEnabled, 16, coalesceWindow,
+                TaskEvent::taskId, event -> "MOVED".equals(event.type()));
+    }
+
+    @Nested
+    @DisplayName("channel lifecycle")
+    class ChannelLifecycle {
+
+        @Test
+        @DisplayName("should share one Redis subscription per project and release it with the last subscriber")
+        void shouldRefCountChannel() {
+            ProjectEventBus<TaskEvent> bus = bus(true, Duration.ZERO);
+
+            var first = bus.subscribe(PROJECT_ID).subscribe();
+            var second = bus.subscribe(PROJECT_ID).subscribe();
+            assertThat(bus.getActiveChannelCount()).isEqualTo(1);
+            verify(listenerContainer, times(1)).receive(any(ChannelTopic.class));
+
+            first.dispose();
+            assertThat(bus.getActiveChannelCount()).isEqualTo(1);
+            second.dispose();
+            assertThat(bus.getActiveChannelCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("should not open a channel when publishing to a project nobody watches")
+        void shouldNotOpenChannelOnPublish() {
+            ProjectEventBus<TaskEvent> bus = bus(false, Duration.ZERO);
+
+            bus.publish(PROJECT_ID, new TaskEvent("task-1", "UPDATED"));
+
+            assertThat(bus.getActiveChannelCount()).isZero();
+            verify(listenerContainer, never()).receive(any(ChannelTopic.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("delivery")
+    class Delivery {
+
+        @Test
+        @DisplayName("should relay events received on the project's Redis channel")
+        void shouldRelayRedisEvents() throws Exception {
+            ProjectEventBus<TaskEvent> bus = bus(true, Duration.ZERO);
+            String payload = objectMapper.writeValueAsString(new TaskEvent("task-1", "UPDATED"));
+
+            StepVerifier.create(bus.subscribe(PROJECT_ID))
+                    .then(() -> redisMessages.tryEmitNext(new ChannelMessage<>(CHANNEL, "{not json")))
+                    .then(() -> redisMessages.tryEmitNext(new ChannelMessage<>(CHANNEL, payload)))
+                    .expectNext(new TaskEvent("task-1", "UPDATED"))
+                    .thenCancel()
+                    .verify(Duration.ofSeconds(5));
+
+            verify(listenerContainer).receive(ChannelTopic.of(CHANNEL));
+        }
+
+        @Test
+        @DisplayName("should deliver locally when the Redis publish fails")
+        void shouldFallBackToLocalDelivery() {
+            ProjectEventBus<TaskEvent> bus = bus(true, Duration.ZERO);
+            when(redisTemplate.convertAndSend(eq(CHANNEL), anyString()))
+                    .thenReturn(Mono.error(new IllegalStateException("redis down")));
+
+            StepVerifier.create(bus.subscribe(PROJECT_ID))
+                    .then(() -> bus.publish(PROJECT_ID, new TaskEvent("task-1", "UPDATED")))
+                    .expectNext(new TaskEvent("task-1", "UPDATED"))
+                    .thenCancel()
+                    .verify(Duration.ofSeconds(5));
+
+            assertThat(meterRegistry.counter("pms.events.local_fallback", "bus", "kanban").count()).isEqualTo(1.0);
+        }
+    }
+
+    @Nested
+    @DisplayName("coalescing")
+    class Coalescing {
+
+        @Test
+        @DisplayName("should publish only the latest of repeated moves within the window")
+        void shouldCoalesceMoves() {
+            ProjectEventBus<TaskEvent> bus = bus(false, Duration.ofMillis(50));
+
+            StepVerifier.create(bus.subscribe(PROJECT_ID))
+                    .then(() -> {
+                        bus.publish(PROJECT_ID, new TaskEvent("task-1", "MOVED"));
+                        bus.publish(PROJECT_ID, new TaskEvent("task-1", "MOVED"));
+                        bus.publish(PROJECT_ID, new TaskEvent("task-1", "MOVED"));
+                    })
+                    .expectNext(new TaskEvent("task-1", "MOVED"))
+                    .expectNoEvent(Duration.ofMillis(200))
+                    .thenCancel()
+                    .verify(Duration.ofSeconds(5));
+
+            assertThat(meterRegistry.counter("pms.events.coalesced", "bus", "kanban").count()).isEqualTo(2.0);
+        }
+
+        @Test
+        @DisplayName("should flush a pending move before a later event for the same task")
+        void shouldFlushPendingMoveFirst() {
+            ProjectEventBus<TaskEvent> bus = bus(false, Duration.ofSeconds(10));
+
+            StepVerifier.create(bus.subscribe(PROJECT_ID))
+                    .then(() -> {
+                        bus.publish(PROJECT_ID, new TaskEvent("task-1", "MOVED"));
+                        bus.publish(PROJECT_ID, new TaskEvent("task-1", "DELETED"));
+                    })
+                    .expectNext(new TaskEvent("task-1", "MOVED"))
+                    .expectNext(new TaskEvent("task-1", "DELETED"))
+                    .thenCancel()
+                    .verify(Duration.ofSeconds(5));
+        }
+    }
+}
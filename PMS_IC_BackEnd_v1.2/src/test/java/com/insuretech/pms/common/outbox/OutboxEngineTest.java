@@ -0,0 +1,134 @@
+package com.insuretech.pms.common.outbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("OutboxEngine Tests")
+class OutboxEngineTest {
+
+    private static final OutboxSource<String> SOURCE = new OutboxSource<>(
+            "test", "test.outbox", String.class, "status = 'PENDING'", s -> s);
+
+    private OutboxLeaseStore leaseStore;
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        leaseStore = mock(OutboxLeaseStore.class);
+        meterRegistry = new SimpleMeterRegistry();
+        engine = new OutboxEngine(leaseStore, meterRegistry);
+        ReflectionTestUtils.setField(engine, "leaseSeconds", 60L);
+        ReflectionTestUtils.setField(engine, "heartbeatIntervalMs", 60_000L);
+
+        when(leaseStore.release(eq(SOURCE), anyString(), any())).thenReturn(Mono.just(1L));
+        when(leaseStore.backlog(SOURCE)).thenReturn(Mono.empty());
+    }
+
+    @Test
+    @DisplayName("should hand leased rows to the handler in chunks and release their leases")
+    void shouldProcessLeasedPageInChunks() {
+        when(leaseStore.lease(eq(SOURCE), anyString(), anyInt(), any()))
+                .thenReturn(Flux.just("a", "b", "c", "d", "e"));
+        RecordingHandler handler = new RecordingHandler(10, 2, null);
+
+        StepVerifier.create(engine.runOnce(handler))
+                .expectNext(5L)
+                .verifyComplete();
+
+        assertThat(handler.chunks).containsExactly(List.of("a", "b"), List.of("c", "d"), List.of("e"));
+        verify(leaseStore).release(eq(SOURCE), anyString(), eq(List.of("a", "b")));
+        verify(leaseStore).release(eq(SOURCE), anyString(), eq(List.of("e")));
+        assertThat(meterRegistry.get("pms.outbox.events").tag("outbox", "test").tag("result", "handled")
+                .counter().count()).isEqualTo(5.0);
+    }
+
+    @Test
+    @DisplayName("should leave leases to expire when the handler fails")
+    void shouldKeepLeasesWhenHandlerFails() {
+        when(leaseStore.lease(eq(SOURCE), anyString(), anyInt(), any()))
+                .thenReturn(Flux.just("a", "b"));
+        RecordingHandler handler = new RecordingHandler(10, 10, new IllegalStateException("boom"));
+
+        StepVerifier.create(engine.runOnce(handler))
+                .expectNext(0L)
+                .verifyComplete();
+
+        verify(leaseStore, never()).release(eq(SOURCE), anyString(), any());
+        assertThat(meterRegistry.get("pms.outbox.events").tag("outbox", "test").tag("result", "failed")
+                .counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("should not lease anything for a disabled handler")
+    void shouldSkipDisabledHandler() {
+        RecordingHandler handler = new RecordingHandler(10, 1, null) {
+            @Override
+            public boolean enabled() {
+                return false;
+            }
+        };
+
+        engine.poll(handler);
+
+        verify(leaseStore, never()).lease(any(), anyString(), anyInt(), any());
+    }
+
+    private static class RecordingHandler implements OutboxHandler<String> {
+        private final int leaseBatchSize;
+        private final int chunkSize;
+        private final RuntimeException failure;
+        private final List<List<String>> chunks = new ArrayList<>();
+
+        RecordingHandler(int leaseBatchSize, int chunkSize, RuntimeException failure) {
+            this.leaseBatchSize = leaseBatchSize;
+            this.chunkSize = chunkSize;
+            this.failure = failure;
+        }
+
+        @Override
+        public OutboxSource<String> source() {
+            return SOURCE;
+        }
+
+        @Override
+        public boolean enabled() {
+            return true;
+        }
+
+        @Override
+        public int leaseBatchSize() {
+            return leaseBatchSize;
+        }
+
+        @Override
+        public int chunkSize() {
+            return chunkSize;
+        }
+
+        @Override
+        public Mono<Void> handle(List<String> events) {
+            chunks.add(events);
+            return failure != null ? Mono.error(failure) : Mono.empty();
+        }
+    }
+}
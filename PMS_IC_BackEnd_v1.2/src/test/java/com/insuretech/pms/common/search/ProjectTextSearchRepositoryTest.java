@@ -0,0 +1,156 @@
+package com.insuretech.pms.common.search;
+
+import com.insuretech.pms.common.search.ProjectTextSearchRepository.SearchHit;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.r2dbc.core.RowsFetchSpec;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("ProjectTextSearchRepository Tests")
+class ProjectTextSearchRepositoryTest {
+
+    private DatabaseClient databaseClient;
+    private GenericExecuteSpec spec;
+    private List<Row> rows;
+    private ProjectTextSearchRepository repository;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        databaseClient = mock(DatabaseClient.class);
+        spec = mock(GenericExecuteSpec.class);
+        rows = new ArrayList<>();
+
+        when(databaseClient.sql(anyString())).thenReturn(spec);
+        when(spec.bind(anyString(), any())).thenReturn(spec);
+        when(spec.map(any(BiFunction.class))).thenAnswer(inv -> {
+            BiFunction<Row, RowMetadata, SearchHit> mapper = inv.getArgument(0);
+            RowsFetchSpec<SearchHit> fetch = mock(RowsFetchSpec.class);
+            when(fetch.all()).thenAnswer(all -> Flux.fromIterable(rows)
+                    .map(row -> mapper.apply(row, mock(RowMetadata.class))));
+            return fetch;
+        });
+
+        repository = new ProjectTextSearchRepository(databaseClient);
+    }
+
+    @Nested
+    @DisplayName("query building")
+    class QueryBuilding {
+
+        @Test
+        @DisplayName("should match every keyword in one statement with one parameter each")
+        void shouldBuildSingleStatement() {
+            StepVerifier.create(repository.searchTasks("proj-001", List.of("이미지", "전처리"), 5))
+                    .verifyComplete();
+
+            ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+            verify(databaseClient).sql(sql.capture());
+            assertThat(sql.getValue())
+                    .contains("FROM task.tasks t")
+                    .contains("t.title ILIKE :p0 OR t.description ILIKE :p0 OR t.title ILIKE :p1")
+                    .doesNotContain(":p2");
+            verify(spec).bind("projectId", "proj-001");
+            verify(spec).bind("query", "이미지 전처리");
+            verify(spec).bind("limit", 5);
+            verify(spec).bind("p0", "%이미지%");
+            verify(spec).bind("p1", "%전처리%");
+        }
+
+        @Test
+        @DisplayName("should trim, drop blank and duplicate keywords, and cap their number")
+        void shouldNormalizeKeywords() {
+            List<String> keywords = new ArrayList<>(Arrays.asList(" model ", "model", "", null));
+            for (int i = 0; i < 10; i++) {
+                keywords.add("kw" + i);
+            }
+
+            StepVerifier.create(repository.searchWbsTasks("proj-001", keywords, 5)).verifyComplete();
+
+            verify(spec).bind("p0", "%model%");
+            verify(spec).bind("p7", "%kw6%");
+            verify(spec, never()).bind(eq("p8"), any());
+        }
+
+        @Test
+        @DisplayName("should escape LIKE wildcards in keywords")
+        void shouldEscapeWildcards() {
+            StepVerifier.create(repository.searchTasks("proj-001", List.of("100%", "a_b"), 5)).verifyComplete();
+
+            verify(spec).bind("p0", "%100\\%%");
+            verify(spec).bind("p1", "%a\\_b%");
+        }
+
+        @Test
+        @DisplayName("should not query when there are no usable keywords or no limit")
+        void shouldSkipEmptySearch() {
+            StepVerifier.create(repository.searchTasks("proj-001", List.of(" ", ""), 5)).verifyComplete();
+            StepVerifier.create(repository.searchTasks("proj-001", null, 5)).verifyComplete();
+            StepVerifier.create(repository.searchTasks("proj-001", List.of("model"), 0)).verifyComplete();
+
+            verify(databaseClient, never()).sql(anyString());
+        }
+    }
+
+    @Nested
+    @DisplayName("ranking")
+    class Ranking {
+
+        @Test
+        @DisplayName("should weigh title hits over description hits and order by score")
+        void shouldRankByWeightedScore() {
+            StepVerifier.create(repository.searchWbsTasks("proj-001", List.of("model"), 5)).verifyComplete();
+
+            ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+            verify(databaseClient).sql(sql.capture());
+            assertThat(sql.getValue())
+                    .contains("CASE WHEN t.name ILIKE :p0 THEN 1.0 ELSE 0 END")
+                    .contains("CASE WHEN t.description ILIKE :p0 THEN 0.5 ELSE 0 END")
+                    .contains("word_similarity(:query, t.name)")
+                    .contains("ORDER BY score DESC, t.id");
+        }
+
+        @Test
+        @DisplayName("should return hits in database rank order with their scores")
+        void shouldKeepRankOrder() {
+            rows.add(row("task-2", 1.5));
+            rows.add(row("task-1", 0.5));
+            rows.add(row("task-3", null));
+
+            StepVerifier.create(repository.searchTasks("proj-001", List.of("model"), 5))
+                    .expectNext(new SearchHit("task-2", 1.5))
+                    .expectNext(new SearchHit("task-1", 0.5))
+                    .expectNext(new SearchHit("task-3", 0.0))
+                    .verifyComplete();
+        }
+    }
+
+    private static Row row(String id, Double score) {
+        Row row = mock(Row.class);
+        when(row.get("id", String.class)).thenReturn(id);
+        when(row.get("score", Double.class)).thenReturn(score);
+        return row;
+    }
+}
@@ -0,0 +1,90 @@
+package com.insuretech.pms.common.security;
+
+import com.insuretech.pms.auth.service.JwtTokenProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("JwtPrincipalCache Tests")
+class JwtPrincipalCacheTest {
+
+    private static final String EMAIL = "pm@insuretech.com";
+
+    private JwtTokenProvider jwtTokenProvider;
+    private ReactiveUserDetailsService userDetailsService;
+    private JwtPrincipalCache cache;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(jwtTokenProvider, "secretKeyString",
+                "test-secret-key-that-is-at-least-256-bits-long-for-hmac");
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtExpiration", 60_000L);
+        ReflectionTestUtils.setField(jwtTokenProvider, "refreshExpiration", 120_000L);
+        ReflectionTestUtils.invokeMethod(jwtTokenProvider, "init");
+
+        userDetailsService = mock(ReactiveUserDetailsService.class);
+        when(userDetailsService.findByUsername(EMAIL)).thenReturn(Mono.just(user()));
+
+        cache = new JwtPrincipalCache(jwtTokenProvider, userDetailsService, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(cache, "maxEntries", 100);
+    }
+
+    @Test
+    @DisplayName("should load the user once for repeated requests with the same token")
+    void shouldServeRepeatedRequestsFromCache() {
+        String token = jwtTokenProvider.generateToken(EMAIL);
+
+        StepVerifier.create(cache.resolve(token).then(cache.resolve(token)))
+                .expectNextMatches(details -> details.getUsername().equals(EMAIL))
+                .verifyComplete();
+
+        verify(userDetailsService, times(1)).findByUsername(EMAIL);
+    }
+
+    @Test
+    @DisplayName("should reload the user after invalidation")
+    void shouldReloadAfterInvalidate() {
+        String token = jwtTokenProvider.generateToken(EMAIL);
+        cache.resolve(token).block();
+
+        cache.invalidate(EMAIL);
+        cache.resolve(token).block();
+
+        verify(userDetailsService, times(2)).findByUsername(EMAIL);
+    }
+
+    @Test
+    @DisplayName("should resolve to empty for invalid tokens and inactive users")
+    void shouldResolveEmptyWhenNotAuthenticated() {
+        StepVerifier.create(cache.resolve("not-a-jwt"))
+                .verifyComplete();
+
+        when(userDetailsService.findByUsername("gone@insuretech.com"))
+                .thenReturn(Mono.error(new UsernameNotFoundException("gone")));
+        StepVerifier.create(cache.resolve(jwtTokenProvider.generateToken("gone@insuretech.com")))
+                .verifyComplete();
+    }
+
+    private UserDetails user() {
+        return new User(EMAIL, "hash", List.of(new SimpleGrantedAuthority("ROLE_PM")));
+    }
+}
@@ -0,0 +1,108 @@
+package com.insuretech.pms.common.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ProjectMembershipCache Tests")
+class ProjectMembershipCacheTest {
+
+    private static final String PROJECT = "proj-001";
+    private static final String USER = "user-001";
+
+    private ProjectMembershipCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+    private final AtomicReference<String> storedRole = new AtomicReference<>("DEVELOPER");
+
+    @BeforeEach
+    void setUp() {
+        cache = new ProjectMembershipCache();
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 30L);
+        ReflectionTestUtils.setField(cache, "maxEntries", 100);
+        ReflectionTestUtils.setField(cache, "settleMillis", 0L);
+    }
+
+    @Test
+    @DisplayName("should load a role once and serve repeated checks from cache")
+    void shouldServeRepeatedChecksFromCache() {
+        StepVerifier.create(role()).expectNext(Optional.of("DEVELOPER")).verifyComplete();
+        StepVerifier.create(role()).expectNext(Optional.of("DEVELOPER")).verifyComplete();
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("should cache non-membership as an empty role")
+    void shouldCacheNonMember() {
+        storedRole.set(null);
+
+        StepVerifier.create(role()).expectNext(Optional.empty()).verifyComplete();
+        StepVerifier.create(role()).expectNext(Optional.empty()).verifyComplete();
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("should reload after the member's role changed")
+    void shouldReloadAfterInvalidation() {
+        role().block();
+        storedRole.set("PM");
+        cache.invalidate(PROJECT, USER);
+
+        StepVerifier.create(role()).expectNext(Optional.of("PM")).verifyComplete();
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("should bypass the cache during the settle window after an invalidation")
+    void shouldBypassCacheWhileSettling() {
+        ReflectionTestUtils.setField(cache, "settleMillis", 60_000L);
+        role().block();
+        cache.invalidate(PROJECT, USER);
+
+        role().block();
+        role().block();
+        cache.put(PROJECT, USER, "QA");
+
+        StepVerifier.create(role()).expectNext(Optional.of("DEVELOPER")).verifyComplete();
+        assertThat(loads).hasValue(4);
+    }
+
+    @Test
+    @DisplayName("should serve roles stored in bulk without loading")
+    void shouldServeBulkLoadedRoles() {
+        cache.put(PROJECT, USER, "QA");
+
+        StepVerifier.create(role()).expectNext(Optional.of("QA")).verifyComplete();
+        assertThat(loads).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("should reload once the TTL has passed")
+    void shouldReloadAfterTtl() throws InterruptedException {
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 0L);
+        role().block();
+        Thread.sleep(5);
+        role().block();
+
+        assertThat(loads).hasValue(2);
+    }
+
+    private Mono<Optional<String>> role() {
+        Supplier<Mono<Optional<String>>> loader = () -> Mono.fromCallable(() -> {
+            loads.incrementAndGet();
+            return Optional.ofNullable(storedRole.get());
+        });
+        return cache.getRole(PROJECT, USER, loader);
+    }
+}
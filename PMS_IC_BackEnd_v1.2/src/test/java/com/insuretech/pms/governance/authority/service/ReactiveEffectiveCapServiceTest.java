@@ -0,0 +1,173 @@
+package com.insuretech.pms.governance.authority.service;
+
+import com.insuretech.pms.common.event.ProjectEventBus;
+import com.insuretech.pms.common.event.ProjectEventBusFactory;
+import com.insuretech.pms.governance.authority.dto.EffectiveCapabilityDto;
+import com.insuretech.pms.governance.authority.service.ReactiveEffectiveCapService.Invalidation;
+import io.r2dbc.spi.Readable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.mockito.ArgumentMatchers;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("ReactiveEffectiveCapService Tests")
+class ReactiveEffectiveCapServiceTest {
+
+    private DatabaseClient databaseClient;
+    private ProjectEventBus<Invalidation> invalidationBus;
+    private Sinks.Many<Invalidation> remoteInvalidations;
+    private ReactiveEffectiveCapService service;
+    private final AtomicReference<Flux<EffectiveCapabilityDto>> rows = new AtomicReference<>(Flux.empty());
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        databaseClient = mock(DatabaseClient.class, Answers.RETURNS_DEEP_STUBS);
+        when(databaseClient.sql(anyString()).bind(anyString(), any())
+                .map(ArgumentMatchers.<Function<Readable, EffectiveCapabilityDto>>any()).all())
+                .thenAnswer(inv -> rows.get());
+        when(databaseClient.sql(anyString()).bind(anyString(), any()).bind(anyString(), any())
+                .map(ArgumentMatchers.<Function<Readable, EffectiveCapabilityDto>>any()).all())
+                .thenAnswer(inv -> rows.get());
+
+        ProjectEventBusFactory eventBusFactory = mock(ProjectEventBusFactory.class);
+        invalidationBus = mock(ProjectEventBus.class);
+        remoteInvalidations = Sinks.many().multicast().directBestEffort();
+        when(eventBusFactory.create("effective-caps", Invalidation.class)).thenReturn(invalidationBus);
+        when(invalidationBus.subscribe("cluster")).thenReturn(remoteInvalidations.asFlux());
+
+        service = new ReactiveEffectiveCapService(databaseClient, eventBusFactory);
+        ReflectionTestUtils.setField(service, "ttlSeconds", 300L);
+        ReflectionTestUtils.setField(service, "maxProjects", 2);
+        ReflectionTestUtils.setField(service, "settleMillis", 0L);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("should answer repeated checks from one view evaluation")
+    void shouldServeFromSnapshot() {
+        rows.set(Flux.just(cap("p1", "u1", "approve_delegation")));
+
+        StepVerifier.create(service.hasCapability("p1", "u1", "approve_delegation")
+                        .then(service.hasCapability("p1", "u1", "approve_delegation")))
+                .expectNext(true)
+                .verifyComplete();
+        StepVerifier.create(service.hasCapability("p1", "u2", "approve_delegation"))
+                .expectNext(false)
+                .verifyComplete();
+
+        verify(databaseClient, times(1)).sql(argThat((String sql) -> sql.contains("v_effective_caps")));
+    }
+
+    @Test
+    @DisplayName("should re-read only an invalidated user's rows")
+    void shouldReloadInvalidatedUser() {
+        rows.set(Flux.just(cap("p1", "u1", "approve_delegation")));
+        service.hasCapability("p1", "u1", "approve_delegation").block();
+
+        rows.set(Flux.just());
+        service.invalidateUser("p1", "u1");
+
+        StepVerifier.create(service.hasCapability("p1", "u1", "approve_delegation"))
+                .expectNext(false)
+                .verifyComplete();
+        verify(databaseClient).sql(argThat((String sql) -> sql.contains("ec.user_id IN (:userIds)")));
+    }
+
+    @Test
+    @DisplayName("should broadcast invalidations to the other replicas")
+    void shouldBroadcastInvalidation() {
+        service.invalidateUser("p1", "u1");
+        service.invalidateAll();
+
+        verify(invalidationBus).publish(eq("cluster"), eq(new Invalidation("p1", "u1")));
+        verify(invalidationBus).publish(eq("cluster"), eq(new Invalidation(null, null)));
+    }
+
+    @Test
+    @DisplayName("should re-read a project invalidated by another replica")
+    void shouldApplyRemoteInvalidation() {
+        rows.set(Flux.just(cap("p1", "u1", "approve_delegation")));
+        service.hasCapability("p1", "u1", "approve_delegation").block();
+
+        rows.set(Flux.empty());
+        remoteInvalidations.tryEmitNext(new Invalidation("p1", null));
+
+        StepVerifier.create(service.hasCapability("p1", "u1", "approve_delegation"))
+                .expectNext(false)
+                .verifyComplete();
+        verify(databaseClient, times(2)).sql(argThat((String sql) -> sql.contains("v_effective_caps")));
+    }
+
+    @Test
+    @DisplayName("should not hand a load started before an invalidation to later callers")
+    void shouldNotJoinLoadOlderThanInvalidation() {
+        Sinks.One<EffectiveCapabilityDto> slowLoad = Sinks.one();
+        rows.set(slowLoad.asMono().flux());
+        var before = service.hasCapability("p1", "u1", "approve_delegation").toFuture();
+
+        service.invalidateProject("p1");
+        rows.set(Flux.empty());
+
+        StepVerifier.create(service.hasCapability("p1", "u1", "approve_delegation"))
+                .expectNext(false)
+                .verifyComplete();
+        slowLoad.tryEmitValue(cap("p1", "u1", "approve_delegation"));
+
+        // The late load does not replace the newer snapshot; its caller gets the newer one too
+        assertThat(before.join()).isFalse();
+        StepVerifier.create(service.hasCapability("p1", "u1", "approve_delegation"))
+                .expectNext(false)
+                .verifyComplete();
+        verify(databaseClient, atLeast(2)).sql(argThat((String sql) -> sql.contains("v_effective_caps")));
+    }
+
+    @Test
+    @DisplayName("should evict the least recently used project beyond max-projects")
+    void shouldEvictBeyondMaxProjects() {
+        service.getEffectiveCapabilitiesByUser("p1").block();
+        service.getEffectiveCapabilitiesByUser("p2").block();
+        service.getEffectiveCapabilitiesByUser("p3").block();
+
+        service.getEffectiveCapabilitiesByUser("p1").block();
+
+        verify(databaseClient, times(4)).sql(argThat((String sql) -> sql.contains("v_effective_caps")));
+    }
+
+    private static EffectiveCapabilityDto cap(String projectId, String userId, String code) {
+        return EffectiveCapabilityDto.builder()
+                .projectId(projectId)
+                .userId(userId)
+                .capabilityId("cap-" + code)
+                .capabilityCode(code)
+                .sourceType("ROLE")
+                .sourceId("role-1")
+                .build();
+    }
+}
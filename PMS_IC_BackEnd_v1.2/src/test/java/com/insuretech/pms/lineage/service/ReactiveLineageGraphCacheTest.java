@@ -0,0 +1,154 @@
+package com.insuretech.pms.lineage.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insuretech.pms.lineage.dto.LineageGraphDto;
+import com.insuretech.pms.lineage.dto.LineageNodeDto;
+import com.insuretech.pms.lineage.reactive.entity.R2dbcOutboxEvent;
+import com.insuretech.pms.lineage.reactive.repository.ReactiveOutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("ReactiveLineageGraphCache Tests")
+class ReactiveLineageGraphCacheTest {
+
+    private static final LocalDateTime WATERMARK = LocalDateTime.of(2026, 1, 1, 9, 0);
+
+    private ReactiveLineageService lineageService;
+    private ReactiveOutboxEventRepository outboxRepository;
+    private ReactiveLineageGraphCache cache;
+
+    @BeforeEach
+    void setUp() {
+        lineageService = mock(ReactiveLineageService.class);
+        outboxRepository = mock(ReactiveOutboxEventRepository.class);
+        cache = new ReactiveLineageGraphCache(lineageService, outboxRepository, new ObjectMapper());
+        ReflectionTestUtils.setField(cache, "maxAgeSeconds", 300L);
+        ReflectionTestUtils.setField(cache, "maxProjects", 2);
+        ReflectionTestUtils.setField(cache, "maxPatchEvents", 10);
+        ReflectionTestUtils.setField(cache, "settleMillis", 0L);
+
+        when(outboxRepository.findLatestCreatedAtByProjectId(anyString())).thenReturn(Mono.just(WATERMARK));
+        when(outboxRepository.findByProjectIdSince(anyString(), any(), anyInt())).thenReturn(Flux.empty());
+        when(lineageService.buildLineageGraph(anyString()))
+                .thenAnswer(inv -> Mono.just(graph(node("REQ-" + inv.getArgument(0)))));
+        when(lineageService.computeStatistics(any(), any()))
+                .thenReturn(LineageGraphDto.LineageStatisticsDto.builder().build());
+    }
+
+    @Test
+    @DisplayName("should build the graph once and serve later reads from the snapshot")
+    void shouldServeFromSnapshot() {
+        cache.getGraph("p1").block();
+
+        StepVerifier.create(cache.getGraph("p1"))
+                .assertNext(graph -> assertThat(graph.getNodes()).extracting(LineageNodeDto::getId)
+                        .containsExactly("REQ-p1"))
+                .verifyComplete();
+
+        verify(lineageService, times(1)).buildLineageGraph("p1");
+        verify(lineageService, never()).loadGraphSlice(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("should patch only the entities touched by new outbox events")
+    void shouldPatchFromOutboxEvents() {
+        cache.getGraph("p1").block();
+        R2dbcOutboxEvent event = R2dbcOutboxEvent.builder()
+                .id(UUID.randomUUID())
+                .aggregateId("REQ-new")
+                .projectId("p1")
+                .createdAt(WATERMARK.plusMinutes(1))
+                .build();
+        when(outboxRepository.findByProjectIdSince(eq("p1"), any(), anyInt())).thenReturn(Flux.just(event));
+        when(lineageService.loadGraphSlice(eq("p1"), any())).thenReturn(Mono.just(graph(node("REQ-new"))));
+
+        StepVerifier.create(cache.getGraph("p1"))
+                .assertNext(graph -> assertThat(graph.getNodes()).extracting(LineageNodeDto::getId)
+                        .containsExactly("REQ-p1", "REQ-new"))
+                .verifyComplete();
+
+        verify(lineageService).loadGraphSlice("p1", Set.of("REQ-new"));
+        verify(lineageService, times(1)).buildLineageGraph("p1");
+    }
+
+    @Test
+    @DisplayName("should rebuild on the next read after a write path invalidates the project")
+    void shouldRebuildAfterInvalidation() {
+        cache.getGraph("p1").block();
+        when(lineageService.buildLineageGraph("p1")).thenReturn(Mono.just(graph(node("REQ-p1"), node("REQ-added"))));
+
+        cache.invalidateProject("p1");
+
+        StepVerifier.create(cache.getGraph("p1"))
+                .assertNext(graph -> assertThat(graph.getNodes()).extracting(LineageNodeDto::getId)
+                        .containsExactly("REQ-p1", "REQ-added"))
+                .verifyComplete();
+        verify(lineageService, times(2)).buildLineageGraph("p1");
+    }
+
+    @Test
+    @DisplayName("should keep rebuilding until the invalidation has settled")
+    void shouldRebuildWithinSettleWindow() {
+        ReflectionTestUtils.setField(cache, "settleMillis", 60_000L);
+        cache.getGraph("p1").block();
+
+        cache.invalidateProject("p1");
+        cache.getGraph("p1").block();
+        cache.getGraph("p1").block();
+
+        verify(lineageService, times(3)).buildLineageGraph("p1");
+    }
+
+    @Test
+    @DisplayName("should ignore invalidations of projects that are not cached")
+    void shouldIgnoreUncachedInvalidation() {
+        cache.invalidateProject("p9");
+        cache.invalidateProject(null);
+
+        cache.getGraph("p9").block();
+
+        verify(lineageService, times(1)).buildLineageGraph("p9");
+    }
+
+    @Test
+    @DisplayName("should evict the least recently used project beyond max-projects")
+    void shouldEvictBeyondMaxProjects() {
+        cache.getGraph("p1").block();
+        cache.getGraph("p2").block();
+        cache.getGraph("p3").block();
+
+        cache.getGraph("p1").block();
+
+        verify(lineageService, times(2)).buildLineageGraph("p1");
+        verify(lineageService, times(1)).buildLineageGraph("p3");
+    }
+
+    private static LineageNodeDto node(String id) {
+        return LineageNodeDto.builder().id(id).title(id).build();
+    }
+
+    private static LineageGraphDto graph(LineageNodeDto... nodes) {
+        return LineageGraphDto.builder().nodes(List.of(nodes)).edges(List.of()).build();
+    }
+}
@@ -0,0 +1,105 @@
+package com.insuretech.pms.lineage.service;
+
+import com.insuretech.pms.common.outbox.OutboxEngine;
+import com.insuretech.pms.lineage.reactive.entity.R2dbcOutboxEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("ReactiveOutboxPoller Tests")
+class ReactiveOutboxPollerTest {
+
+    private ReactiveLineageService lineageService;
+    private final List<String> calls = new ArrayList<>();
+    private boolean batchEndpointDeployed;
+    private ReactiveOutboxPoller poller;
+
+    @BeforeEach
+    void setUp() {
+        lineageService = mock(ReactiveLineageService.class);
+        when(lineageService.markPublished(any(UUID.class))).thenReturn(Mono.empty());
+        when(lineageService.markPublished(anyCollection())).thenReturn(Mono.empty());
+
+        WebClient.Builder webClientBuilder = WebClient.builder().exchangeFunction(request -> {
+            String path = request.url().getPath();
+            calls.add(path);
+            if (path.endsWith("/batch") && !batchEndpointDeployed) {
+                return Mono.just(ClientResponse.create(HttpStatus.NOT_FOUND).build());
+            }
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body("{\"success\":true}")
+                    .build());
+        });
+
+        poller = new ReactiveOutboxPoller(lineageService, webClientBuilder, mock(OutboxEngine.class));
+        ReflectionTestUtils.setField(poller, "llmServiceUrl", "http://llm");
+        ReflectionTestUtils.setField(poller, "maxRetries", 3);
+        ReflectionTestUtils.setField(poller, "batchSyncEnabled", true);
+        ReflectionTestUtils.setField(poller, "initialSyncBatchSize", 25);
+        ReflectionTestUtils.setField(poller, "minSyncBatchSize", 5);
+        ReflectionTestUtils.setField(poller, "maxSyncBatchSize", 200);
+        ReflectionTestUtils.setField(poller, "concurrency", 2);
+        ReflectionTestUtils.setField(poller, "targetLatencyMs", 2000L);
+        ReflectionTestUtils.setField(poller, "batchTimeoutMs", 30000L);
+        ReflectionTestUtils.setField(poller, "reprobeIntervalMs", 300000L);
+        poller.init();
+    }
+
+    @Test
+    @DisplayName("should fall back to per-event sync while the batch endpoint is missing")
+    void shouldFallBackAfterNotFound() {
+        R2dbcOutboxEvent event = event();
+
+        StepVerifier.create(poller.handle(List.of(event))).verifyComplete();
+        StepVerifier.create(poller.handle(List.of(event()))).verifyComplete();
+
+        assertThat(calls).containsExactly("/api/lineage/sync/batch", "/api/lineage/sync", "/api/lineage/sync");
+        assertThat(poller.getPollerStatus()).containsEntry("batchEndpointAvailable", false);
+        verify(lineageService).markPublished(event.getId());
+    }
+
+    @Test
+    @DisplayName("should probe the batch endpoint again after the re-probe interval")
+    void shouldReprobeBatchEndpoint() {
+        ReflectionTestUtils.setField(poller, "reprobeIntervalMs", 0L);
+
+        StepVerifier.create(poller.handle(List.of(event()))).verifyComplete();
+        batchEndpointDeployed = true;
+        StepVerifier.create(poller.handle(List.of(event()))).verifyComplete();
+
+        assertThat(calls).containsExactly("/api/lineage/sync/batch", "/api/lineage/sync", "/api/lineage/sync/batch");
+        assertThat(poller.getPollerStatus()).containsEntry("batchEndpointAvailable", true);
+        verify(lineageService).markPublished(anyCollection());
+    }
+
+    private static R2dbcOutboxEvent event() {
+        return R2dbcOutboxEvent.builder()
+                .id(UUID.randomUUID())
+                .eventType("REQUIREMENT_CREATED")
+                .aggregateType("REQUIREMENT")
+                .aggregateId("req-1")
+                .projectId("proj-001")
+                .payload("{}")
+                .build();
+    }
+}
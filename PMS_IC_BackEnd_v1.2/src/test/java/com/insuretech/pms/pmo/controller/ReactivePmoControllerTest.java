@@ -0,0 +1,77 @@
+package com.insuretech.pms.pmo.controller;
+
+import com.insuretech.pms.common.dto.ApiResponse;
+import com.insuretech.pms.pmo.dto.PmoPortfolioDto;
+import com.insuretech.pms.pmo.service.ReactivePmoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("ReactivePmoController Tests")
+class ReactivePmoControllerTest {
+
+    private static final String ETAG = "\"abc123\"";
+
+    private ReactivePmoController controller;
+
+    @BeforeEach
+    void setUp() {
+        ReactivePmoService pmoService = mock(ReactivePmoService.class);
+        PmoPortfolioDto portfolio = PmoPortfolioDto.builder().build();
+        when(pmoService.getPortfolio()).thenReturn(Mono.just(portfolio));
+        when(pmoService.portfolioETag(portfolio)).thenReturn(ETAG);
+        controller = new ReactivePmoController(pmoService);
+    }
+
+    @Nested
+    @DisplayName("getPortfolio conditional requests")
+    class ConditionalRequests {
+
+        @Test
+        @DisplayName("should answer 304 with the ETag and Cache-Control when a listed tag matches")
+        void shouldMatchTagInList() {
+            ResponseEntity<ApiResponse<PmoPortfolioDto>> response = get("\"stale\", \"abc123\"");
+
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+            assertThat(response.getBody()).isNull();
+            assertThat(response.getHeaders().getETag()).isEqualTo(ETAG);
+            assertThat(response.getHeaders().getCacheControl()).isEqualTo("no-cache, private");
+        }
+
+        @Test
+        @DisplayName("should compare weakly, so a W/ tag matches the strong one")
+        void shouldMatchWeakTag() {
+            assertThat(get("W/\"abc123\"").getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        }
+
+        @Test
+        @DisplayName("should treat * as matching the current representation")
+        void shouldMatchWildcard() {
+            assertThat(get("*").getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        }
+
+        @Test
+        @DisplayName("should send the portfolio when no tag matches or the header is absent")
+        void shouldSendBodyOtherwise() {
+            ResponseEntity<ApiResponse<PmoPortfolioDto>> changed = get("\"stale\"");
+            ResponseEntity<ApiResponse<PmoPortfolioDto>> unconditional = get(null);
+
+            assertThat(changed.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(changed.getBody()).isNotNull();
+            assertThat(changed.getHeaders().getETag()).isEqualTo(ETAG);
+            assertThat(unconditional.getStatusCode()).isEqualTo(HttpStatus.OK);
+        }
+    }
+
+    private ResponseEntity<ApiResponse<PmoPortfolioDto>> get(String ifNoneMatch) {
+        return controller.getPortfolio(ifNoneMatch).block();
+    }
+}
@@ -0,0 +1,106 @@
+package com.insuretech.pms.pmo.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.r2dbc.core.FetchSpec;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("PortfolioHealthStore Tests")
+class PortfolioHealthStoreTest {
+
+    private DatabaseClient databaseClient;
+    private GenericExecuteSpec projectsSpec;
+    private FetchSpec<Map<String, Object>> projectsFetch;
+    private FetchSpec<Map<String, Object>> allFetch;
+    private PortfolioHealthStore store;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        databaseClient = mock(DatabaseClient.class);
+        projectsSpec = mock(GenericExecuteSpec.class);
+        GenericExecuteSpec allSpec = mock(GenericExecuteSpec.class);
+        projectsFetch = mock(FetchSpec.class);
+        allFetch = mock(FetchSpec.class);
+
+        when(databaseClient.sql(anyString()))
+                .thenAnswer(inv -> inv.getArgument(0, String.class).contains(":projectIds") ? projectsSpec : allSpec);
+        when(projectsSpec.bind(eq("projectIds"), any())).thenReturn(projectsSpec);
+        when(projectsSpec.fetch()).thenReturn(projectsFetch);
+        when(allSpec.fetch()).thenReturn(allFetch);
+        when(projectsFetch.rowsUpdated()).thenReturn(Mono.just(1L));
+        when(allFetch.rowsUpdated()).thenReturn(Mono.just(10L));
+
+        store = new PortfolioHealthStore(databaseClient);
+    }
+
+    @Test
+    @DisplayName("should not touch the database when nothing is dirty")
+    void shouldSkipFlushWhenClean() {
+        StepVerifier.create(store.flushDirty()).verifyComplete();
+
+        verify(databaseClient, never()).sql(anyString());
+    }
+
+    @Test
+    @DisplayName("should re-aggregate only the dirty projects, once")
+    @SuppressWarnings("unchecked")
+    void shouldFlushDirtyProjects() {
+        store.markDirty("proj-001");
+        store.markDirty("proj-002");
+        store.markDirty("proj-001");
+        store.markDirty(null);
+
+        StepVerifier.create(store.flushDirty()).verifyComplete();
+        StepVerifier.create(store.flushDirty()).verifyComplete();
+
+        ArgumentCaptor<Object> ids = ArgumentCaptor.forClass(Object.class);
+        verify(projectsSpec, times(1)).bind(eq("projectIds"), ids.capture());
+        assertThat((List<Object>) ids.getValue()).containsExactlyInAnyOrder("proj-001", "proj-002");
+    }
+
+    @Test
+    @DisplayName("should keep projects dirty when their refresh fails")
+    void shouldRemarkDirtyOnFailure() {
+        when(projectsFetch.rowsUpdated())
+                .thenReturn(Mono.error(new IllegalStateException("db down")))
+                .thenReturn(Mono.just(1L));
+        store.markDirty("proj-001");
+
+        StepVerifier.create(store.flushDirty()).expectError(IllegalStateException.class).verify();
+        StepVerifier.create(store.flushDirty()).verifyComplete();
+
+        verify(projectsSpec, times(2)).bind(eq("projectIds"), any());
+    }
+
+    @Test
+    @DisplayName("should refresh every project on the first read of a day, then only dirty ones")
+    void shouldRefreshAllOncePerDay() {
+        store.markDirty("proj-001");
+        StepVerifier.create(store.ensureFresh()).verifyComplete();
+        StepVerifier.create(store.ensureFresh()).verifyComplete();
+        store.markDirty("proj-002");
+        StepVerifier.create(store.ensureFresh()).verifyComplete();
+
+        verify(allFetch, times(1)).rowsUpdated();
+        verify(projectsSpec, times(1)).bind("projectIds", List.of("proj-002"));
+    }
+}
@@ -0,0 +1,107 @@
+package com.insuretech.pms.pmo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insuretech.pms.common.security.ReactiveProjectSecurityService;
+import com.insuretech.pms.pmo.dto.PmoHealthDto;
+import com.insuretech.pms.pmo.dto.PmoPortfolioDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("ReactivePmoService Tests")
+class ReactivePmoServiceTest {
+
+    private DatabaseClient databaseClient;
+    private ReactiveProjectSecurityService securityService;
+    private ReactivePmoService pmoService;
+
+    @BeforeEach
+    void setUp() {
+        databaseClient = mock(DatabaseClient.class, Answers.RETURNS_DEEP_STUBS);
+        securityService = mock(ReactiveProjectSecurityService.class);
+        PortfolioHealthStore healthStore = mock(PortfolioHealthStore.class);
+        when(healthStore.ensureFresh()).thenReturn(Mono.empty());
+
+        when(databaseClient.sql(anyString()).fetch().all()).thenReturn(Flux.just(
+                row("proj-001", "Alpha", 10, 5),
+                row("proj-002", "Beta", 4, 4)));
+
+        pmoService = new ReactivePmoService(databaseClient, healthStore, securityService,
+                new ObjectMapper().findAndRegisterModules());
+    }
+
+    @Nested
+    @DisplayName("project visibility")
+    class Visibility {
+
+        @Test
+        @DisplayName("should show members only the projects authorized in one bulk check")
+        void shouldFilterToAuthorizedProjects() {
+            when(securityService.hasSystemRole("PMO_HEAD")).thenReturn(Mono.just(false));
+            when(securityService.authorizeProjects(anyCollection())).thenReturn(Mono.just(Set.of("proj-002")));
+
+            StepVerifier.create(pmoService.getPortfolio())
+                    .assertNext(portfolio -> assertThat(portfolio.getProjects())
+                            .extracting(PmoPortfolioDto.ProjectHealthSummary::getProjectId)
+                            .containsExactly("proj-002"))
+                    .verifyComplete();
+
+            verify(securityService).authorizeProjects(List.of("proj-001", "proj-002"));
+        }
+
+        @Test
+        @DisplayName("should show PMO heads every project without a membership lookup")
+        void shouldShowEveryProjectToPmoHead() {
+            when(securityService.hasSystemRole("PMO_HEAD")).thenReturn(Mono.just(true));
+
+            StepVerifier.create(pmoService.getHealthMatrix().map(PmoHealthDto::getProjectId))
+                    .expectNext("proj-001", "proj-002")
+                    .verifyComplete();
+
+            verify(securityService, never()).authorizeProjects(anyCollection());
+        }
+    }
+
+    @Nested
+    @DisplayName("portfolioETag")
+    class PortfolioETag {
+
+        @Test
+        @DisplayName("should tag equal portfolios identically and change with any field")
+        void shouldHashSerializedPayload() {
+            when(securityService.hasSystemRole("PMO_HEAD")).thenReturn(Mono.just(true));
+            PmoPortfolioDto portfolio = pmoService.getPortfolio().block();
+            PmoPortfolioDto same = pmoService.getPortfolio().block();
+
+            String etag = pmoService.portfolioETag(portfolio);
+            assertThat(etag).matches("\"[0-9a-f]{64}\"");
+            assertThat(pmoService.portfolioETag(same)).isEqualTo(etag);
+
+            same.getProjects().get(0).setOpenIssues(1);
+            assertThat(pmoService.portfolioETag(same)).isNotEqualTo(etag);
+        }
+    }
+
+    private static Map<String, Object> row(String id, String name, long total, long done) {
+        return Map.of("id", id, "name", name, "status", "IN_PROGRESS",
+                "total_tasks", total, "completed_tasks", done, "overdue_tasks", 0L, "open_issues", 0L);
+    }
+}
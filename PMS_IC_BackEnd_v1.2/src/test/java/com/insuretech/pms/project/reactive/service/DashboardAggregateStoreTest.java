@@ -0,0 +1,140 @@
+package com.insuretech.pms.project.reactive.service;
+
+import com.insuretech.pms.project.reactive.entity.R2dbcPhase;
+import com.insuretech.pms.project.reactive.repository.ReactivePhaseRepository;
+import com.insuretech.pms.project.reactive.service.DashboardAggregateStore.Section;
+import com.insuretech.pms.report.dto.DashboardSection;
+import com.insuretech.pms.report.dto.DashboardSection.DashboardMeta;
+import com.insuretech.pms.report.dto.DashboardSection.DashboardWarning;
+import com.insuretech.pms.support.R2dbcTestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("DashboardAggregateStore Tests")
+class DashboardAggregateStoreTest {
+
+    private static final String PROJECT = "proj-001";
+
+    private ReactivePhaseRepository phaseRepository;
+    private DashboardAggregateStore store;
+    private final Map<Section, AtomicInteger> loads = new EnumMap<>(Section.class);
+    private boolean failNextLoad;
+
+    @BeforeEach
+    void setUp() {
+        R2dbcTestDataFactory.resetCounter();
+        phaseRepository = mock(ReactivePhaseRepository.class);
+        store = new DashboardAggregateStore(phaseRepository);
+        ReflectionTestUtils.setField(store, "maxAgeSeconds", 60L);
+    }
+
+    @Test
+    @DisplayName("should serve a stored section without recomputing it")
+    void shouldServeStoredSection() {
+        read(Section.STATS);
+        read(Section.STATS);
+
+        assertThat(loads(Section.STATS)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should recompute only the sections marked dirty")
+    void shouldRecomputeDirtySectionsOnly() {
+        read(Section.SPRINT_VELOCITY);
+        read(Section.BURNDOWN);
+        read(Section.STATS);
+
+        store.markDirty(PROJECT, DashboardAggregateStore.SPRINT_SECTIONS);
+        read(Section.SPRINT_VELOCITY);
+        read(Section.BURNDOWN);
+        read(Section.STATS);
+
+        assertThat(loads(Section.SPRINT_VELOCITY)).isEqualTo(2);
+        assertThat(loads(Section.BURNDOWN)).isEqualTo(2);
+        assertThat(loads(Section.STATS)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should recompute a section once it is older than the max age")
+    void shouldRecomputeAfterMaxAge() throws InterruptedException {
+        ReflectionTestUtils.setField(store, "maxAgeSeconds", 0L);
+        read(Section.STATS);
+        Thread.sleep(5);
+        read(Section.STATS);
+
+        assertThat(loads(Section.STATS)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should not keep a failed computation")
+    void shouldRetryAfterFailure() {
+        failNextLoad = true;
+        StepVerifier.create(store.get(PROJECT, Section.STATS, loader(Section.STATS)))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        read(Section.STATS);
+        assertThat(loads(Section.STATS)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should resolve the project of a phase before marking sections dirty")
+    void shouldMarkDirtyByPhase() {
+        R2dbcPhase phase = R2dbcTestDataFactory.defaultPhase(PROJECT);
+        when(phaseRepository.findById(phase.getId())).thenReturn(Mono.just(phase));
+        read(Section.PHASE_PROGRESS);
+
+        StepVerifier.create(store.markPhaseDirty(phase.getId(), Section.PHASE_PROGRESS)).verifyComplete();
+        read(Section.PHASE_PROGRESS);
+
+        assertThat(loads(Section.PHASE_PROGRESS)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should hand out copies so callers cannot change the stored section")
+    void shouldReturnPrivateCopies() {
+        DashboardSection<String> first = read(Section.INSIGHTS);
+        first.getMeta().getWarnings().add(new DashboardWarning("LOCAL", "added by a caller"));
+
+        DashboardSection<String> second = read(Section.INSIGHTS);
+
+        assertThat(second.getMeta().getWarnings()).isEmpty();
+        assertThat(second.getMeta().getComputeMs()).isNotNull();
+    }
+
+    private DashboardSection<String> read(Section section) {
+        return store.get(PROJECT, section, loader(section)).block();
+    }
+
+    private Supplier<Mono<DashboardSection<String>>> loader(Section section) {
+        return () -> Mono.fromCallable(() -> {
+            loads.computeIfAbsent(section, s -> new AtomicInteger()).incrementAndGet();
+            if (failNextLoad) {
+                failNextLoad = false;
+                throw new IllegalStateException("query failed");
+            }
+            return DashboardSection.<String>builder()
+                    .data(section.name())
+                    .meta(DashboardMeta.builder().asOf(LocalDateTime.now()).scope("project:" + PROJECT).build())
+                    .build();
+        });
+    }
+
+    private int loads(Section section) {
+        return loads.getOrDefault(section, new AtomicInteger()).get();
+    }
+}
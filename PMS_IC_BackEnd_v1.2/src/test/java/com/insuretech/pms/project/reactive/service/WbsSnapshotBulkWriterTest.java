@@ -0,0 +1,188 @@
+package com.insuretech.pms.project.reactive.service;
+
+import com.insuretech.pms.project.reactive.service.WbsSnapshotBulkWriter.RestoreCounts;
+import com.insuretech.pms.project.reactive.service.WbsSnapshotBulkWriter.SnapshotCounts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.r2dbc.core.FetchSpec;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("WbsSnapshotBulkWriter Tests")
+class WbsSnapshotBulkWriterTest {
+
+    private static final String SNAPSHOT_ID = "snap-001";
+    private static final String PHASE_ID = "phase-001";
+    private static final String PROJECT_ID = "proj-001";
+
+    private static final Pattern STATEMENT = Pattern.compile(
+            "(INSERT INTO|DELETE FROM|UPDATE) (project\\.\\w+)");
+    private static final Pattern SOURCE = Pattern.compile("FROM (project\\.\\w+_snapshot) s\\s+WHERE s\\.snapshot_id");
+
+    private final List<String> statements = new ArrayList<>();
+    private final List<String> executed = new ArrayList<>();
+    private final List<Map<String, Object>> binds = new ArrayList<>();
+    private final Map<String, Long> rowsByStatement = new HashMap<>();
+    private WbsSnapshotBulkWriter writer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        DatabaseClient databaseClient = mock(DatabaseClient.class);
+        when(databaseClient.sql(anyString())).thenAnswer(inv -> {
+            String sql = inv.getArgument(0);
+            statements.add(sql);
+            Map<String, Object> bound = new LinkedHashMap<>();
+            binds.add(bound);
+
+            GenericExecuteSpec spec = mock(GenericExecuteSpec.class);
+            FetchSpec<Map<String, Object>> fetch = mock(FetchSpec.class);
+            when(spec.bind(anyString(), any())).thenAnswer(bind -> {
+                bound.put(bind.getArgument(0), bind.getArgument(1));
+                return spec;
+            });
+            when(spec.bindNull(anyString(), eq(String.class))).thenAnswer(bind -> {
+                bound.put(bind.getArgument(0), null);
+                return spec;
+            });
+            when(spec.fetch()).thenReturn(fetch);
+            when(fetch.rowsUpdated()).thenReturn(Mono.fromCallable(() -> {
+                executed.add(label(sql));
+                return rowsByStatement.getOrDefault(label(sql), 0L);
+            }));
+            return spec;
+        });
+
+        writer = new WbsSnapshotBulkWriter(databaseClient);
+    }
+
+    @Nested
+    @DisplayName("capture")
+    class Capture {
+
+        @Test
+        @DisplayName("should copy parents before children and record the copied counts on the header")
+        void shouldCaptureLevelsInOrder() {
+            rowsByStatement.put("INSERT INTO project.wbs_groups_snapshot", 2L);
+            rowsByStatement.put("INSERT INTO project.wbs_items_snapshot", 5L);
+            rowsByStatement.put("INSERT INTO project.wbs_tasks_snapshot", 11L);
+            rowsByStatement.put("INSERT INTO project.wbs_dependencies_snapshot", 3L);
+
+            StepVerifier.create(writer.capture(SNAPSHOT_ID, PHASE_ID, PROJECT_ID, "Before template", null,
+                            "PRE_TEMPLATE", "pm-user"))
+                    .expectNext(new SnapshotCounts(2, 5, 11, 3))
+                    .verifyComplete();
+
+            assertThat(executed).containsExactly(
+                    "INSERT INTO project.wbs_snapshots",
+                    "INSERT INTO project.wbs_groups_snapshot",
+                    "INSERT INTO project.wbs_items_snapshot",
+                    "INSERT INTO project.wbs_tasks_snapshot",
+                    "INSERT INTO project.wbs_dependencies_snapshot",
+                    "UPDATE project.wbs_snapshots");
+            assertThat(binds).allSatisfy(bound -> assertThat(bound).containsEntry("snapshotId", SNAPSHOT_ID));
+            assertThat(binds.get(0)).containsEntry("description", null).containsEntry("createdBy", "pm-user");
+            assertThat(binds.get(5)).containsEntry("groupCount", 2).containsEntry("itemCount", 5)
+                    .containsEntry("taskCount", 11).containsEntry("dependencyCount", 3);
+        }
+    }
+
+    @Nested
+    @DisplayName("restore")
+    class Restore {
+
+        @Test
+        @DisplayName("should delete stale rows children-first, then upsert parents-first")
+        void shouldOrderDeletesAndUpserts() {
+            StepVerifier.create(writer.restore(SNAPSHOT_ID, PHASE_ID, PROJECT_ID, "pm-user"))
+                    .expectNext(new RestoreCounts(0, 0))
+                    .verifyComplete();
+
+            assertThat(executed).containsExactly(
+                    "DELETE FROM project.wbs_dependencies",
+                    "DELETE FROM project.wbs_tasks",
+                    "DELETE FROM project.wbs_items",
+                    "DELETE FROM project.wbs_groups",
+                    "INSERT INTO project.wbs_groups",
+                    "INSERT INTO project.wbs_items",
+                    "INSERT INTO project.wbs_tasks",
+                    "INSERT INTO project.wbs_dependencies");
+            assertThat(binds.subList(4, 8)).allSatisfy(bound ->
+                    assertThat(bound).containsEntry("snapshotId", SNAPSHOT_ID).containsEntry("restoredBy", "pm-user"));
+        }
+
+        @Test
+        @DisplayName("should read back exactly the snapshot tables and snapshot id that capture wrote")
+        void shouldRoundTripCapturedRows() {
+            writer.capture(SNAPSHOT_ID, PHASE_ID, PROJECT_ID, "Before template", null, "PRE_TEMPLATE", null)
+                    .block();
+            List<String> captured = executed.subList(1, 5).stream()
+                    .map(label -> label.substring("INSERT INTO ".length()))
+                    .toList();
+            statements.clear();
+            binds.clear();
+            rowsByStatement.put("DELETE FROM project.wbs_tasks", 1L);
+            rowsByStatement.put("INSERT INTO project.wbs_items", 2L);
+            rowsByStatement.put("INSERT INTO project.wbs_tasks", 3L);
+
+            StepVerifier.create(writer.restore(SNAPSHOT_ID, PHASE_ID, PROJECT_ID, null))
+                    .expectNext(new RestoreCounts(1, 5))
+                    .verifyComplete();
+
+            List<String> restoredFrom = statements.subList(4, 8).stream()
+                    .map(sql -> {
+                        Matcher m = SOURCE.matcher(sql);
+                        assertThat(m.find()).as("snapshot source of %s", label(sql)).isTrue();
+                        return m.group(1);
+                    })
+                    .toList();
+            assertThat(restoredFrom).isEqualTo(captured);
+            assertThat(binds.subList(4, 8)).allSatisfy(bound ->
+                    assertThat(bound).containsEntry("snapshotId", SNAPSHOT_ID).containsEntry("restoredBy", null));
+        }
+
+        @Test
+        @DisplayName("should leave rows that match the snapshot untouched")
+        void shouldGuardUpsertsWithDistinctCheck() {
+            writer.restore(SNAPSHOT_ID, PHASE_ID, PROJECT_ID, "pm-user").block();
+
+            for (String sql : statements.subList(4, 8)) {
+                String[] parts = sql.split("ON CONFLICT \\(id\\) DO UPDATE SET|\\bWHERE \\(|IS DISTINCT FROM");
+                assertThat(parts).as("conflict guard of %s", label(sql)).hasSize(4);
+                List<String> updated = Arrays.stream(parts[1].split(","))
+                        .map(assignment -> assignment.split("=")[0].trim())
+                        .filter(column -> !column.equals("updated_at") && !column.equals("updated_by"))
+                        .toList();
+                for (String column : updated) {
+                    assertThat(parts[2]).as("%s compares %s", label(sql), column).containsPattern("\\w\\." + column + "\\b");
+                    assertThat(parts[3]).as("%s compares %s", label(sql), column).contains("EXCLUDED." + column);
+                }
+            }
+        }
+    }
+
+    private static String label(String sql) {
+        Matcher m = STATEMENT.matcher(sql);
+        return m.find() ? m.group(1) + " " + m.group(2) : sql;
+    }
+}
@@ -0,0 +1,100 @@
+package com.insuretech.pms.project.service;
+
+import com.insuretech.pms.auth.reactive.repository.ReactiveUserRepository;
+import com.insuretech.pms.common.security.ProjectMembershipCache;
+import com.insuretech.pms.project.reactive.entity.R2dbcProjectMember;
+import com.insuretech.pms.project.reactive.repository.ReactiveProjectMemberRepository;
+import com.insuretech.pms.project.reactive.repository.ReactiveProjectRepository;
+import com.insuretech.pms.support.R2dbcTestDataFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("ReactiveProjectMemberService Tests")
+class ReactiveProjectMemberServiceTest {
+
+    private ReactiveProjectMemberRepository memberRepository;
+    private ProjectMembershipCache membershipCache;
+    private ReactiveProjectMemberService memberService;
+    private R2dbcProjectMember member;
+
+    @BeforeEach
+    void setUp() {
+        R2dbcTestDataFactory.resetCounter();
+        memberRepository = mock(ReactiveProjectMemberRepository.class);
+        ReactiveUserRepository userRepository = mock(ReactiveUserRepository.class);
+        when(userRepository.findById(anyString())).thenReturn(Mono.empty());
+
+        membershipCache = new ProjectMembershipCache();
+        ReflectionTestUtils.setField(membershipCache, "ttlSeconds", 30L);
+        ReflectionTestUtils.setField(membershipCache, "maxEntries", 100);
+        ReflectionTestUtils.setField(membershipCache, "settleMillis", 0L);
+
+        memberService = new ReactiveProjectMemberService(memberRepository,
+                mock(ReactiveProjectRepository.class), userRepository, membershipCache);
+        member = R2dbcTestDataFactory.defaultProjectMember("proj-001", "user-001");
+        when(memberRepository.findById(member.getId())).thenReturn(Mono.just(member));
+    }
+
+    @Nested
+    @DisplayName("membership cache invalidation")
+    class MembershipCacheInvalidation {
+
+        @Test
+        @DisplayName("should serve the new role after a role change")
+        void shouldInvalidateOnRoleChange() {
+            warmCache();
+            when(memberRepository.save(any(R2dbcProjectMember.class))).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+
+            StepVerifier.create(memberService.updateMemberRole("proj-001", member.getId(), "PM"))
+                    .expectNextCount(1)
+                    .verifyComplete();
+
+            StepVerifier.create(cachedRole())
+                    .expectNext(Optional.of("PM"))
+                    .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("should deny a removed member on the next check")
+        void shouldInvalidateOnRemoval() {
+            warmCache();
+            when(memberRepository.deleteById(member.getId())).thenAnswer(inv -> {
+                member.setActive(false);
+                return Mono.empty();
+            });
+
+            StepVerifier.create(memberService.removeMember("proj-001", member.getId()))
+                    .verifyComplete();
+
+            StepVerifier.create(cachedRole())
+                    .expectNext(Optional.empty())
+                    .verifyComplete();
+        }
+    }
+
+    private void warmCache() {
+        StepVerifier.create(cachedRole())
+                .expectNext(Optional.of("DEVELOPER"))
+                .verifyComplete();
+    }
+
+    /**
+     * Role lookup as ReactiveProjectSecurityService performs it, reading the current member row.
+     */
+    private Mono<Optional<String>> cachedRole() {
+        return membershipCache.getRole("proj-001", "user-001", () -> Mono.fromCallable(() ->
+                Boolean.TRUE.equals(member.getActive()) ? Optional.ofNullable(member.getRole()) : Optional.empty()));
+    }
+}
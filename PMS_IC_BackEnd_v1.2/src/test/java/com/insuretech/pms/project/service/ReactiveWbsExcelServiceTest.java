@@ -1,5 +1,6 @@
 package com.insuretech.pms.project.service;
 
+import com.insuretech.pms.common.cache.ProjectCaches;
 import com.insuretech.pms.common.service.ExcelService;
 import com.insuretech.pms.project.reactive.entity.R2dbcPhase;
 import com.insuretech.pms.project.reactive.entity.R2dbcWbsGroup;
@@ -9,7 +10,9 @@ import com.insuretech.pms.project.reactive.repository.ReactivePhaseRepository;
 import com.insuretech.pms.project.reactive.repository.ReactiveWbsGroupRepository;
 import com.insuretech.pms.project.reactive.repository.ReactiveWbsItemRepository;
 import com.insuretech.pms.project.reactive.repository.ReactiveWbsTaskRepository;
+import com.insuretech.pms.project.reactive.service.DashboardAggregateStore;
 import com.insuretech.pms.project.reactive.service.ReactiveWbsExcelService;
+import com.insuretech.pms.project.reactive.service.WbsBulkWriter;
 import com.insuretech.pms.support.R2dbcTestDataFactory;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
@@ -23,6 +26,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.test.util.ReflectionTestUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
@@ -30,10 +35,12 @@ import reactor.test.StepVerifier;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.List;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -55,6 +62,15 @@ class ReactiveWbsExcelServiceTest {
     @Mock
     private ReactiveWbsTaskRepository wbsTaskRepository;
 
+    @Mock
+    private WbsBulkWriter wbsBulkWriter;
+
+    @Mock
+    private DashboardAggregateStore dashboardAggregateStore;
+
+    @Mock
+    private ProjectCaches projectCaches;
+
     @InjectMocks
     private ReactiveWbsExcelService wbsExcelService;
 
@@ -67,6 +83,9 @@ class ReactiveWbsExcelServiceTest {
     @BeforeEach
     void setUp() {
         R2dbcTestDataFactory.resetCounter();
+        ReflectionTestUtils.setField(wbsExcelService, "exportRowWindow", 2);
+        ReflectionTestUtils.setField(wbsExcelService, "exportBufferSize", 1024);
+        ReflectionTestUtils.setField(wbsExcelService, "importBatchSize", 500);
         projectId = UUID.randomUUID().toString();
 
         testPhase = R2dbcTestDataFactory.phase()
@@ -110,21 +129,17 @@ class ReactiveWbsExcelServiceTest {
             when(wbsTaskRepository.findByProjectIdOrdered(projectId))
                     .thenReturn(Flux.just(testTask));
 
-            StepVerifier.create(wbsExcelService.exportToExcel(projectId))
-                    .assertNext(resource -> {
-                        assertThat(resource).isNotNull();
-                        assertThat(resource.exists()).isTrue();
-
+            StepVerifier.create(joinExport())
+                    .assertNext(content -> {
                         // Verify Excel content
-                        try {
-                            byte[] content = resource.getInputStream().readAllBytes();
-                            try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(content))) {
-                                Sheet sheet = workbook.getSheetAt(0);
-                                assertThat(sheet).isNotNull();
-                                assertThat(sheet.getSheetName()).isEqualTo("WBS Data");
-                                // Header row + 4 data rows (phase, group, item, task)
-                                assertThat(sheet.getLastRowNum()).isGreaterThanOrEqualTo(4);
-                            }
+                        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(content))) {
+                            Sheet sheet = workbook.getSheetAt(0);
+                            assertThat(sheet).isNotNull();
+                            assertThat(sheet.getSheetName()).isEqualTo("WBS Data");
+                            // Header row + 4 data rows (phase, group, item, task), beyond the row window
+                            assertThat(sheet.getLastRowNum()).isEqualTo(4);
+                            assertThat(sheet.getRow(4).getCell(7).getStringCellValue())
+                                    .isEqualTo("Interview Stakeholders");
                         } catch (IOException e) {
                             throw new RuntimeException("Failed to read Excel content", e);
                         }
@@ -143,12 +158,21 @@ class ReactiveWbsExcelServiceTest {
             when(phaseRepository.findByProjectIdOrderByOrderNumAsc(projectId))
                     .thenReturn(Flux.empty());
 
-            StepVerifier.create(wbsExcelService.exportToExcel(projectId))
-                    .assertNext(resource -> {
-                        assertThat(resource).isNotNull();
-                        assertThat(resource.exists()).isTrue();
-                    })
+            StepVerifier.create(joinExport())
+                    .assertNext(content -> assertThat(content).isNotEmpty())
                     .verifyComplete();
+
+            verifyNoInteractions(wbsTaskRepository);
+        }
+
+        private Mono<byte[]> joinExport() {
+            return DataBufferUtils.join(wbsExcelService.exportToExcel(projectId))
+                    .map(buffer -> {
+                        byte[] bytes = new byte[buffer.readableByteCount()];
+                        buffer.read(bytes);
+                        DataBufferUtils.release(buffer);
+                        return bytes;
+                    });
         }
     }
 
@@ -202,22 +226,32 @@ class ReactiveWbsExcelServiceTest {
 
             when(phaseRepository.findByProjectIdOrderByOrderNumAsc(projectId))
                     .thenReturn(Flux.empty());
-            when(phaseRepository.save(any(R2dbcPhase.class)))
-                    .thenAnswer(inv -> Mono.just(inv.getArgument(0)));
-            when(wbsGroupRepository.save(any(R2dbcWbsGroup.class)))
-                    .thenAnswer(inv -> Mono.just(inv.getArgument(0)));
-            when(wbsItemRepository.save(any(R2dbcWbsItem.class)))
-                    .thenAnswer(inv -> Mono.just(inv.getArgument(0)));
-            when(wbsTaskRepository.save(any(R2dbcWbsTask.class)))
-                    .thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+            when(wbsBulkWriter.insertPhases(anyList()))
+                    .thenAnswer(inv -> Mono.just((long) inv.<List<?>>getArgument(0).size()));
+            when(wbsBulkWriter.insertGroups(anyList()))
+                    .thenAnswer(inv -> Mono.just((long) inv.<List<?>>getArgument(0).size()));
+            when(wbsBulkWriter.insertItems(anyList()))
+                    .thenAnswer(inv -> Mono.just((long) inv.<List<?>>getArgument(0).size()));
+            when(wbsBulkWriter.insertTasks(anyList()))
+                    .thenAnswer(inv -> Mono.just((long) inv.<List<?>>getArgument(0).size()));
 
             StepVerifier.create(wbsExcelService.importFromBytes(excelBytes, projectId))
                     .assertNext(result -> {
                         assertThat(result).isNotNull();
-                        assertThat(result.getTotalRows()).isGreaterThan(0);
+                        assertThat(result.getTotalRows()).isEqualTo(4);
                         assertThat(result.getErrors()).isEmpty();
+                        assertThat(result.getPhasesCreated()).isEqualTo(1);
+                        assertThat(result.getGroupsCreated()).isEqualTo(1);
+                        assertThat(result.getItemsCreated()).isEqualTo(1);
+                        assertThat(result.getTasksCreated()).isEqualTo(1);
                     })
                     .verifyComplete();
+
+            // One flush for the whole file: each level inserted in a single call
+            verify(wbsBulkWriter).insertTasks(argThat(tasks -> tasks.size() == 1
+                    && tasks.get(0).getName().equals("Test Task")));
+            verify(dashboardAggregateStore).invalidateProject(projectId);
+            verify(projectCaches).invalidateProject(projectId);
         }
 
         @Test
@@ -231,6 +265,8 @@ class ReactiveWbsExcelServiceTest {
                         assertThat(result.getErrors()).isNotEmpty();
                     })
                     .verifyComplete();
+
+            verifyNoInteractions(dashboardAggregateStore, projectCaches);
         }
 
         @Test
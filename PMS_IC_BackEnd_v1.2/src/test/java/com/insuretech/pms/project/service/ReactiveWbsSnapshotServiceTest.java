@@ -0,0 +1,109 @@
+package com.insuretech.pms.project.service;
+
+import com.insuretech.pms.common.cache.ProjectCaches;
+import com.insuretech.pms.common.exception.CustomException;
+import com.insuretech.pms.pmo.service.PortfolioHealthStore;
+import com.insuretech.pms.project.reactive.entity.R2dbcPhase;
+import com.insuretech.pms.project.reactive.entity.R2dbcWbsSnapshot;
+import com.insuretech.pms.project.reactive.repository.ReactivePhaseRepository;
+import com.insuretech.pms.project.reactive.repository.ReactiveWbsSnapshotRepository;
+import com.insuretech.pms.project.reactive.service.DashboardAggregateStore;
+import com.insuretech.pms.project.reactive.service.WbsSnapshotBulkWriter;
+import com.insuretech.pms.project.reactive.service.WbsSnapshotBulkWriter.RestoreCounts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReactiveWbsSnapshotService Tests")
+class ReactiveWbsSnapshotServiceTest {
+
+    private static final String SNAPSHOT_ID = "snap-001";
+    private static final String PHASE_ID = "phase-001";
+    private static final String PROJECT_ID = "proj-001";
+
+    @Mock
+    private ReactiveWbsSnapshotRepository snapshotRepository;
+
+    @Mock
+    private ReactivePhaseRepository phaseRepository;
+
+    @Mock
+    private WbsSnapshotBulkWriter snapshotBulkWriter;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Mock
+    private DashboardAggregateStore dashboardAggregateStore;
+
+    @Mock
+    private PortfolioHealthStore portfolioHealthStore;
+
+    @Mock
+    private ProjectCaches projectCaches;
+
+    @InjectMocks
+    private ReactiveWbsSnapshotService snapshotService;
+
+    @BeforeEach
+    void setUp() {
+        when(snapshotRepository.findByIdAndStatus(SNAPSHOT_ID, "ACTIVE"))
+                .thenReturn(Mono.just(R2dbcWbsSnapshot.builder().id(SNAPSHOT_ID).phaseId(PHASE_ID).build()));
+        when(phaseRepository.findById(PHASE_ID))
+                .thenReturn(Mono.just(R2dbcPhase.builder().id(PHASE_ID).projectId(PROJECT_ID).build()));
+        when(snapshotBulkWriter.restore(SNAPSHOT_ID, PHASE_ID, PROJECT_ID, "pm-user"))
+                .thenReturn(Mono.just(new RestoreCounts(1, 4)));
+        when(snapshotRepository.markAsRestored(SNAPSHOT_ID, "RESTORED", "pm-user")).thenReturn(Mono.empty());
+    }
+
+    @Nested
+    @DisplayName("restoreSnapshot")
+    class RestoreSnapshot {
+
+        @Test
+        @DisplayName("should retire the project's cached aggregates after the restore commits")
+        @SuppressWarnings("unchecked")
+        void shouldInvalidateAfterCommit() {
+            when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            StepVerifier.create(snapshotService.restoreSnapshot(SNAPSHOT_ID, "pm-user"))
+                    .verifyComplete();
+
+            InOrder order = inOrder(snapshotRepository, dashboardAggregateStore, portfolioHealthStore, projectCaches);
+            order.verify(snapshotRepository).markAsRestored(SNAPSHOT_ID, "RESTORED", "pm-user");
+            order.verify(dashboardAggregateStore).invalidateProject(PROJECT_ID);
+            order.verify(portfolioHealthStore).markDirty(PROJECT_ID);
+            order.verify(projectCaches).invalidateProject(PROJECT_ID);
+        }
+
+        @Test
+        @DisplayName("should keep cached aggregates when the restore transaction fails")
+        @SuppressWarnings("unchecked")
+        void shouldNotInvalidateOnRollback() {
+            when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(inv ->
+                    ((Mono<Object>) inv.getArgument(0))
+                            .then(Mono.error(CustomException.internalError("commit failed"))));
+
+            StepVerifier.create(snapshotService.restoreSnapshot(SNAPSHOT_ID, "pm-user"))
+                    .expectError(CustomException.class)
+                    .verify();
+
+            verifyNoInteractions(dashboardAggregateStore, portfolioHealthStore, projectCaches);
+        }
+    }
+}
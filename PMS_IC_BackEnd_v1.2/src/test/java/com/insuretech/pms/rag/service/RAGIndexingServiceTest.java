@@ -0,0 +1,238 @@
+package com.insuretech.pms.rag.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.client.reactive.MockClientHttpRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("RAGIndexingService Tests")
+class RAGIndexingServiceTest {
+
+    private static final String DOCUMENT_ID = "doc-001";
+    private static final String STAGING_PREFIX = "/api/documents/doc-001:staging:";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    private final List<String> calls = new ArrayList<>();
+    private final List<Map<String, Object>> segmentBodies = new ArrayList<>();
+    private final Map<String, HttpStatus> statusByCall = new HashMap<>();
+    private int chunksPerSegment = 2;
+    private int failAtSegment = -1;
+    private String getResponse = "{\"exists\": true}";
+    private RAGIndexingService service;
+
+    @BeforeEach
+    void setUp() {
+        WebClient.Builder webClientBuilder = WebClient.builder().exchangeFunction(request -> {
+            String path = request.url().getPath();
+            String call = request.method().name() + " "
+                    + (path.startsWith(STAGING_PREFIX) ? path.replaceFirst(":staging:[^/]+", ":staging") : path);
+            calls.add(call);
+            HttpStatus status = statusByCall.getOrDefault(call, HttpStatus.OK);
+            if (status != HttpStatus.OK) {
+                return Mono.just(ClientResponse.create(status).build());
+            }
+            if (call.endsWith("/segments")) {
+                return readBody(request).map(body -> {
+                    segmentBodies.add(body);
+                    if (segmentBodies.size() - 1 == failAtSegment) {
+                        return ClientResponse.create(HttpStatus.INTERNAL_SERVER_ERROR).build();
+                    }
+                    long next = ((Number) body.get("chunk_offset")).longValue() + chunksPerSegment;
+                    return json("{\"chunk_count\": " + chunksPerSegment + ", \"next_chunk_offset\": " + next + "}");
+                });
+            }
+            return Mono.just(json("GET".equals(request.method().name()) ? getResponse : "{}"));
+        });
+
+        service = new RAGIndexingService(webClientBuilder);
+        ReflectionTestUtils.setField(service, "llmServiceUrl", "http://llm");
+        ReflectionTestUtils.setField(service, "extractParallelism", 2);
+        ReflectionTestUtils.setField(service, "segmentChars", 20000);
+        ReflectionTestUtils.setField(service, "pdfPagesPerSegment", 10);
+        ReflectionTestUtils.setField(service, "requestTimeoutSeconds", 5L);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Nested
+    @DisplayName("indexFile")
+    class IndexFile {
+
+        @Test
+        @DisplayName("should index under a staging id and promote it over the previous version")
+        void shouldPromoteStagingDocument() throws IOException {
+            Path file = textFile("requirements.txt", "첫 번째 요구사항\nsecond line\n");
+
+            StepVerifier.create(service.indexFile(DOCUMENT_ID, file, Map.of("title", "Requirements")))
+                    .expectNext(true)
+                    .verifyComplete();
+
+            assertThat(calls).containsExactly(
+                    "POST /api/documents/doc-001:staging/segments",
+                    "POST /api/documents/doc-001:staging/promote");
+            assertThat(segmentBodies.get(0).get("content")).isEqualTo("첫 번째 요구사항\nsecond line\n");
+        }
+
+        @Test
+        @DisplayName("should append segments in order, each at the chunk offset returned for the previous one")
+        void shouldAppendSegmentsSequentially() throws IOException {
+            ReflectionTestUtils.setField(service, "segmentChars", 5);
+            chunksPerSegment = 3;
+            Path file = textFile("notes.txt", "alpha line\nbeta line\ngamma line\n");
+
+            StepVerifier.create(service.indexFile(DOCUMENT_ID, file, Map.of()))
+                    .expectNext(true)
+                    .verifyComplete();
+
+            assertThat(segmentBodies).extracting(body -> ((Number) body.get("chunk_offset")).longValue())
+                    .containsExactly(0L, 3L, 6L);
+            assertThat(segmentBodies).extracting(body -> String.valueOf(((Map<?, ?>) body.get("metadata")).get("segment_index")))
+                    .containsExactly("0", "1", "2");
+            assertThat(calls).last().isEqualTo("POST /api/documents/doc-001:staging/promote");
+        }
+
+        @Test
+        @DisplayName("should discard the staging document and keep the previous version when a segment fails")
+        void shouldDiscardStagingOnFailure() throws IOException {
+            ReflectionTestUtils.setField(service, "segmentChars", 5);
+            failAtSegment = 1;
+            Path file = textFile("notes.txt", "alpha line\nbeta line\ngamma line\n");
+
+            StepVerifier.create(service.indexFile(DOCUMENT_ID, file, Map.of()))
+                    .expectNext(false)
+                    .verifyComplete();
+
+            assertThat(calls).containsExactly(
+                    "POST /api/documents/doc-001:staging/segments",
+                    "POST /api/documents/doc-001:staging/segments",
+                    "DELETE /api/documents/doc-001:staging");
+            assertThat(calls).doesNotContain("DELETE /api/documents/doc-001");
+        }
+
+        @Test
+        @DisplayName("should not count a document as indexed when the promotion fails")
+        void shouldFailWhenPromotionFails() throws IOException {
+            statusByCall.put("POST /api/documents/doc-001:staging/promote", HttpStatus.NOT_FOUND);
+            Path file = textFile("notes.txt", "content\n");
+
+            StepVerifier.create(service.indexFile(DOCUMENT_ID, file, Map.of()))
+                    .expectNext(false)
+                    .verifyComplete();
+
+            assertThat(calls).last().isEqualTo("DELETE /api/documents/doc-001:staging");
+        }
+
+        @Test
+        @DisplayName("should not post anything when the file has no text")
+        void shouldSkipEmptyFile() throws IOException {
+            Path file = textFile("empty.txt", "   \n");
+
+            StepVerifier.create(service.indexFile(DOCUMENT_ID, file, Map.of()))
+                    .expectNext(false)
+                    .verifyComplete();
+
+            assertThat(calls).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("documentExists")
+    class DocumentExists {
+
+        @Test
+        @DisplayName("should report an indexed document")
+        void shouldFindIndexedDocument() {
+            StepVerifier.create(service.documentExists(DOCUMENT_ID))
+                    .expectNext(true)
+                    .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("should report a missing document without failing")
+        void shouldTreatNotFoundAsMissing() {
+            statusByCall.put("GET /api/documents/doc-001", HttpStatus.NOT_FOUND);
+
+            StepVerifier.create(service.documentExists(DOCUMENT_ID))
+                    .expectNext(false)
+                    .verifyComplete();
+        }
+    }
+
+    private Path textFile(String name, String content) throws IOException {
+        return Files.writeString(tempDir.resolve(name), content);
+    }
+
+    private static ClientResponse json(String body) {
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Mono<Map<String, Object>> readBody(ClientRequest request) {
+        MockClientHttpRequest httpRequest = new MockClientHttpRequest(request.method(), request.url());
+        List<HttpMessageWriter<?>> writers = ExchangeStrategies.withDefaults().messageWriters();
+        return ((BodyInserter<?, ? super MockClientHttpRequest>) request.body())
+                .insert(httpRequest, new BodyInserter.Context() {
+                    @Override
+                    public List<HttpMessageWriter<?>> messageWriters() {
+                        return writers;
+                    }
+
+                    @Override
+                    public Optional<ServerHttpRequest> serverRequest() {
+                        return Optional.empty();
+                    }
+
+                    @Override
+                    public Map<String, Object> hints() {
+                        return Map.of();
+                    }
+                })
+                .then(Mono.defer(httpRequest::getBodyAsString))
+                .map(json -> {
+                    try {
+                        return objectMapper.readValue(json, Map.class);
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+    }
+}
@@ -0,0 +1,104 @@
+package com.insuretech.pms.report.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.insuretech.pms.common.exception.CustomException;
+import com.insuretech.pms.report.dto.ReportGenerationRequest;
+import com.insuretech.pms.report.reactive.entity.R2dbcReport;
+import com.insuretech.pms.report.reactive.repository.ReactiveReportTemplateRepository;
+import com.insuretech.pms.report.service.ReportDataCollector.Dataset;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("ReportGenerationEngine Tests")
+class ReportGenerationEngineTest {
+
+    private static final String PROJECT_ID = "proj-001";
+
+    private ReportDataCollector dataCollector;
+    private R2dbcEntityTemplate entityTemplate;
+    private ReportGenerationEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        dataCollector = mock(ReportDataCollector.class);
+        entityTemplate = mock(R2dbcEntityTemplate.class);
+        engine = new ReportGenerationEngine(mock(ReactiveReportTemplateRepository.class), dataCollector,
+                new ReportSectionRenderer(objectMapper), entityTemplate, objectMapper, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(engine, "maxConcurrent", 1);
+        ReflectionTestUtils.setField(engine, "maxQueued", 1);
+
+        when(dataCollector.supportedDatasets())
+                .thenReturn(Set.of(ReportDataCollector.STATS, ReportDataCollector.KPIS, "phases.status"));
+        when(dataCollector.collect(any(), any())).thenAnswer(inv -> Flux.fromIterable(inv.<Set<String>>getArgument(1))
+                .map(name -> new Dataset(name, List.of(), null)));
+        when(entityTemplate.insert(any(R2dbcReport.class))).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+    }
+
+    @Test
+    @DisplayName("should record the caller's role as the report's creator role")
+    void shouldRecordCreatorRole() {
+        StepVerifier.create(engine.submit(PROJECT_ID, request(List.of("phase_status")), "pmo@insuretech.com", "PMO_HEAD"))
+                .thenConsumeWhile(event -> true)
+                .verifyComplete();
+
+        ArgumentCaptor<R2dbcReport> saved = ArgumentCaptor.forClass(R2dbcReport.class);
+        verify(entityTemplate).insert(saved.capture());
+        assertThat(saved.getValue().getCreatorRole()).isEqualTo("PMO_HEAD");
+        assertThat(saved.getValue().getCreatedBy()).isEqualTo("pmo@insuretech.com");
+    }
+
+    @Test
+    @DisplayName("should reject unknown requested sections before collecting data")
+    void shouldRejectUnknownSections() {
+        StepVerifier.create(engine.submit(PROJECT_ID, request(List.of("phase_status", "budget")), "pm@insuretech.com", "PM"))
+                .thenConsumeWhile(event -> !"FAILED".equals(event.phase()))
+                .expectNextMatches(event -> "FAILED".equals(event.phase()))
+                .expectError(CustomException.class)
+                .verify();
+
+        verify(dataCollector, never()).collect(any(), any());
+    }
+
+    @Test
+    @DisplayName("should reject requested sections that read unsupported datasets")
+    void shouldRejectUnsupportedDatasets() {
+        StepVerifier.create(engine.submit(PROJECT_ID, request(List.of("issues_risks")), "pm@insuretech.com", "PM"))
+                .thenConsumeWhile(event -> !"FAILED".equals(event.phase()))
+                .expectNextMatches(event -> "FAILED".equals(event.phase()))
+                .expectError(CustomException.class)
+                .verify();
+
+        verify(dataCollector, never()).collect(any(), any());
+        verify(entityTemplate, never()).insert(any(R2dbcReport.class));
+    }
+
+    private static ReportGenerationRequest request(List<String> sections) {
+        return ReportGenerationRequest.builder()
+                .projectId(PROJECT_ID)
+                .periodStart(LocalDate.of(2026, 1, 5))
+                .periodEnd(LocalDate.of(2026, 1, 11))
+                .sections(sections)
+                .build();
+    }
+}
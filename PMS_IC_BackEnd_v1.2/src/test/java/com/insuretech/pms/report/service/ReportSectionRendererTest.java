@@ -0,0 +1,80 @@
+package com.insuretech.pms.report.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.insuretech.pms.report.dto.DashboardStats;
+import com.insuretech.pms.report.enums.SectionType;
+import com.insuretech.pms.report.reactive.entity.R2dbcReportTemplate;
+import com.insuretech.pms.report.service.ReportSectionRenderer.SectionSpec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ReportSectionRenderer Tests")
+class ReportSectionRendererTest {
+
+    private static final String STRUCTURE = """
+            {"sections": [
+              {"key": "issues", "title": "Issues", "type": "DATA_LIST", "order": 2,
+               "config": {"dataSource": "issues.active", "fields": ["title", "status"]}},
+              {"key": "progress", "title": "Progress", "type": "METRIC_CHART", "order": 1,
+               "config": {"metrics": ["completion_rate", "velocity"]}},
+              {"key": "notes", "title": "Notes", "type": "MANUAL_INPUT", "order": 3, "config": {}}
+            ]}
+            """;
+
+    private ReportSectionRenderer renderer;
+    private R2dbcReportTemplate template;
+
+    @BeforeEach
+    void setUp() {
+        renderer = new ReportSectionRenderer(new ObjectMapper().registerModule(new JavaTimeModule()));
+        template = R2dbcReportTemplate.builder().name("Weekly").structure(STRUCTURE).build();
+    }
+
+    @Test
+    @DisplayName("should order template sections and collect only the datasets they read")
+    void shouldPlanSectionsAndDatasets() {
+        List<SectionSpec> sections = renderer.sections(template, null);
+
+        assertThat(sections).extracting(SectionSpec::key).containsExactly("progress", "issues", "notes");
+        assertThat(renderer.datasets(sections))
+                .containsExactlyInAnyOrder("stats", "kpis", "sprints.velocity", "issues.active");
+    }
+
+    @Test
+    @DisplayName("should keep only requested sections")
+    void shouldFilterRequestedSections() {
+        assertThat(renderer.sections(template, List.of("notes")))
+                .extracting(SectionSpec::type)
+                .containsExactly(SectionType.MANUAL_INPUT);
+    }
+
+    @Test
+    @DisplayName("should project list rows to the template fields and compute metrics")
+    void shouldRenderSectionsFromData() {
+        List<SectionSpec> sections = renderer.sections(template, null);
+        Map<String, Object> data = Map.of(
+                "stats", DashboardStats.builder().totalTasks(8L).completedTasks(2L).build(),
+                "issues.active", List.of(Map.of("id", "I-1", "title", "Login fails", "status", "OPEN")));
+        List<String> warnings = new ArrayList<>();
+
+        Map<String, Object> progress = renderer.render(sections.get(0), data, warnings);
+        Map<String, Object> issues = renderer.render(sections.get(1), data, warnings);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> metrics = (Map<String, Object>) progress.get("metrics");
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> rows = (List<Map<String, Object>>) issues.get("rows");
+
+        assertThat(metrics).containsEntry("completion_rate", 25);
+        assertThat(rows).containsExactly(Map.of("title", "Login fails", "status", "OPEN"));
+        assertThat(warnings).isEmpty();
+    }
+}
@@ -0,0 +1,151 @@
+package com.insuretech.pms.rfp.service;
+
+import com.insuretech.pms.common.cache.ProjectCaches;
+import com.insuretech.pms.common.exception.CustomException;
+import com.insuretech.pms.rfp.reactive.entity.R2dbcRfp;
+import com.insuretech.pms.rfp.reactive.repository.ReactiveDocumentChunkRepository;
+import com.insuretech.pms.rfp.reactive.repository.ReactiveRfpRepository;
+import com.insuretech.pms.rfp.reactive.repository.ReactiveRequirementRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.multipart.FilePart;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("ReactiveRfpService Tests")
+class ReactiveRfpServiceTest {
+
+    private static final String PROJECT_ID = "proj-001";
+
+    @TempDir
+    Path uploadRoot;
+
+    private ReactiveRfpRepository rfpRepository;
+    private ProjectCaches projectCaches;
+    private ReactiveRfpService service;
+
+    @BeforeEach
+    void setUp() {
+        rfpRepository = mock(ReactiveRfpRepository.class);
+        ReactiveRequirementRepository requirementRepository = mock(ReactiveRequirementRepository.class);
+        projectCaches = mock(ProjectCaches.class);
+
+        when(rfpRepository.save(any(R2dbcRfp.class))).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+        when(requirementRepository.countByProjectId(anyString())).thenReturn(Mono.just(0L));
+
+        service = new ReactiveRfpService(rfpRepository, requirementRepository,
+                mock(ReactiveDocumentChunkRepository.class), projectCaches, WebClient.builder());
+        ReflectionTestUtils.setField(service, "uploadRoot", uploadRoot.toString());
+        ReflectionTestUtils.setField(service, "maxUploadSize", 16L);
+        ReflectionTestUtils.setField(service, "inlineContentMaxBytes", 1024L);
+    }
+
+    @Nested
+    @DisplayName("uploadRfp")
+    class UploadRfp {
+
+        @Test
+        @DisplayName("should move the streamed file into place and record its size and SHA-256")
+        void shouldStoreFileWithChecksum() throws Exception {
+            FilePart file = filePart("spec.pdf", Flux.just(buffer("0123456"), buffer("789")));
+
+            StepVerifier.create(service.uploadRfp(PROJECT_ID, file, null))
+                    .assertNext(dto -> assertThat(dto.getFileSize()).isEqualTo(10L))
+                    .verifyComplete();
+
+            ArgumentCaptor<R2dbcRfp> saved = ArgumentCaptor.forClass(R2dbcRfp.class);
+            verify(rfpRepository).save(saved.capture());
+            Path stored = Path.of(saved.getValue().getFilePath());
+            assertThat(stored.getFileName().toString()).endsWith("-spec.pdf");
+            assertThat(Files.readString(stored)).isEqualTo("0123456789");
+            assertThat(saved.getValue().getChecksum()).isEqualTo(sha256("0123456789"));
+            assertThat(saved.getValue().getTitle()).isEqualTo("spec");
+            assertThat(storedFiles()).containsExactly(stored);
+            verify(projectCaches).invalidateProject(PROJECT_ID);
+        }
+
+        @Test
+        @DisplayName("should reject an upload over the size limit and remove the partial file")
+        void shouldRejectOversizedUpload() throws IOException {
+            FilePart file = filePart("spec.pdf", Flux.just(buffer("0123456789"), buffer("0123456789")));
+
+            StepVerifier.create(service.uploadRfp(PROJECT_ID, file, "Spec"))
+                    .expectErrorSatisfies(e -> assertThat(e)
+                            .isInstanceOfSatisfying(CustomException.class,
+                                    ce -> assertThat(ce.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST)))
+                    .verify();
+
+            assertThat(storedFiles()).isEmpty();
+            verify(rfpRepository, never()).save(any(R2dbcRfp.class));
+        }
+
+        @Test
+        @DisplayName("should leave no file behind when the upload stream fails")
+        void shouldCleanUpFailedWrite() throws IOException {
+            FilePart file = filePart("spec.pdf",
+                    Flux.concat(Flux.just(buffer("01234")), Flux.error(new IOException("connection reset"))));
+
+            StepVerifier.create(service.uploadRfp(PROJECT_ID, file, "Spec"))
+                    .expectErrorSatisfies(e -> assertThat(e)
+                            .isInstanceOfSatisfying(CustomException.class,
+                                    ce -> assertThat(ce.getStatus()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR)))
+                    .verify();
+
+            assertThat(storedFiles()).isEmpty();
+            verify(rfpRepository, never()).save(any(R2dbcRfp.class));
+        }
+    }
+
+    private List<Path> storedFiles() throws IOException {
+        Path projectDir = uploadRoot.resolve(PROJECT_ID);
+        if (!Files.exists(projectDir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(projectDir)) {
+            return files.toList();
+        }
+    }
+
+    private static FilePart filePart(String name, Flux<DataBuffer> content) {
+        FilePart file = mock(FilePart.class);
+        when(file.filename()).thenReturn(name);
+        when(file.content()).thenReturn(content);
+        return file;
+    }
+
+    private static DataBuffer buffer(String text) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256(String text) throws Exception {
+        return HexFormat.of().formatHex(
+                MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,215 @@
+package com.insuretech.pms.task.service;
+
+import com.insuretech.pms.common.cache.ProjectCaches;
+import com.insuretech.pms.common.event.ProjectEventBus;
+import com.insuretech.pms.common.event.ProjectEventBusFactory;
+import com.insuretech.pms.pmo.service.PortfolioHealthStore;
+import com.insuretech.pms.support.R2dbcTestDataFactory;
+import com.insuretech.pms.task.dto.TaskDto;
+import com.insuretech.pms.task.dto.TaskMoveRequest;
+import com.insuretech.pms.task.reactive.entity.R2dbcKanbanColumn;
+import com.insuretech.pms.task.reactive.entity.R2dbcTask;
+import com.insuretech.pms.task.reactive.repository.ReactiveKanbanColumnRepository;
+import com.insuretech.pms.task.reactive.repository.ReactiveTaskRepository;
+import com.insuretech.pms.task.service.ReactiveKanbanService.TaskEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReactiveKanbanService Tests")
+class ReactiveKanbanServiceTest {
+
+    @Mock
+    private ReactiveTaskRepository taskRepository;
+
+    @Mock
+    private ReactiveKanbanColumnRepository columnRepository;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Mock
+    private ProjectEventBusFactory eventBusFactory;
+
+    @Mock
+    private ProjectEventBus<TaskEvent> taskEventBus;
+
+    @Mock
+    private PortfolioHealthStore portfolioHealthStore;
+
+    @Mock
+    private ProjectCaches projectCaches;
+
+    @InjectMocks
+    private ReactiveKanbanService kanbanService;
+
+    private String projectId;
+    private R2dbcKanbanColumn todoColumn;
+    private R2dbcKanbanColumn doneColumn;
+    private R2dbcTask task;
+
+    @BeforeEach
+    void setUp() {
+        R2dbcTestDataFactory.resetCounter();
+        projectId = R2dbcTestDataFactory.defaultProject().getId();
+        todoColumn = R2dbcTestDataFactory.defaultKanbanColumn(projectId);
+        doneColumn = R2dbcTestDataFactory.kanbanColumn().projectId(projectId).build();
+        task = R2dbcTestDataFactory.defaultTask(todoColumn.getId());
+        task.setProjectId(projectId);
+
+        when(eventBusFactory.create(eq("kanban"), eq(TaskEvent.class), any(), any())).thenReturn(taskEventBus);
+        kanbanService.init();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void passThroughTransactions() {
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @Nested
+    @DisplayName("createTask")
+    class CreateTask {
+
+        @Test
+        @DisplayName("should store the project id on the task and mark the project changed")
+        void shouldSetProjectId() {
+            passThroughTransactions();
+            when(columnRepository.findByProjectIdOrderByOrderNumAsc(projectId)).thenReturn(Flux.just(todoColumn));
+            when(taskRepository.save(any(R2dbcTask.class))).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+
+            StepVerifier.create(kanbanService.createTask(projectId, TaskDto.builder().title("New task").build()))
+                    .expectNextCount(1)
+                    .verifyComplete();
+
+            ArgumentCaptor<R2dbcTask> saved = ArgumentCaptor.forClass(R2dbcTask.class);
+            verify(taskRepository).save(saved.capture());
+            assertThat(saved.getValue().getProjectId()).isEqualTo(projectId);
+            verify(portfolioHealthStore).markDirty(projectId);
+            verify(projectCaches).invalidateProject(projectId);
+        }
+    }
+
+    @Nested
+    @DisplayName("moveTask")
+    class MoveTask {
+
+        @Test
+        @DisplayName("should not block when run on a non-blocking thread")
+        void shouldNotBlockOnEventLoop() {
+            passThroughTransactions();
+            when(taskRepository.findById(task.getId())).thenReturn(Mono.just(task));
+            when(taskRepository.save(any(R2dbcTask.class))).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+            when(columnRepository.findById(doneColumn.getId())).thenReturn(Mono.just(doneColumn));
+
+            Mono<TaskDto> move = kanbanService
+                    .moveTask(task.getId(), new TaskMoveRequest(doneColumn.getId(), 0))
+                    .subscribeOn(Schedulers.parallel());
+
+            StepVerifier.create(move)
+                    .assertNext(dto -> {
+                        assertThat(dto.getColumnId()).isEqualTo(doneColumn.getId());
+                        assertThat(dto.getPreviousColumnId()).isEqualTo(todoColumn.getId());
+                    })
+                    .verifyComplete();
+
+            ArgumentCaptor<TaskEvent> event = ArgumentCaptor.forClass(TaskEvent.class);
+            verify(taskEventBus).publish(eq(projectId), event.capture());
+            assertThat(event.getValue().getEventType()).isEqualTo("MOVED");
+            verify(projectCaches).invalidateProject(projectId);
+        }
+
+        @Test
+        @DisplayName("should resolve project from columns loaded by the board")
+        void shouldUseColumnsWarmedByBoard() {
+            passThroughTransactions();
+            when(columnRepository.findByProjectIdOrderByOrderNumAsc(projectId))
+                    .thenReturn(Flux.just(todoColumn, doneColumn));
+            when(taskRepository.findByColumnIdOrderByOrderNumAsc(any())).thenReturn(Flux.empty());
+            when(taskRepository.findById(task.getId())).thenReturn(Mono.just(task));
+            when(taskRepository.save(any(R2dbcTask.class))).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+
+            StepVerifier.create(kanbanService.getKanbanBoard(projectId))
+                    .expectNextCount(1)
+                    .verifyComplete();
+            StepVerifier.create(kanbanService.moveTask(task.getId(), new TaskMoveRequest(doneColumn.getId(), 0)))
+                    .expectNextCount(1)
+                    .verifyComplete();
+
+            verify(columnRepository, never()).findById(any(String.class));
+            verify(taskEventBus).publish(eq(projectId), any(TaskEvent.class));
+        }
+
+        @Test
+        @DisplayName("should not mark the project changed when the transaction fails")
+        @SuppressWarnings("unchecked")
+        void shouldNotMarkChangedBeforeCommit() {
+            when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(inv ->
+                    ((Mono<Object>) inv.getArgument(0)).then(Mono.error(new IllegalStateException("commit failed"))));
+            when(taskRepository.findById(task.getId())).thenReturn(Mono.just(task));
+            when(taskRepository.save(any(R2dbcTask.class))).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+
+            StepVerifier.create(kanbanService.moveTask(task.getId(), new TaskMoveRequest(doneColumn.getId(), 0)))
+                    .verifyError(IllegalStateException.class);
+
+            verifyNoInteractions(portfolioHealthStore, projectCaches, taskEventBus);
+        }
+    }
+
+    @Nested
+    @DisplayName("updateTask")
+    class UpdateTask {
+
+        @Test
+        @DisplayName("should resolve the project through the column when the task has none")
+        void shouldResolveProjectThroughColumn() {
+            passThroughTransactions();
+            task.setProjectId(null);
+            when(taskRepository.findById(task.getId())).thenReturn(Mono.just(task));
+            when(taskRepository.save(any(R2dbcTask.class))).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+            when(columnRepository.findById(todoColumn.getId())).thenReturn(Mono.just(todoColumn));
+
+            StepVerifier.create(kanbanService.updateTask(task.getId(), TaskDto.builder().title("Renamed").build()))
+                    .expectNextCount(1)
+                    .verifyComplete();
+
+            verify(portfolioHealthStore).markDirty(projectId);
+            verify(projectCaches).invalidateProject(projectId);
+            verify(taskEventBus).publish(eq(projectId), argThat(e -> "UPDATED".equals(e.getEventType())));
+        }
+    }
+
+    @Nested
+    @DisplayName("deleteTask")
+    class DeleteTask {
+
+        @Test
+        @DisplayName("should emit delete event without blocking")
+        void shouldEmitDeleteWithoutBlocking() {
+            when(taskRepository.findById(task.getId())).thenReturn(Mono.just(task));
+            when(taskRepository.delete(task)).thenReturn(Mono.empty());
+            when(columnRepository.findById(todoColumn.getId())).thenReturn(Mono.just(todoColumn));
+
+            StepVerifier.create(kanbanService.deleteTask(task.getId()).subscribeOn(Schedulers.parallel()))
+                    .verifyComplete();
+
+            verify(taskEventBus).publish(eq(projectId), argThat(e -> "DELETED".equals(e.getEventType())));
+        }
+    }
+}
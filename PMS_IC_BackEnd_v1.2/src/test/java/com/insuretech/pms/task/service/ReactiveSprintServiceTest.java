@@ -1,8 +1,10 @@
 package com.insuretech.pms.task.service;
 
+import com.insuretech.pms.common.cache.ProjectCaches;
 import com.insuretech.pms.common.exception.CustomException;
 import com.insuretech.pms.project.reactive.entity.R2dbcProject;
 import com.insuretech.pms.project.reactive.repository.ReactiveProjectRepository;
+import com.insuretech.pms.project.reactive.service.DashboardAggregateStore;
 import com.insuretech.pms.support.R2dbcTestDataFactory;
 import com.insuretech.pms.task.dto.SprintDto;
 import com.insuretech.pms.task.reactive.entity.R2dbcSprint;
@@ -36,6 +38,12 @@ class ReactiveSprintServiceTest {
     @Mock
     private ReactiveProjectRepository projectRepository;
 
+    @Mock
+    private DashboardAggregateStore dashboardAggregateStore;
+
+    @Mock
+    private ProjectCaches projectCaches;
+
     @InjectMocks
     private ReactiveSprintService sprintService;
 
@@ -290,6 +298,8 @@ class ReactiveSprintServiceTest {
                         assertThat(dto.getStatus()).isEqualTo("ACTIVE");
                     })
                     .verifyComplete();
+
+            verify(dashboardAggregateStore).markDirty(projectId, DashboardAggregateStore.SPRINT_SECTIONS);
         }
 
         @Test
@@ -323,6 +333,8 @@ class ReactiveSprintServiceTest {
                         assertThat(dto.getStatus()).isEqualTo("COMPLETED");
                     })
                     .verifyComplete();
+
+            verify(dashboardAggregateStore).markDirty(projectId, DashboardAggregateStore.SPRINT_SECTIONS);
         }
     }
 
@@ -1,8 +1,10 @@
 package com.insuretech.pms.task.service;
 
+import com.insuretech.pms.common.cache.ProjectCaches;
 import com.insuretech.pms.common.exception.CustomException;
 import com.insuretech.pms.project.reactive.entity.R2dbcProject;
 import com.insuretech.pms.project.reactive.repository.ReactiveProjectRepository;
+import com.insuretech.pms.project.reactive.service.DashboardAggregateStore;
 import com.insuretech.pms.support.R2dbcTestDataFactory;
 import com.insuretech.pms.task.dto.CreateUserStoryRequest;
 import com.insuretech.pms.task.dto.UpdateUserStoryRequest;
@@ -35,6 +37,12 @@ class ReactiveUserStoryServiceTest {
     @Mock
     private ReactiveProjectRepository projectRepository;
 
+    @Mock
+    private DashboardAggregateStore dashboardAggregateStore;
+
+    @Mock
+    private ProjectCaches projectCaches;
+
     @InjectMocks
     private ReactiveUserStoryService userStoryService;
 
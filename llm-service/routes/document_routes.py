@@ -41,6 +41,77 @@ def add_documents():
         return jsonify({"error": str(e)}), 500
 
 
+@document_bp.route("/api/documents/<doc_id>/segments", methods=["POST"])
+def append_document_segment(doc_id):
+    """
+    Append one segment of a large document.
+
+    Request body:
+    {
+        "content": "segment text",
+        "metadata": {...},
+        "chunk_offset": 0
+    }
+
+    Segments must be posted one at a time, in order; each call returns the
+    chunk_offset to send with the next segment.
+    """
+    try:
+        data = request.json or {}
+        content = data.get("content", "")
+        if not content:
+            return jsonify({"error": "Content is required"}), 400
+
+        model_service = get_model_service()
+        _, rag, _ = model_service.load_model()
+        if not rag:
+            return jsonify({"error": "RAG service not available"}), 503
+
+        chunk_offset = int(data.get("chunk_offset", 0))
+        chunk_count = rag.append_segment(doc_id, content, data.get("metadata"), chunk_offset)
+        if chunk_count is None:
+            return jsonify({"error": f"Failed to index segment of {doc_id}"}), 500
+
+        return jsonify({
+            "chunk_count": chunk_count,
+            "next_chunk_offset": chunk_offset + chunk_count
+        })
+
+    except Exception as e:
+        logger.error(f"Error appending document segment: {e}", exc_info=True)
+        return jsonify({"error": str(e)}), 500
+
+
+@document_bp.route("/api/documents/<doc_id>/promote", methods=["POST"])
+def promote_document(doc_id):
+    """
+    Replace a document with a fully indexed staging document.
+
+    Request body:
+    {
+        "target_id": "doc-123"
+    }
+    """
+    try:
+        data = request.json or {}
+        target_id = data.get("target_id")
+        if not target_id:
+            return jsonify({"error": "target_id is required"}), 400
+
+        model_service = get_model_service()
+        _, rag, _ = model_service.load_model()
+        if not rag:
+            return jsonify({"error": "RAG service not available"}), 503
+
+        if rag.promote_document(doc_id, target_id):
+            return jsonify({"message": f"Document {doc_id} promoted to {target_id}"})
+        return jsonify({"error": f"Staging document {doc_id} not found"}), 404
+
+    except Exception as e:
+        logger.error(f"Error promoting document: {e}", exc_info=True)
+        return jsonify({"error": str(e)}), 500
+
+
 @document_bp.route("/api/documents/<doc_id>", methods=["GET"])
 def get_document(doc_id):
     """
@@ -237,6 +237,67 @@ class RAGServiceNeo4j:
 
     def add_document(self, document: Dict[str, str]) -> bool:
         """단일 문서를 Neo4j 그래프 + 벡터로 추가 (프로젝트 파티셔닝 + 권한 제어 지원)"""
+        return self._write_document(document, chunk_offset=0) is not None
+
+    def append_segment(self, doc_id: str, content: str, metadata: Optional[Dict],
+                       chunk_offset: int) -> Optional[int]:
+        """
+        Append one segment of a large document.
+
+        Chunks are numbered from chunk_offset, so segments posted in order form one
+        continuous NEXT_CHUNK sequence. The caller posts segments one at a time and
+        passes the offset returned for the previous one.
+
+        Returns:
+            Number of chunks written, or None on failure
+        """
+        return self._write_document(
+            {"id": doc_id, "content": content, "metadata": metadata or {}},
+            chunk_offset=max(0, int(chunk_offset)),
+        )
+
+    def promote_document(self, staging_id: str, target_id: str) -> bool:
+        """
+        Replace target_id with a fully indexed staging document in one transaction.
+
+        Re-indexing writes the new version under a staging id and promotes it only
+        once every segment is in, so a failed re-index never leaves a partial document.
+        """
+        def promote(tx):
+            staged = tx.run(
+                "MATCH (s:Document {doc_id: $staging_id}) RETURN count(s) AS n",
+                staging_id=staging_id,
+            ).single()["n"]
+            if staged == 0:
+                return False
+            tx.run("""
+                MATCH (old:Document {doc_id: $target_id})
+                OPTIONAL MATCH (old)-[:HAS_CHUNK]->(c:Chunk)
+                DETACH DELETE old, c
+            """, target_id=target_id)
+            tx.run("""
+                MATCH (s:Document {doc_id: $staging_id})
+                SET s.doc_id = $target_id
+                WITH s
+                OPTIONAL MATCH (s)-[:HAS_CHUNK]->(c:Chunk)
+                SET c.doc_id = $target_id
+            """, staging_id=staging_id, target_id=target_id)
+            return True
+
+        try:
+            with self.driver.session() as session:
+                promoted = session.execute_write(promote)
+            if promoted:
+                logger.info(f"✅ Promoted document {staging_id} to {target_id}")
+            else:
+                logger.warning(f"Staging document {staging_id} not found")
+            return promoted
+        except Exception as e:
+            logger.error(f"Failed to promote document {staging_id}: {e}", exc_info=True)
+            return False
+
+    def _write_document(self, document: Dict[str, str], chunk_offset: int) -> Optional[int]:
+        """Write a document (or one segment of it) and return the number of chunks written."""
         try:
             doc_id = document.get("id")
             content = document.get("content", "")
@@ -244,7 +305,7 @@ class RAGServiceNeo4j:
 
             if not doc_id or not content:
                 logger.error("Document must have 'id' and 'content'")
-                return False
+                return None
 
             title = metadata.get("title") or metadata.get("file_name") or doc_id
             category = metadata.get("category", "general")
@@ -278,7 +339,8 @@ class RAGServiceNeo4j:
                 session.run("""
                     MERGE (d:Document {doc_id: $doc_id})
                     SET d.title = $title,
-                        d.content = $content,
+                        d.content = CASE WHEN $chunk_offset = 0 OR d.content IS NULL
+                                         THEN $content ELSE d.content END,
                         d.file_type = $file_type,
                         d.file_path = $file_path,
                         d.created_at = $created_at,
@@ -287,6 +349,7 @@ class RAGServiceNeo4j:
                         d.uploaded_by_role = $uploaded_by_role,
                         d.access_level = $access_level
                 """, doc_id=doc_id, title=title, content=content[:1000],
+                           chunk_offset=chunk_offset,
                            file_type=file_type,
                            file_path=metadata.get("file_path", ""),
                            created_at=metadata.get("created_at", ""),
@@ -344,7 +407,7 @@ class RAGServiceNeo4j:
                             c.access_level = $access_level,
                             c.part_id = $part_id
                     """, chunk_id=chunk_id, content=chunk_content,
-                               chunk_index=i, title=title, doc_id=doc_id,
+                               chunk_index=chunk_offset + i, title=title, doc_id=doc_id,
                                structure_type=chunk_metadata.get("structure_type", "paragraph"),
                                has_table=bool(chunk_metadata.get("has_table", False)),
                                has_list=bool(chunk_metadata.get("has_list", False)),
@@ -365,22 +428,24 @@ class RAGServiceNeo4j:
                     chunk_ids.append(chunk_id)
 
                 # 4. 순차 청크 간 NEXT_CHUNK 관계 생성
-                if len(chunk_ids) > 1:
+                # An appended segment also links the previous segment's last chunk
+                if chunk_ids and (len(chunk_ids) > 1 or chunk_offset > 0):
                     session.run("""
                         MATCH (d:Document {doc_id: $doc_id})-[:HAS_CHUNK]->(c:Chunk)
+                        WHERE c.chunk_index >= $from_index
                         WITH c ORDER BY c.chunk_index
                         WITH collect(c) AS chunks
                         UNWIND range(0, size(chunks)-2) AS i
                         WITH chunks[i] AS curr, chunks[i+1] AS next
                         MERGE (curr)-[:NEXT_CHUNK]->(next)
-                    """, doc_id=doc_id)
+                    """, doc_id=doc_id, from_index=max(0, chunk_offset - 1))
 
             logger.info(f"✅ Added document {doc_id} with {len(chunks)} chunks to Neo4j")
-            return True
+            return len(chunks)
 
         except Exception as e:
             logger.error(f"Failed to add document to Neo4j: {e}", exc_info=True)
-            return False
+            return None
 
     def search(
         self,